@@ -0,0 +1,77 @@
+package com.termux.benchmarks;
+
+import com.termux.models.DownloadLink;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preparação de downloads em lote: links dos detalhes do jogo e o JSON salvo em download_batches
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DownloadLinkBenchmark {
+    
+    /** Idiomas por plataforma; 3 plataformas x 2 arquivos cada */
+    @Param({"1", "10"})
+    public int languages;
+    
+    private JSONObject[] files;
+    private List<DownloadLink> links;
+    private String serialized;
+    
+    @Setup
+    public void setUp() throws JSONException {
+        JSONObject details = new JSONObject(LibraryFixtures.productDetailsJson(1207658000L, languages, 2, 7));
+        JSONArray installers = details.getJSONObject("downloads").getJSONArray("installers");
+        
+        List<JSONObject> fileList = new ArrayList<>();
+        for (int i = 0; i < installers.length(); i++) {
+            JSONArray installerFiles = installers.getJSONObject(i).getJSONArray("files");
+            for (int j = 0; j < installerFiles.length(); j++) {
+                fileList.add(installerFiles.getJSONObject(j));
+            }
+        }
+        files = fileList.toArray(new JSONObject[0]);
+        
+        links = new ArrayList<>();
+        for (JSONObject file : files) {
+            DownloadLink link = DownloadLink.fromJson(file);
+            link.setName(details.getString("title"));
+            links.add(link);
+        }
+        serialized = DownloadLink.serializeList(links);
+    }
+    
+    @Benchmark
+    public void fromJson(Blackhole blackhole) throws JSONException {
+        for (JSONObject file : files) {
+            blackhole.consume(DownloadLink.fromJson(file));
+        }
+    }
+    
+    @Benchmark
+    public String serializeList() {
+        return DownloadLink.serializeList(links);
+    }
+    
+    @Benchmark
+    public List<DownloadLink> deserializeList() {
+        return DownloadLink.deserializeList(serialized);
+    }
+}
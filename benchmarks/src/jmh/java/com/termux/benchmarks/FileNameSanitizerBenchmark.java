@@ -0,0 +1,47 @@
+package com.termux.benchmarks;
+
+import com.termux.utils.FileNameSanitizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limpeza de nomes de pastas/arquivos: padrões pré-compilados contra o replaceAll antigo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileNameSanitizerBenchmark {
+    
+    private String[] names;
+    
+    @Setup
+    public void setUp() {
+        names = LibraryFixtures.fileNames(300, 11);
+    }
+    
+    @Benchmark
+    public void precompiled(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(FileNameSanitizer.sanitize(name));
+        }
+    }
+    
+    @Benchmark
+    public void legacyReplaceAll(Blackhole blackhole) {
+        for (String name : names) {
+            // Implementação anterior do SAFDownloadManager.sanitizeFileName
+            blackhole.consume(name.replaceAll("[^a-zA-Z0-9._\\-\\s]", "_")
+                    .replaceAll("\\s+", "_")
+                    .replaceAll("_{2,}", "_"));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.termux.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Gera JSONs no formato real da API do GOG para os benchmarks
+ * Determinístico: a mesma semente produz sempre o mesmo texto
+ */
+public final class LibraryFixtures {
+    
+    private static final String[] WORDS = {
+            "Witcher", "Baldur's", "Gate", "Cyberpunk", "Divinity", "Original", "Sin", "Disco",
+            "Elysium", "Pillars", "Eternity", "Heroes", "Might", "Magic", "Fallout", "Tactics",
+            "Shadow", "Empire", "Chronicles", "Legend", "Dark", "Age", "Planescape", "Torment",
+            "Édition", "Spéciale", "Über", "Ω", "Kingdom", "Come", "Deliverance", "Stalker"
+    };
+    
+    private static final String[] GENRES = { "Action", "Adventure", "RPG", "Strategy", "Simulation", "Indie" };
+    
+    private LibraryFixtures() {
+    }
+    
+    /**
+     * Resposta de account/getFilteredProducts com todos os jogos em uma página
+     */
+    public static String libraryJson(int gameCount, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(gameCount * 900);
+        json.append("{\"sortBy\":\"title\",\"page\":1,\"totalProducts\":").append(gameCount)
+            .append(",\"totalPages\":1,\"productsPerPage\":").append(gameCount)
+            .append(",\"contentSystemCompatibility\":null,\"moviesCount\":0,\"tags\":[],\"products\":[");
+        for (int i = 0; i < gameCount; i++) {
+            if (i > 0) json.append(',');
+            appendProduct(json, 1207658000L + i, random);
+        }
+        json.append("],\"updatedProductsCount\":0,\"hiddenUpdatedProductsCount\":0,\"appliedFilters\":{\"tags\":null},\"hasHiddenProducts\":false}");
+        return json.toString();
+    }
+    
+    private static void appendProduct(StringBuilder json, long id, Random random) {
+        String title = title(random);
+        String slug = title.toLowerCase().replaceAll("[^a-z0-9]+", "_");
+        json.append("{\"isGalaxyCompatible\":").append(random.nextBoolean())
+            .append(",\"tags\":[],\"id\":").append(id)
+            .append(",\"availability\":{\"isAvailable\":true,\"isAvailableInAccount\":true}")
+            .append(",\"title\":\"").append(escape(title)).append('"')
+            .append(",\"image\":\"//images-1.gog-statics.com/").append(Long.toHexString(id * 2654435761L)).append('"')
+            .append(",\"url\":\"/game/").append(slug).append('"')
+            .append(",\"worksOn\":{\"Windows\":true,\"Mac\":").append(random.nextBoolean())
+            .append(",\"Linux\":").append(random.nextBoolean()).append('}')
+            .append(",\"category\":\"").append(GENRES[random.nextInt(GENRES.length)]).append('"')
+            .append(",\"rating\":").append(random.nextInt(50))
+            .append(",\"isComingSoon\":false,\"isMovie\":false,\"isGame\":true")
+            .append(",\"slug\":\"").append(slug).append('"')
+            .append(",\"updates\":").append(random.nextInt(3))
+            .append(",\"isNew\":false,\"dlcCount\":").append(random.nextInt(8))
+            .append(",\"releaseDate\":{\"date\":\"20").append(10 + random.nextInt(15))
+            .append("-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10))
+            .append(" 00:00:00.000000\",\"timezone_type\":3,\"timezone\":\"Europe/Nicosia\"}")
+            .append(",\"isBaseProductMissing\":false,\"isHidingDisabled\":false,\"isInDevelopment\":false")
+            .append(",\"extraInfo\":[],\"isHidden\":false}");
+    }
+    
+    /**
+     * Resposta de products/{id}?expand=downloads com instaladores em vários idiomas e plataformas
+     */
+    public static String productDetailsJson(long id, int languages, int filesPerInstaller, long seed) {
+        Random random = new Random(seed);
+        String title = title(random);
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":").append(id)
+            .append(",\"title\":\"").append(escape(title)).append('"')
+            .append(",\"purchase_link\":\"https://www.gog.com/checkout/manual/").append(id).append('"')
+            .append(",\"slug\":\"").append(title.toLowerCase().replaceAll("[^a-z0-9]+", "_")).append('"')
+            .append(",\"content_system_compatibility\":{\"windows\":true,\"osx\":true,\"linux\":false}")
+            .append(",\"languages\":{\"en\":\"English\",\"de\":\"Deutsch\",\"pt-BR\":\"Português do Brasil\"}")
+            .append(",\"links\":{\"purchase_link\":\"https://www.gog.com/checkout/manual/").append(id).append("\"}")
+            .append(",\"in_development\":{\"active\":false,\"until\":null},\"is_secret\":false")
+            .append(",\"game_type\":\"game\",\"is_pre_order\":false,\"release_date\":\"2015-05-19T00:00:00+0300\"")
+            .append(",\"images\":{\"background\":\"//images-2.gog-statics.com/bg").append(id).append(".jpg\"")
+            .append(",\"logo\":\"//images-4.gog-statics.com/logo").append(id).append("_glx_logo.jpg\"")
+            .append(",\"logo2x\":\"//images-4.gog-statics.com/logo").append(id).append("_glx_logo_2x.jpg\"")
+            .append(",\"icon\":\"//images-4.gog-statics.com/icon").append(id).append(".png\"")
+            .append(",\"sidebarIcon\":\"//images-3.gog-statics.com/side").append(id).append("_sbicon.png\"")
+            .append(",\"sidebarIcon2x\":\"//images-3.gog-statics.com/side").append(id).append("_sbicon_2x.png\"}")
+            .append(",\"description\":{\"lead\":\"\",\"full\":\"").append(escape(title)).append(" é um RPG de fantasia sombria.\"}")
+            .append(",\"genres\":[{\"name\":\"Role-playing\",\"slug\":\"rpg\"},{\"name\":\"Fantasy\",\"slug\":\"fantasy\"}]")
+            .append(",\"downloads\":{\"installers\":[");
+        
+        String[] oses = { "windows", "mac", "linux" };
+        String[] langs = { "en", "de", "fr", "pl", "ru", "pt-BR", "es", "it", "zh", "ja" };
+        boolean first = true;
+        for (String os : oses) {
+            for (int l = 0; l < Math.min(languages, langs.length); l++) {
+                if (!first) json.append(',');
+                first = false;
+                json.append("{\"id\":\"installer_").append(os).append('_').append(langs[l]).append('"')
+                    .append(",\"name\":\"").append(escape(title)).append('"')
+                    .append(",\"os\":\"").append(os).append('"')
+                    .append(",\"language\":\"").append(langs[l]).append('"')
+                    .append(",\"language_full\":\"").append(langs[l]).append('"')
+                    .append(",\"version\":\"4.0").append(random.nextInt(9)).append('"')
+                    .append(",\"total_size\":").append((long) (random.nextDouble() * 40_000_000_000L))
+                    .append(",\"files\":[");
+                for (int f = 0; f < filesPerInstaller; f++) {
+                    if (f > 0) json.append(',');
+                    json.append("{\"id\":\"").append(langs[l]).append("1installer").append(f).append('"')
+                        .append(",\"size\":").append(4_294_967_296L + random.nextInt(1_000_000))
+                        .append(",\"downlink\":\"https://api.gog.com/products/").append(id)
+                        .append("/downlink/installer/").append(langs[l]).append("1installer").append(f).append("\"}");
+                }
+                json.append("]}");
+            }
+        }
+        json.append("],\"patches\":[],\"language_packs\":[],\"bonus_content\":[");
+        for (int b = 0; b < 6; b++) {
+            if (b > 0) json.append(',');
+            json.append("{\"id\":").append(5000 + b)
+                .append(",\"name\":\"soundtrack part ").append(b + 1).append('"')
+                .append(",\"type\":\"audio\",\"count\":1,\"total_size\":").append(200_000_000 + b)
+                .append(",\"size\":").append(200_000_000 + b)
+                .append(",\"downlink\":\"https://api.gog.com/products/").append(id)
+                .append("/downlink/product_bonus_content/").append(5000 + b).append("\"}");
+        }
+        json.append("]}}");
+        return json.toString();
+    }
+    
+    /**
+     * Nomes de jogos e arquivos variados, com acentos, espaços e símbolos
+     */
+    public static String[] fileNames(int count, long seed) {
+        Random random = new Random(seed);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0:
+                    names[i] = title(random) + ": Game of the Year Edition";
+                    break;
+                case 1:
+                    names[i] = "setup_" + title(random).toLowerCase().replace(' ', '_') + "_4.0" + i + "_(" + (60000 + i) + ").exe";
+                    break;
+                default:
+                    names[i] = "  " + title(random) + " -- Director's Cut [" + i + "]  ";
+                    break;
+            }
+        }
+        return names;
+    }
+    
+    private static String title(Random random) {
+        int words = 2 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) title.append(' ');
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            title.append(' ').append(1 + random.nextInt(3));
+        }
+        return title.toString();
+    }
+    
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
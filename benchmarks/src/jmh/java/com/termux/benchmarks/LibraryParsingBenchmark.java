@@ -0,0 +1,91 @@
+package com.termux.benchmarks;
+
+import com.termux.api.LibraryParser;
+import com.termux.models.Game;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carregamento da biblioteca: resposta de getFilteredProducts inteira e Game.fromJson por produto
+ * parseLibraryStream (caminho do app) x parseLibraryTree (String + árvore org.json, caminho antigo);
+ * comparar gc.alloc.rate.norm entre os dois
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LibraryParsingBenchmark {
+    
+    @Param({"100", "3000"})
+    public int gameCount;
+    
+    private String libraryJson;
+    private byte[] libraryBody;
+    private JSONObject[] products;
+    
+    @Setup
+    public void setUp() throws JSONException {
+        libraryJson = LibraryFixtures.libraryJson(gameCount, 42);
+        libraryBody = libraryJson.getBytes(StandardCharsets.UTF_8);
+        
+        JSONArray array = new JSONObject(libraryJson).getJSONArray("products");
+        products = new JSONObject[array.length()];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = array.getJSONObject(i);
+        }
+    }
+    
+    @Benchmark
+    public List<Game> parseLibraryResponse() throws JSONException {
+        return LibraryParser.parseLibraryResponse(libraryJson);
+    }
+    
+    @Benchmark
+    public List<Game> parseLibraryStream() throws IOException, JSONException {
+        // Como o app lê: bytes do corpo da resposta via charStream, sem String intermediária
+        return LibraryParser.parseLibraryPage(
+                new InputStreamReader(new ByteArrayInputStream(libraryBody), StandardCharsets.UTF_8)).getGames();
+    }
+    
+    @Benchmark
+    public List<Game> parseLibraryTree() throws JSONException {
+        // Referência: caminho anterior (body().string() + JSONObject + Game.fromJson)
+        JSONArray array = new JSONObject(new String(libraryBody, StandardCharsets.UTF_8)).getJSONArray("products");
+        List<Game> games = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            games.add(Game.fromJson(array.getJSONObject(i)));
+        }
+        return games;
+    }
+    
+    @Benchmark
+    public JSONObject parseJsonTreeOnly() throws JSONException {
+        // Referência: custo só do org.json, sem montar os Game
+        return new JSONObject(libraryJson);
+    }
+    
+    @Benchmark
+    public void gameFromJson(Blackhole blackhole) throws JSONException {
+        for (JSONObject product : products) {
+            blackhole.consume(Game.fromJson(product));
+        }
+    }
+}
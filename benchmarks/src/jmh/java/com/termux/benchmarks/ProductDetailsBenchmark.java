@@ -0,0 +1,72 @@
+package com.termux.benchmarks;
+
+import com.termux.api.LibraryParser;
+import com.termux.models.DownloadLink;
+import com.termux.models.Game;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detalhes do produto com downloads: leitura em streaming x árvore org.json do caminho antigo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductDetailsBenchmark {
+    
+    /** Idiomas por plataforma; 3 plataformas x 2 arquivos cada */
+    @Param({"1", "10"})
+    public int languages;
+    
+    private byte[] detailsBody;
+    
+    @Setup
+    public void setUp() {
+        detailsBody = LibraryFixtures.productDetailsJson(1207658000L, languages, 2, 7)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Benchmark
+    public LibraryParser.ProductDetails parseDetailsStream() throws IOException, JSONException {
+        return LibraryParser.parseProductDetails(
+                new InputStreamReader(new ByteArrayInputStream(detailsBody), StandardCharsets.UTF_8));
+    }
+    
+    @Benchmark
+    public List<DownloadLink> parseDetailsTree() throws JSONException {
+        // Referência: body().string() + JSONObject + Game.fromJson + arquivos dos instaladores
+        JSONObject details = new JSONObject(new String(detailsBody, StandardCharsets.UTF_8));
+        Game game = Game.fromJson(details);
+        List<DownloadLink> links = new ArrayList<>();
+        JSONArray installers = details.getJSONObject("downloads").getJSONArray("installers");
+        for (int i = 0; i < installers.length(); i++) {
+            JSONObject installer = installers.getJSONObject(i);
+            JSONArray files = installer.getJSONArray("files");
+            for (int j = 0; j < files.length(); j++) {
+                DownloadLink link = DownloadLink.fromJson(files.getJSONObject(j));
+                link.setName(installer.optString("name", "Unknown"));
+                links.add(link);
+            }
+        }
+        game.setDownloadLinks(links);
+        return links;
+    }
+}
@@ -0,0 +1,19 @@
+package android.util;
+
+/**
+ * Stub de android.util.Log para rodar classes do app na JVM; descarta as mensagens
+ */
+public final class Log {
+    
+    private Log() {
+    }
+    
+    public static int v(String tag, String msg) { return 0; }
+    public static int d(String tag, String msg) { return 0; }
+    public static int i(String tag, String msg) { return 0; }
+    public static int w(String tag, String msg) { return 0; }
+    public static int w(String tag, String msg, Throwable tr) { return 0; }
+    public static int w(String tag, Throwable tr) { return 0; }
+    public static int e(String tag, String msg) { return 0; }
+    public static int e(String tag, String msg, Throwable tr) { return 0; }
+}
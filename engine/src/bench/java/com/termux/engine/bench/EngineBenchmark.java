@@ -0,0 +1,121 @@
+package com.termux.engine.bench;
+
+import com.termux.engine.DownloadEngine;
+import com.termux.engine.DownloadJob;
+import com.termux.engine.FileStorage;
+import com.termux.engine.InMemoryJournal;
+import com.termux.engine.RetryPolicy;
+import com.termux.engine.TransferStats;
+import com.termux.engine.UrlSource;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark de throughput do motor de download na JVM
+ *
+ * Uso: ./gradlew :engine:bench [--args="tamanhoMB repetições"]
+ * Mede o caminho de cópia (buffer, progresso, gravação) para 1 e N conexões
+ * e confere a integridade byte a byte do arquivo gerado.
+ */
+public class EngineBenchmark {
+    
+    private static final int[] CONNECTIONS = { 1, 2, 4 };
+    private static final int[] BUFFER_SIZES = { 64 * 1024, 256 * 1024 };
+    
+    public static void main(String[] args) throws IOException {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        
+        File workDir = new File(System.getProperty("java.io.tmpdir"), "engine-bench");
+        if (!workDir.exists() && !workDir.mkdirs()) {
+            throw new IOException("Não foi possível criar " + workDir);
+        }
+        
+        System.out.println("Download engine benchmark: " + sizeMb + " MB, " + repetitions + " repetitions");
+        System.out.println(String.format("%-12s %-10s %12s %12s %10s", "connections", "buffer", "best MB/s", "median MB/s", "requests"));
+        
+        for (int bufferSize : BUFFER_SIZES) {
+            for (int connections : CONNECTIONS) {
+                runCase(content, workDir, connections, bufferSize, repetitions);
+            }
+        }
+    }
+    
+    private static void runCase(byte[] content, File workDir, int connections, int bufferSize,
+                                int repetitions) throws IOException {
+        double[] speeds = new double[repetitions];
+        int requests = 0;
+        
+        // Aquecimento do JIT
+        runOnce(content, workDir, connections, bufferSize);
+        
+        for (int i = 0; i < repetitions; i++) {
+            InMemoryTransport transport = new InMemoryTransport(content);
+            TransferStats stats = runOnce(content, workDir, connections, bufferSize, transport);
+            speeds[i] = stats.getElapsedMs() > 0
+                    ? (content.length / (1024.0 * 1024.0)) / (stats.getElapsedMs() / 1000.0)
+                    : Double.POSITIVE_INFINITY;
+            requests = transport.getRequestCount();
+        }
+        
+        Arrays.sort(speeds);
+        System.out.println(String.format("%-12d %-10s %12.1f %12.1f %10d",
+                connections, (bufferSize / 1024) + "KB", speeds[speeds.length - 1],
+                speeds[speeds.length / 2], requests));
+    }
+    
+    private static TransferStats runOnce(byte[] content, File workDir, int connections, int bufferSize) throws IOException {
+        return runOnce(content, workDir, connections, bufferSize, new InMemoryTransport(content));
+    }
+    
+    private static TransferStats runOnce(byte[] content, File workDir, int connections, int bufferSize,
+                                         InMemoryTransport transport) throws IOException {
+        File output = new File(workDir, "bench-" + connections + ".bin");
+        if (output.exists() && !output.delete()) {
+            throw new IOException("Não foi possível apagar " + output);
+        }
+        
+        DownloadEngine engine = new DownloadEngine(transport, RetryPolicy.none(), bufferSize, connections, 1000);
+        engine.setJournal(new InMemoryJournal());
+        engine.setMinSegmentSize(1024 * 1024);
+        
+        DownloadJob job = new DownloadJob("bench-" + connections, UrlSource.fixed("mem://bench"), new FileStorage(output));
+        job.setExpectedSize(content.length);
+        
+        TransferStats stats = engine.download(job, null, null);
+        if (!stats.isComplete()) {
+            throw new IOException("Download incompleto: " + stats);
+        }
+        verify(content, output);
+        output.delete();
+        return stats;
+    }
+    
+    private static void verify(byte[] expected, File file) throws IOException {
+        if (file.length() != expected.length) {
+            throw new IOException("Tamanho incorreto: " + file.length() + " != " + expected.length);
+        }
+        
+        byte[] buffer = new byte[1024 * 1024];
+        int position = 0;
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != expected[position + i]) {
+                        throw new IOException("Conteúdo diverge no byte " + (position + i));
+                    }
+                }
+                position += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,716 @@
+package com.termux.engine.bench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor local que imita a API e a CDN do GOG
+ *
+ * Serve os mesmos formatos de JSON que o GOGLibraryManager interpreta
+ * (user/data/games, getFilteredProducts, products/{id}?expand=downloads e downlink)
+ * e arquivos sintéticos grandes com Range, ETag e If-Range.
+ * Latência, banda, erros 5xx, resets, truncamentos, travamentos e expiração de links
+ * são configuráveis.
+ *
+ * Implementado direto sobre ServerSocket para poder derrubar conexões com RST.
+ *
+ * Uso: ./gradlew :engine:fakeServer [--args="porta"]
+ */
+public class FakeGogServer {
+
+    private static final String TAG = "FakeGogServer";
+
+    /**
+     * Parâmetros do servidor; todos podem ser alterados com o servidor rodando
+     */
+    public static class Config {
+        public volatile int gameCount = 150;
+        public volatile int pageSize = 50;
+        public volatile int filesPerGame = 2;
+        public volatile long fileSize = 64L * 1024 * 1024;
+
+        /** Atraso antes de cada resposta */
+        public volatile long latencyMs = 0;
+        /** Banda por conexão em bytes/s (0 = ilimitada) */
+        public volatile long bandwidthBytesPerSec = 0;
+        /** Probabilidade de responder 503 com Retry-After */
+        public volatile double errorRate = 0;
+        /** Falhas esperadas por MiB enviado pela CDN: conexão derrubada com RST */
+        public volatile double resetRate = 0;
+        /** Falhas esperadas por MiB: conexão fechada normalmente antes do fim do Content-Length */
+        public volatile double truncateRate = 0;
+        /** Falhas esperadas por MiB: envio parado por stallMs */
+        public volatile double stallRate = 0;
+        public volatile long stallMs = 0;
+        /** Validade dos links de CDN (0 = não expiram) */
+        public volatile long linkTtlMs = 0;
+        /** Quando false, ignora Range e sempre responde 200 com o arquivo inteiro */
+        public volatile boolean rangeSupported = true;
+
+        public volatile long seed = 42;
+    }
+
+    private final Config config;
+    private final Random random;
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final List<Event> events = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private String baseUrl;
+
+    public FakeGogServer(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Inicia o servidor em 127.0.0.1
+     * @param port Porta, ou 0 para escolher uma livre
+     */
+    public void start(int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress("127.0.0.1", port));
+        executor = Executors.newCachedThreadPool();
+        baseUrl = "http://127.0.0.1:" + serverSocket.getLocalPort();
+        running = true;
+
+        Thread acceptThread = new Thread(this::acceptLoop, TAG);
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException ignored) {
+            // Já fechado
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Tipos de evento registrados na CDN, para medir tempo de recuperação
+     */
+    public enum EventType {
+        BODY_START,
+        RESET,
+        TRUNCATE,
+        STALL,
+        EXPIRED
+    }
+
+    public static class Event {
+        public final EventType type;
+        public final long timeNanos;
+        public final long offset;
+
+        Event(EventType type, long offset) {
+            this.type = type;
+            this.timeNanos = System.nanoTime();
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Cópia dos eventos da CDN em ordem cronológica
+     */
+    public List<Event> getEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    public void resetCounters() {
+        bytesServed.set(0);
+        requestCount.set(0);
+        connectionCount.set(0);
+        events.clear();
+    }
+
+    /**
+     * URL do endpoint de downlink de um arquivo, no mesmo formato do campo "downlink" dos detalhes
+     */
+    public String downlinkUrl(long gameId, String fileId) {
+        return baseUrl + "/products/" + gameId + "/downlink/installer/" + fileId;
+    }
+
+    /**
+     * URL assinada da CDN, válida por linkTtlMs a partir de agora
+     */
+    public String cdnUrl(long gameId, String fileId) {
+        long expires = config.linkTtlMs > 0 ? System.currentTimeMillis() + config.linkTtlMs : 0;
+        return baseUrl + "/cdn/" + gameId + "/" + fileId + "/setup_game_" + gameId + "_" + fileId + ".exe"
+                + "?expires=" + expires;
+    }
+
+    // ==================== HTTP ====================
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                executor.execute(() -> serveConnection(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println(TAG + ": accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Atende requisições em sequência na mesma conexão (keep-alive) até o cliente fechar
+     */
+    private void serveConnection(Socket socket) {
+        try {
+            socket.setSoTimeout(30000);
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+
+            while (running) {
+                HttpRequest request = HttpRequest.read(in);
+                if (request == null) {
+                    break;
+                }
+                requestCount.incrementAndGet();
+                if (!handle(request, out) || request.wantsClose()) {
+                    break;
+                }
+            }
+        } catch (ConnectionResetInjected e) {
+            abort(socket);
+            return;
+        } catch (ConnectionTruncateInjected e) {
+            // Fecha com FIN: o cliente vê EOF antes do Content-Length
+        } catch (IOException e) {
+            // Cliente fechou a conexão
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Já fechado
+        }
+    }
+
+    /**
+     * Fecha com RST em vez de FIN, como um reset de rede
+     */
+    private static void abort(Socket socket) {
+        try {
+            socket.setSoLinger(true, 0);
+            socket.close();
+        } catch (IOException ignored) {
+            // Já fechado
+        }
+    }
+
+    /**
+     * @return false quando a conexão não pode ser reaproveitada
+     */
+    private boolean handle(HttpRequest request, OutputStream out) throws IOException {
+        sleep(config.latencyMs);
+
+        String path = request.path;
+        String[] parts = path.split("/");
+
+        try {
+            if (!path.startsWith("/cdn/") && chance(config.errorRate)) {
+                Map<String, String> headers = new HashMap<>();
+                headers.put("Retry-After", "1");
+                sendJson(out, 503, headers, "{\"error\":\"service_unavailable\"}");
+                return true;
+            }
+
+            if ("/user/data/games".equals(path)) {
+                sendJson(out, 200, null, ownedJson());
+            } else if ("/account/getFilteredProducts".equals(path)) {
+                int page = parseInt(request.queryParam("page"), 1);
+                sendJson(out, 200, null, filteredProductsJson(page));
+            } else if (parts.length == 3 && "products".equals(parts[1])) {
+                long gameId = Long.parseLong(parts[2]);
+                if (!ownsGame(gameId)) {
+                    sendJson(out, 404, null, "{\"error\":\"not_found\"}");
+                } else {
+                    sendJson(out, 200, null, productJson(gameId));
+                }
+            } else if (parts.length == 6 && "products".equals(parts[1]) && "downlink".equals(parts[3])) {
+                long gameId = Long.parseLong(parts[2]);
+                String fileId = parts[5];
+                sendJson(out, 200, null, "{\"downlink\":\"" + cdnUrl(gameId, fileId) + "\",\"checksum\":\"\"}");
+            } else if (parts.length == 5 && "cdn".equals(parts[1])) {
+                return serveFile(request, out, Long.parseLong(parts[2]), parts[3]);
+            } else {
+                sendJson(out, 404, null, "{\"error\":\"not_found\"}");
+            }
+        } catch (NumberFormatException e) {
+            sendJson(out, 400, null, "{\"error\":\"bad_request\"}");
+        }
+        return true;
+    }
+
+    // ==================== API ====================
+
+    private boolean ownsGame(long gameId) {
+        long index = gameId - firstGameId();
+        return index >= 0 && index < config.gameCount;
+    }
+
+    private static long firstGameId() {
+        return 1207658000L;
+    }
+
+    private String ownedJson() {
+        StringBuilder json = new StringBuilder("{\"owned\":[");
+        for (int i = 0; i < config.gameCount; i++) {
+            if (i > 0) json.append(',');
+            json.append(firstGameId() + i);
+        }
+        return json.append("]}").toString();
+    }
+
+    private String filteredProductsJson(int page) {
+        int pageSize = Math.max(1, config.pageSize);
+        int totalPages = Math.max(1, (config.gameCount + pageSize - 1) / pageSize);
+        int from = (page - 1) * pageSize;
+        int to = Math.min(config.gameCount, from + pageSize);
+
+        StringBuilder json = new StringBuilder("{\"products\":[");
+        for (int i = Math.max(0, from); i < to; i++) {
+            if (i > from) json.append(',');
+            long id = firstGameId() + i;
+            json.append("{\"id\":").append(id)
+                .append(",\"title\":\"Synthetic Game ").append(i + 1).append('"')
+                .append(",\"slug\":\"synthetic_game_").append(i + 1).append('"')
+                .append(",\"image\":\"//images.gog.com/fake").append(id).append('"')
+                .append(",\"isGame\":true,\"category\":\"Action\"")
+                .append(",\"worksOn\":{\"Windows\":true,\"Mac\":").append(i % 3 == 0)
+                .append(",\"Linux\":").append(i % 2 == 0).append('}')
+                .append('}');
+        }
+        json.append("],\"page\":").append(page)
+            .append(",\"totalPages\":").append(totalPages)
+            .append(",\"totalProducts\":").append(config.gameCount)
+            .append(",\"productsPerPage\":").append(pageSize)
+            .append('}');
+        return json.toString();
+    }
+
+    private String productJson(long gameId) {
+        int index = (int) (gameId - firstGameId());
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":").append(gameId)
+            .append(",\"title\":\"Synthetic Game ").append(index + 1).append('"')
+            .append(",\"slug\":\"synthetic_game_").append(index + 1).append('"')
+            .append(",\"images\":{\"background\":\"//images.gog.com/bg").append(gameId).append(".jpg\"")
+            .append(",\"logo2x\":\"//images.gog.com/fake").append(gameId).append("_glx_logo_2x.jpg\"}")
+            .append(",\"description\":{\"lead\":\"\"}")
+            .append(",\"downloads\":{\"installers\":[");
+
+        String[] platforms = { "windows", "linux", "mac" };
+        for (int p = 0; p < platforms.length; p++) {
+            if (p > 0) json.append(',');
+            json.append("{\"id\":\"installer_").append(platforms[p]).append("_en\"")
+                .append(",\"name\":\"Synthetic Game ").append(index + 1).append('"')
+                .append(",\"os\":\"").append(platforms[p]).append('"')
+                .append(",\"language\":\"en\",\"version\":\"1.0\"")
+                .append(",\"total_size\":").append(config.fileSize * config.filesPerGame)
+                .append(",\"files\":[");
+            for (int f = 0; f < config.filesPerGame; f++) {
+                if (f > 0) json.append(',');
+                String fileId = "en" + (p + 1) + "installer" + f;
+                json.append("{\"id\":\"").append(fileId).append('"')
+                    .append(",\"size\":").append(config.fileSize)
+                    .append(",\"downlink\":\"").append(downlinkUrl(gameId, fileId)).append("\"}");
+            }
+            json.append("]}");
+        }
+
+        json.append("],\"patches\":[],\"language_packs\":[]")
+            .append(",\"bonus_content\":[{\"id\":1,\"name\":\"manual\",\"type\":\"manuals\",\"count\":1")
+            .append(",\"total_size\":1048576,\"size\":1048576")
+            .append(",\"downlink\":\"").append(downlinkUrl(gameId, "bonus1")).append("\"}]")
+            .append("}}");
+        return json.toString();
+    }
+
+    // ==================== CDN ====================
+
+    private boolean serveFile(HttpRequest request, OutputStream out, long gameId, String fileId) throws IOException {
+        long expires = parseLong(request.queryParam("expires"), 0);
+        if (expires > 0 && System.currentTimeMillis() > expires) {
+            events.add(new Event(EventType.EXPIRED, 0));
+            sendJson(out, 403, null, "{\"error\":\"link_expired\"}");
+            return true;
+        }
+
+        long size = "bonus1".equals(fileId) ? 1048576 : config.fileSize;
+        long fileSeed = fileSeed(gameId, fileId);
+        String etag = "\"" + Long.toHexString(fileSeed) + "-" + Long.toHexString(size) + "\"";
+
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+
+        String range = request.header("range");
+        String ifRange = request.header("if-range");
+        boolean ifRangeMatches = ifRange == null || ifRange.equals(etag);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/octet-stream");
+        headers.put("Accept-Ranges", config.rangeSupported ? "bytes" : "none");
+        headers.put("ETag", etag);
+
+        if (range != null && config.rangeSupported && ifRangeMatches && range.startsWith("bytes=")) {
+            String spec = range.substring(6);
+            int dash = spec.indexOf('-');
+            try {
+                start = Long.parseLong(spec.substring(0, dash).trim());
+                String endPart = spec.substring(dash + 1).trim();
+                if (!endPart.isEmpty()) {
+                    end = Math.min(size - 1, Long.parseLong(endPart));
+                }
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                sendJson(out, 400, null, "{\"error\":\"bad_range\"}");
+                return true;
+            }
+
+            if (start >= size || start > end) {
+                headers.put("Content-Range", "bytes */" + size);
+                writeHead(out, 416, headers, 0);
+                out.flush();
+                return true;
+            }
+            headers.put("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            partial = true;
+        }
+
+        long length = end - start + 1;
+        writeHead(out, partial ? 206 : 200, headers, length);
+
+        // Sorteia a próxima falha como um processo de Poisson por MiB enviado;
+        // assim respostas longas (stream único) sofrem proporcionalmente mais falhas
+        EventType fault = null;
+        long faultAt = -1;
+        double[] rates = { config.resetRate, config.truncateRate, config.stallRate };
+        EventType[] types = { EventType.RESET, EventType.TRUNCATE, EventType.STALL };
+        for (int i = 0; i < rates.length; i++) {
+            if (rates[i] <= 0) {
+                continue;
+            }
+            long distance = (long) (-Math.log(1.0 - random()) / rates[i] * 1024 * 1024);
+            if (distance < length && (faultAt < 0 || distance < faultAt)) {
+                faultAt = distance;
+                fault = types[i];
+            }
+        }
+
+        events.add(new Event(EventType.BODY_START, start));
+
+        byte[] buffer = new byte[64 * 1024];
+        long position = start;
+        long sent = 0;
+        long startTime = System.nanoTime();
+
+        while (sent < length) {
+            int chunk = (int) Math.min(buffer.length, length - sent);
+            if (faultAt >= sent && sent + chunk > faultAt) {
+                chunk = (int) (faultAt - sent);
+            }
+            fill(buffer, chunk, fileSeed, position);
+            out.write(buffer, 0, chunk);
+            sent += chunk;
+            position += chunk;
+            bytesServed.addAndGet(chunk);
+
+            if (faultAt >= 0 && sent == faultAt) {
+                out.flush();
+                events.add(new Event(fault, position));
+                if (fault == EventType.RESET) {
+                    throw new ConnectionResetInjected();
+                } else if (fault == EventType.TRUNCATE) {
+                    throw new ConnectionTruncateInjected();
+                }
+                sleep(config.stallMs);
+                faultAt = -1;
+                fault = null;
+                // O tempo parado não conta para o controle de banda
+                startTime += config.stallMs * 1_000_000L;
+            }
+            throttle(sent, startTime);
+        }
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Semente determinística do conteúdo de um arquivo
+     */
+    public static long fileSeed(long gameId, String fileId) {
+        return gameId * 31 + fileId.hashCode();
+    }
+
+    /**
+     * Byte esperado em uma posição do arquivo sintético, usado para verificar integridade
+     */
+    public static byte expectedByte(long fileSeed, long position) {
+        long x = position * 0x9E3779B97F4A7C15L + fileSeed;
+        x ^= (x >>> 29);
+        return (byte) x;
+    }
+
+    /**
+     * Confere um stream contra o conteúdo sintético
+     * @return Posição do primeiro byte divergente, ou -1 se tudo bate
+     */
+    public static long verify(InputStream in, long fileSeed, long expectedSize) throws IOException {
+        byte[] buffer = new byte[256 * 1024];
+        long position = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] != expectedByte(fileSeed, position + i)) {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return position == expectedSize ? -1 : position;
+    }
+
+    private static void fill(byte[] buffer, int length, long fileSeed, long position) {
+        for (int i = 0; i < length; i++) {
+            buffer[i] = expectedByte(fileSeed, position + i);
+        }
+    }
+
+    private void throttle(long sent, long startNanos) {
+        long bandwidth = config.bandwidthBytesPerSec;
+        if (bandwidth <= 0) {
+            return;
+        }
+        long expectedNanos = sent * 1_000_000_000L / bandwidth;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (expectedNanos > elapsedNanos) {
+            sleep((expectedNanos - elapsedNanos) / 1_000_000L);
+        }
+    }
+
+    // ==================== Auxiliares ====================
+
+    private static void sendJson(OutputStream out, int code, Map<String, String> extraHeaders,
+                                 String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (extraHeaders != null) {
+            headers.putAll(extraHeaders);
+        }
+        writeHead(out, code, headers, bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    private static void writeHead(OutputStream out, int code, Map<String, String> headers,
+                                  long contentLength) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(code).append(' ').append(reason(code)).append("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("Content-Length: ").append(contentLength).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String reason(int code) {
+        switch (code) {
+            case 200: return "OK";
+            case 206: return "Partial Content";
+            case 400: return "Bad Request";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 416: return "Range Not Satisfiable";
+            case 503: return "Service Unavailable";
+            default: return "Status";
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static long parseLong(String value, long fallback) {
+        try {
+            return value != null ? Long.parseLong(value) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private synchronized double random() {
+        return random.nextDouble();
+    }
+
+    private boolean chance(double probability) {
+        return probability > 0 && random() < probability;
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Requisição HTTP/1.1 mínima: linha inicial e headers, sem corpo
+     */
+    private static class HttpRequest {
+
+        String method;
+        String path;
+        String rawQuery;
+        final Map<String, String> headers = new HashMap<>();
+
+        static HttpRequest read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return null;
+            }
+
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2) {
+                throw new IOException("Linha de requisição inválida: " + requestLine);
+            }
+
+            HttpRequest request = new HttpRequest();
+            request.method = parts[0];
+            String target = parts[1];
+            int question = target.indexOf('?');
+            request.path = question >= 0 ? target.substring(0, question) : target;
+            request.rawQuery = question >= 0 ? target.substring(question + 1) : null;
+
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    request.headers.put(line.substring(0, colon).trim().toLowerCase(),
+                            line.substring(colon + 1).trim());
+                }
+            }
+            return request;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c == '\n') {
+                    int length = line.length();
+                    if (length > 0 && line.charAt(length - 1) == '\r') {
+                        line.setLength(length - 1);
+                    }
+                    return line.toString();
+                }
+                line.append((char) c);
+            }
+            return line.length() > 0 ? line.toString() : null;
+        }
+
+        String header(String name) {
+            return headers.get(name);
+        }
+
+        boolean wantsClose() {
+            return "close".equalsIgnoreCase(headers.get("connection"));
+        }
+
+        String queryParam(String name) {
+            if (rawQuery == null) {
+                return null;
+            }
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return pair.substring(eq + 1);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class ConnectionResetInjected extends IOException {
+        ConnectionResetInjected() {
+            super("Injected connection reset");
+        }
+    }
+
+    private static class ConnectionTruncateInjected extends IOException {
+        ConnectionTruncateInjected() {
+            super("Injected truncated body");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        FakeGogServer server = new FakeGogServer(new Config());
+        server.start(port);
+        System.out.println(TAG + " listening on " + server.getBaseUrl());
+        System.out.println("  " + server.getBaseUrl() + "/account/getFilteredProducts?mediaType=1&page=1");
+        System.out.println("  " + server.getBaseUrl() + "/products/" + firstGameId() + "?expand=downloads");
+    }
+}
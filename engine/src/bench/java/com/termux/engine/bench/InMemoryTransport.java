@@ -0,0 +1,92 @@
+package com.termux.engine.bench;
+
+import com.termux.engine.HttpTransport;
+import com.termux.engine.TransferRequest;
+import com.termux.engine.TransferResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transporte que serve um arquivo sintético da memória, com suporte a Range
+ * Permite medir o custo do motor sem rede nem servidor
+ */
+public class InMemoryTransport implements HttpTransport {
+    
+    private final byte[] content;
+    private final String etag;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    
+    public InMemoryTransport(byte[] content) {
+        this.content = content;
+        this.etag = "\"" + Integer.toHexString(content.length) + "\"";
+    }
+    
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+    
+    @Override
+    public TransferResponse execute(TransferRequest request) throws IOException {
+        requestCount.incrementAndGet();
+        
+        long start = request.getRangeStart();
+        long end = request.getRangeEnd() >= 0 ? Math.min(request.getRangeEnd(), content.length - 1) : content.length - 1;
+        
+        if (!request.hasRange()) {
+            return new Response(200, 0, content.length, null);
+        }
+        if (start >= content.length) {
+            return new Response(416, 0, 0, "bytes */" + content.length);
+        }
+        return new Response(206, (int) start, (int) (end - start + 1),
+                "bytes " + start + "-" + end + "/" + content.length);
+    }
+    
+    private class Response implements TransferResponse {
+        
+        private final int code;
+        private final int offset;
+        private final int length;
+        private final String contentRange;
+        
+        Response(int code, int offset, int length, String contentRange) {
+            this.code = code;
+            this.offset = offset;
+            this.length = length;
+            this.contentRange = contentRange;
+        }
+        
+        @Override
+        public int code() {
+            return code;
+        }
+        
+        @Override
+        public long contentLength() {
+            return length;
+        }
+        
+        @Override
+        public String header(String name) {
+            if ("Content-Range".equalsIgnoreCase(name)) {
+                return contentRange;
+            }
+            if ("ETag".equalsIgnoreCase(name)) {
+                return etag;
+            }
+            return null;
+        }
+        
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(content, offset, length);
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
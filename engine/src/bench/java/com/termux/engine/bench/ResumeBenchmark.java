@@ -0,0 +1,428 @@
+package com.termux.engine.bench;
+
+import com.termux.engine.ChromeTraceRecorder;
+import com.termux.engine.DownloadEngine;
+import com.termux.engine.DownloadJob;
+import com.termux.engine.FileJournal;
+import com.termux.engine.FileStorage;
+import com.termux.engine.RetryPolicy;
+import com.termux.engine.StorageTarget;
+import com.termux.engine.TransferStats;
+import com.termux.engine.Tracing;
+import com.termux.engine.UrlSource;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Benchmark de retomada com injeção de falhas contra o FakeGogServer
+ *
+ * Para cada cenário (resets, travamentos, corpos truncados, processo morto, link expirado)
+ * mede bytes retransmitidos, tempo até o download voltar a receber dados e integridade final.
+ * O modo "saf" reproduz o caminho do DownloadService (destino só de anexação, 1 conexão);
+ * o modo "file" usa acesso aleatório com segmentos paralelos.
+ *
+ * Uso: ./gradlew :engine:resumeBench [--args="--runs=5 --size-mb=32 --max-wasted-pct=25"]
+ * Com --trace=arquivo.json grava as seções do motor em formato Chrome trace (ui.perfetto.dev).
+ * Sai com código 1 se alguma rodada falhar, algum arquivo corromper ou o desperdício passar do limite.
+ */
+public class ResumeBenchmark {
+
+    private static final long GAME_ID = 1207658000L;
+    private static final String FILE_ID = "en1installer0";
+
+    private static final int READ_TIMEOUT_MS = 2000;
+
+    /**
+     * Cenário de falhas aplicado à configuração do servidor (taxas por MiB enviado)
+     */
+    private static class Scenario {
+        final String name;
+        final double resetRate;
+        final double truncateRate;
+        final double stallRate;
+        final long linkTtlMs;
+        final int kills;
+
+        Scenario(String name, double resetRate, double truncateRate, double stallRate, long linkTtlMs, int kills) {
+            this.name = name;
+            this.resetRate = resetRate;
+            this.truncateRate = truncateRate;
+            this.stallRate = stallRate;
+            this.linkTtlMs = linkTtlMs;
+            this.kills = kills;
+        }
+
+        void apply(FakeGogServer.Config config) {
+            config.resetRate = resetRate;
+            config.truncateRate = truncateRate;
+            config.stallRate = stallRate;
+            config.stallMs = READ_TIMEOUT_MS * 2L;
+            config.linkTtlMs = linkTtlMs;
+        }
+    }
+
+    private static final Scenario[] SCENARIOS = {
+            new Scenario("baseline", 0, 0, 0, 0, 0),
+            new Scenario("resets", 0.25, 0, 0, 0, 0),
+            new Scenario("truncation", 0, 0.25, 0, 0, 0),
+            new Scenario("stalls", 0, 0, 0.05, 0, 0),
+            new Scenario("kills", 0, 0, 0, 0, 3),
+            // Links curtos + resets: toda reconexão encontra o link expirado
+            new Scenario("link-expiry", 0.1, 0, 0, 100, 0),
+            new Scenario("mixed", 0.1, 0.1, 0.02, 500, 2),
+    };
+
+    private static class RunResult {
+        long wastedBytes;
+        long elapsedMs;
+        int retries;
+        int urlRefreshes;
+        boolean intact;
+        // Motivo quando a rodada terminou em exceção; conta como falha de integridade
+        String error;
+        final List<Long> recoveryMs = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = intArg(args, "--runs", 3);
+        int sizeMb = intArg(args, "--size-mb", 32);
+        double maxWastedPct = doubleArg(args, "--max-wasted-pct", -1);
+        long bandwidth = intArg(args, "--bandwidth-mbps", 40) * 1024L * 1024L;
+        String traceFile = arg(args, "--trace");
+        ChromeTraceRecorder recorder = traceFile != null ? Tracing.startRecording(500_000) : null;
+
+        // Retries são esperados aqui; o log do motor só atrapalharia a tabela
+        Logger.getLogger("DownloadEngine").setLevel(Level.WARNING);
+
+        FakeGogServer.Config config = new FakeGogServer.Config();
+        config.fileSize = sizeMb * 1024L * 1024L;
+        config.bandwidthBytesPerSec = bandwidth;
+
+        FakeGogServer server = new FakeGogServer(config);
+        server.start(0);
+
+        File workDir = new File(System.getProperty("java.io.tmpdir"), "engine-resume-bench");
+        if (!workDir.exists() && !workDir.mkdirs()) {
+            throw new IOException("Não foi possível criar " + workDir);
+        }
+
+        System.out.println("Resume benchmark: " + sizeMb + " MB @ " + (bandwidth / (1024 * 1024)) + " MB/s, "
+                + runs + " runs per scenario, server " + server.getBaseUrl());
+        System.out.println(String.format("%-12s %-7s %10s %9s %12s %12s %9s %8s %8s %s",
+                "scenario", "mode", "wasted MB", "wasted %", "recov p50ms", "recov max", "time s",
+                "retries", "refresh", "integrity"));
+
+        boolean failed = false;
+        try {
+            for (Scenario scenario : SCENARIOS) {
+                for (String mode : new String[] { "saf", "file" }) {
+                    List<RunResult> results = new ArrayList<>();
+                    for (int run = 0; run < runs; run++) {
+                        scenario.apply(config);
+                        // Deixar terminar escritas de conexões mortas na rodada anterior
+                        Thread.sleep(200);
+                        server.resetCounters();
+                        results.add(runSafely(server, config, scenario, mode, workDir, run));
+                    }
+                    failed |= report(scenario, mode, results, config.fileSize, maxWastedPct);
+                }
+            }
+        } finally {
+            server.stop();
+        }
+
+        if (recorder != null) {
+            Tracing.stopRecording();
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(traceFile), StandardCharsets.UTF_8))) {
+                recorder.writeJson(out);
+            }
+            System.out.println("Trace: " + traceFile + " (" + recorder.size() + " events)");
+        }
+
+        if (failed) {
+            System.out.println("FAILED: integrity or wasted-bytes gate not met");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Uma rodada que falha vira uma linha com integridade FAILED, sem derrubar os cenários seguintes
+     */
+    private static RunResult runSafely(FakeGogServer server, FakeGogServer.Config config, Scenario scenario,
+                                       String mode, File workDir, int run) {
+        try {
+            return runOnce(server, config, scenario, mode, workDir, run);
+        } catch (IOException e) {
+            RunResult result = new RunResult();
+            result.error = e.getMessage();
+            return result;
+        }
+    }
+
+    private static RunResult runOnce(FakeGogServer server, FakeGogServer.Config config, Scenario scenario,
+                                     String mode, File workDir, int run) throws IOException {
+        File output = new File(workDir, scenario.name + "-" + mode + ".bin");
+        File journalDir = new File(workDir, "journal");
+        output.delete();
+        FileJournal journal = new FileJournal(journalDir);
+        String key = scenario.name + "-" + mode;
+        journal.clear(key);
+
+        boolean parallel = "file".equals(mode);
+        StorageTarget storage = parallel ? new FileStorage(output) : new AppendOnlyStorage(output);
+        UrlSource urlSource = new DownlinkUrlSource(server);
+        urlSource.refresh();
+
+        // Pontos (em bytes) em que o "processo" será morto
+        Random random = new Random(run * 7919L + scenario.name.hashCode());
+        List<Long> killPoints = new ArrayList<>();
+        for (int i = 0; i < scenario.kills; i++) {
+            killPoints.add((long) (random.nextDouble() * config.fileSize));
+        }
+        Collections.sort(killPoints);
+        List<Long> killTimes = new ArrayList<>();
+
+        RunResult result = new RunResult();
+        long start = System.nanoTime();
+
+        while (true) {
+            // Cada iteração é um "processo" novo: motor, transporte e journal recriados
+            DownloadEngine engine = new DownloadEngine(
+                    new UrlConnectionTransport(2000, READ_TIMEOUT_MS),
+                    new RetryPolicy(8, 50, 2000, 2.0),
+                    DownloadEngine.DEFAULT_BUFFER_SIZE, parallel ? 4 : 1, 200);
+            engine.setJournal(new FileJournal(journalDir));
+            engine.setMinSegmentSize(1024 * 1024);
+
+            DownloadJob job = new DownloadJob(key, urlSource, storage);
+            job.setExpectedSize(config.fileSize);
+
+            long killAt = killPoints.isEmpty() ? Long.MAX_VALUE : killPoints.get(0);
+            AtomicLong progress = new AtomicLong();
+
+            TransferStats stats = engine.download(job, (downloaded, total) -> progress.set(downloaded),
+                    () -> progress.get() >= killAt);
+            result.retries += stats.getRetries();
+            result.urlRefreshes += stats.getUrlRefreshes();
+
+            if (stats.isComplete()) {
+                break;
+            }
+            if (!stats.isStopped()) {
+                throw new IOException("Download terminou sem completar: " + stats);
+            }
+            killPoints.remove(0);
+            killTimes.add(System.nanoTime());
+        }
+
+        result.elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+        result.wastedBytes = Math.max(0, server.getBytesServed() - config.fileSize);
+
+        try (InputStream in = new FileInputStream(output)) {
+            result.intact = FakeGogServer.verify(in, FakeGogServer.fileSeed(GAME_ID, FILE_ID), config.fileSize) < 0;
+        }
+
+        collectRecoveryTimes(server.getEvents(), killTimes, config.stallMs, result.recoveryMs);
+        output.delete();
+        journal.clear(key);
+        return result;
+    }
+
+    /**
+     * Tempo de recuperação = intervalo entre a falha e o próximo corpo enviado pela CDN
+     */
+    private static void collectRecoveryTimes(List<FakeGogServer.Event> events, List<Long> killTimes,
+                                             long stallMs, List<Long> out) {
+        List<Long> bodyStarts = new ArrayList<>();
+        List<long[]> faults = new ArrayList<>();
+        for (FakeGogServer.Event event : events) {
+            if (event.type == FakeGogServer.EventType.BODY_START) {
+                bodyStarts.add(event.timeNanos);
+            } else {
+                long cap = event.type == FakeGogServer.EventType.STALL ? stallMs : Long.MAX_VALUE;
+                faults.add(new long[] { event.timeNanos, cap });
+            }
+        }
+        for (Long killTime : killTimes) {
+            faults.add(new long[] { killTime, Long.MAX_VALUE });
+        }
+
+        for (long[] fault : faults) {
+            for (Long bodyStart : bodyStarts) {
+                if (bodyStart > fault[0]) {
+                    out.add(Math.min((bodyStart - fault[0]) / 1_000_000L, fault[1]));
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean report(Scenario scenario, String mode, List<RunResult> results,
+                                  long fileSize, double maxWastedPct) {
+        long wasted = 0;
+        long elapsed = 0;
+        int retries = 0;
+        int refreshes = 0;
+        boolean intact = true;
+        int errors = 0;
+        String error = null;
+        List<Long> recovery = new ArrayList<>();
+
+        for (RunResult result : results) {
+            wasted += result.wastedBytes;
+            elapsed += result.elapsedMs;
+            retries += result.retries;
+            refreshes += result.urlRefreshes;
+            intact &= result.intact;
+            if (result.error != null) {
+                errors++;
+                error = result.error;
+            }
+            recovery.addAll(result.recoveryMs);
+        }
+
+        int n = results.size();
+        double wastedMb = wasted / (double) n / (1024 * 1024);
+        double wastedPct = wasted * 100.0 / ((double) fileSize * n);
+        Collections.sort(recovery);
+        long p50 = recovery.isEmpty() ? 0 : recovery.get(recovery.size() / 2);
+        long max = recovery.isEmpty() ? 0 : recovery.get(recovery.size() - 1);
+
+        boolean overBudget = maxWastedPct >= 0 && wastedPct > maxWastedPct;
+        String integrity = errors > 0 ? "FAILED " + errors + "/" + n + " (" + error + ")"
+                : intact ? "OK" : "CORRUPT";
+        System.out.println(String.format("%-12s %-7s %10.2f %8.1f%% %12d %12d %9.2f %8.1f %8.1f %s%s",
+                scenario.name, mode, wastedMb, wastedPct, p50, max, elapsed / (double) n / 1000.0,
+                retries / (double) n, refreshes / (double) n, integrity,
+                overBudget ? "  (over budget)" : ""));
+
+        return !intact || overBudget;
+    }
+
+    /**
+     * Resolve o link de CDN pelo endpoint de downlink, como o DownloadLinkUrlSource do app
+     */
+    private static class DownlinkUrlSource implements UrlSource {
+
+        private final FakeGogServer server;
+        private volatile String url;
+
+        DownlinkUrlSource(FakeGogServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public String currentUrl() {
+            return url;
+        }
+
+        @Override
+        public String refresh() throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) new URL(server.downlinkUrl(GAME_ID, FILE_ID)).openConnection();
+            int code = connection.getResponseCode();
+            if (code != 200) {
+                connection.disconnect();
+                // 503 injetado também vale aqui; o motor tentará de novo
+                throw new IOException("Downlink HTTP " + code);
+            }
+
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, read);
+                }
+            }
+
+            String json = new String(body.toByteArray(), StandardCharsets.UTF_8);
+            int keyIndex = json.indexOf("\"downlink\":\"");
+            if (keyIndex < 0) {
+                throw new IOException("Resposta de downlink sem URL: " + json);
+            }
+            int startIndex = keyIndex + "\"downlink\":\"".length();
+            url = json.substring(startIndex, json.indexOf('"', startIndex));
+            return url;
+        }
+    }
+
+    /**
+     * Destino só de anexação, com as mesmas restrições do DocumentFileStorage (SAF)
+     */
+    private static class AppendOnlyStorage implements StorageTarget {
+
+        private final FileStorage delegate;
+
+        AppendOnlyStorage(File file) {
+            this.delegate = new FileStorage(file);
+        }
+
+        @Override
+        public long length() {
+            return delegate.length();
+        }
+
+        @Override
+        public OutputStream openOutput(long offset) throws IOException {
+            long currentLength = length();
+            if (offset != 0 && offset != currentLength) {
+                throw new IOException("Só anexação: offset " + offset + ", tamanho " + currentLength);
+            }
+            return delegate.openOutput(offset);
+        }
+
+        @Override
+        public boolean supportsRandomAccess() {
+            return false;
+        }
+
+        @Override
+        public boolean delete() {
+            return delegate.delete();
+        }
+
+        @Override
+        public String describe() {
+            return delegate.describe();
+        }
+    }
+
+    private static int intArg(String[] args, String name, int fallback) {
+        String value = arg(args, name);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+
+    private static double doubleArg(String[] args, String name, double fallback) {
+        String value = arg(args, name);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+
+    private static String arg(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.termux.engine.bench;
+
+import com.termux.engine.HttpTransport;
+import com.termux.engine.TransferRequest;
+import com.termux.engine.TransferResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * HttpTransport sobre HttpURLConnection, para rodar o motor na JVM contra o FakeGogServer
+ */
+public class UrlConnectionTransport implements HttpTransport {
+    
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    
+    public UrlConnectionTransport(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+    
+    @Override
+    public TransferResponse execute(TransferRequest request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+        connection.setConnectTimeout(connectTimeoutMs);
+        connection.setReadTimeout(readTimeoutMs);
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        
+        String range = request.getRangeHeader();
+        if (range != null) {
+            connection.setRequestProperty("Range", range);
+        }
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        
+        int code = connection.getResponseCode();
+        return new Response(connection, code);
+    }
+    
+    private static class Response implements TransferResponse {
+        
+        private final HttpURLConnection connection;
+        private final int code;
+        private InputStream body;
+        
+        Response(HttpURLConnection connection, int code) {
+            this.connection = connection;
+            this.code = code;
+        }
+        
+        @Override
+        public int code() {
+            return code;
+        }
+        
+        @Override
+        public long contentLength() {
+            return connection.getContentLengthLong();
+        }
+        
+        @Override
+        public String header(String name) {
+            return connection.getHeaderField(name);
+        }
+        
+        @Override
+        public InputStream body() throws IOException {
+            if (body == null) {
+                body = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            }
+            return body;
+        }
+        
+        @Override
+        public void close() {
+            try {
+                if (body != null) {
+                    body.close();
+                } else if (code < 400) {
+                    connection.getInputStream().close();
+                }
+            } catch (IOException ignored) {
+                // Conexão já encerrada
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.termux.engine;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffer circular de eventos completos ("ph":"X") no formato Chrome trace / Perfetto
+ * Os eventos ficam em arrays pré-alocados; gravar um evento não aloca memória
+ */
+public class ChromeTraceRecorder {
+    
+    private final String[] names;
+    private final long[] threadIds;
+    private final long[] startNanos;
+    private final long[] durationNanos;
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+    private final long originNanos = System.nanoTime();
+    private final long originEpochMicros = System.currentTimeMillis() * 1000;
+    
+    private int next;
+    private long recorded;
+    
+    public ChromeTraceRecorder(int capacity) {
+        int size = Math.max(16, capacity);
+        names = new String[size];
+        threadIds = new long[size];
+        startNanos = new long[size];
+        durationNanos = new long[size];
+    }
+    
+    synchronized void record(String name, long threadId, long start, long end) {
+        names[next] = name;
+        threadIds[next] = threadId;
+        startNanos[next] = start;
+        durationNanos[next] = end - start;
+        next = (next + 1) % names.length;
+        recorded++;
+    }
+    
+    void registerThread(long threadId, String name) {
+        threadNames.put(threadId, name);
+    }
+    
+    /**
+     * Eventos gravados desde o início, incluindo os que já saíram do buffer
+     */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+    
+    public synchronized int size() {
+        return (int) Math.min(recorded, names.length);
+    }
+    
+    /**
+     * Grava o JSON (objeto com traceEvents) que o chrome://tracing e o ui.perfetto.dev abrem
+     */
+    public void writeJson(Writer out) throws IOException {
+        String[] snapshotNames;
+        long[] snapshotThreads;
+        long[] snapshotStarts;
+        long[] snapshotDurations;
+        synchronized (this) {
+            int count = size();
+            int first = recorded > names.length ? next : 0;
+            snapshotNames = new String[count];
+            snapshotThreads = new long[count];
+            snapshotStarts = new long[count];
+            snapshotDurations = new long[count];
+            for (int i = 0; i < count; i++) {
+                int index = (first + i) % names.length;
+                snapshotNames[i] = names[index];
+                snapshotThreads[i] = threadIds[index];
+                snapshotStarts[i] = startNanos[index];
+                snapshotDurations[i] = durationNanos[index];
+            }
+        }
+        
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+        boolean first = true;
+        for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+            if (!first) out.write(",\n");
+            first = false;
+            out.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":1,\"tid\":" + thread.getKey()
+                    + ",\"args\":{\"name\":\"" + escape(thread.getValue()) + "\"}}");
+        }
+        for (int i = 0; i < snapshotNames.length; i++) {
+            if (!first) out.write(",\n");
+            first = false;
+            long ts = originEpochMicros + (snapshotStarts[i] - originNanos) / 1000;
+            out.write("{\"ph\":\"X\",\"pid\":1,\"tid\":" + snapshotThreads[i]
+                    + ",\"ts\":" + ts
+                    + ",\"dur\":" + Math.max(0, snapshotDurations[i] / 1000)
+                    + ",\"name\":\"" + escape(snapshotNames[i]) + "\"}");
+        }
+        out.write("\n]}\n");
+        out.flush();
+    }
+    
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,727 @@
+package com.termux.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Motor de download independente do Android
+ *
+ * Cuida de retomada por Range, novas tentativas com backoff, renovação de links
+ * expirados e, quando o destino permite acesso aleatório, download em segmentos paralelos.
+ * O transporte HTTP e o destino dos bytes são injetados, então o mesmo código roda
+ * no app (OkHttp + SAF) e na JVM (benchmarks).
+ */
+public class DownloadEngine {
+
+    private static final Logger LOG = Logger.getLogger("DownloadEngine");
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final long DEFAULT_MIN_SEGMENT_SIZE = 8L * 1024 * 1024;
+    public static final long DEFAULT_PROGRESS_INTERVAL_MS = 1000;
+
+    // Renovações seguidas sem progresso; um link que expira de tempos em tempos num download longo
+    // não esgota o limite enquanto os bytes continuam chegando
+    private static final int MAX_URL_REFRESHES = 3;
+    private static final int MAX_RESTARTS = 2;
+
+    /**
+     * Consultado entre leituras; retornar true encerra o download sem erro (pausa/cancelamento)
+     */
+    public interface StopSignal {
+        boolean shouldStop();
+    }
+
+    private final HttpTransport transport;
+    private final RetryPolicy retryPolicy;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final long progressIntervalMs;
+    private long minSegmentSize = DEFAULT_MIN_SEGMENT_SIZE;
+    private DownloadJournal journal;
+    private final AtomicInteger buffersInUse = new AtomicInteger();
+    private final AtomicLong storageWriteNanos = new AtomicLong();
+
+    public DownloadEngine(HttpTransport transport, RetryPolicy retryPolicy,
+                          int bufferSize, int maxConnections, long progressIntervalMs) {
+        this.transport = transport;
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.defaults();
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+        this.maxConnections = Math.max(1, maxConnections);
+        this.progressIntervalMs = Math.max(0, progressIntervalMs);
+    }
+
+    public DownloadEngine(HttpTransport transport) {
+        this(transport, RetryPolicy.defaults(), DEFAULT_BUFFER_SIZE, 1, DEFAULT_PROGRESS_INTERVAL_MS);
+    }
+
+    public void setJournal(DownloadJournal journal) {
+        this.journal = journal;
+    }
+
+    public void setMinSegmentSize(long minSegmentSize) {
+        this.minSegmentSize = minSegmentSize;
+    }
+
+    /**
+     * Memória dos buffers de cópia alocados agora (um por conexão ativa)
+     */
+    public long getBufferBytesInUse() {
+        return (long) buffersInUse.get() * bufferSize;
+    }
+
+    /**
+     * Tempo total gasto gravando no destino por todos os jobs deste motor, acumulado desde a criação
+     */
+    public long getStorageWriteNanos() {
+        return storageWriteNanos.get();
+    }
+
+    /**
+     * Baixa o arquivo do job até o fim, até o stopSignal pedir parada ou até esgotar as tentativas.
+     * Bytes já presentes no destino são mantidos e o download continua de onde parou.
+     *
+     * @return Estatísticas da execução; isComplete() indica se o arquivo terminou
+     * @throws IOException quando a falha não é transitória ou as tentativas acabaram
+     */
+    public TransferStats download(DownloadJob job, ProgressListener listener, StopSignal stopSignal) throws IOException {
+        TransferStats stats = new TransferStats();
+        StopSignal stop = stopSignal != null ? stopSignal : () -> false;
+        ProgressListener progress = listener != null ? listener : (downloaded, total) -> { };
+        long startTime = System.currentTimeMillis();
+
+        Tracing.begin("engine.download");
+        try {
+            if (canSegment(job)) {
+                try {
+                    downloadSegmented(job, progress, stop, stats);
+                    return stats;
+                } catch (SegmentationUnsupportedException e) {
+                    // Servidor não respeitou o Range; recomeçar em um único stream
+                    LOG.log(Level.INFO, "Segmented download not supported, falling back: " + e.getMessage());
+                    stats.addWasted(job.getTarget().length());
+                    job.getTarget().delete();
+                    if (journal != null) {
+                        journal.clear(job.getKey());
+                    }
+                }
+            }
+            downloadSingle(job, progress, stop, stats);
+            return stats;
+        } finally {
+            stats.setElapsedMs(System.currentTimeMillis() - startTime);
+            Tracing.end();
+        }
+    }
+
+    private boolean canSegment(DownloadJob job) {
+        return maxConnections > 1
+                && job.getExpectedSize() > 0
+                && job.getExpectedSize() >= minSegmentSize * 2
+                && job.getTarget().supportsRandomAccess();
+    }
+
+    // ==================== Stream único ====================
+
+    private void downloadSingle(DownloadJob job, ProgressListener listener, StopSignal stop,
+                                TransferStats stats) throws IOException {
+        StorageTarget target = job.getTarget();
+        ProgressTicker ticker = new ProgressTicker(listener, progressIntervalMs);
+        stats.setResumedFrom(target.length());
+        stats.setTotalBytes(job.getExpectedSize());
+
+        int failures = 0;
+        int restarts = 0;
+
+        while (true) {
+            if (stop.shouldStop()) {
+                stats.setStopped(true);
+                return;
+            }
+
+            long offset = target.length();
+            long transferredBefore = stats.getBytesTransferred();
+            String url = job.getUrlSource().currentUrl();
+
+            try {
+                long total = transferStream(job, url, offset, stats, ticker, stop);
+                if (stats.isStopped()) {
+                    return;
+                }
+                stats.setTotalBytes(total);
+                stats.setComplete(true);
+                ticker.report(total, total, true);
+                return;
+
+            } catch (RestartRequiredException e) {
+                // Arquivo local não confere com o servidor; apagar e baixar de novo
+                if (++restarts > MAX_RESTARTS) {
+                    throw new IOException("Não foi possível retomar " + target.describe(), e);
+                }
+                stats.addWasted(target.length());
+                target.delete();
+                continue;
+
+            } catch (HttpStatusException e) {
+                if (e.isLinkExpired() && refreshUrl(job, url, stats)) {
+                    continue;
+                }
+                failures = madeProgress(stats, transferredBefore) ? 1 : failures + 1;
+                if (!retryPolicy.isRetryable(e) || !retryPolicy.canRetry(failures)) {
+                    throw e;
+                }
+                backoff(failures, e, stats);
+                continue;
+
+            } catch (IOException e) {
+                if (stop.shouldStop()) {
+                    stats.setStopped(true);
+                    return;
+                }
+                failures = madeProgress(stats, transferredBefore) ? 1 : failures + 1;
+                if (!retryPolicy.isRetryable(e) || !retryPolicy.canRetry(failures)) {
+                    throw e;
+                }
+                backoff(failures, e, stats);
+            }
+        }
+    }
+
+    /**
+     * Faz uma requisição a partir de offset e grava o corpo no destino
+     * @return Tamanho total do arquivo
+     */
+    private long transferStream(DownloadJob job, String url, long offset, TransferStats stats,
+                                ProgressTicker ticker, StopSignal stop) throws IOException {
+        StorageTarget target = job.getTarget();
+        TransferRequest request = new TransferRequest(url, offset, -1)
+                .tag(job.getKey());
+        if (offset > 0 && job.getEtag() != null) {
+            request.header("If-Range", job.getEtag());
+        }
+
+        try (TransferResponse response = transport.execute(request)) {
+            int code = response.code();
+            long writeOffset;
+            long total;
+
+            if (code == 206) {
+                long[] range = parseContentRange(response.header("Content-Range"));
+                if (range != null && range[0] != offset) {
+                    throw new RestartRequiredException("Content-Range inesperado: " + response.header("Content-Range"));
+                }
+                writeOffset = offset;
+                total = range != null && range[2] >= 0 ? range[2] : lengthOrUnknown(offset, response.contentLength());
+
+            } else if (code == 200) {
+                if (offset > 0) {
+                    // Range ignorado ou ETag mudou: o corpo é o arquivo inteiro
+                    stats.addWasted(offset);
+                    target.delete();
+                }
+                writeOffset = 0;
+                total = response.contentLength();
+
+            } else if (code == 416) {
+                long[] range = parseContentRange(response.header("Content-Range"));
+                long serverTotal = range != null ? range[2] : job.getExpectedSize();
+                if (offset > 0 && serverTotal >= 0 && offset == serverTotal) {
+                    // Já estava completo
+                    return serverTotal;
+                }
+                throw new RestartRequiredException("Range não satisfatório em " + offset);
+
+            } else {
+                throw new HttpStatusException(code, null, response.header("Retry-After"));
+            }
+
+            if (total < 0) {
+                total = job.getExpectedSize();
+            }
+            stats.setTotalBytes(total);
+            ticker.reset(writeOffset, total);
+
+            long bodyLength = response.contentLength();
+            long received;
+            try (InputStream in = response.body();
+                 OutputStream out = target.openOutput(writeOffset)) {
+                received = copy(in, out, stats, ticker, stop, null, job.getThroughput());
+            }
+
+            if (stats.isStopped()) {
+                return total;
+            }
+            if (bodyLength >= 0 && received < bodyLength) {
+                throw new TruncatedBodyException(bodyLength, received);
+            }
+            long end = writeOffset + received;
+            if (total >= 0 && end < total) {
+                throw new TruncatedBodyException(total - writeOffset, received);
+            }
+            return total >= 0 ? total : end;
+        }
+    }
+
+    // ==================== Segmentos paralelos ====================
+
+    private void downloadSegmented(DownloadJob job, ProgressListener listener, StopSignal stop,
+                                   TransferStats stats) throws IOException {
+        StorageTarget target = job.getTarget();
+        long total = job.getExpectedSize();
+        List<Segment> segments = loadSegments(job, total);
+
+        long alreadyDownloaded = sumDownloaded(segments);
+        stats.setResumedFrom(alreadyDownloaded);
+        stats.setTotalBytes(total);
+
+        List<Segment> pending = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (!segment.isComplete()) {
+                pending.add(segment);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            AtomicBoolean failed = new AtomicBoolean(false);
+            StopSignal workerStop = () -> failed.get() || stop.shouldStop();
+            ProgressTicker ticker = new ProgressTicker(null, 0);
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(pending.size(), maxConnections));
+            List<Future<?>> futures = new ArrayList<>();
+
+            try {
+                for (Segment segment : pending) {
+                    futures.add(executor.submit(() -> {
+                        downloadSegment(job, segment, total, stats, ticker, workerStop);
+                        return null;
+                    }));
+                }
+                executor.shutdown();
+
+                IOException error = null;
+                long lastReport = 0;
+                for (Future<?> future : futures) {
+                    while (true) {
+                        try {
+                            future.get(Math.max(50, progressIntervalMs), TimeUnit.MILLISECONDS);
+                            break;
+                        } catch (TimeoutException e) {
+                            // Progresso e journal são atualizados pela thread que aguarda
+                            long now = System.currentTimeMillis();
+                            if (now - lastReport >= progressIntervalMs) {
+                                listener.onProgress(sumDownloaded(segments), total);
+                                saveJournal(job, segments);
+                                lastReport = now;
+                            }
+                        } catch (ExecutionException e) {
+                            failed.set(true);
+                            if (error == null || e.getCause() instanceof SegmentationUnsupportedException) {
+                                error = toIOException(e.getCause());
+                            }
+                            break;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            failed.set(true);
+                            error = new InterruptedIOException("Download interrompido");
+                            break;
+                        }
+                    }
+                }
+
+                saveJournal(job, segments);
+                if (error != null) {
+                    throw error;
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            if (stop.shouldStop() && sumDownloaded(segments) < total) {
+                stats.setStopped(true);
+                listener.onProgress(sumDownloaded(segments), total);
+                return;
+            }
+        }
+
+        if (journal != null) {
+            journal.clear(job.getKey());
+        }
+        stats.setStopped(false);
+        stats.setComplete(true);
+        listener.onProgress(total, total);
+        LOG.log(Level.FINE, "Segmented download completed: " + target.describe());
+    }
+
+    private List<Segment> loadSegments(DownloadJob job, long total) throws IOException {
+        StorageTarget target = job.getTarget();
+
+        if (journal != null) {
+            List<Segment> saved = journal.load(job.getKey());
+            if (saved != null && !saved.isEmpty()
+                    && saved.get(saved.size() - 1).getEnd() == total - 1
+                    && target.length() > 0) {
+                return saved;
+            }
+        }
+
+        List<Segment> segments = RangePlanner.plan(total, maxConnections, minSegmentSize);
+
+        // Sem journal, só o prefixo contíguo do arquivo é confiável (ex.: download sequencial anterior)
+        long prefix = Math.min(target.length(), total);
+        for (Segment segment : segments) {
+            long covered = Math.max(0, Math.min(prefix - segment.getStart(), segment.length()));
+            segment.setDownloaded(covered);
+        }
+        return segments;
+    }
+
+    private void downloadSegment(DownloadJob job, Segment segment, long total, TransferStats stats,
+                                 ProgressTicker ticker, StopSignal stop) throws IOException {
+        int failures = 0;
+
+        while (!segment.isComplete()) {
+            if (stop.shouldStop()) {
+                return;
+            }
+
+            long downloadedBefore = segment.getDownloaded();
+            String url = job.getUrlSource().currentUrl();
+            TransferRequest request = new TransferRequest(url,
+                    segment.nextOffset(), segment.getEnd()).tag(job.getKey());
+            if (job.getEtag() != null) {
+                request.header("If-Range", job.getEtag());
+            }
+
+            try (TransferResponse response = transport.execute(request)) {
+                int code = response.code();
+                if (code == 200) {
+                    throw new SegmentationUnsupportedException("HTTP 200 para Range " + request.getRangeHeader());
+                }
+                if (code != 206) {
+                    throw new HttpStatusException(code, null, response.header("Retry-After"));
+                }
+                long[] range = parseContentRange(response.header("Content-Range"));
+                if (range != null && (range[0] != segment.nextOffset() || (range[2] >= 0 && range[2] != total))) {
+                    throw new SegmentationUnsupportedException("Content-Range inesperado: " + response.header("Content-Range"));
+                }
+
+                long expected = segment.remaining();
+                long received;
+                try (InputStream in = response.body();
+                     OutputStream out = job.getTarget().openOutput(segment.nextOffset())) {
+                    received = copy(in, out, stats, ticker, stop, segment, job.getThroughput());
+                }
+
+                if (!segment.isComplete() && !stop.shouldStop()) {
+                    throw new TruncatedBodyException(expected, received);
+                }
+
+            } catch (SegmentationUnsupportedException e) {
+                throw e;
+            } catch (HttpStatusException e) {
+                if (e.isLinkExpired() && refreshUrl(job, url, stats)) {
+                    continue;
+                }
+                failures = segment.getDownloaded() > downloadedBefore ? 1 : failures + 1;
+                if (!retryPolicy.isRetryable(e) || !retryPolicy.canRetry(failures)) {
+                    throw e;
+                }
+                backoff(failures, e, stats);
+            } catch (IOException e) {
+                if (stop.shouldStop()) {
+                    return;
+                }
+                failures = segment.getDownloaded() > downloadedBefore ? 1 : failures + 1;
+                if (!retryPolicy.isRetryable(e) || !retryPolicy.canRetry(failures)) {
+                    throw e;
+                }
+                backoff(failures, e, stats);
+            }
+        }
+    }
+
+    private void saveJournal(DownloadJob job, List<Segment> segments) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.save(job.getKey(), segments);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to save journal for " + job.getKey(), e);
+        }
+    }
+
+    // ==================== Auxiliares ====================
+
+    private long copy(InputStream in, OutputStream out, TransferStats stats, ProgressTicker ticker,
+                      StopSignal stop, Segment segment, ThroughputEstimator throughput) throws IOException {
+        byte[] buffer = new byte[bufferSize];
+        buffersInUse.incrementAndGet();
+        try {
+            return copyWith(buffer, in, out, stats, ticker, stop, segment, throughput);
+        } finally {
+            buffersInUse.decrementAndGet();
+        }
+    }
+
+    private long copyWith(byte[] buffer, InputStream in, OutputStream out, TransferStats stats,
+                          ProgressTicker ticker, StopSignal stop, Segment segment,
+                          ThroughputEstimator throughput) throws IOException {
+        long received = 0;
+        int read;
+
+        while (true) {
+            if (stop.shouldStop()) {
+                stats.setStopped(true);
+                break;
+            }
+
+            int toRead = buffer.length;
+            if (segment != null) {
+                // Não passar do fim do segmento mesmo que o servidor envie mais
+                long remaining = segment.remaining();
+                if (remaining <= 0) {
+                    break;
+                }
+                toRead = (int) Math.min(toRead, remaining);
+            }
+
+            Tracing.begin("engine.read");
+            try {
+                read = in.read(buffer, 0, toRead);
+            } finally {
+                Tracing.end();
+            }
+            if (read == -1) {
+                break;
+            }
+
+            Tracing.begin("engine.write");
+            try {
+                long writeStart = System.nanoTime();
+                out.write(buffer, 0, read);
+                recordStorageWrite(stats, System.nanoTime() - writeStart);
+            } finally {
+                Tracing.end();
+            }
+            received += read;
+            stats.addTransferred(read);
+            if (segment != null) {
+                segment.addDownloaded(read);
+            }
+            if (throughput != null) {
+                throughput.record(read);
+            }
+            ticker.add(read);
+        }
+
+        Tracing.begin("engine.flush");
+        try {
+            long flushStart = System.nanoTime();
+            out.flush();
+            recordStorageWrite(stats, System.nanoTime() - flushStart);
+        } finally {
+            Tracing.end();
+        }
+        return received;
+    }
+
+    private void recordStorageWrite(TransferStats stats, long nanos) {
+        stats.addStorageWrite(nanos);
+        storageWriteNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Renova o link depois que {@code expiredUrl} levou 403/410. Uma renovação por versão da URL:
+     * os outros segmentos que falharam com o mesmo link só repetem com o novo, sem gastar o limite,
+     * que conta só renovações seguidas sem bytes novos entre elas (como {@code failures} nas tentativas).
+     * O lock é do job, então a renovação lenta de um download não segura os demais
+     * @return true para tentar de novo com {@link UrlSource#currentUrl()}
+     */
+    private boolean refreshUrl(DownloadJob job, String expiredUrl, TransferStats stats) throws IOException {
+        synchronized (job) {
+            if (!expiredUrl.equals(job.getUrlSource().currentUrl())) {
+                return true;
+            }
+            if (stats.getRefreshesWithoutProgress() >= MAX_URL_REFRESHES) {
+                return false;
+            }
+            String url = job.getUrlSource().refresh();
+            if (url == null || url.isEmpty()) {
+                return false;
+            }
+            stats.recordUrlRefresh();
+            LOG.log(Level.INFO, "Download link refreshed for " + job.getKey());
+            return true;
+        }
+    }
+
+    private void backoff(int failures, IOException cause, TransferStats stats) throws IOException {
+        stats.incrementRetries(RetryPolicy.classify(cause));
+        long delay = retryPolicy.delayForAttempt(failures);
+
+        if (cause instanceof HttpStatusException) {
+            long retryAfter = parseRetryAfterMs(((HttpStatusException) cause).getRetryAfter());
+            delay = Math.max(delay, retryAfter);
+        }
+
+        LOG.log(Level.INFO, "Retry " + failures + " in " + delay + "ms after: " + cause.getMessage());
+        if (!retryPolicy.sleep(delay)) {
+            throw new InterruptedIOException("Download interrompido");
+        }
+    }
+
+    /**
+     * Uma tentativa que recebeu bytes zera a contagem de falhas consecutivas,
+     * senão downloads longos em redes instáveis esgotariam as tentativas
+     */
+    private static boolean madeProgress(TransferStats stats, long transferredBefore) {
+        return stats.getBytesTransferred() > transferredBefore;
+    }
+
+    private static long lengthOrUnknown(long offset, long contentLength) {
+        return contentLength >= 0 ? offset + contentLength : -1;
+    }
+
+    private static long sumDownloaded(List<Segment> segments) {
+        long sum = 0;
+        for (Segment segment : segments) {
+            sum += segment.getDownloaded();
+        }
+        return sum;
+    }
+
+    private static IOException toIOException(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Interpreta "bytes início-fim/total" ou "bytes * /total"
+     * @return {início, fim, total}, com -1 nos campos ausentes; null se inválido
+     */
+    static long[] parseContentRange(String value) {
+        if (value == null) {
+            return null;
+        }
+        String v = value.trim();
+        if (!v.startsWith("bytes")) {
+            return null;
+        }
+        v = v.substring(5).trim();
+
+        int slash = v.indexOf('/');
+        if (slash < 0) {
+            return null;
+        }
+
+        try {
+            String rangePart = v.substring(0, slash).trim();
+            String totalPart = v.substring(slash + 1).trim();
+            long total = "*".equals(totalPart) ? -1 : Long.parseLong(totalPart);
+
+            if ("*".equals(rangePart)) {
+                return new long[] { -1, -1, total };
+            }
+            int dash = rangePart.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long start = Long.parseLong(rangePart.substring(0, dash).trim());
+            long end = Long.parseLong(rangePart.substring(dash + 1).trim());
+            return new long[] { start, end, total };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retry-After em segundos; datas HTTP são ignoradas
+     */
+    static long parseRetryAfterMs(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Limita a frequência das chamadas ao ProgressListener
+     */
+    private static class ProgressTicker {
+
+        private final ProgressListener listener;
+        private final long intervalMs;
+        private long downloaded;
+        private long total = -1;
+        private long lastReport;
+
+        ProgressTicker(ProgressListener listener, long intervalMs) {
+            this.listener = listener;
+            this.intervalMs = intervalMs;
+            this.lastReport = System.currentTimeMillis();
+        }
+
+        synchronized void reset(long downloaded, long total) {
+            this.downloaded = downloaded;
+            this.total = total;
+        }
+
+        synchronized void add(long bytes) {
+            downloaded += bytes;
+            report(downloaded, total, false);
+        }
+
+        synchronized void report(long downloaded, long total, boolean force) {
+            if (listener == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (force || now - lastReport >= intervalMs) {
+                listener.onProgress(downloaded, total);
+                lastReport = now;
+            }
+        }
+    }
+
+    /**
+     * O arquivo local precisa ser descartado antes de continuar
+     */
+    private static class RestartRequiredException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        RestartRequiredException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * O servidor não atende Range por segmento; cair para stream único
+     */
+    private static class SegmentationUnsupportedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        SegmentationUnsupportedException(String message) {
+            super(message);
+        }
+    }
+}
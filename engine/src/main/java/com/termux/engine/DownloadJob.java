@@ -0,0 +1,42 @@
+package com.termux.engine;
+
+/**
+ * Descrição de um arquivo a ser baixado pelo motor
+ */
+public class DownloadJob {
+    
+    private final String key;
+    private final UrlSource urlSource;
+    private final StorageTarget target;
+    private long expectedSize = -1;
+    private String etag;
+    private ThroughputEstimator throughput;
+    
+    /**
+     * @param key Identificador estável do download, usado pelo journal
+     */
+    public DownloadJob(String key, UrlSource urlSource, StorageTarget target) {
+        this.key = key;
+        this.urlSource = urlSource;
+        this.target = target;
+    }
+    
+    public String getKey() { return key; }
+    public UrlSource getUrlSource() { return urlSource; }
+    public StorageTarget getTarget() { return target; }
+    
+    public long getExpectedSize() { return expectedSize; }
+    public void setExpectedSize(long expectedSize) { this.expectedSize = expectedSize; }
+    
+    /**
+     * ETag conhecido do arquivo; quando presente é enviado como If-Range ao retomar
+     */
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+    
+    /**
+     * Estimador que recebe os bytes de todas as conexões deste job (opcional)
+     */
+    public ThroughputEstimator getThroughput() { return throughput; }
+    public void setThroughput(ThroughputEstimator throughput) { this.throughput = throughput; }
+}
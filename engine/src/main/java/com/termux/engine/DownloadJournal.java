@@ -0,0 +1,19 @@
+package com.termux.engine;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Guarda o progresso de cada segmento para retomar downloads paralelos
+ */
+public interface DownloadJournal {
+    
+    /**
+     * @return Segmentos salvos para a chave, ou null se não houver registro
+     */
+    List<Segment> load(String key) throws IOException;
+    
+    void save(String key, List<Segment> segments) throws IOException;
+    
+    void clear(String key);
+}
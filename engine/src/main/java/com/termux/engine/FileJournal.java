@@ -0,0 +1,97 @@
+package com.termux.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal em arquivo texto ao lado do download, uma linha "início fim baixados" por segmento
+ */
+public class FileJournal implements DownloadJournal {
+    
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    private final File directory;
+    
+    public FileJournal(File directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public synchronized List<Segment> load(String key) throws IOException {
+        File file = fileFor(key);
+        if (!file.exists()) {
+            return null;
+        }
+        
+        List<Segment> segments = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                if (parts.length != 3) {
+                    // Journal corrompido, recomeçar do zero é mais seguro
+                    return null;
+                }
+                Segment segment = new Segment(segments.size(), Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                segment.setDownloaded(Long.parseLong(parts[2]));
+                segments.add(segment);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        
+        return segments.isEmpty() ? null : segments;
+    }
+    
+    @Override
+    public synchronized void save(String key, List<Segment> segments) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Não foi possível criar diretório do journal: " + directory);
+        }
+        
+        // Gravar em arquivo temporário e renomear para não deixar journal pela metade
+        File tmp = new File(directory, sanitize(key) + ".journal.tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), UTF8)) {
+            for (Segment segment : segments) {
+                writer.write(segment.getStart() + " " + segment.getEnd() + " " + segment.getDownloaded() + "\n");
+            }
+        }
+        
+        File file = fileFor(key);
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Não foi possível substituir journal: " + file);
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Não foi possível gravar journal: " + file);
+        }
+    }
+    
+    @Override
+    public synchronized void clear(String key) {
+        File file = fileFor(key);
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+    
+    private File fileFor(String key) {
+        return new File(directory, sanitize(key) + ".journal");
+    }
+    
+    private static String sanitize(String key) {
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+}
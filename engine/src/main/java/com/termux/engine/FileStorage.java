@@ -0,0 +1,79 @@
+package com.termux.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+/**
+ * Destino baseado em java.io.File, com acesso aleatório para segmentos paralelos
+ */
+public class FileStorage implements StorageTarget {
+    
+    private final File file;
+    
+    public FileStorage(File file) {
+        this.file = file;
+    }
+    
+    public File getFile() {
+        return file;
+    }
+    
+    @Override
+    public long length() {
+        return file.exists() ? file.length() : 0;
+    }
+    
+    @Override
+    public OutputStream openOutput(long offset) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Não foi possível criar diretório: " + parent);
+        }
+        
+        // Não truncar: outros segmentos podem estar gravando no mesmo arquivo
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(offset);
+        return new RandomAccessOutputStream(raf);
+    }
+    
+    @Override
+    public boolean supportsRandomAccess() {
+        return true;
+    }
+    
+    @Override
+    public boolean delete() {
+        return !file.exists() || file.delete();
+    }
+    
+    @Override
+    public String describe() {
+        return file.getAbsolutePath();
+    }
+    
+    private static class RandomAccessOutputStream extends OutputStream {
+        
+        private final RandomAccessFile raf;
+        
+        RandomAccessOutputStream(RandomAccessFile raf) {
+            this.raf = raf;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            raf.write(b);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            raf.write(b, off, len);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            raf.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.termux.engine;
+
+import java.io.IOException;
+
+/**
+ * Resposta HTTP com código inesperado
+ */
+public class HttpStatusException extends IOException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int code;
+    private final String retryAfter;
+    
+    public HttpStatusException(int code, String message) {
+        this(code, message, null);
+    }
+    
+    public HttpStatusException(int code, String message, String retryAfter) {
+        super("HTTP " + code + (message != null ? ": " + message : ""));
+        this.code = code;
+        this.retryAfter = retryAfter;
+    }
+    
+    public int getCode() {
+        return code;
+    }
+    
+    /**
+     * Valor bruto do header Retry-After, se o servidor enviou
+     */
+    public String getRetryAfter() {
+        return retryAfter;
+    }
+    
+    /**
+     * Links de CDN assinados do GOG expiram e passam a responder 403/410
+     */
+    public boolean isLinkExpired() {
+        return code == 403 || code == 410;
+    }
+}
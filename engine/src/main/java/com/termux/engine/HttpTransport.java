@@ -0,0 +1,16 @@
+package com.termux.engine;
+
+import java.io.IOException;
+
+/**
+ * Abstração do cliente HTTP usado pelo motor de download
+ * No Android é implementada sobre OkHttp; na JVM pode ser qualquer cliente
+ */
+public interface HttpTransport {
+    
+    /**
+     * Executa a requisição e retorna a resposta com o corpo ainda aberto.
+     * O chamador é responsável por fechar a resposta.
+     */
+    TransferResponse execute(TransferRequest request) throws IOException;
+}
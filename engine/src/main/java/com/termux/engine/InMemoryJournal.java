@@ -0,0 +1,44 @@
+package com.termux.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Journal em memória, útil para benchmarks e quando não há onde persistir
+ */
+public class InMemoryJournal implements DownloadJournal {
+    
+    private final ConcurrentHashMap<String, long[][]> entries = new ConcurrentHashMap<>();
+    
+    @Override
+    public List<Segment> load(String key) {
+        long[][] rows = entries.get(key);
+        if (rows == null) {
+            return null;
+        }
+        
+        List<Segment> segments = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            Segment segment = new Segment(i, rows[i][0], rows[i][1]);
+            segment.setDownloaded(rows[i][2]);
+            segments.add(segment);
+        }
+        return segments;
+    }
+    
+    @Override
+    public void save(String key, List<Segment> segments) {
+        long[][] rows = new long[segments.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            Segment segment = segments.get(i);
+            rows[i] = new long[] { segment.getStart(), segment.getEnd(), segment.getDownloaded() };
+        }
+        entries.put(key, rows);
+    }
+    
+    @Override
+    public void clear(String key) {
+        entries.remove(key);
+    }
+}
@@ -0,0 +1,13 @@
+package com.termux.engine;
+
+/**
+ * Recebe atualizações de progresso do motor, no máximo uma por intervalo configurado
+ */
+public interface ProgressListener {
+    
+    /**
+     * @param downloadedBytes Bytes presentes no destino, incluindo os de sessões anteriores
+     * @param totalBytes Tamanho total, ou -1 se desconhecido
+     */
+    void onProgress(long downloadedBytes, long totalBytes);
+}
@@ -0,0 +1,43 @@
+package com.termux.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide um arquivo em segmentos para download paralelo
+ */
+public final class RangePlanner {
+    
+    private RangePlanner() {
+    }
+    
+    /**
+     * Planeja os segmentos de um arquivo
+     * @param totalSize Tamanho total (<= 0 gera um único segmento aberto)
+     * @param maxSegments Número máximo de conexões
+     * @param minSegmentSize Tamanho mínimo de cada segmento, evita dividir arquivos pequenos
+     */
+    public static List<Segment> plan(long totalSize, int maxSegments, long minSegmentSize) {
+        List<Segment> segments = new ArrayList<>();
+        
+        if (totalSize <= 0) {
+            segments.add(new Segment(0, 0, -1));
+            return segments;
+        }
+        
+        long bySize = minSegmentSize > 0 ? totalSize / minSegmentSize : maxSegments;
+        int count = (int) Math.max(1, Math.min(Math.max(1, maxSegments), bySize));
+        long baseSize = totalSize / count;
+        long remainder = totalSize % count;
+        
+        long start = 0;
+        for (int i = 0; i < count; i++) {
+            // Distribuir o resto entre os primeiros segmentos
+            long size = baseSize + (i < remainder ? 1 : 0);
+            segments.add(new Segment(i, start, start + size - 1));
+            start += size;
+        }
+        
+        return segments;
+    }
+}
@@ -0,0 +1,110 @@
+package com.termux.engine;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+/**
+ * Política de novas tentativas com backoff exponencial
+ */
+public class RetryPolicy {
+    
+    private final int maxAttempts;
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final double multiplier;
+    
+    public RetryPolicy(int maxAttempts, long initialDelayMs, long maxDelayMs, double multiplier) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMs = Math.max(0, initialDelayMs);
+        this.maxDelayMs = Math.max(this.initialDelayMs, maxDelayMs);
+        this.multiplier = Math.max(1.0, multiplier);
+    }
+    
+    /**
+     * Padrão usado pelo app: 5 tentativas, 1s inicial, máximo de 30s
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(5, 1000, 30000, 2.0);
+    }
+    
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, 0, 0, 1.0);
+    }
+    
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+    
+    /**
+     * Espera antes da tentativa seguinte
+     * @param attempt Número da falha atual, começando em 1
+     */
+    public long delayForAttempt(int attempt) {
+        double delay = initialDelayMs * Math.pow(multiplier, Math.max(0, attempt - 1));
+        return (long) Math.min(delay, maxDelayMs);
+    }
+    
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+    
+    /**
+     * Classifica se uma falha é transitória
+     */
+    public boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException) {
+            return isRetryableStatus(((HttpStatusException) e).getCode());
+        }
+        if (e instanceof UnknownHostException) {
+            // Rede caiu ou trocou; vale tentar de novo
+            return true;
+        }
+        return e instanceof SocketTimeoutException
+                || e instanceof SocketException
+                || e instanceof InterruptedIOException
+                || e instanceof TruncatedBodyException
+                || e.getClass() == IOException.class
+                || e instanceof java.io.EOFException;
+    }
+    
+    /**
+     * Nome curto da classe de falha, usado nas métricas de retry
+     */
+    public static String classify(IOException e) {
+        if (e instanceof HttpStatusException) {
+            int code = ((HttpStatusException) e).getCode();
+            if (code == 429) return "http_429";
+            if (code >= 500 && code <= 599) return "http_5xx";
+            if (((HttpStatusException) e).isLinkExpired()) return "link_expired";
+            return "http_other";
+        }
+        if (e instanceof TruncatedBodyException || e instanceof java.io.EOFException) return "truncated";
+        if (e instanceof SocketTimeoutException) return "timeout";
+        if (e instanceof UnknownHostException) return "dns";
+        if (e instanceof SocketException) return "reset";
+        return "io";
+    }
+    
+    public boolean isRetryableStatus(int code) {
+        return code == 408 || code == 429 || (code >= 500 && code <= 599);
+    }
+    
+    /**
+     * Dorme pelo tempo de backoff; retorna false se a thread foi interrompida
+     */
+    public boolean sleep(long delayMs) {
+        if (delayMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delayMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.termux.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Intervalo contíguo [start, end] de um arquivo baixado por uma conexão
+ */
+public class Segment {
+    
+    private final int index;
+    private final long start;
+    private final long end;
+    private final AtomicLong downloaded = new AtomicLong();
+    
+    /**
+     * @param end Último byte do segmento, inclusivo (-1 quando o tamanho é desconhecido)
+     */
+    public Segment(int index, long start, long end) {
+        this.index = index;
+        this.start = start;
+        this.end = end;
+    }
+    
+    public int getIndex() { return index; }
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+    
+    public long getDownloaded() { return downloaded.get(); }
+    public void setDownloaded(long bytes) { downloaded.set(bytes); }
+    public long addDownloaded(long bytes) { return downloaded.addAndGet(bytes); }
+    
+    /**
+     * Próximo byte a ser pedido ao servidor
+     */
+    public long nextOffset() {
+        return start + downloaded.get();
+    }
+    
+    /**
+     * Tamanho do segmento, ou -1 se aberto
+     */
+    public long length() {
+        return end >= 0 ? end - start + 1 : -1;
+    }
+    
+    public long remaining() {
+        long length = length();
+        return length >= 0 ? length - downloaded.get() : -1;
+    }
+    
+    public boolean isComplete() {
+        return end >= 0 && downloaded.get() >= length();
+    }
+    
+    @Override
+    public String toString() {
+        return "Segment{" +
+                "index=" + index +
+                ", range=" + start + "-" + end +
+                ", downloaded=" + downloaded.get() +
+                '}';
+    }
+}
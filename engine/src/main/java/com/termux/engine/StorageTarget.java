@@ -0,0 +1,35 @@
+package com.termux.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Destino onde os bytes baixados são gravados
+ * No Android pode ser um DocumentFile (SAF) ou um File comum
+ */
+public interface StorageTarget {
+    
+    /**
+     * Quantidade de bytes já presentes no destino (0 se não existir)
+     */
+    long length() throws IOException;
+    
+    /**
+     * Abre um stream de escrita a partir de offset, sem truncar o restante.
+     * Destinos sem acesso aleatório só aceitam offset 0 em destino vazio
+     * ou offset igual a length() (anexar).
+     */
+    OutputStream openOutput(long offset) throws IOException;
+    
+    /**
+     * Indica se openOutput aceita qualquer offset, permitindo segmentos paralelos
+     */
+    boolean supportsRandomAccess();
+    
+    boolean delete();
+    
+    /**
+     * Descrição legível para logs (nome do arquivo ou URI)
+     */
+    String describe();
+}
@@ -0,0 +1,193 @@
+package com.termux.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimador de vazão thread-safe alimentado por vários contadores (segmentos, conexões, arquivos)
+ *
+ * Cada fonte chama {@link #record(long)} a cada leitura; a amostragem é feita sob demanda quando
+ * alguém consulta a vazão, no máximo uma vez por intervalo. A vazão suavizada é uma EWMA com
+ * meia-vida fixa, corrigida pelo tempo real entre amostras, e a janela deslizante das últimas
+ * amostras dá percentis para decisões que não devem reagir a picos.
+ *
+ * Um estimador pode ter um pai: os bytes registrados no filho também contam no pai, então um
+ * estimador por lote e um global do serviço enxergam o mesmo tráfego sem contagem dupla na fonte.
+ */
+public class ThroughputEstimator {
+    
+    public static final long DEFAULT_SAMPLE_INTERVAL_MS = 500;
+    public static final long DEFAULT_HALF_LIFE_MS = 5000;
+    public static final long DEFAULT_WINDOW_MS = 30000;
+    
+    /**
+     * Relógio em milissegundos; substituível nos benchmarks
+     */
+    public interface Clock {
+        long nowMs();
+    }
+    
+    private final ThroughputEstimator parent;
+    private final long sampleIntervalMs;
+    private final double tauMs;
+    private final Clock clock;
+    private final LongAdder bytes = new LongAdder();
+    
+    // Janela deslizante de amostras (bytes/s), circular
+    private final double[] windowRates;
+    private final long[] windowTimes;
+    private final long windowMs;
+    private int windowNext;
+    private int windowSize;
+    
+    private long lastSampleAt;
+    private long lastSampleBytes;
+    private double ewma;
+    private boolean hasSample;
+    
+    public ThroughputEstimator() {
+        this(null);
+    }
+    
+    public ThroughputEstimator(ThroughputEstimator parent) {
+        this(parent, DEFAULT_SAMPLE_INTERVAL_MS, DEFAULT_HALF_LIFE_MS, DEFAULT_WINDOW_MS, System::currentTimeMillis);
+    }
+    
+    /**
+     * @param halfLifeMs Tempo para uma mudança de vazão pesar metade na EWMA
+     * @param windowMs Duração da janela usada pelos percentis
+     */
+    public ThroughputEstimator(ThroughputEstimator parent, long sampleIntervalMs, long halfLifeMs,
+                               long windowMs, Clock clock) {
+        this.parent = parent;
+        this.sampleIntervalMs = Math.max(1, sampleIntervalMs);
+        this.tauMs = Math.max(1, halfLifeMs) / Math.log(2);
+        this.windowMs = Math.max(this.sampleIntervalMs, windowMs);
+        this.clock = clock;
+        int capacity = (int) Math.min(4096, this.windowMs / this.sampleIntervalMs + 2);
+        this.windowRates = new double[capacity];
+        this.windowTimes = new long[capacity];
+        this.lastSampleAt = clock.nowMs();
+    }
+    
+    /**
+     * Registra bytes recebidos por qualquer fonte; pode ser chamado de qualquer thread sem bloquear
+     */
+    public void record(long count) {
+        bytes.add(count);
+        if (parent != null) {
+            parent.record(count);
+        }
+    }
+    
+    public long getTotalBytes() {
+        return bytes.sum();
+    }
+    
+    /**
+     * Vazão suavizada em bytes por segundo (0 antes da primeira amostra)
+     */
+    public synchronized double getRate() {
+        sampleIfDue();
+        return ewma;
+    }
+    
+    /**
+     * Percentil (0-100) da vazão nas amostras da janela; 0 se ainda não há amostras
+     */
+    public synchronized double getPercentile(double percentile) {
+        sampleIfDue();
+        if (windowSize == 0) {
+            return 0;
+        }
+        double[] sorted = new double[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            sorted[i] = windowRates[i];
+        }
+        Arrays.sort(sorted);
+        double clamped = Math.max(0, Math.min(100, percentile));
+        int index = (int) Math.round(clamped / 100.0 * (sorted.length - 1));
+        return sorted[index];
+    }
+    
+    /**
+     * Tempo restante em segundos para {@code remainingBytes}, ou 0 enquanto a vazão é desconhecida
+     */
+    public long estimateEtaSeconds(long remainingBytes) {
+        if (remainingBytes <= 0) {
+            return 0;
+        }
+        double rate = getRate();
+        if (rate < 1) {
+            return 0;
+        }
+        return (long) Math.ceil(remainingBytes / rate);
+    }
+    
+    /**
+     * Esquece o histórico (mantém o total de bytes)
+     */
+    public synchronized void reset() {
+        lastSampleAt = clock.nowMs();
+        lastSampleBytes = bytes.sum();
+        ewma = 0;
+        hasSample = false;
+        windowNext = 0;
+        windowSize = 0;
+    }
+    
+    private void sampleIfDue() {
+        long now = clock.nowMs();
+        long elapsed = now - lastSampleAt;
+        if (elapsed < sampleIntervalMs) {
+            return;
+        }
+        
+        long total = bytes.sum();
+        double rate = (total - lastSampleBytes) * 1000.0 / elapsed;
+        lastSampleAt = now;
+        lastSampleBytes = total;
+        
+        if (!hasSample) {
+            ewma = rate;
+            hasSample = true;
+        } else {
+            // Peso proporcional ao tempo real desde a última amostra (consultas podem atrasar)
+            double alpha = 1 - Math.exp(-elapsed / tauMs);
+            ewma += alpha * (rate - ewma);
+        }
+        
+        windowRates[windowNext] = rate;
+        windowTimes[windowNext] = now;
+        windowNext = (windowNext + 1) % windowRates.length;
+        if (windowSize < windowRates.length) {
+            windowSize++;
+        }
+        evictOldSamples(now);
+    }
+    
+    private void evictOldSamples(long now) {
+        int start = windowSize < windowRates.length ? 0 : windowNext;
+        if (now - windowTimes[start] <= windowMs) {
+            // A amostra mais antiga ainda vale, então todas valem
+            return;
+        }
+        
+        // Compacta mantendo só amostras dentro da janela
+        int kept = 0;
+        double[] rates = new double[windowSize];
+        long[] times = new long[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            int index = (start + i) % windowRates.length;
+            if (now - windowTimes[index] <= windowMs) {
+                rates[kept] = windowRates[index];
+                times[kept] = windowTimes[index];
+                kept++;
+            }
+        }
+        System.arraycopy(rates, 0, windowRates, 0, kept);
+        System.arraycopy(times, 0, windowTimes, 0, kept);
+        windowSize = kept;
+        windowNext = kept % windowRates.length;
+    }
+}
@@ -0,0 +1,12 @@
+package com.termux.engine;
+
+/**
+ * Destino das seções de trace da plataforma (no Android, android.os.Trace)
+ * begin/end são sempre chamados aos pares e na mesma thread
+ */
+public interface TraceSink {
+    
+    void beginSection(String name);
+    
+    void endSection();
+}
@@ -0,0 +1,130 @@
+package com.termux.engine;
+
+/**
+ * Seções de trace dos caminhos quentes, no mesmo estilo do android.os.Trace:
+ * <pre>
+ * Tracing.begin("engine.write");
+ * try {
+ *     ...
+ * } finally {
+ *     Tracing.end();
+ * }
+ * </pre>
+ * Cada seção vai para o TraceSink da plataforma e, com a gravação ligada, para o ChromeTraceRecorder.
+ * Sem sink e sem gravação, begin/end só consultam dois campos voláteis.
+ */
+public final class Tracing {
+    
+    private static final int MAX_DEPTH = 64;
+    
+    private static volatile TraceSink platformSink;
+    private static volatile ChromeTraceRecorder recorder;
+    
+    private static final ThreadLocal<Frames> frames = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
+        }
+    };
+    
+    /**
+     * Pilha de seções abertas na thread; guardar o recorder evita fechar no recorder errado
+     * quando a gravação é trocada no meio de uma seção
+     */
+    private static class Frames {
+        final String[] names = new String[MAX_DEPTH];
+        final long[] starts = new long[MAX_DEPTH];
+        final ChromeTraceRecorder[] recorders = new ChromeTraceRecorder[MAX_DEPTH];
+        final boolean[] platform = new boolean[MAX_DEPTH];
+        int depth;
+        ChromeTraceRecorder registeredWith;
+    }
+    
+    private Tracing() {
+    }
+    
+    public static void setPlatformSink(TraceSink sink) {
+        platformSink = sink;
+    }
+    
+    /**
+     * Começa a gravar num buffer novo com espaço para {@code capacity} eventos
+     */
+    public static ChromeTraceRecorder startRecording(int capacity) {
+        ChromeTraceRecorder created = new ChromeTraceRecorder(capacity);
+        recorder = created;
+        return created;
+    }
+    
+    /**
+     * Para a gravação e devolve o buffer para exportar (null se não estava gravando)
+     */
+    public static ChromeTraceRecorder stopRecording() {
+        ChromeTraceRecorder current = recorder;
+        recorder = null;
+        return current;
+    }
+    
+    public static ChromeTraceRecorder getRecorder() {
+        return recorder;
+    }
+    
+    public static boolean isRecording() {
+        return recorder != null;
+    }
+    
+    public static void begin(String name) {
+        TraceSink sink = platformSink;
+        ChromeTraceRecorder current = recorder;
+        if (sink == null && current == null) {
+            return;
+        }
+        
+        Frames stack = frames.get();
+        if (stack.depth >= MAX_DEPTH) {
+            // Seções abertas demais (end esquecido); contar para manter os pares
+            stack.depth++;
+            return;
+        }
+        int depth = stack.depth++;
+        stack.names[depth] = name;
+        stack.recorders[depth] = current;
+        stack.platform[depth] = sink != null;
+        if (current != null) {
+            if (stack.registeredWith != current) {
+                Thread thread = Thread.currentThread();
+                current.registerThread(thread.getId(), thread.getName());
+                stack.registeredWith = current;
+            }
+            stack.starts[depth] = System.nanoTime();
+        }
+        if (sink != null) {
+            sink.beginSection(name);
+        }
+    }
+    
+    public static void end() {
+        Frames stack = frames.get();
+        if (stack.depth == 0) {
+            return;
+        }
+        int depth = --stack.depth;
+        if (depth >= MAX_DEPTH) {
+            return;
+        }
+        
+        ChromeTraceRecorder owner = stack.recorders[depth];
+        if (owner != null) {
+            owner.record(stack.names[depth], Thread.currentThread().getId(),
+                    stack.starts[depth], System.nanoTime());
+            stack.recorders[depth] = null;
+        }
+        if (stack.platform[depth]) {
+            TraceSink sink = platformSink;
+            if (sink != null) {
+                sink.endSection();
+            }
+        }
+        stack.names[depth] = null;
+    }
+}
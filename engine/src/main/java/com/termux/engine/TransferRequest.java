@@ -0,0 +1,70 @@
+package com.termux.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Requisição GET de um intervalo de bytes
+ */
+public class TransferRequest {
+    
+    private final String url;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final Map<String, String> headers;
+    private String tag;
+    
+    /**
+     * @param url URL do arquivo
+     * @param rangeStart Primeiro byte desejado (0 para o arquivo inteiro)
+     * @param rangeEnd Último byte desejado, inclusivo (-1 para ir até o fim)
+     */
+    public TransferRequest(String url, long rangeStart, long rangeEnd) {
+        this.url = url;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.headers = new LinkedHashMap<>();
+    }
+    
+    public TransferRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+    
+    /**
+     * Identifica o job dono da requisição para a instrumentação do transporte
+     */
+    public TransferRequest tag(String tag) {
+        this.tag = tag;
+        return this;
+    }
+    
+    public String getUrl() { return url; }
+    public long getRangeStart() { return rangeStart; }
+    public long getRangeEnd() { return rangeEnd; }
+    public Map<String, String> getHeaders() { return Collections.unmodifiableMap(headers); }
+    public String getTag() { return tag; }
+    
+    public boolean hasRange() {
+        return rangeStart > 0 || rangeEnd >= 0;
+    }
+    
+    /**
+     * Valor do header Range, ou null quando o arquivo inteiro é pedido
+     */
+    public String getRangeHeader() {
+        if (!hasRange()) {
+            return null;
+        }
+        return "bytes=" + rangeStart + "-" + (rangeEnd >= 0 ? String.valueOf(rangeEnd) : "");
+    }
+    
+    @Override
+    public String toString() {
+        return "TransferRequest{" +
+                "url='" + url + '\'' +
+                ", range=" + rangeStart + "-" + rangeEnd +
+                '}';
+    }
+}
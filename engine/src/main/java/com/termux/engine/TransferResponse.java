@@ -0,0 +1,28 @@
+package com.termux.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Resposta HTTP devolvida por um {@link HttpTransport}
+ */
+public interface TransferResponse extends Closeable {
+    
+    int code();
+    
+    /**
+     * Tamanho do corpo em bytes, ou -1 se desconhecido
+     */
+    long contentLength();
+    
+    /**
+     * Valor de um header da resposta, ou null
+     */
+    String header(String name);
+    
+    InputStream body() throws IOException;
+    
+    @Override
+    void close();
+}
@@ -0,0 +1,130 @@
+package com.termux.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resultado e contadores de uma execução do motor
+ */
+public class TransferStats {
+    
+    private final AtomicLong bytesTransferred = new AtomicLong();
+    private final AtomicLong bytesWasted = new AtomicLong();
+    private final AtomicInteger retries = new AtomicInteger();
+    private final AtomicInteger urlRefreshes = new AtomicInteger();
+    private final Map<String, AtomicInteger> retriesByClass = new ConcurrentHashMap<>();
+    private final AtomicLong storageWrites = new AtomicLong();
+    private final AtomicLong storageWriteNanos = new AtomicLong();
+    private final AtomicLong maxStorageWriteNanos = new AtomicLong();
+    private volatile long resumedFrom;
+    private volatile long totalBytes = -1;
+    private volatile long elapsedMs;
+    private volatile boolean complete;
+    private volatile boolean stopped;
+    // Renovações de link seguidas sem bytes novos entre elas; só o motor mexe, sob o lock do job
+    private int refreshesWithoutProgress;
+    private long transferredAtLastRefresh;
+    
+    /**
+     * Bytes recebidos e gravados nesta execução
+     */
+    public long getBytesTransferred() { return bytesTransferred.get(); }
+    
+    /**
+     * Bytes baixados de novo porque o servidor ignorou o Range ou o arquivo precisou recomeçar
+     */
+    public long getBytesWasted() { return bytesWasted.get(); }
+    
+    public int getRetries() { return retries.get(); }
+    public int getUrlRefreshes() { return urlRefreshes.get(); }
+    
+    /**
+     * Retries agrupados pela classe da falha (ver {@link RetryPolicy#classify})
+     */
+    public Map<String, Integer> getRetriesByClass() {
+        Map<String, Integer> copy = new HashMap<>();
+        for (Map.Entry<String, AtomicInteger> entry : retriesByClass.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().get());
+        }
+        return copy;
+    }
+
+    
+    /**
+     * Chamadas de escrita no destino e tempo gasto nelas (inclui o flush final)
+     */
+    public long getStorageWrites() { return storageWrites.get(); }
+    public long getStorageWriteNanos() { return storageWriteNanos.get(); }
+    public long getMaxStorageWriteNanos() { return maxStorageWriteNanos.get(); }
+    
+    public long getResumedFrom() { return resumedFrom; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getElapsedMs() { return elapsedMs; }
+    public boolean isComplete() { return complete; }
+    public boolean isStopped() { return stopped; }
+    
+    void addTransferred(long bytes) { bytesTransferred.addAndGet(bytes); }
+    void addWasted(long bytes) { bytesWasted.addAndGet(bytes); }
+    void incrementRetries(String failureClass) {
+        retries.incrementAndGet();
+        retriesByClass.computeIfAbsent(failureClass, k -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    /**
+     * Renovações seguidas sem bytes recebidos desde a anterior; qualquer progresso zera a conta
+     */
+    int getRefreshesWithoutProgress() {
+        if (bytesTransferred.get() > transferredAtLastRefresh) {
+            refreshesWithoutProgress = 0;
+        }
+        return refreshesWithoutProgress;
+    }
+    
+    void recordUrlRefresh() {
+        urlRefreshes.incrementAndGet();
+        refreshesWithoutProgress = getRefreshesWithoutProgress() + 1;
+        transferredAtLastRefresh = bytesTransferred.get();
+    }
+    
+    void addStorageWrite(long nanos) {
+        storageWrites.incrementAndGet();
+        storageWriteNanos.addAndGet(nanos);
+        long max;
+        do {
+            max = maxStorageWriteNanos.get();
+        } while (nanos > max && !maxStorageWriteNanos.compareAndSet(max, nanos));
+    }
+
+    void setResumedFrom(long offset) { this.resumedFrom = offset; }
+    void setTotalBytes(long total) { this.totalBytes = total; }
+    void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    void setComplete(boolean complete) { this.complete = complete; }
+    void setStopped(boolean stopped) { this.stopped = stopped; }
+    
+    /**
+     * Velocidade média em bytes por segundo
+     */
+    public long getAverageSpeed() {
+        return elapsedMs > 0 ? bytesTransferred.get() * 1000 / elapsedMs : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "TransferStats{" +
+                "transferred=" + bytesTransferred.get() +
+                ", wasted=" + bytesWasted.get() +
+                ", retries=" + retries.get() +
+                ", urlRefreshes=" + urlRefreshes.get() +
+                ", storageWrites=" + storageWrites.get() +
+                ", storageWriteMs=" + storageWriteNanos.get() / 1000000 +
+                ", resumedFrom=" + resumedFrom +
+                ", total=" + totalBytes +
+                ", elapsedMs=" + elapsedMs +
+                ", complete=" + complete +
+                ", stopped=" + stopped +
+                '}';
+    }
+}
@@ -0,0 +1,15 @@
+package com.termux.engine;
+
+import java.io.IOException;
+
+/**
+ * O servidor fechou a conexão antes de enviar todos os bytes esperados
+ */
+public class TruncatedBodyException extends IOException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public TruncatedBodyException(long expected, long received) {
+        super("Corpo truncado: esperado " + expected + " bytes, recebido " + received);
+    }
+}
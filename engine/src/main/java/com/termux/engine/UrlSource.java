@@ -0,0 +1,31 @@
+package com.termux.engine;
+
+import java.io.IOException;
+
+/**
+ * Fornece a URL de download e permite renová-la quando o link assinado expira
+ */
+public interface UrlSource {
+    
+    String currentUrl();
+    
+    /**
+     * Resolve uma nova URL depois de 403/410
+     * @return Nova URL, ou null se não for possível renovar
+     */
+    String refresh() throws IOException;
+    
+    static UrlSource fixed(final String url) {
+        return new UrlSource() {
+            @Override
+            public String currentUrl() {
+                return url;
+            }
+            
+            @Override
+            public String refresh() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,229 @@
+package com.termux.engine;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DownloadEngineTest {
+
+    private static final String KEY = "game-1-setup";
+    private static final String EXPIRED_URL = "https://cdn.example/setup.exe?token=1";
+    private static final String FRESH_URL = "https://cdn.example/setup.exe?token=2";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void parsesContentRange() {
+        assertArrayEquals(new long[] { 0, 99, 1000 }, DownloadEngine.parseContentRange("bytes 0-99/1000"));
+        assertArrayEquals(new long[] { 500, 999, -1 }, DownloadEngine.parseContentRange("bytes 500-999/*"));
+        assertArrayEquals(new long[] { -1, -1, 1000 }, DownloadEngine.parseContentRange("bytes */1000"));
+        assertArrayEquals(new long[] { 0, 99, 1000 }, DownloadEngine.parseContentRange(" bytes  0 - 99 / 1000 "));
+
+        assertNull(DownloadEngine.parseContentRange(null));
+        assertNull(DownloadEngine.parseContentRange("items 0-99/1000"));
+        assertNull(DownloadEngine.parseContentRange("bytes 0-99"));
+        assertNull(DownloadEngine.parseContentRange("bytes 99/1000"));
+        assertNull(DownloadEngine.parseContentRange("bytes a-b/c"));
+    }
+
+    @Test
+    public void resumesSingleStreamFromExistingBytes() throws IOException {
+        byte[] content = content(4000);
+        File file = folder.newFile();
+        Files.write(file.toPath(), Arrays.copyOf(content, 1500));
+
+        FakeTransport transport = new FakeTransport(content, FRESH_URL);
+        DownloadEngine engine = new DownloadEngine(transport, RetryPolicy.none(), 1024, 1, 0);
+        DownloadJob job = new DownloadJob(KEY, UrlSource.fixed(FRESH_URL), new FileStorage(file));
+        job.setExpectedSize(content.length);
+
+        TransferStats stats = engine.download(job, null, null);
+
+        assertTrue(stats.isComplete());
+        assertEquals(1500, stats.getResumedFrom());
+        assertEquals(2500, stats.getBytesTransferred());
+        assertEquals(1, transport.getRequests().size());
+        assertEquals("bytes=1500-", transport.getRequests().get(0).getRangeHeader());
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void resumesSegmentsFromJournal() throws IOException {
+        byte[] content = content(4000);
+        File file = folder.newFile();
+        // Segmentos de 1000 bytes: completo, metade, vazio e um quarto
+        long[] downloaded = { 1000, 500, 0, 250 };
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(content.length);
+            for (int i = 0; i < downloaded.length; i++) {
+                raf.seek(i * 1000L);
+                raf.write(content, i * 1000, (int) downloaded[i]);
+            }
+        }
+        FileJournal journal = new FileJournal(folder.newFolder("journal"));
+        List<Segment> saved = RangePlanner.plan(content.length, 4, 1000);
+        for (int i = 0; i < saved.size(); i++) {
+            saved.get(i).setDownloaded(downloaded[i]);
+        }
+        journal.save(KEY, saved);
+
+        FakeTransport transport = new FakeTransport(content, FRESH_URL);
+        DownloadEngine engine = segmentedEngine(transport);
+        engine.setJournal(journal);
+        DownloadJob job = new DownloadJob(KEY, UrlSource.fixed(FRESH_URL), new FileStorage(file));
+        job.setExpectedSize(content.length);
+
+        TransferStats stats = engine.download(job, null, null);
+
+        assertTrue(stats.isComplete());
+        assertEquals(1750, stats.getResumedFrom());
+        assertEquals(2250, stats.getBytesTransferred());
+        Set<String> ranges = new HashSet<>();
+        for (TransferRequest request : transport.getRequests()) {
+            ranges.add(request.getRangeHeader());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("bytes=1500-1999", "bytes=2000-2999", "bytes=3250-3999")), ranges);
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+        assertNull(journal.load(KEY));
+    }
+
+    @Test
+    public void refreshesExpiredLinkOnceForAllSegments() throws IOException {
+        byte[] content = content(4000);
+        File file = folder.newFile();
+        FakeTransport transport = new FakeTransport(content, FRESH_URL);
+        // Os quatro segmentos recebem 403 do mesmo link antes de qualquer renovação
+        transport.holdExpiredResponses(4);
+        AtomicInteger refreshes = new AtomicInteger();
+        UrlSource urlSource = new UrlSource() {
+            private volatile String url = EXPIRED_URL;
+
+            @Override
+            public String currentUrl() {
+                return url;
+            }
+
+            @Override
+            public String refresh() {
+                refreshes.incrementAndGet();
+                url = FRESH_URL;
+                return url;
+            }
+        };
+
+        DownloadEngine engine = segmentedEngine(transport);
+        DownloadJob job = new DownloadJob(KEY, urlSource, new FileStorage(file));
+        job.setExpectedSize(content.length);
+
+        TransferStats stats = engine.download(job, null, null);
+
+        assertTrue(stats.isComplete());
+        assertEquals(1, refreshes.get());
+        assertEquals(1, stats.getUrlRefreshes());
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void failsWhenLinkCannotBeRefreshed() throws IOException {
+        FakeTransport transport = new FakeTransport(content(4000), FRESH_URL);
+        DownloadEngine engine = new DownloadEngine(transport, RetryPolicy.none(), 1024, 1, 0);
+        DownloadJob job = new DownloadJob(KEY, UrlSource.fixed(EXPIRED_URL), new FileStorage(folder.newFile()));
+
+        try {
+            engine.download(job, null, null);
+            fail("Expected HTTP 403");
+        } catch (HttpStatusException e) {
+            assertEquals(403, e.getCode());
+        }
+    }
+
+    @Test
+    public void stopsRefreshingAfterBudget() throws IOException {
+        FakeTransport transport = new FakeTransport(content(4000), FRESH_URL);
+        // Cada renovação devolve outro link que também já venceu
+        AtomicInteger refreshes = new AtomicInteger();
+        UrlSource urlSource = new UrlSource() {
+            @Override
+            public String currentUrl() {
+                return EXPIRED_URL + "&attempt=" + refreshes.get();
+            }
+
+            @Override
+            public String refresh() {
+                return EXPIRED_URL + "&attempt=" + refreshes.incrementAndGet();
+            }
+        };
+        DownloadEngine engine = new DownloadEngine(transport, RetryPolicy.none(), 1024, 1, 0);
+        DownloadJob job = new DownloadJob(KEY, urlSource, new FileStorage(folder.newFile()));
+
+        try {
+            engine.download(job, null, null);
+            fail("Expected HTTP 403");
+        } catch (HttpStatusException e) {
+            assertEquals(403, e.getCode());
+        }
+        assertEquals(3, refreshes.get());
+    }
+
+    @Test
+    public void keepsRefreshingWhileBytesArrive() throws IOException {
+        byte[] content = content(4000);
+        FakeTransport transport = new FakeTransport(content, FRESH_URL);
+        // Oito links seguidos, cada um vencendo depois de 500 bytes
+        transport.expireLinkAfter(500);
+        UrlSource urlSource = new UrlSource() {
+            private volatile String current = FRESH_URL;
+
+            @Override
+            public String currentUrl() {
+                return current;
+            }
+
+            @Override
+            public String refresh() {
+                current = transport.renewUrl();
+                return current;
+            }
+        };
+        DownloadEngine engine = new DownloadEngine(transport, new RetryPolicy(2, 0, 0, 1.0), 256, 1, 0);
+        File file = folder.newFile();
+        DownloadJob job = new DownloadJob(KEY, urlSource, new FileStorage(file));
+
+        TransferStats stats = engine.download(job, null, null);
+
+        assertTrue(stats.isComplete());
+        assertEquals(7, stats.getUrlRefreshes());
+        assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+    }
+
+    private static DownloadEngine segmentedEngine(HttpTransport transport) {
+        DownloadEngine engine = new DownloadEngine(transport, RetryPolicy.none(), 1024, 4, 0);
+        engine.setMinSegmentSize(1000);
+        return engine;
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31 + 7);
+        }
+        return content;
+    }
+}
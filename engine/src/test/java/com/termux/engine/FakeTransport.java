@@ -0,0 +1,126 @@
+package com.termux.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte em memória para os testes: atende Range, registra as requisições e responde 403
+ * para qualquer URL diferente da válida, como um link assinado vencido
+ */
+class FakeTransport implements HttpTransport {
+
+    private final byte[] content;
+    private volatile String validUrl;
+    private volatile CountDownLatch expiredGate;
+    private volatile int linkBodyLimit = -1;
+    private int renewals;
+    private final List<TransferRequest> requests = Collections.synchronizedList(new ArrayList<>());
+
+    FakeTransport(byte[] content, String validUrl) {
+        this.content = content;
+        this.validUrl = validUrl;
+    }
+
+    /**
+     * Segura as respostas 403 até {@code count} requisições com link vencido chegarem,
+     * para todos os segmentos verem a mesma expiração
+     */
+    void holdExpiredResponses(int count) {
+        expiredGate = new CountDownLatch(count);
+    }
+
+    /**
+     * Cada link válido entrega no máximo {@code bytes} e vence em seguida, como um CDN de TTL curto
+     * num download longo; {@link #renewUrl()} gera o próximo link
+     */
+    void expireLinkAfter(int bytes) {
+        linkBodyLimit = bytes;
+    }
+
+    synchronized String renewUrl() {
+        validUrl = "https://cdn.example/setup.exe?renewal=" + (++renewals);
+        return validUrl;
+    }
+
+    List<TransferRequest> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    @Override
+    public TransferResponse execute(TransferRequest request) {
+        requests.add(request);
+
+        if (!request.getUrl().equals(validUrl)) {
+            CountDownLatch gate = expiredGate;
+            if (gate != null) {
+                gate.countDown();
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new Response(403, 0, 0, null);
+        }
+        if (linkBodyLimit >= 0) {
+            validUrl = null;
+        }
+        if (!request.hasRange()) {
+            return new Response(200, 0, content.length, null);
+        }
+        long start = request.getRangeStart();
+        if (start >= content.length) {
+            return new Response(416, 0, 0, "bytes */" + content.length);
+        }
+        long end = request.getRangeEnd() >= 0 ? Math.min(request.getRangeEnd(), content.length - 1) : content.length - 1;
+        return new Response(206, (int) start, (int) (end - start + 1),
+                "bytes " + start + "-" + end + "/" + content.length);
+    }
+
+    private class Response implements TransferResponse {
+
+        private final int code;
+        private final int offset;
+        private final int length;
+        private final String contentRange;
+
+        Response(int code, int offset, int length, String contentRange) {
+            this.code = code;
+            this.offset = offset;
+            this.length = length;
+            this.contentRange = contentRange;
+        }
+
+        @Override
+        public int code() {
+            return code;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public String header(String name) {
+            return "Content-Range".equalsIgnoreCase(name) ? contentRange : null;
+        }
+
+        @Override
+        public InputStream body() {
+            int limit = linkBodyLimit;
+            return new ByteArrayInputStream(content, offset, limit >= 0 ? Math.min(length, limit) : length);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
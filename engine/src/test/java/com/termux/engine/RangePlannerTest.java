@@ -0,0 +1,49 @@
+package com.termux.engine;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RangePlannerTest {
+
+    @Test
+    public void splitsFileIntoContiguousSegments() {
+        List<Segment> segments = RangePlanner.plan(100, 4, 10);
+
+        assertEquals(4, segments.size());
+        long next = 0;
+        for (Segment segment : segments) {
+            assertEquals(next, segment.getStart());
+            assertEquals(25, segment.length());
+            next = segment.getEnd() + 1;
+        }
+        assertEquals(100, next);
+    }
+
+    @Test
+    public void remainderGoesToFirstSegments() {
+        List<Segment> segments = RangePlanner.plan(10, 3, 1);
+
+        assertEquals(4, segments.get(0).length());
+        assertEquals(3, segments.get(1).length());
+        assertEquals(3, segments.get(2).length());
+        assertEquals(9, segments.get(2).getEnd());
+    }
+
+    @Test
+    public void minSegmentSizeLimitsSegmentCount() {
+        assertEquals(2, RangePlanner.plan(100, 8, 40).size());
+        assertEquals(1, RangePlanner.plan(30, 8, 40).size());
+    }
+
+    @Test
+    public void unknownSizeIsSingleOpenSegment() {
+        List<Segment> segments = RangePlanner.plan(0, 4, 10);
+
+        assertEquals(1, segments.size());
+        assertEquals(0, segments.get(0).getStart());
+        assertEquals(-1, segments.get(0).length());
+    }
+}
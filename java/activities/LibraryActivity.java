@@ -45,14 +45,19 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.termux.R;
 import com.termux.adapters.DownloadLinkAdapter;
 import com.termux.adapters.GamesAdapter;
+import com.termux.api.ApiHttpCache;
 import com.termux.api.GOGAuthManager;
 import com.termux.api.GOGLibraryManager;
+import com.termux.api.LibrarySync;
+import com.termux.api.LoginBootstrap;
+import com.termux.api.NetworkStack;
 import com.termux.database.DatabaseHelper;
 import com.termux.models.DownloadLink;
 import com.termux.models.Game;
 import com.termux.services.DownloadService;
 import com.termux.utils.DynamicColorTester;
 import com.termux.utils.ImageLoader;
+import com.termux.utils.PerformanceHud;
 import com.termux.utils.PermissionHelper;
 import com.termux.utils.PreferencesManager;
 import com.termux.utils.SAFDownloadManager;
@@ -71,12 +76,16 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGameActionListener, FolderPickerDialogFragment.FolderPickerListener {
     
     private static final int SETTINGS_REQUEST_CODE = 100;
+    // Abaixo disso o cache de detalhes responde antes do diálogo de carregamento aparecer
+    private static final long LOADING_DIALOG_DELAY_MS = 200;
     private String sourceFolderPath;
     private String destinationFolderPath;
     
@@ -96,6 +105,9 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     private DatabaseHelper databaseHelper;
     private PermissionHelper permissionHelper;
     private SAFDownloadManager safDownloadManager;
+    private final Set<Long> sizeLoadIds = new HashSet<>(); // Tamanhos sendo buscados no lote atual
+    private final Map<Long, Game> pendingSizeGames = new LinkedHashMap<>(); // Para o lote seguinte
+    private GOGLibraryManager.LibraryPageCallback bootstrapCallback; // Conectado à carga pós-login
     
     // Launcher para seleção de pasta de download
     private ActivityResultLauncher<Intent> folderPickerLauncher;
@@ -108,6 +120,7 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     private BroadcastReceiver installProgressReceiver;
 
     private ActivityResultLauncher<Intent> overlayPermissionLauncher;
+    private PerformanceHud performanceHud;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -166,12 +179,23 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     protected void onResume() {
         super.onResume();
         LocalBroadcastManager.getInstance(this).registerReceiver(downloadProgressReceiver, new IntentFilter(DownloadService.ACTION_DOWNLOAD_PROGRESS));
+        
+        // Overlay de desempenho (Configurações > Diagnóstico)
+        if (preferencesManager.isPerformanceHudEnabled()) {
+            if (performanceHud == null) {
+                performanceHud = new PerformanceHud(this);
+            }
+            performanceHud.start();
+        }
     }
 
     @Override
     protected void onPause() {
         super.onPause();
         LocalBroadcastManager.getInstance(this).unregisterReceiver(downloadProgressReceiver);
+        if (performanceHud != null) {
+            performanceHud.stop();
+        }
     }
     
     private void setupFolderPickerLauncher() {
@@ -695,8 +719,15 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     private void loadLibrary() {
         showLoading(true);
         
+        // Logo após o login a biblioteca já está sendo baixada: receber as páginas dessa carga
+        if (attachToLoginBootstrap()) {
+            return;
+        }
+        
         // Primeiro, tentar carregar do cache local
         List<Game> cachedGames = databaseHelper.getAllGames();
+        // DNS + TLS com os hosts da API e das capas enquanto a lista é desenhada
+        preconnectLaunchHosts(cachedGames);
         if (!cachedGames.isEmpty()) {
             displayGames(cachedGames);
             showLoading(false);
@@ -712,21 +743,68 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
         }
     }
     
+    private boolean attachToLoginBootstrap() {
+        // O bootstrap já grava as páginas no banco
+        bootstrapCallback = createLibraryPageCallback(false);
+        if (LoginBootstrap.attach(bootstrapCallback, () -> runOnUiThread(this::updateUserInfo))) {
+            Log.d("LibraryActivity", "Attached to post-login bootstrap");
+            return true;
+        }
+        bootstrapCallback = null;
+        return false;
+    }
+    
+    private void preconnectLaunchHosts(List<Game> cachedGames) {
+        String imageHost = null;
+        for (Game game : cachedGames) {
+            String cover = game.getCoverImage();
+            if (cover != null && !cover.isEmpty()) {
+                imageHost = Uri.parse(cover).getHost();
+                break;
+            }
+        }
+        NetworkStack.preconnect(this, "api.gog.com", "embed.gog.com", imageHost);
+    }
+    
     private void refreshLibrary() {
         refreshButton.setEnabled(false);
         loadLibraryFromAPI();
     }
     
     private void refreshLibraryInBackground() {
+        // Sincronização incremental: só a lista de IDs e os produtos novos ou desatualizados
+        LibrarySync librarySync = new LibrarySync(this, libraryManager, databaseHelper);
+        librarySync.sync(new LibrarySync.SyncCallback() {
+            @Override
+            public void onComplete(LibrarySync.Result result) {
+                if (result.hasChanges()) {
+                    List<Game> games = databaseHelper.getAllGames();
+                    runOnUiThread(() -> displayGames(games));
+                }
+            }
+            
+            @Override
+            public void onFullReloadNeeded(Set<Long> ownedIds) {
+                reloadFullLibraryInBackground(librarySync, ownedIds);
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Falha silenciosa em background
+                Log.w("LibraryActivity", "Background library sync failed: " + error);
+            }
+        });
+    }
+    
+    private void reloadFullLibraryInBackground(LibrarySync librarySync, Set<Long> ownedIds) {
         libraryManager.loadUserLibrary(new GOGLibraryManager.LibraryCallback() {
             @Override
             public void onSuccess(List<Game> games) {
-                runOnUiThread(() -> {
-                    // Atualizar cache
-                    databaseHelper.insertOrUpdateGames(games);
-                    // Atualizar UI apenas se houve mudanças
-                    displayGames(games);
-                });
+                // Atualizar cache (preserva status local) e exibir a versão mesclada do banco
+                databaseHelper.insertOrUpdateGames(games);
+                librarySync.recordFullReload(ownedIds, games);
+                List<Game> mergedGames = databaseHelper.getAllGames();
+                runOnUiThread(() -> displayGames(mergedGames));
             }
             
             @Override
@@ -739,18 +817,50 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     private void loadLibraryFromAPI() {
         showLoading(true);
         
-        libraryManager.loadUserLibrary(new GOGLibraryManager.LibraryCallback() {
+        libraryManager.loadUserLibrary(createLibraryPageCallback(true));
+    }
+    
+    /**
+     * Exibe a primeira página assim que chega e acrescenta as seguintes
+     * @param saveToCache false quando quem carrega já grava as páginas no banco
+     */
+    private GOGLibraryManager.LibraryPageCallback createLibraryPageCallback(boolean saveToCache) {
+        return new GOGLibraryManager.LibraryPageCallback() {
+            private boolean streamed = false;
+            
+            @Override
+            public void onPage(List<Game> games, int page, int totalPages) {
+                if (saveToCache) {
+                    // Salvar a página no cache fora da thread principal
+                    databaseHelper.insertOrUpdateGames(games);
+                }
+                streamed = true;
+                
+                runOnUiThread(() -> {
+                    if (page == 1) {
+                        showLoading(false);
+                        displayGames(games);
+                    } else {
+                        gamesAdapter.addGames(games);
+                        updateGameCount(gamesAdapter.getTotalGameCount());
+                    }
+                });
+            }
+            
             @Override
             public void onSuccess(List<Game> games) {
+                if (saveToCache && !streamed) {
+                    // Salvar no cache
+                    databaseHelper.insertOrUpdateGames(games);
+                }
+                // Páginas vêm da API sem status local; a versão final sai do banco
+                List<Game> mergedGames = databaseHelper.getAllGames();
                 runOnUiThread(() -> {
                     showLoading(false);
                     refreshButton.setEnabled(true);
                     
-                    // Salvar no cache
-                    databaseHelper.insertOrUpdateGames(games);
-                    
                     // Exibir jogos
-                    displayGames(games);
+                    displayGames(mergedGames);
                     
                     // Atualizar informações do usuário
                     updateUserInfo();
@@ -774,7 +884,7 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
                     }
                 });
             }
-        });
+        };
     }
     
     private void displayGames(List<Game> games) {
@@ -784,7 +894,46 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
             gamesAdapter.setGames(games);
             showContent();
             updateGameCount(games.size());
+            loadMissingGameSizes(games);
+        }
+    }
+    
+    /**
+     * Busca em lote os tamanhos que ainda faltam, grava no banco e atualiza a lista a cada lote
+     * Com uma busca em andamento, os jogos que ela não cobre (páginas seguintes, jogos novos)
+     * ficam pendentes e são buscados quando ela terminar
+     */
+    private void loadMissingGameSizes(List<Game> games) {
+        for (Game game : games) {
+            if (game.getTotalSize() <= 0 && !sizeLoadIds.contains(game.getId())) {
+                pendingSizeGames.put(game.getId(), game);
+            }
+        }
+        if (!sizeLoadIds.isEmpty() || pendingSizeGames.isEmpty()) {
+            return;
+        }
+        
+        List<Game> batch = new ArrayList<>(pendingSizeGames.values());
+        pendingSizeGames.clear();
+        for (Game game : batch) {
+            sizeLoadIds.add(game.getId());
         }
+        
+        libraryManager.loadGameSizes(batch, new GOGLibraryManager.GameSizesCallback() {
+            @Override
+            public void onSizes(Map<Long, Long> sizes) {
+                databaseHelper.updateGameSizes(sizes);
+                runOnUiThread(() -> gamesAdapter.updateGameSizes(sizes));
+            }
+            
+            @Override
+            public void onComplete(int sized, int failed) {
+                runOnUiThread(() -> {
+                    sizeLoadIds.clear();
+                    loadMissingGameSizes(new ArrayList<>());
+                });
+            }
+        });
     }
     
     private void updateUserInfo() {
@@ -803,6 +952,12 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
                                       preferencesManager.getUserEmail() == null ||
                                       preferencesManager.getUserEmail().isEmpty();
         
+        if (shouldReloadUserInfo && LoginBootstrap.isUserInfoPending()) {
+            // A carga pós-login já está buscando; ela chama updateUserInfo de novo ao terminar
+            Log.d("LibraryActivity", "User info still loading from post-login bootstrap");
+            return;
+        }
+        
         if (shouldReloadUserInfo) {
             Log.d("LibraryActivity", "Need to reload user info, current data is insufficient");
             reloadUserInfo();
@@ -1048,6 +1203,7 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     private void logout() {
         // Limpar dados de autenticação
         preferencesManager.clearAuthData();
+        ApiHttpCache.clear(this);
         
         // Voltar para tela de login
         Intent intent = new Intent(this, LoginActivity.class);
@@ -1061,18 +1217,20 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     public void onDownloadGame(Game game) {
         Log.d("LibraryActivity", "Download requested for: " + game.getTitle());
 
-        // Show a loading dialog while we fetch the download links
+        // Show a loading dialog only if the details are not served from the cache right away
         com.google.android.material.dialog.MaterialAlertDialogBuilder builder = new com.google.android.material.dialog.MaterialAlertDialogBuilder(this);
         builder.setTitle("Fetching Download Links");
         builder.setMessage("Please wait...");
         builder.setCancelable(false);
         AlertDialog loadingDialog = builder.create();
-        loadingDialog.show();
+        Runnable showLoading = loadingDialog::show;
+        gamesRecyclerView.postDelayed(showLoading, LOADING_DIALOG_DELAY_MS);
 
-        libraryManager.loadGameDetails(game.getId(), new GOGLibraryManager.GameDetailsCallback() {
+        libraryManager.loadGameDetailsCached(game.getId(), new GOGLibraryManager.GameDetailsCallback() {
             @Override
             public void onSuccess(Game detailedGame, List<DownloadLink> downloadLinks) {
                 runOnUiThread(() -> {
+                    gamesRecyclerView.removeCallbacks(showLoading);
                     loadingDialog.dismiss();
                     if (downloadLinks.isEmpty()) {
                         showError("No download links found for this game.");
@@ -1085,6 +1243,7 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
             @Override
             public void onError(String error) {
                 runOnUiThread(() -> {
+                    gamesRecyclerView.removeCallbacks(showLoading);
                     loadingDialog.dismiss();
                     showError("Error fetching download links: " + error);
                 });
@@ -1136,6 +1295,9 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
         });
         recyclerView.setAdapter(adapter);
         
+        // Resolver e pré-conectar os prováveis downloads enquanto o usuário escolhe
+        libraryManager.prefetchDownloadLinks(game.getId(), filteredLinks);
+        
         // Configurar botões de seleção
         selectAllButton.setOnClickListener(v -> adapter.selectAll());
         selectNoneButton.setOnClickListener(v -> adapter.selectNone());
@@ -1406,6 +1568,9 @@ public class LibraryActivity extends BaseActivity implements GamesAdapter.OnGame
     protected void onDestroy() {
         super.onDestroy();
         
+        if (bootstrapCallback != null) {
+            LoginBootstrap.detach(bootstrapCallback);
+        }
         if (databaseHelper != null) {
             databaseHelper.close();
         }
@@ -19,11 +19,10 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.termux.R;
 import com.termux.api.GOGAuthManager;
+import com.termux.api.LoginBootstrap;
 import com.termux.utils.PreferencesManager;
 import com.google.android.material.textfield.TextInputEditText;
 
-import org.json.JSONObject;
-
 public class LoginActivity extends BaseActivity {
     
     private static final String TAG = "LoginActivity";
@@ -196,100 +195,22 @@ public class LoginActivity extends BaseActivity {
             @Override
             public void onSuccess(String accessToken, String refreshToken, long expiresIn) {
                 Log.d(TAG, "Token exchange successful");
+                // Usuário, avatar e biblioteca começam juntos agora; a LibraryActivity se conecta à carga
+                LoginBootstrap.start(LoginActivity.this, accessToken, refreshToken, expiresIn);
                 
-                // Obter informações do usuário
-                getUserInfoAndSave(accessToken, refreshToken);
-            }
-            
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Token exchange error: " + error);
                 runOnUiThread(() -> {
                     showLoading(false, null);
-                    showError("Erro ao obter tokens: " + error);
-                });
-            }
-        });
-    }
-    
-    /**
-     * Obtém informações do usuário e salva dados de autenticação
-     * @param accessToken Token de acesso
-     * @param refreshToken Token de renovação
-     */
-    private void getUserInfoAndSave(String accessToken, String refreshToken) {
-        runOnUiThread(() -> showLoading(true, "Obtendo informações do usuário..."));
-        
-        authManager.getUserInfo(accessToken, new GOGAuthManager.UserInfoCallback() {
-            @Override
-            public void onSuccess(JSONObject userInfo) {
-                Log.d(TAG, "User info retrieved successfully");
-                
-                runOnUiThread(() -> {
-                    try {
-                        // Extrair informações do usuário baseado na documentação da API
-                        String email = userInfo.optString("email", "usuario@gog.com");
-                        String username = userInfo.optString("username", "");
-                        String userId = userInfo.optString("userId", userInfo.optString("user_id", userInfo.optString("id", "")));
-                        String avatar = userInfo.optString("avatar", userInfo.optString("avatar_url", ""));
-                        
-                        // Se não há username, tentar usar outras propriedades
-                        if (username.trim().isEmpty()) {
-                            username = userInfo.optString("name", "");
-                        }
-                        if (username.trim().isEmpty()) {
-                            username = userInfo.optString("display_name", "");
-                        }
-                        
-                        // Se ainda não temos username, usar parte do email
-                        if (username.trim().isEmpty() && !email.isEmpty()) {
-                            int atIndex = email.indexOf('@');
-                            if (atIndex > 0) {
-                                username = email.substring(0, atIndex);
-                            }
-                        }
-                        
-                        Log.d(TAG, "User info - email: " + email + ", username: " + username + ", userId: " + userId);
-                        
-                        // Salvar tokens e informações do usuário
-                        preferencesManager.saveAuthData(accessToken, refreshToken, email, username, userId, avatar);
-                        
-                        showLoading(false, null);
-                        
-                        // Mostrar sucesso
-                        String displayName = preferencesManager.getDisplayName();
-                        Toast.makeText(LoginActivity.this, 
-                            "Login realizado com sucesso! Bem-vindo, " + displayName, 
-                            Toast.LENGTH_SHORT).show();
-                        
-                        // Navegar para biblioteca
-                        navigateToLibrary();
-                        
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error processing user info", e);
-                        showLoading(false, null);
-                        showError("Erro ao processar informações do usuário");
-                    }
+                    Toast.makeText(LoginActivity.this, "Login realizado com sucesso!", Toast.LENGTH_SHORT).show();
+                    navigateToLibrary();
                 });
             }
             
             @Override
             public void onError(String error) {
-                Log.e(TAG, "User info error: " + error);
-                
+                Log.e(TAG, "Token exchange error: " + error);
                 runOnUiThread(() -> {
-                    // Mesmo com erro nas informações do usuário, 
-                    // podemos prosseguir com os tokens
-                    preferencesManager.saveAuthData(accessToken, refreshToken, "usuario@gog.com", "Usuário GOG", "", "");
-                    
                     showLoading(false, null);
-                    
-                    String displayName = preferencesManager.getDisplayName();
-                    Toast.makeText(LoginActivity.this, 
-                        "Login realizado com sucesso! Bem-vindo, " + displayName, 
-                        Toast.LENGTH_SHORT).show();
-                    
-                    navigateToLibrary();
+                    showError("Erro ao obter tokens: " + error);
                 });
             }
         });
@@ -23,6 +23,9 @@ import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.termux.R;
 import com.termux.database.DatabaseHelper;
+import com.termux.engine.Tracing;
+import com.termux.metrics.AppMetrics;
+import com.termux.metrics.TraceCapture;
 import com.termux.utils.ImageLoader;
 import com.termux.utils.PreferencesManager;
 import com.termux.utils.SAFDownloadManager;
@@ -39,6 +42,10 @@ public class SettingsActivity extends BaseActivity {
     private SwitchMaterial dynamicColorSwitch;
     private SwitchMaterial materialYouSwitch;
     private SwitchMaterial use1DMSwitch;
+    private SwitchMaterial performanceHudSwitch;
+    private SwitchMaterial traceRecordingSwitch;
+    private SwitchMaterial metricsEndpointSwitch;
+    private TextView metricsEndpointText;
     private ChipGroup platformChipGroup;
     private Chip windowsChip;
     private Chip linuxChip;
@@ -83,6 +90,10 @@ public class SettingsActivity extends BaseActivity {
         dynamicColorSwitch = findViewById(R.id.dynamicColorSwitch);
         materialYouSwitch = findViewById(R.id.materialYouSwitch);
         use1DMSwitch = findViewById(R.id.use1DMSwitch);
+        performanceHudSwitch = findViewById(R.id.performanceHudSwitch);
+        traceRecordingSwitch = findViewById(R.id.traceRecordingSwitch);
+        metricsEndpointSwitch = findViewById(R.id.metricsEndpointSwitch);
+        metricsEndpointText = findViewById(R.id.metricsEndpointText);
         platformChipGroup = findViewById(R.id.platformChipGroup);
         windowsChip = findViewById(R.id.windowsChip);
         linuxChip = findViewById(R.id.linuxChip);
@@ -142,6 +153,27 @@ public class SettingsActivity extends BaseActivity {
             preferencesManager.setUse1DM(isChecked);
         });
 
+        performanceHudSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isProgrammaticChange) return;
+            preferencesManager.setPerformanceHudEnabled(isChecked);
+        });
+
+        traceRecordingSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isProgrammaticChange) return;
+            if (isChecked) {
+                TraceCapture.start();
+            } else {
+                exportTrace();
+            }
+        });
+
+        metricsEndpointSwitch.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isProgrammaticChange) return;
+            preferencesManager.setMetricsEndpointEnabled(isChecked);
+            AppMetrics.applySettings(this);
+            updateMetricsEndpointText();
+        });
+
         windowsChip.setOnCheckedChangeListener((buttonView, isChecked) -> savePlatformPreferences());
         linuxChip.setOnCheckedChangeListener((buttonView, isChecked) -> savePlatformPreferences());
         macChip.setOnCheckedChangeListener((buttonView, isChecked) -> savePlatformPreferences());
@@ -176,7 +208,11 @@ public class SettingsActivity extends BaseActivity {
         dynamicColorSwitch.setChecked(preferencesManager.isDynamicThemingEnabled());
         materialYouSwitch.setChecked(preferencesManager.isMaterialYouEnabled());
         use1DMSwitch.setChecked(preferencesManager.is1DMEnabled());
+        performanceHudSwitch.setChecked(preferencesManager.isPerformanceHudEnabled());
+        traceRecordingSwitch.setChecked(Tracing.isRecording());
+        metricsEndpointSwitch.setChecked(preferencesManager.isMetricsEndpointEnabled());
         isProgrammaticChange = false;
+        updateMetricsEndpointText();
 
         // Carregar configurações de plataforma
         java.util.Set<String> selectedPlatforms = preferencesManager.getSelectedPlatforms();
@@ -187,6 +223,28 @@ public class SettingsActivity extends BaseActivity {
         android.util.Log.d("SettingsActivity", "=== SETTINGS LOADING COMPLETE ===");
     }
 
+    private void exportTrace() {
+        new Thread(() -> {
+            File traceFile = TraceCapture.stopAndExport(this);
+            runOnUiThread(() -> {
+                if (traceFile != null) {
+                    Toast.makeText(this, "Trace salvo em " + traceFile.getAbsolutePath(), Toast.LENGTH_LONG).show();
+                } else {
+                    Toast.makeText(this, "Erro ao salvar trace", Toast.LENGTH_LONG).show();
+                }
+            });
+        }).start();
+    }
+
+    private void updateMetricsEndpointText() {
+        if (preferencesManager.isMetricsEndpointEnabled()) {
+            metricsEndpointText.setText("http://<ip do aparelho>:" + preferencesManager.getMetricsPort() + "/metrics\n"
+                    + AppMetrics.getExportFile(this).getAbsolutePath());
+        } else {
+            metricsEndpointText.setText("Desligado");
+        }
+    }
+
     private void savePlatformPreferences() {
         java.util.Set<String> selectedPlatforms = new java.util.HashSet<>();
         if (windowsChip.isChecked()) {
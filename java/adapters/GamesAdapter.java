@@ -15,11 +15,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.card.MaterialCardView;
 import com.termux.R;
+import com.termux.engine.Tracing;
 import com.termux.models.Game;
 import com.termux.utils.ImageLoader;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHolder> {
 
@@ -28,6 +30,7 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
     private Context context;
     private List<Game> games;
     private List<Game> filteredGames;
+    private String currentQuery = "";
     private OnGameActionListener listener;
 
     public interface OnGameActionListener {
@@ -55,6 +58,43 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
         notifyDataSetChanged();
     }
 
+    /**
+     * Acrescenta jogos ao fim da lista (páginas da biblioteca chegando), respeitando o filtro atual
+     */
+    public void addGames(List<Game> newGames) {
+        int start = filteredGames.size();
+        games.addAll(newGames);
+        for (Game game : newGames) {
+            if (matchesFilter(game)) {
+                filteredGames.add(game);
+            }
+        }
+        if (filteredGames.size() > start) {
+            notifyItemRangeInserted(start, filteredGames.size() - start);
+        }
+    }
+
+    /**
+     * Aplica tamanhos de instalação carregados em lote e redesenha só o status dos itens visíveis
+     */
+    public void updateGameSizes(Map<Long, Long> sizes) {
+        for (Game game : games) {
+            Long size = sizes.get(game.getId());
+            if (size != null) {
+                game.setTotalSize(size);
+            }
+        }
+        for (int i = 0; i < filteredGames.size(); i++) {
+            if (sizes.containsKey(filteredGames.get(i).getId())) {
+                notifyItemChanged(i, PAYLOAD_PROGRESS_UPDATE);
+            }
+        }
+    }
+
+    public int getTotalGameCount() {
+        return games.size();
+    }
+
     public void updateGame(Game updatedGame) {
         for (int i = 0; i < games.size(); i++) {
             if (games.get(i).getId() == updatedGame.getId()) {
@@ -107,22 +147,22 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
     }
 
     public void filter(String query) {
+        currentQuery = query == null ? "" : query.toLowerCase();
         filteredGames.clear();
 
-        if (query == null || query.isEmpty()) {
-            filteredGames.addAll(games);
-        } else {
-            String lowercaseQuery = query.toLowerCase();
-            for (Game game : games) {
-                if (game.getTitle().toLowerCase().contains(lowercaseQuery)) {
-                    filteredGames.add(game);
-                }
+        for (Game game : games) {
+            if (matchesFilter(game)) {
+                filteredGames.add(game);
             }
         }
 
         notifyDataSetChanged();
     }
 
+    private boolean matchesFilter(Game game) {
+        return currentQuery.isEmpty() || game.getTitle().toLowerCase().contains(currentQuery);
+    }
+
     @NonNull
     @Override
     public GameViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -132,8 +172,13 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
 
     @Override
     public void onBindViewHolder(@NonNull GameViewHolder holder, int position) {
-        Game game = filteredGames.get(position);
-        holder.bind(game);
+        Tracing.begin("GamesAdapter.bind");
+        try {
+            Game game = filteredGames.get(position);
+            holder.bind(game);
+        } finally {
+            Tracing.end();
+        }
     }
 
     @Override
@@ -141,11 +186,16 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
         if (payloads.isEmpty()) {
             super.onBindViewHolder(holder, position, payloads);
         } else {
-            for (Object payload : payloads) {
-                if (payload.equals(PAYLOAD_PROGRESS_UPDATE)) {
-                    Game game = filteredGames.get(position);
-                    holder.updateProgressViews(game);
+            Tracing.begin("GamesAdapter.bindProgress");
+            try {
+                for (Object payload : payloads) {
+                    if (payload.equals(PAYLOAD_PROGRESS_UPDATE)) {
+                        Game game = filteredGames.get(position);
+                        holder.updateProgressViews(game);
+                    }
                 }
+            } finally {
+                Tracing.end();
             }
         }
     }
@@ -198,7 +248,9 @@ public class GamesAdapter extends RecyclerView.Adapter<GamesAdapter.GameViewHold
         private void updateStatus(Game game) {
             switch (game.getStatus()) {
                 case NOT_DOWNLOADED:
-                    gameStatus.setText("Not Downloaded");
+                    gameStatus.setText(game.getTotalSize() > 0
+                            ? "Not Downloaded · " + game.getFormattedSize()
+                            : "Not Downloaded");
                     break;
                 case PAUSED:
                     gameStatus.setText("Paused");
@@ -0,0 +1,173 @@
+package com.termux.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.brotli.BrotliInterceptor;
+import okio.Okio;
+
+/**
+ * Cache HTTP em disco compartilhado pelos clientes da API (um único Cache por diretório, como o OkHttp exige)
+ * Respostas de biblioteca e produtos ganham max-age pelo {@link CachePolicyInterceptor}; dentro da janela
+ * de stale-while-revalidate a resposta vencida é servida na hora e revalidada (ETag/If-None-Match) em segundo plano
+ */
+public final class ApiHttpCache {
+    
+    private static final String TAG = "ApiHttpCache";
+    
+    private static final String CACHE_DIR = "http-api";
+    private static final long MAX_CACHE_SIZE = 20L * 1024 * 1024; // 20 MB
+    
+    private static Cache cache;
+    private static Context appContext;
+    private static OkHttpClient revalidationClient;
+    private static final Set<String> revalidating = new HashSet<>();
+    
+    private ApiHttpCache() {
+    }
+    
+    public static synchronized Cache get(Context context) {
+        if (cache == null) {
+            appContext = context.getApplicationContext();
+            File directory = new File(appContext.getCacheDir(), CACHE_DIR);
+            cache = new Cache(directory, MAX_CACHE_SIZE);
+        }
+        return cache;
+    }
+    
+    /**
+     * Liga cache, stale-while-revalidate, compressão (br/gzip) e o limite por host em um cliente de API
+     * Não usar no cliente de transferência: Range e corpos de vários GB não passam pelo cache
+     */
+    public static OkHttpClient.Builder install(OkHttpClient.Builder builder, Context context) {
+        return builder
+                .cache(get(context))
+                .addInterceptor(new StaleWhileRevalidateInterceptor())
+                .addInterceptor(new HostRateLimiter.RetryInterceptor())
+                .addInterceptor(BrotliInterceptor.INSTANCE)
+                .addNetworkInterceptor(new HostRateLimiter.NetworkInterceptor())
+                .addNetworkInterceptor(new CachePolicyInterceptor());
+    }
+    
+    /**
+     * Respostas da biblioteca são da conta; apagar ao sair
+     */
+    public static void clear(Context context) {
+        Cache target = get(context);
+        new Thread(() -> {
+            try {
+                target.evictAll();
+                Log.d(TAG, "HTTP cache cleared");
+            } catch (IOException e) {
+                Log.w(TAG, "Error clearing HTTP cache", e);
+            }
+        }, "http-cache-clear").start();
+    }
+    
+    private static synchronized OkHttpClient getRevalidationClient() {
+        if (revalidationClient == null) {
+            revalidationClient = RequestLanes.background(NetworkStack.newBuilder(appContext))
+                    .connectTimeout(30, TimeUnit.SECONDS)
+                    .readTimeout(30, TimeUnit.SECONDS)
+                    .cache(cache)
+                    .addInterceptor(BrotliInterceptor.INSTANCE)
+                    .addNetworkInterceptor(new HostRateLimiter.NetworkInterceptor())
+                    .addNetworkInterceptor(new CachePolicyInterceptor())
+                    .build();
+        }
+        return revalidationClient;
+    }
+    
+    /**
+     * Busca a URL de novo em segundo plano só para atualizar o cache; uma revalidação por URL por vez
+     */
+    private static void revalidate(Request request) {
+        String key = request.url().toString();
+        synchronized (revalidating) {
+            if (!revalidating.add(key)) {
+                return;
+            }
+        }
+        
+        // max-age=0 (e não no-cache) para o OkHttp mandar If-None-Match e aceitar 304
+        Request validation = request.newBuilder()
+                .cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+                .tag(RequestLanes.Priority.class, RequestLanes.Priority.BACKGROUND)
+                .build();
+        getRevalidationClient().newCall(validation).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.w(TAG, "Background revalidation failed for " + request.url().encodedPath(), e);
+                done();
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (Response autoCloseResponse = response) {
+                    if (autoCloseResponse.body() != null) {
+                        // O cache só grava o corpo conforme ele é lido
+                        autoCloseResponse.body().source().readAll(Okio.blackhole());
+                    }
+                    Log.d(TAG, "Revalidated " + request.url().encodedPath() + " (" + response.code() + ")");
+                } finally {
+                    done();
+                }
+            }
+            
+            private void done() {
+                synchronized (revalidating) {
+                    revalidating.remove(key);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Application interceptor: tenta o cache primeiro aceitando resposta vencida dentro da janela da política
+     */
+    static final class StaleWhileRevalidateInterceptor implements Interceptor {
+        
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            CachePolicyInterceptor.Policy policy = CachePolicyInterceptor.policyFor(request);
+            // Quem já manda Cache-Control ou If-None-Match próprio decide sozinho
+            if (policy == null || request.header("Cache-Control") != null || request.header("If-None-Match") != null) {
+                return chain.proceed(request);
+            }
+            
+            Response cached = chain.proceed(request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                            .onlyIfCached()
+                            .maxStale(policy.getStaleSeconds(), TimeUnit.SECONDS)
+                            .build())
+                    .build());
+            if (cached.code() != 504) {
+                // "110 ... Response is stale": passou do max-age mas está dentro da janela
+                String warning = cached.header("Warning");
+                if (warning != null && warning.startsWith("110")) {
+                    revalidate(request);
+                }
+                return cached;
+            }
+            
+            // 504 de only-if-cached: não há nada utilizável no cache
+            cached.close();
+            return chain.proceed(request);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.termux.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor que define por quanto tempo as respostas JSON da API ficam no cache HTTP
+ * O GOG não manda max-age útil para biblioteca e produtos; sem isso o cache em disco nunca serviria nada
+ */
+public class CachePolicyInterceptor implements Interceptor {
+    
+    /**
+     * Janela de frescor e de stale-while-revalidate de um endpoint, em segundos
+     */
+    public static final class Policy {
+        private final int maxAgeSeconds;
+        private final int staleSeconds;
+        
+        Policy(int maxAgeSeconds, int staleSeconds) {
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.staleSeconds = staleSeconds;
+        }
+        
+        public int getMaxAgeSeconds() { return maxAgeSeconds; }
+        public int getStaleSeconds() { return staleSeconds; }
+    }
+    
+    // Biblioteca muda quando o usuário compra algo: frescor curto, revalidação em segundo plano
+    private static final Policy LIBRARY_POLICY = new Policy(60, 5 * 60);
+    // Catálogo de produtos (consulta em lote) muda raramente
+    private static final Policy PRODUCT_POLICY = new Policy(60 * 60, 24 * 60 * 60);
+    
+    /**
+     * Política do endpoint, ou null se a resposta deve seguir os cabeçalhos do servidor
+     * Só pelo caminho, para valer também no servidor local de testes
+     */
+    public static Policy policyFor(Request request) {
+        if (!"GET".equals(request.method())) {
+            return null;
+        }
+        String path = request.url().encodedPath();
+        if (path.contains("/downlink")) {
+            // Links assinados de download expiram; nunca reaproveitar
+            return null;
+        }
+        if (path.equals("/account/getFilteredProducts") || path.equals("/user/data/games")) {
+            return LIBRARY_POLICY;
+        }
+        if (path.startsWith("/products/")) {
+            // Detalhes de um jogo já têm cache próprio no banco (TTL + ETag); cachear aqui também
+            // deixaria o banco gravar como recente uma resposta HTTP de até um dia
+            return null;
+        }
+        if (path.equals("/products")) {
+            return PRODUCT_POLICY;
+        }
+        return null;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        
+        if (request.url().encodedPath().startsWith("/token")) {
+            // Tokens vão na query string; uma resposta cacheada devolveria um token antigo
+            return response.newBuilder()
+                    .header("Cache-Control", "no-store")
+                    .removeHeader("Pragma")
+                    .build();
+        }
+        
+        Policy policy = policyFor(request);
+        if (policy == null || response.code() != 200 || response.cacheControl().maxAgeSeconds() > 0) {
+            return response;
+        }
+        
+        return response.newBuilder()
+                .header("Cache-Control", "private, max-age=" + policy.getMaxAgeSeconds())
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.termux.api;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.Dns;
+
+/**
+ * Dns compartilhado por todos os clientes: uma resolução por host a cada TTL, em vez de uma por
+ * cliente/conexão. Se a rede falhar, um endereço vencido ainda é melhor que nenhum
+ * O InetAddress não expõe o TTL do registro: vale o networkaddress.cache.ttl quando configurado,
+ * com MAX_TTL_MS como padrão e teto. Só os hosts de {@code persistHosts} vão para o disco; registros
+ * de CDN, com TTL de segundos, não sobrevivem ao reinício do processo
+ * Na abertura do app uma entrada lida do disco é usada na hora mesmo vencida (até MAX_PERSISTED_AGE_MS)
+ * e renovada em segundo plano, para a primeira conexão não esperar o DNS do sistema
+ */
+public class CachingDns implements Dns {
+    
+    private static final String TAG = "CachingDns";
+    
+    private static final long MAX_TTL_MS = 10 * 60 * 1000; // 10 minutos
+    // Entradas do disco vencidas há mais que isso são descartadas na leitura
+    private static final long MAX_PERSISTED_AGE_MS = 24L * 60 * 60 * 1000; // 1 dia
+    
+    // Renovações das entradas do disco, fora da thread que pediu a resolução
+    private static final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    
+    private static final class Entry {
+        final List<InetAddress> addresses;
+        final long expiresAt;
+        final boolean persisted;
+        
+        Entry(List<InetAddress> addresses, long expiresAt, boolean persisted) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+            this.persisted = persisted;
+        }
+    }
+    
+    private final Dns delegate;
+    private final File persistFile;
+    private final Set<String> persistHosts;
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<String> refreshing = new HashSet<>();
+    private boolean loaded;
+    
+    public CachingDns(Dns delegate) {
+        this(delegate, null, Collections.emptySet());
+    }
+    
+    /**
+     * @param persistHosts hosts gravados em {@code persistFile}; os demais ficam só em memória
+     */
+    public CachingDns(Dns delegate, File persistFile, Set<String> persistHosts) {
+        this.delegate = delegate;
+        this.persistFile = persistFile;
+        this.persistHosts = persistHosts;
+        this.ttlMs = resolveTtlMs();
+        this.loaded = persistFile == null;
+    }
+    
+    /**
+     * networkaddress.cache.ttl em segundos (0 desliga o cache), limitado a MAX_TTL_MS
+     */
+    static long resolveTtlMs() {
+        String value = Security.getProperty("networkaddress.cache.ttl");
+        if (value != null) {
+            try {
+                long seconds = Long.parseLong(value.trim());
+                if (seconds >= 0) {
+                    return Math.min(seconds * 1000, MAX_TTL_MS);
+                }
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Invalid networkaddress.cache.ttl: " + value);
+            }
+        }
+        return MAX_TTL_MS;
+    }
+    
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        Entry entry;
+        synchronized (entries) {
+            // Lido na primeira resolução, já numa thread do OkHttp
+            if (!loaded) {
+                loaded = true;
+                load();
+            }
+            entry = entries.get(hostname);
+        }
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            return entry.addresses;
+        }
+        if (entry != null && entry.persisted) {
+            refreshInBackground(hostname);
+            return entry.addresses;
+        }
+        
+        try {
+            return resolve(hostname);
+        } catch (UnknownHostException e) {
+            if (entry != null) {
+                Log.w(TAG, "DNS lookup failed for " + hostname + ", using stale addresses");
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+    
+    private List<InetAddress> resolve(String hostname) throws UnknownHostException {
+        List<InetAddress> addresses = delegate.lookup(hostname);
+        synchronized (entries) {
+            entries.put(hostname, new Entry(addresses, System.currentTimeMillis() + ttlMs, false));
+            if (persistHosts.contains(hostname)) {
+                save();
+            }
+        }
+        return addresses;
+    }
+    
+    private void refreshInBackground(String hostname) {
+        synchronized (entries) {
+            if (!refreshing.add(hostname)) {
+                return;
+            }
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                resolve(hostname);
+            } catch (UnknownHostException e) {
+                // A entrada do disco continua valendo; a próxima resolução tenta de novo
+                Log.w(TAG, "Background DNS refresh failed for " + hostname);
+            } finally {
+                synchronized (entries) {
+                    refreshing.remove(hostname);
+                }
+            }
+        });
+    }
+    
+    private void load() {
+        if (!persistFile.exists()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // O TTL pode ter diminuído desde a gravação
+        long maxExpiresAt = now + ttlMs;
+        try (InputStream in = new FileInputStream(persistFile)) {
+            byte[] data = new byte[(int) persistFile.length()];
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            JSONObject json = new JSONObject(new String(data, 0, read, StandardCharsets.UTF_8));
+            Iterator<String> hosts = json.keys();
+            while (hosts.hasNext()) {
+                String host = hosts.next();
+                if (!persistHosts.contains(host)) {
+                    continue;
+                }
+                JSONObject item = json.getJSONObject(host);
+                long expiresAt = item.getLong("expiresAt");
+                if (expiresAt < now - MAX_PERSISTED_AGE_MS) {
+                    continue;
+                }
+                JSONArray ips = item.getJSONArray("addresses");
+                List<InetAddress> addresses = new ArrayList<>();
+                for (int i = 0; i < ips.length(); i++) {
+                    // Literal IP: getByName não consulta a rede
+                    byte[] raw = InetAddress.getByName(ips.getString(i)).getAddress();
+                    addresses.add(InetAddress.getByAddress(host, raw));
+                }
+                if (!addresses.isEmpty()) {
+                    entries.put(host, new Entry(addresses, Math.min(expiresAt, maxExpiresAt), true));
+                }
+            }
+            Log.d(TAG, "Loaded " + entries.size() + " persisted DNS entries");
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Discarding unreadable DNS cache", e);
+        }
+    }
+    
+    private void save() {
+        if (persistFile == null) {
+            return;
+        }
+        try {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<String, Entry> item : entries.entrySet()) {
+                if (!persistHosts.contains(item.getKey())) {
+                    continue;
+                }
+                JSONArray ips = new JSONArray();
+                for (InetAddress address : item.getValue().addresses) {
+                    ips.put(address.getHostAddress());
+                }
+                json.put(item.getKey(), new JSONObject()
+                        .put("addresses", ips)
+                        .put("expiresAt", item.getValue().expiresAt));
+            }
+            // Grava ao lado e renomeia, para nunca deixar um arquivo pela metade
+            File temp = new File(persistFile.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            if (!temp.renameTo(persistFile)) {
+                Log.w(TAG, "Could not replace DNS cache file");
+            }
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Error saving DNS cache", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.termux.api;
+
+import android.util.Log;
+
+import com.termux.utils.PreferencesManager;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Redireciona as chamadas de api.gog.com e embed.gog.com para um servidor local de testes
+ * Só age quando PreferencesManager.getDebugServerUrl() está configurado
+ */
+public class DebugServerInterceptor implements Interceptor {
+    
+    private static final String TAG = "DebugServerInterceptor";
+    
+    private final PreferencesManager preferencesManager;
+    
+    public DebugServerInterceptor(PreferencesManager preferencesManager) {
+        this.preferencesManager = preferencesManager;
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        
+        String baseUrl = preferencesManager.getDebugServerUrl();
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            return chain.proceed(request);
+        }
+        
+        HttpUrl target = HttpUrl.parse(baseUrl);
+        String host = request.url().host();
+        if (target == null || !("api.gog.com".equals(host) || "embed.gog.com".equals(host))) {
+            return chain.proceed(request);
+        }
+        
+        HttpUrl rewritten = request.url().newBuilder()
+                .scheme(target.scheme())
+                .host(target.host())
+                .port(target.port())
+                .build();
+        
+        Log.d(TAG, "Redirecting " + request.url() + " -> " + rewritten);
+        return chain.proceed(request.newBuilder().url(rewritten).build());
+    }
+}
@@ -97,12 +97,13 @@ public class GOGAuthManager {
             }
         };
         
-        this.httpClient = new OkHttpClient.Builder()
+        OkHttpClient.Builder builder = NetworkStack.newBuilder(context)
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
-                .cookieJar(cookieJar)
-                .build();
+                .cookieJar(cookieJar);
+        // Mesmo cache HTTP da biblioteca; respostas de /token nunca são gravadas
+        this.httpClient = ApiHttpCache.install(builder, context).build();
     }
     
     public interface AuthCallback {
@@ -530,12 +531,13 @@ public class GOGAuthManager {
             return;
         }
 
-        refreshToken(refreshToken, new AuthCallback() {
+        requestTokenRefresh(refreshToken, new TokenExchangeCallback() {
             @Override
-            public void onSuccess(String newAuthToken, String newRefreshToken) {
-                // Salvar os novos tokens
+            public void onSuccess(String newAuthToken, String newRefreshToken, long expiresIn) {
+                // Salvar os novos tokens e quando o access token expira
                 prefs.saveAuthData(newAuthToken, newRefreshToken, prefs.getUserEmail(), prefs.getDisplayName(), prefs.getUserId(), prefs.getUserAvatar());
-                Log.d(TAG, "Access token successfully refreshed and saved.");
+                prefs.saveTokenExpiry(expiresIn);
+                Log.d(TAG, "Access token successfully refreshed and saved (expires in " + expiresIn + "s).");
                 callback.onSuccess(newAuthToken, newRefreshToken);
             }
 
@@ -555,6 +557,20 @@ public class GOGAuthManager {
      * @param callback Callback para resultado
      */
     public void refreshToken(String refreshToken, AuthCallback callback) {
+        requestTokenRefresh(refreshToken, new TokenExchangeCallback() {
+            @Override
+            public void onSuccess(String accessToken, String newRefreshToken, long expiresIn) {
+                callback.onSuccess(accessToken, newRefreshToken);
+            }
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+    
+    private void requestTokenRefresh(String refreshToken, TokenExchangeCallback callback) {
         Log.d(TAG, "Refreshing token");
         
         if (refreshToken == null || refreshToken.trim().isEmpty()) {
@@ -597,9 +613,10 @@ public class GOGAuthManager {
                             
                             String accessToken = jsonResponse.getString("access_token");
                             String newRefreshToken = jsonResponse.optString("refresh_token", refreshToken);
+                            long expiresIn = jsonResponse.optLong("expires_in", 3600);
                             
                             Log.d(TAG, "Token refresh successful");
-                            callback.onSuccess(accessToken, newRefreshToken);
+                            callback.onSuccess(accessToken, newRefreshToken, expiresIn);
                             
                         } catch (JSONException e) {
                             Log.e(TAG, "Error parsing refresh token response", e);
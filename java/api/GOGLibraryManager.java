@@ -1,8 +1,14 @@
 package com.termux.api;
 
+import android.content.ContentValues;
 import android.content.Context;
 import android.util.Log;
 
+import com.termux.BuildConfig;
+import com.termux.database.DatabaseHelper;
+import com.termux.engine.RetryPolicy;
+import com.termux.engine.Tracing;
+import com.termux.metrics.NetworkEventListener;
 import com.termux.models.DownloadLink;
 import com.termux.models.Game;
 import com.termux.utils.PreferencesManager;
@@ -12,9 +18,22 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -30,6 +49,8 @@ public class GOGLibraryManager {
     private static final String USER_GAMES_URL = "https://api.gog.com/user/data/games";
     private static final String LIBRARY_FILTERED_URL = "https://api.gog.com/user/data/games";
     private static final String GAME_DETAILS_URL = "https://api.gog.com/products/%d?expand=downloads";
+    // Endpoint de produtos aceita vários IDs por chamada (até PRODUCTS_BATCH_SIZE)
+    private static final String PRODUCTS_BATCH_URL = "https://api.gog.com/products?ids=%s";
     private static final String DOWNLOAD_LINK_URL = "https://api.gog.com/products/%d/downlink/download/%s";
     private static final String DOWNLINK_INFO_URL = "https://api.gog.com/products/%d/downlink/%s";
     
@@ -37,18 +58,66 @@ public class GOGLibraryManager {
     private static final String EMBED_USER_GAMES_URL = "https://embed.gog.com/user/data/games";
     private static final String EMBED_LIBRARY_FILTERED_URL = "https://embed.gog.com/account/getFilteredProducts?mediaType=1&page=%d";
     
+    // Paginação paralela da biblioteca
+    private static final int MAX_PARALLEL_PAGES = 4;
+    private static final int PAGE_MAX_ATTEMPTS = 3;
+    // Espera exponencial entre tentativas de uma página (0,5s, 1s...), com jitter para as páginas
+    // que falharam juntas não voltarem juntas
+    private static final RetryPolicy PAGE_RETRY = new RetryPolicy(PAGE_MAX_ATTEMPTS, 500, 4000, 2.0);
+    private static final ScheduledExecutorService pageRetryScheduler = Executors.newSingleThreadScheduledExecutor();
+    private static final int MAX_PARALLEL_PRODUCTS = 4;
+    private static final int PRODUCTS_BATCH_SIZE = 50;
+    
+    // Cache de detalhes: fresco é servido sem rede; vencido é servido e revalidado com ETag
+    private static final long DETAILS_CACHE_TTL_MS = 6L * 60 * 60 * 1000; // 6 horas
+    private static final long DETAILS_CACHE_MAX_STALE_MS = 30L * 24 * 60 * 60 * 1000; // 30 dias
+    // Leituras do cache fora da main thread, sem competir com o pool do OkHttp
+    private static final ExecutorService cacheExecutor = Executors.newSingleThreadExecutor();
+    
+    // Chamadas iguais em paralelo (LibraryActivity, carregador de tamanhos, DownloadService) viram um
+    // round trip só; estáticos porque cada tela e o serviço têm sua própria instância do manager
+    private static final long DETAILS_MEMO_MS = 30 * 1000;
+    private static final SingleFlight<LibraryParser.ProductDetails> detailsFlight = new SingleFlight<>(DETAILS_MEMO_MS);
+    // Sem memoização: o link assinado expira e a renovação precisa de um novo
+    private static final SingleFlight<String> downloadLinkFlight = new SingleFlight<>(0);
+    
+    // Links resolvidos de antemão enquanto o diálogo de download está aberto; cada um é usado uma vez
+    private static final long PREFETCHED_LINK_TTL_MS = 5 * 60 * 1000; // 5 minutos
+    private static final int MAX_SPECULATIVE_LINKS = 4;
+    private static final Map<String, PrefetchedLink> prefetchedLinks = new HashMap<>();
+    
+    private static final class PrefetchedLink {
+        final String downloadUrl;
+        final long expiresAt;
+        
+        PrefetchedLink(String downloadUrl, long expiresAt) {
+            this.downloadUrl = downloadUrl;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
     private Context context;
     private PreferencesManager preferencesManager;
     private OkHttpClient httpClient;
+    // Mesmo cliente na faixa interativa (RequestLanes): link de download e detalhes abertos pelo usuário
+    private OkHttpClient interactiveClient;
+    private DatabaseHelper databaseHelper;
     
     public GOGLibraryManager(Context context) {
         this.context = context;
         this.preferencesManager = new PreferencesManager(context);
-        this.httpClient = new OkHttpClient.Builder()
+        OkHttpClient.Builder builder = NetworkStack.newBuilder(context)
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+                .eventListenerFactory(NetworkEventListener.factory("library"));
+        // Redirecionamento para o servidor local de testes: nunca em release (levaria o token junto)
+        if (BuildConfig.DEBUG) {
+            builder.addInterceptor(new DebugServerInterceptor(preferencesManager));
+        }
+        // Cache em disco + stale-while-revalidate + br/gzip para as respostas JSON
+        this.httpClient = ApiHttpCache.install(RequestLanes.background(builder), context).build();
+        this.interactiveClient = RequestLanes.interactive(httpClient);
     }
     
     public interface LibraryCallback {
@@ -56,6 +125,44 @@ public class GOGLibraryManager {
         void onError(String error);
     }
     
+    /**
+     * LibraryCallback que também recebe cada página, em ordem, assim que ela chega
+     */
+    public interface LibraryPageCallback extends LibraryCallback {
+        void onPage(List<Game> games, int page, int totalPages);
+    }
+    
+    public interface OwnedGamesCallback {
+        /**
+         * @param ownedIds IDs possuídos, ou null se o servidor respondeu 304 (lista inalterada)
+         */
+        void onSuccess(Set<Long> ownedIds);
+        void onError(String error);
+    }
+    
+    /**
+     * Recebe cada lote de produtos assim que ele chega, antes do onComplete
+     */
+    public interface ProductBatchListener {
+        void onBatch(List<JSONObject> products);
+    }
+    
+    public interface GameSizesCallback {
+        /**
+         * Tamanhos de instalação (bytes) de um lote de jogos; chamado várias vezes
+         */
+        void onSizes(Map<Long, Long> sizes);
+        void onComplete(int sized, int failed);
+    }
+    
+    public interface ProductsCallback {
+        /**
+         * @param products JSON de cada produto carregado
+         * @param failedIds IDs que não puderam ser carregados
+         */
+        void onComplete(List<JSONObject> products, Set<Long> failedIds);
+    }
+    
     public interface GameDetailsCallback {
         void onSuccess(Game game, List<DownloadLink> downloadLinks);
         void onError(String error);
@@ -66,8 +173,58 @@ public class GOGLibraryManager {
         void onError(String error);
     }
     
+    /**
+     * Envia a requisição com um token válido: se ele está para expirar, a requisição espera a renovação
+     * compartilhada ({@link TokenManager}) em vez de levar um 401. Um 401 ainda renova uma única vez e repete
+     * Requisições sem prioridade marcada vão para a faixa de segundo plano
+     */
     private void executeRequestWithRefresh(Request request, Callback originalCallback) {
-        httpClient.newCall(request).enqueue(new Callback() {
+        if (RequestLanes.isInteractive(request)) {
+            sendWithToken(request, RequestLanes.trackInteractive(originalCallback));
+        } else if (RequestLanes.priorityOf(request) == null) {
+            sendWithToken(RequestLanes.withPriority(request, RequestLanes.Priority.BACKGROUND), originalCallback);
+        } else {
+            sendWithToken(request, originalCallback);
+        }
+    }
+    
+    private void sendWithToken(Request request, Callback originalCallback) {
+        if (request.header("Authorization") == null) {
+            clientFor(request).newCall(request).enqueue(originalCallback);
+            return;
+        }
+        
+        TokenManager.getValidToken(context, new TokenManager.TokenCallback() {
+            @Override
+            public void onToken(String authToken) {
+                enqueueWithToken(withToken(request, authToken), originalCallback);
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Sem renovação possível, segue com o token original; o 401 chega ao chamador normalmente
+                Log.w(TAG, "Proactive token refresh failed: " + error);
+                enqueueWithToken(request, originalCallback);
+            }
+        });
+    }
+    
+    private OkHttpClient clientFor(Request request) {
+        return RequestLanes.isInteractive(request) ? interactiveClient : httpClient;
+    }
+    
+    private static Request withToken(Request request, String authToken) {
+        String authorization = "Bearer " + authToken;
+        if (authorization.equals(request.header("Authorization"))) {
+            return request;
+        }
+        return request.newBuilder()
+                .header("Authorization", authorization)
+                .build();
+    }
+    
+    private void enqueueWithToken(Request request, Callback originalCallback) {
+        clientFor(request).newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 originalCallback.onFailure(call, e);
@@ -76,16 +233,15 @@ public class GOGLibraryManager {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 if (response.code() == 401) {
-                    // Token expired, try to refresh
-                    GOGAuthManager authManager = new GOGAuthManager(context);
-                    authManager.refreshAccessToken(new GOGAuthManager.AuthCallback() {
+                    // Token recusado: junta-se à renovação em andamento (ou inicia uma) e repete
+                    String authorization = request.header("Authorization");
+                    String rejectedToken = authorization != null && authorization.startsWith("Bearer ")
+                            ? authorization.substring("Bearer ".length()) : null;
+                    TokenManager.onUnauthorized(context, rejectedToken, new TokenManager.TokenCallback() {
                         @Override
-                        public void onSuccess(String newAuthToken, String newRefreshToken) {
-                            // Refresh successful, retry the original request with the new token
-                            Request newRequest = request.newBuilder()
-                                    .header("Authorization", "Bearer " + newAuthToken)
-                                    .build();
-                            httpClient.newCall(newRequest).enqueue(originalCallback); // Retry with original callback
+                        public void onToken(String newAuthToken) {
+                            response.close();
+                            clientFor(request).newCall(withToken(request, newAuthToken)).enqueue(originalCallback);
                         }
 
                         @Override
@@ -150,23 +306,23 @@ public class GOGLibraryManager {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try (Response autoCloseResponse = response) {
-                    String responseBody = autoCloseResponse.body() != null ? autoCloseResponse.body().string() : "";
-                    
                     Log.d(TAG, "api.gog.com response code: " + response.code());
-                    Log.d(TAG, "api.gog.com response: " + responseBody);
                     
-                    if (response.isSuccessful()) {
+                    if (response.isSuccessful() && autoCloseResponse.body() != null) {
                         try {
-                            List<Game> games = parseApiGogResponse(responseBody);
+                            List<Game> games;
+                            Tracing.begin("library.parseApiGog");
+                            try {
+                                games = LibraryParser.parseLibraryPage(autoCloseResponse.body().charStream()).getGames();
+                            } finally {
+                                Tracing.end();
+                            }
                             Log.d(TAG, "Successfully loaded " + games.size() + " games from api.gog.com");
                             
                             // Retornar jogos imediatamente para mostrar a lista
                             callback.onSuccess(games);
                             
-                            // Carregar tamanhos dos jogos de forma assíncrona
-                            loadGameSizesAsync(games);
-                            
-                        } catch (JSONException e) {
+                        } catch (JSONException | IOException e) {
                             Log.e(TAG, "Error parsing api.gog.com response, trying embed.gog.com", e);
                             tryEmbedGogLibrary(authToken, callback);
                         }
@@ -213,7 +369,7 @@ public class GOGLibraryManager {
                             
                             if (ownedGames != null && ownedGames.length() > 0) {
                                 Log.d(TAG, "Found " + ownedGames.length() + " owned games, getting detailed info");
-                                loadDetailedLibrary(authToken, 1, new ArrayList<>(), callback);
+                                loadDetailedLibrary(authToken, callback);
                             } else {
                                 Log.d(TAG, "No owned games found");
                                 callback.onSuccess(new ArrayList<>());
@@ -237,129 +393,41 @@ public class GOGLibraryManager {
         });
     }
     
-    /**
-     * Parseia resposta do api.gog.com que tem formato diferente
-     */
-    private List<Game> parseApiGogResponse(String responseBody) throws JSONException {
-        List<Game> games = new ArrayList<>();
-        
-        Log.d(TAG, "Parsing api.gog.com response");
-        
-        JSONObject json = new JSONObject(responseBody);
-        
-        // api.gog.com pode retornar formato diferente
-        if (json.has("owned")) {
-            JSONArray ownedGames = json.getJSONArray("owned");
-            
-            for (int i = 0; i < ownedGames.length(); i++) {
-                try {
-                    Object gameObj = ownedGames.get(i);
-                    
-                    if (gameObj instanceof JSONObject) {
-                        // Se for objeto completo
-                        JSONObject gameJson = (JSONObject) gameObj;
-                        Game game = Game.fromJson(gameJson);
-                        games.add(game);
-                    } else {
-                        // Se for apenas ID
-                        long gameId = ownedGames.getLong(i);
-                        Game game = new Game(gameId, "Game ID: " + gameId);
-                        games.add(game);
-                    }
-                    
-                } catch (Exception e) {
-                    Log.w(TAG, "Error parsing game at index " + i, e);
-                }
-            }
-        }
-        
-        Log.d(TAG, "Parsed " + games.size() + " games from api.gog.com");
-        return games;
-    }
-    
     /**
      * Carrega detalhes da biblioteca usando o endpoint filtrado (apenas para embed.gog.com)
+     * A página 1 informa totalPages; as demais são buscadas em paralelo pelo {@link LibraryPageFetcher}
      * @param authToken Token de autenticação
      * @param callback Callback para resultado
      */
-    private void loadDetailedLibrary(String authToken, int page, List<Game> accumulatedGames, LibraryCallback callback) {
-        Log.d(TAG, "Loading detailed library from embed.gog.com - Page " + page);
+    private void loadDetailedLibrary(String authToken, LibraryCallback callback) {
+        Log.d(TAG, "Loading detailed library from embed.gog.com - Page 1");
 
-        String url = String.format(EMBED_LIBRARY_FILTERED_URL, page);
-        Request request = new Request.Builder()
-                .url(url)
-                .get()
-                .addHeader("Authorization", "Bearer " + authToken)
-                .addHeader("User-Agent", "GOGDownloaderApp/1.0")
-                .addHeader("Accept", "application/json")
-                .build();
-
-        executeRequestWithRefresh(request, new Callback() {
+        executeRequestWithRefresh(buildLibraryPageRequest(authToken, 1), new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "Detailed library loading network error", e);
-                
-                // Se houve erro mas já temos alguns jogos acumulados, retornar eles
-                if (!accumulatedGames.isEmpty()) {
-                    Log.w(TAG, "Returning " + accumulatedGames.size() + " games despite error");
-                    callback.onSuccess(accumulatedGames);
-                } else {
-                    callback.onError("Erro de conexão: " + e.getMessage());
-                }
+                callback.onError("Erro de conexão: " + e.getMessage());
             }
 
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try (Response autoCloseResponse = response) {
-                    String responseBody = autoCloseResponse.body() != null ? autoCloseResponse.body().string() : "";
-
                     Log.d(TAG, "Detailed library response code: " + response.code());
-                    Log.d(TAG, "Detailed library response preview: " + 
-                           responseBody.substring(0, Math.min(300, responseBody.length())));
 
-                    if (response.isSuccessful()) {
+                    if (response.isSuccessful() && autoCloseResponse.body() != null) {
                         try {
-                            JSONObject json = new JSONObject(responseBody);
-                            List<Game> games = parseLibraryResponse(responseBody);
-                            accumulatedGames.addAll(games);
-
-                            int totalPages = json.optInt("totalPages", 1);
-                            if (page < totalPages && page < 10) { // Limite de 10 páginas para evitar loops infinitos
-                                loadDetailedLibrary(authToken, page + 1, accumulatedGames, callback);
-                            } else {
-                                Log.d(TAG, "Library loaded successfully: " + accumulatedGames.size() + " games");
-                                
-                                // Retornar jogos imediatamente para mostrar a lista
-                                callback.onSuccess(accumulatedGames);
-                                
-                                // Carregar tamanhos dos jogos de forma assíncrona
-                                loadGameSizesAsync(accumulatedGames);
-                            }
-
-                        } catch (JSONException e) {
+                            LibraryParser.Page firstPage = parseLibraryPage(autoCloseResponse.body().charStream());
+                            Log.d(TAG, "Library has " + firstPage.getTotalPages() + " pages");
+                            new LibraryPageFetcher(authToken, firstPage.getTotalPages(), callback)
+                                    .start(firstPage.getGames());
+                        } catch (JSONException | IOException e) {
                             Log.e(TAG, "Error parsing detailed library response", e);
-                            
-                            // Se houve erro mas já temos alguns jogos acumulados, retornar eles
-                            if (!accumulatedGames.isEmpty()) {
-                                Log.w(TAG, "Returning " + accumulatedGames.size() + " games despite parsing error");
-                                
-                                // Retornar jogos imediatamente
-                                callback.onSuccess(accumulatedGames);
-                                
-                                // Carregar tamanhos dos jogos de forma assíncrona
-                                loadGameSizesAsync(accumulatedGames);
-                            } else {
-                                callback.onError("Erro ao processar biblioteca de jogos");
-                            }
+                            callback.onError("Erro ao processar biblioteca de jogos");
                         }
                     } else {
                         Log.e(TAG, "Detailed library loading failed with code: " + response.code());
 
-                        // Se houve erro mas já temos alguns jogos acumulados, retornar eles
-                        if (!accumulatedGames.isEmpty()) {
-                            Log.w(TAG, "Returning " + accumulatedGames.size() + " games despite HTTP error");
-                            callback.onSuccess(accumulatedGames);
-                        } else if (response.code() == 401 || response.code() == 403) {
+                        if (response.code() == 401 || response.code() == 403) {
                             callback.onError("Token expirado. Faça login novamente.");
                         } else {
                             callback.onError("Erro ao carregar biblioteca (" + response.code() + ")");
@@ -370,73 +438,427 @@ public class GOGLibraryManager {
         });
     }
     
-
+    private Request buildLibraryPageRequest(String authToken, int page) {
+        return new Request.Builder()
+                .url(String.format(EMBED_LIBRARY_FILTERED_URL, page))
+                .get()
+                .addHeader("Authorization", "Bearer " + authToken)
+                .addHeader("User-Agent", "GOGDownloaderApp/1.0")
+                .addHeader("Accept", "application/json")
+                .build();
+    }
     
-    private List<Game> parseLibraryResponse(String responseBody) throws JSONException {
-        List<Game> games = new ArrayList<>();
+    private LibraryParser.Page parseLibraryPage(Reader body) throws JSONException, IOException {
+        Tracing.begin("library.parseProductsPage");
+        try {
+            return LibraryParser.parseLibraryPage(body);
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    /**
+     * Busca as páginas 2..totalPages com no máximo {@link #MAX_PARALLEL_PAGES} requisições em voo
+     * Cada página é entregue em ordem assim que as anteriores chegaram; uma página que falha
+     * após {@link #PAGE_MAX_ATTEMPTS} tentativas torna o resultado incompleto e vira onError
+     */
+    private class LibraryPageFetcher {
+        private final String authToken;
+        private final int totalPages;
+        private final LibraryCallback callback;
+        private final List<List<Game>> pages;
+        private final boolean[] settled;
+        private final List<Game> allGames = new ArrayList<>();
+        private final Set<Long> seenIds = new HashSet<>();
+        private int nextPageToRequest = 2;
+        private int nextPageToDeliver = 1;
+        private int inFlight;
+        private int failedPages;
         
-        Log.d(TAG, "Parsing library response: " + responseBody.substring(0, Math.min(500, responseBody.length())));
+        LibraryPageFetcher(String authToken, int totalPages, LibraryCallback callback) {
+            this.authToken = authToken;
+            this.totalPages = Math.max(1, totalPages);
+            this.callback = callback;
+            this.pages = new ArrayList<>(Collections.nCopies(this.totalPages, (List<Game>) null));
+            this.settled = new boolean[this.totalPages];
+        }
         
-        JSONObject json = new JSONObject(responseBody);
+        synchronized void start(List<Game> firstPageGames) {
+            pages.set(0, firstPageGames);
+            settled[0] = true;
+            deliverInOrder();
+            requestMorePages();
+            finishIfDone();
+        }
         
-        // Para getFilteredProducts, a resposta tem formato: {"products": [...], "page": 1, "totalResults": X}
-        JSONArray products = json.optJSONArray("products");
+        private void requestMorePages() {
+            while (inFlight < MAX_PARALLEL_PAGES && nextPageToRequest <= totalPages) {
+                inFlight++;
+                requestPage(nextPageToRequest++, 1);
+            }
+        }
         
-        if (products != null) {
-            Log.d(TAG, "Found products array with " + products.length() + " items");
+        private void requestPage(int page, int attempt) {
+            Log.d(TAG, "Loading library page " + page + "/" + totalPages + " (attempt " + attempt + ")");
             
-            for (int i = 0; i < products.length(); i++) {
-                try {
-                    JSONObject productJson = products.getJSONObject(i);
-                    
-                    // Log dos dados do produto para debug
-                    Log.d(TAG, "Processing product " + i + ": " + productJson.toString());
-                    
-                    Game game = Game.fromJson(productJson);
-                    games.add(game);
-                    
-                    Log.d(TAG, "Successfully parsed game: " + game.getTitle() + " (ID: " + game.getId() + ")");
-                    
-                } catch (JSONException e) {
-                    Log.e(TAG, "Error parsing game at index " + i + ": " + e.getMessage(), e);
-                    // Continuar com os outros jogos
+            executeRequestWithRefresh(buildLibraryPageRequest(authToken, page), new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.w(TAG, "Library page " + page + " network error", e);
+                    onPageFailed(page, attempt, true);
+                }
+                
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    try (Response autoCloseResponse = response) {
+                        if (!response.isSuccessful()) {
+                            Log.w(TAG, "Library page " + page + " failed with code: " + response.code());
+                            // 401/403 aqui já passou pelo refresh do token; repetir não ajuda
+                            onPageFailed(page, attempt, response.code() != 401 && response.code() != 403);
+                            return;
+                        }
+                        if (autoCloseResponse.body() == null) {
+                            onPageFailed(page, attempt, true);
+                            return;
+                        }
+                        try {
+                            onPageLoaded(page, parseLibraryPage(autoCloseResponse.body().charStream()).getGames());
+                        } catch (JSONException | IOException e) {
+                            Log.w(TAG, "Error parsing library page " + page, e);
+                            onPageFailed(page, attempt, true);
+                        }
+                    }
                 }
+            });
+        }
+        
+        private void onPageFailed(int page, int attempt, boolean retryable) {
+            if (retryable && PAGE_RETRY.canRetry(attempt)) {
+                long delay = PAGE_RETRY.delayForAttempt(attempt);
+                delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+                Log.d(TAG, "Retrying library page " + page + " in " + delay + "ms");
+                pageRetryScheduler.schedule(() -> requestPage(page, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                return;
             }
-        } else {
-            // Para /user/data/games, a resposta tem formato: {"owned": [id1, id2, id3, ...]}
-            JSONArray owned = json.optJSONArray("owned");
-            if (owned != null) {
-                Log.d(TAG, "Found owned array with " + owned.length() + " items (IDs only)");
+            synchronized (this) {
+                Log.e(TAG, "Giving up on library page " + page + " after " + attempt + " attempts");
+                failedPages++;
+                settlePage(page, Collections.emptyList());
+            }
+        }
+        
+        private synchronized void onPageLoaded(int page, List<Game> games) {
+            settlePage(page, games);
+        }
+        
+        private void settlePage(int page, List<Game> games) {
+            pages.set(page - 1, games);
+            settled[page - 1] = true;
+            inFlight--;
+            deliverInOrder();
+            requestMorePages();
+            finishIfDone();
+        }
+        
+        private void deliverInOrder() {
+            while (nextPageToDeliver <= totalPages && settled[nextPageToDeliver - 1]) {
+                List<Game> pageGames = new ArrayList<>();
+                for (Game game : pages.get(nextPageToDeliver - 1)) {
+                    // A biblioteca pode mudar durante a paginação e repetir um jogo entre páginas
+                    if (seenIds.add(game.getId())) {
+                        pageGames.add(game);
+                    }
+                }
+                pages.set(nextPageToDeliver - 1, null);
+                allGames.addAll(pageGames);
                 
-                for (int i = 0; i < owned.length(); i++) {
+                if (callback instanceof LibraryPageCallback && !pageGames.isEmpty()) {
+                    ((LibraryPageCallback) callback).onPage(pageGames, nextPageToDeliver, totalPages);
+                }
+                nextPageToDeliver++;
+            }
+        }
+        
+        private void finishIfDone() {
+            if (nextPageToDeliver <= totalPages) {
+                return;
+            }
+            nextPageToDeliver = Integer.MAX_VALUE; // Garante uma única finalização
+            
+            if (failedPages > 0) {
+                Log.e(TAG, "Library incomplete: " + failedPages + " of " + totalPages + " pages failed, "
+                        + allGames.size() + " games loaded");
+                callback.onError("Biblioteca incompleta: " + failedPages + " de " + totalPages
+                        + " páginas não carregaram. Tente atualizar novamente.");
+            } else {
+                Log.d(TAG, "Library loaded successfully: " + allGames.size() + " games in " + totalPages + " pages");
+                callback.onSuccess(allGames);
+            }
+        }
+    }
+    
+    /**
+     * Lista apenas os IDs possuídos (alguns KB), com If-None-Match quando há ETag salvo
+     */
+    public void loadOwnedGameIds(OwnedGamesCallback callback) {
+        String authToken = preferencesManager.getAuthToken();
+        if (authToken == null || authToken.isEmpty()) {
+            callback.onError("Token de autenticação não encontrado");
+            return;
+        }
+        
+        Request.Builder builder = new Request.Builder()
+                .url(EMBED_USER_GAMES_URL)
+                .get()
+                .addHeader("Authorization", "Bearer " + authToken);
+        String etag = preferencesManager.getLibraryOwnedEtag();
+        if (etag != null) {
+            builder.addHeader("If-None-Match", etag);
+        }
+        
+        executeRequestWithRefresh(builder.build(), new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.e(TAG, "Owned games network error", e);
+                callback.onError("Erro de conexão: " + e.getMessage());
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try (Response autoCloseResponse = response) {
+                    if (response.code() == 304) {
+                        Log.d(TAG, "Owned games not modified");
+                        callback.onSuccess(null);
+                        return;
+                    }
+                    if (!response.isSuccessful()) {
+                        Log.e(TAG, "Owned games failed with code: " + response.code());
+                        callback.onError("Erro ao carregar lista de jogos (" + response.code() + ")");
+                        return;
+                    }
+                    
+                    String responseBody = autoCloseResponse.body() != null ? autoCloseResponse.body().string() : "";
                     try {
-                        long gameId = owned.getLong(i);
-                        
-                        // Criar jogo simples com ID - o título será carregado depois
-                        Game game = new Game(gameId, "Carregando...");
-                        games.add(game);
-                        
-                        Log.d(TAG, "Created game placeholder for ID: " + gameId);
-                        
+                        JSONArray owned = new JSONObject(responseBody).optJSONArray("owned");
+                        Set<Long> ownedIds = new HashSet<>();
+                        if (owned != null) {
+                            for (int i = 0; i < owned.length(); i++) {
+                                ownedIds.add(owned.getLong(i));
+                            }
+                        }
+                        preferencesManager.setLibraryOwnedEtag(response.header("ETag"));
+                        Log.d(TAG, "Owned games: " + ownedIds.size() + " IDs (" + responseBody.length() + " bytes)");
+                        callback.onSuccess(ownedIds);
                     } catch (JSONException e) {
-                        Log.w(TAG, "Error parsing owned game ID at index " + i, e);
+                        Log.e(TAG, "Error parsing owned games", e);
+                        callback.onError("Erro ao processar lista de jogos");
                     }
                 }
-            } else {
-                Log.w(TAG, "No products or owned array found in response");
-                Log.d(TAG, "Full response: " + responseBody);
+            }
+        });
+    }
+    
+    /**
+     * Carrega o JSON de vários produtos em lotes de {@link #PRODUCTS_BATCH_SIZE} IDs,
+     * com no máximo {@link #MAX_PARALLEL_PRODUCTS} lotes em voo
+     */
+    public void loadProducts(Collection<Long> productIds, ProductsCallback callback) {
+        loadProducts(productIds, false, null, callback);
+    }
+    
+    /**
+     * @param expandDownloads inclui installers/patches (necessário para tamanhos)
+     * @param batchListener recebe cada lote assim que chega; pode ser null
+     */
+    public void loadProducts(Collection<Long> productIds, boolean expandDownloads,
+                             ProductBatchListener batchListener, ProductsCallback callback) {
+        String authToken = preferencesManager.getAuthToken();
+        if (authToken == null || authToken.isEmpty() || productIds.isEmpty()) {
+            callback.onComplete(new ArrayList<>(), new HashSet<>(productIds));
+            return;
+        }
+        new ProductFetcher(authToken, productIds, expandDownloads, batchListener, callback).start();
+    }
+    
+    private class ProductFetcher {
+        private final String authToken;
+        private final List<List<Long>> batches = new ArrayList<>();
+        private final boolean expandDownloads;
+        private final ProductBatchListener batchListener;
+        private final ProductsCallback callback;
+        private final List<JSONObject> products = new ArrayList<>();
+        private final Set<Long> failedIds = new HashSet<>();
+        private int nextBatch;
+        private int remaining;
+        
+        ProductFetcher(String authToken, Collection<Long> productIds, boolean expandDownloads,
+                       ProductBatchListener batchListener, ProductsCallback callback) {
+            this.authToken = authToken;
+            this.expandDownloads = expandDownloads;
+            this.batchListener = batchListener;
+            this.callback = callback;
+            
+            List<Long> ids = new ArrayList<>(productIds);
+            for (int i = 0; i < ids.size(); i += PRODUCTS_BATCH_SIZE) {
+                batches.add(ids.subList(i, Math.min(ids.size(), i + PRODUCTS_BATCH_SIZE)));
+            }
+            this.remaining = batches.size();
+        }
+        
+        synchronized void start() {
+            Log.d(TAG, "Loading products in " + batches.size() + " batches" + (expandDownloads ? " (with downloads)" : ""));
+            while (nextBatch < Math.min(MAX_PARALLEL_PRODUCTS, batches.size())) {
+                requestBatch(batches.get(nextBatch++));
+            }
+        }
+        
+        private void requestBatch(List<Long> batch) {
+            StringBuilder ids = new StringBuilder();
+            for (Long id : batch) {
+                if (ids.length() > 0) ids.append(',');
+                ids.append(id.longValue());
+            }
+            String url = String.format(PRODUCTS_BATCH_URL, ids) + (expandDownloads ? "&expand=downloads" : "");
+            
+            Request request = new Request.Builder()
+                    .url(url)
+                    .get()
+                    .addHeader("Authorization", "Bearer " + authToken)
+                    .addHeader("User-Agent", "GOGDownloaderApp/1.0")
+                    .addHeader("Accept", "application/json")
+                    .build();
+            
+            executeRequestWithRefresh(request, new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.w(TAG, "Products batch network error (" + batch.size() + " IDs)", e);
+                    settle(batch, new ArrayList<>());
+                }
                 
-                // Verificar se a resposta é um erro
-                if (json.has("error")) {
-                    String error = json.optString("error", "Erro desconhecido");
-                    Log.e(TAG, "API returned error: " + error);
-                    throw new JSONException("API Error: " + error);
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    List<JSONObject> batchProducts = new ArrayList<>();
+                    try (Response autoCloseResponse = response) {
+                        String responseBody = autoCloseResponse.body() != null ? autoCloseResponse.body().string() : "";
+                        if (response.isSuccessful()) {
+                            JSONArray array = new JSONArray(responseBody);
+                            for (int i = 0; i < array.length(); i++) {
+                                JSONObject product = array.optJSONObject(i);
+                                if (product != null) {
+                                    batchProducts.add(product);
+                                }
+                            }
+                        } else {
+                            Log.w(TAG, "Products batch failed with code: " + response.code());
+                        }
+                    } catch (JSONException e) {
+                        Log.w(TAG, "Error parsing products batch", e);
+                    }
+                    settle(batch, batchProducts);
                 }
+            });
+        }
+        
+        private void settle(List<Long> batch, List<JSONObject> batchProducts) {
+            if (batchListener != null && !batchProducts.isEmpty()) {
+                batchListener.onBatch(batchProducts);
             }
+            synchronized (this) {
+                // IDs pedidos que não vieram na resposta contam como falha
+                Set<Long> missing = new HashSet<>(batch);
+                for (JSONObject product : batchProducts) {
+                    missing.remove(product.optLong("id"));
+                }
+                products.addAll(batchProducts);
+                failedIds.addAll(missing);
+                remaining--;
+                if (nextBatch < batches.size()) {
+                    requestBatch(batches.get(nextBatch++));
+                }
+                if (remaining > 0) {
+                    return;
+                }
+            }
+            callback.onComplete(products, failedIds);
+        }
+    }
+    
+    /**
+     * Carrega o tamanho de instalação dos jogos sem tamanho conhecido, em lotes pelo endpoint
+     * de produtos; cada lote é entregue ao callback assim que chega
+     */
+    public void loadGameSizes(List<Game> games, GameSizesCallback callback) {
+        List<Long> unsizedIds = new ArrayList<>();
+        for (Game game : games) {
+            if (game.getTotalSize() <= 0) {
+                unsizedIds.add(game.getId());
+            }
+        }
+        if (unsizedIds.isEmpty()) {
+            callback.onComplete(0, 0);
+            return;
         }
         
-        Log.d(TAG, "Total games parsed: " + games.size());
-        return games;
+        Log.d(TAG, "Loading sizes for " + unsizedIds.size() + " games");
+        Set<String> platforms = preferencesManager.getSelectedPlatforms();
+        AtomicInteger sized = new AtomicInteger();
+        
+        loadProducts(unsizedIds, true, products -> {
+            Map<Long, Long> sizes = new HashMap<>();
+            for (JSONObject product : products) {
+                try {
+                    long size = computeInstallSize(parseDownloadLinks(product), platforms);
+                    if (size > 0) {
+                        sizes.put(product.getLong("id"), size);
+                    }
+                } catch (JSONException e) {
+                    Log.w(TAG, "Error reading downloads of product " + product.optLong("id"), e);
+                }
+            }
+            if (!sizes.isEmpty()) {
+                sized.addAndGet(sizes.size());
+                callback.onSizes(sizes);
+            }
+        }, (products, failedIds) -> {
+            Log.d(TAG, "Finished size loading: " + sized.get() + " sized, " + failedIds.size() + " failed");
+            callback.onComplete(sized.get(), failedIds.size());
+        });
+    }
+    
+    /**
+     * Tamanho de uma instalação: installers de uma plataforma selecionada (Windows, Linux, Mac
+     * nessa ordem) em um idioma (inglês se houver), sem somar todas as variantes
+     */
+    static long computeInstallSize(List<DownloadLink> links, Set<String> selectedPlatforms) {
+        DownloadLink.Platform[] order = {
+                DownloadLink.Platform.WINDOWS, DownloadLink.Platform.LINUX, DownloadLink.Platform.MAC};
+        for (DownloadLink.Platform platform : order) {
+            if (selectedPlatforms != null && !selectedPlatforms.contains(platform.name().toLowerCase())) {
+                continue;
+            }
+            String language = null;
+            for (DownloadLink link : links) {
+                if (link.getType() == DownloadLink.FileType.INSTALLER && link.getPlatform() == platform) {
+                    if (language == null || "en".equals(link.getLanguage())) {
+                        language = link.getLanguage();
+                    }
+                }
+            }
+            if (language == null) {
+                continue;
+            }
+            long total = 0;
+            for (DownloadLink link : links) {
+                if (link.getType() == DownloadLink.FileType.INSTALLER && link.getPlatform() == platform
+                        && language.equals(link.getLanguage())) {
+                    total += Math.max(0, link.getSize());
+                }
+            }
+            if (total > 0) {
+                return total;
+            }
+        }
+        return 0;
     }
     
     /**
@@ -445,9 +867,99 @@ public class GOGLibraryManager {
      * @param callback Callback para o resultado
      */
     public void loadGameDetails(long gameId, GameDetailsCallback callback) {
+        fetchGameDetailsShared(gameId, callback);
+    }
+    
+    /**
+     * Igual a {@link #loadGameDetails}, mas responde do cache local quando possível.
+     * Dentro do TTL não há rede; vencido (até DETAILS_CACHE_MAX_STALE_MS) responde na hora e
+     * revalida em segundo plano com If-None-Match; sem cache vai direto à rede
+     */
+    public void loadGameDetailsCached(long gameId, GameDetailsCallback callback) {
+        cacheExecutor.execute(() -> {
+            ContentValues cached;
+            Tracing.begin("library.readDetailsCache");
+            try {
+                cached = getDatabaseHelper().getCachedGameDetails(gameId);
+            } finally {
+                Tracing.end();
+            }
+            
+            if (cached != null) {
+                long age = System.currentTimeMillis() - cached.getAsLong("fetched_at");
+                if (age < DETAILS_CACHE_MAX_STALE_MS && deliverCachedDetails(cached, callback)) {
+                    if (age >= DETAILS_CACHE_TTL_MS && !detailsFlight.isInFlight(detailsKey(gameId))) {
+                        Log.d(TAG, "Details cache stale for " + gameId + ", revalidating");
+                        fetchGameDetails(gameId, cached.getAsString("etag"), null);
+                    } else {
+                        Log.d(TAG, "Details cache hit for " + gameId);
+                    }
+                    return;
+                }
+            }
+            
+            Log.d(TAG, "Details cache miss for " + gameId);
+            fetchGameDetailsShared(gameId, callback);
+        });
+    }
+    
+    private static String detailsKey(long gameId) {
+        return "details:" + gameId;
+    }
+    
+    /**
+     * Busca na rede compartilhando a chamada com quem já pediu o mesmo jogo
+     */
+    private void fetchGameDetailsShared(long gameId, GameDetailsCallback callback) {
+        detailsFlight.execute(detailsKey(gameId), new SingleFlight.Listener<LibraryParser.ProductDetails>() {
+            @Override
+            public void onSuccess(LibraryParser.ProductDetails details) {
+                callback.onSuccess(details.getGame(), details.getDownloadLinks());
+            }
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        }, done -> fetchGameDetails(gameId, null, new GameDetailsCallback() {
+            @Override
+            public void onSuccess(Game game, List<DownloadLink> downloadLinks) {
+                done.onSuccess(new LibraryParser.ProductDetails(game, downloadLinks));
+            }
+            
+            @Override
+            public void onError(String error) {
+                done.onError(error);
+            }
+        }));
+    }
+    
+    private boolean deliverCachedDetails(ContentValues cached, GameDetailsCallback callback) {
+        try {
+            Game game = Game.fromStoredJson(new JSONObject(cached.getAsString("details_json")));
+            List<DownloadLink> downloadLinks = DownloadLink.deserializeFullList(cached.getAsString("links_json"));
+            if (downloadLinks == null) {
+                return false;
+            }
+            game.setDownloadLinks(downloadLinks);
+            callback.onSuccess(game, downloadLinks);
+            return true;
+        } catch (JSONException e) {
+            Log.w(TAG, "Discarding unreadable details cache entry", e);
+            return false;
+        }
+    }
+    
+    /**
+     * @param etag ETag em cache para revalidação condicional, ou null
+     * @param callback null em revalidações de fundo (o chamador já foi respondido pelo cache)
+     */
+    private void fetchGameDetails(long gameId, String etag, GameDetailsCallback callback) {
         String authToken = preferencesManager.getAuthToken();
         if (authToken == null || authToken.isEmpty()) {
-            callback.onError("Token de autenticação não encontrado");
+            if (callback != null) {
+                callback.onError("Token de autenticação não encontrado");
+            }
             return;
         }
         
@@ -455,46 +967,70 @@ public class GOGLibraryManager {
         
         String url = String.format(GAME_DETAILS_URL, gameId);
         
-        Request request = new Request.Builder()
+        Request.Builder builder = new Request.Builder()
                 .url(url)
                 .get()
                 .addHeader("Authorization", "Bearer " + authToken)
                 .addHeader("User-Agent", "GOGDownloaderApp/1.0")
-                .addHeader("Accept", "application/json")
-                .build();
+                .addHeader("Accept", "application/json");
+        if (etag != null && !etag.isEmpty()) {
+            builder.addHeader("If-None-Match", etag);
+        }
+        // Com callback alguém está esperando os detalhes na tela; revalidação fica em segundo plano
+        builder.tag(RequestLanes.Priority.class,
+                callback != null ? RequestLanes.Priority.INTERACTIVE : RequestLanes.Priority.BACKGROUND);
+        Request request = builder.build();
         
         executeRequestWithRefresh(request, new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 Log.e(TAG, "Game details network error", e);
-                callback.onError("Erro de conexão: " + e.getMessage());
+                if (callback != null) {
+                    callback.onError("Erro de conexão: " + e.getMessage());
+                }
             }
             
             @Override
             public void onResponse(Call call, Response response) throws IOException {
                 try (Response autoCloseResponse = response) {
-                    String responseBody = autoCloseResponse.body() != null ? autoCloseResponse.body().string() : "";
+                    if (response.code() == 304) {
+                        Log.d(TAG, "Game details not modified for " + gameId);
+                        getDatabaseHelper().touchCachedGameDetails(gameId);
+                        return;
+                    }
                     
                     Log.d(TAG, "Game details response code: " + response.code());
-                    Log.d(TAG, "Game details response: " + responseBody);
                     
-                    if (response.isSuccessful()) {
+                    if (response.isSuccessful() && autoCloseResponse.body() != null) {
                         try {
-                            JSONObject gameJson = new JSONObject(responseBody);
-                            Game game = Game.fromJson(gameJson);
-                            List<DownloadLink> downloadLinks = parseDownloadLinks(gameJson);
-                            game.setDownloadLinks(downloadLinks);
+                            LibraryParser.ProductDetails details;
+                            Tracing.begin("library.parseGameDetails");
+                            try {
+                                details = LibraryParser.parseProductDetails(autoCloseResponse.body().charStream());
+                            } finally {
+                                Tracing.end();
+                            }
+                            Game game = details.getGame();
+                            List<DownloadLink> downloadLinks = details.getDownloadLinks();
                             
                             Log.d(TAG, "Game details loaded: " + game.getTitle() + 
                                    " with " + downloadLinks.size() + " download links");
-                            callback.onSuccess(game, downloadLinks);
+                            if (callback != null) {
+                                callback.onSuccess(game, downloadLinks);
+                            }
+                            storeGameDetails(game, downloadLinks, response.header("ETag"));
                             
-                        } catch (JSONException e) {
+                        } catch (JSONException | IOException e) {
                             Log.e(TAG, "Error parsing game details", e);
-                            callback.onError("Erro ao processar detalhes do jogo");
+                            if (callback != null) {
+                                callback.onError("Erro ao processar detalhes do jogo");
+                            }
                         }
                     } else {
                         Log.e(TAG, "Game details failed with code: " + response.code());
+                        if (callback == null) {
+                            return;
+                        }
                         
                         if (response.code() == 401) {
                             callback.onError("Token expirado. Faça login novamente.");
@@ -509,7 +1045,24 @@ public class GOGLibraryManager {
         });
     }
     
+    private void storeGameDetails(Game game, List<DownloadLink> downloadLinks, String etag) {
+        try {
+            String linksJson = DownloadLink.serializeFullList(downloadLinks);
+            if (linksJson != null) {
+                getDatabaseHelper().putCachedGameDetails(game.getId(), game.toJson().toString(), linksJson, etag);
+            }
+        } catch (Exception e) {
+            // Falha no cache não deve afetar quem já recebeu os detalhes
+            Log.w(TAG, "Error caching game details for " + game.getId(), e);
+        }
+    }
 
+    private synchronized DatabaseHelper getDatabaseHelper() {
+        if (databaseHelper == null) {
+            databaseHelper = new DatabaseHelper(context);
+        }
+        return databaseHelper;
+    }
     
     private List<DownloadLink> parseDownloadLinks(JSONObject gameJson) throws JSONException {
         List<DownloadLink> downloadLinks = new ArrayList<>();
@@ -631,6 +1184,140 @@ public class GOGLibraryManager {
      * @param callback Callback para o resultado
      */
     public void getDownloadLink(long gameId, DownloadLink downloadLink, String type, DownloadLinkCallback callback) {
+        String prefetched = takePrefetchedLink(downloadLink.getUrl());
+        if (prefetched != null) {
+            Log.d(TAG, "Using prefetched download link for " + downloadLink.getId());
+            callback.onSuccess(prefetched);
+            return;
+        }
+        
+        // O downlink identifica jogo e arquivo; pedidos simultâneos do mesmo arquivo dividem a resposta
+        downloadLinkFlight.execute("downlink:" + downloadLink.getUrl(), new SingleFlight.Listener<String>() {
+            @Override
+            public void onSuccess(String downloadUrl) {
+                callback.onSuccess(downloadUrl);
+            }
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        }, done -> requestDownloadLink(gameId, downloadLink, RequestLanes.Priority.INTERACTIVE, new DownloadLinkCallback() {
+            @Override
+            public void onSuccess(String downloadUrl) {
+                done.onSuccess(downloadUrl);
+            }
+            
+            @Override
+            public void onError(String error) {
+                done.onError(error);
+            }
+        }));
+    }
+    
+    /**
+     * Resolve, testa com HEAD e pré-conecta os arquivos que o usuário provavelmente vai baixar
+     * (instaladores das plataformas escolhidas, idioma do aparelho primeiro) enquanto ele ainda
+     * escolhe no diálogo. O resultado fica para o próximo {@link #getDownloadLink} do mesmo arquivo
+     */
+    public void prefetchDownloadLinks(long gameId, List<DownloadLink> downloadLinks) {
+        Set<String> selectedPlatforms = preferencesManager.getSelectedPlatforms();
+        String deviceLanguage = Locale.getDefault().getLanguage();
+        
+        List<DownloadLink> candidates = new ArrayList<>();
+        for (DownloadLink link : downloadLinks) {
+            if (link.getType() == DownloadLink.FileType.INSTALLER
+                    && selectedPlatforms.contains(link.getPlatform().name().toLowerCase())
+                    && link.getUrl() != null && !link.getUrl().isEmpty()) {
+                candidates.add(link);
+            }
+        }
+        // Idioma do aparelho primeiro; a ordenação é estável, o resto segue a ordem da API
+        Collections.sort(candidates, (a, b) -> Boolean.compare(
+                !deviceLanguage.equalsIgnoreCase(a.getLanguage()), !deviceLanguage.equalsIgnoreCase(b.getLanguage())));
+        
+        for (DownloadLink link : candidates.subList(0, Math.min(candidates.size(), MAX_SPECULATIVE_LINKS))) {
+            String key = link.getUrl();
+            synchronized (prefetchedLinks) {
+                PrefetchedLink existing = prefetchedLinks.get(key);
+                if (existing != null && existing.expiresAt > System.currentTimeMillis()) {
+                    continue;
+                }
+            }
+            // Palpite, não clique: segundo plano, sem segurar a sync nem gastar a reserva interativa
+            downloadLinkFlight.execute("downlink:" + key, new SingleFlight.Listener<String>() {
+                @Override
+                public void onSuccess(String downloadUrl) {
+                    probeDownloadUrl(key, downloadUrl);
+                }
+                
+                @Override
+                public void onError(String error) {
+                    Log.d(TAG, "Speculative link resolution failed for " + link.getId() + ": " + error);
+                }
+            }, done -> requestDownloadLink(gameId, link, RequestLanes.Priority.BACKGROUND, new DownloadLinkCallback() {
+                @Override
+                public void onSuccess(String downloadUrl) {
+                    done.onSuccess(downloadUrl);
+                }
+                
+                @Override
+                public void onError(String error) {
+                    done.onError(error);
+                }
+            }));
+        }
+    }
+    
+    /**
+     * HEAD na CDN pela pilha compartilhada: confirma que o link responde e deixa a conexão
+     * (DNS + TLS, e o redirect seguido) aberta no pool que o DownloadService também usa
+     */
+    private void probeDownloadUrl(String key, String downloadUrl) {
+        Request request = new Request.Builder()
+                .url(downloadUrl)
+                .head()
+                .header("User-Agent", "GOGDownloaderApp/1.0")
+                .build();
+        NetworkStack.get(context).newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.d(TAG, "Speculative HEAD failed: " + e.getMessage());
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response autoCloseResponse = response) {
+                    if (!autoCloseResponse.isSuccessful()) {
+                        Log.d(TAG, "Speculative HEAD returned " + autoCloseResponse.code() + ", not caching link");
+                        return;
+                    }
+                }
+                synchronized (prefetchedLinks) {
+                    long now = System.currentTimeMillis();
+                    prefetchedLinks.values().removeIf(link -> link.expiresAt <= now);
+                    prefetchedLinks.put(key, new PrefetchedLink(downloadUrl, now + PREFETCHED_LINK_TTL_MS));
+                }
+                Log.d(TAG, "Prefetched download link ready (" + response.protocol() + ")");
+            }
+        });
+    }
+    
+    private static String takePrefetchedLink(String key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (prefetchedLinks) {
+            PrefetchedLink link = prefetchedLinks.remove(key);
+            if (link == null || link.expiresAt <= System.currentTimeMillis()) {
+                return null;
+            }
+            return link.downloadUrl;
+        }
+    }
+    
+    private void requestDownloadLink(long gameId, DownloadLink downloadLink, RequestLanes.Priority priority,
+                                     DownloadLinkCallback callback) {
         String authToken = preferencesManager.getAuthToken();
         if (authToken == null || authToken.isEmpty()) {
             callback.onError("Token de autenticação não encontrado");
@@ -647,6 +1334,7 @@ public class GOGLibraryManager {
                 .addHeader("Authorization", "Bearer " + authToken)
                 .addHeader("User-Agent", "GOGDownloaderApp/1.0")
                 .addHeader("Accept", "application/json")
+                .tag(RequestLanes.Priority.class, priority)
                 .build();
         
         executeRequestWithRefresh(request, new Callback() {
@@ -701,59 +1389,4 @@ public class GOGLibraryManager {
             }
         });
     }
-    
-    /**
-     * Carrega tamanhos dos jogos de forma assíncrona
-     * Atualiza os jogos progressivamente conforme os tamanhos são obtidos
-     */
-    private void loadGameSizesAsync(List<Game> games) {
-        if (games == null || games.isEmpty()) {
-            Log.d(TAG, "No games to load sizes for");
-            return;
-        }
-        
-        Log.d(TAG, "Starting async size loading for " + games.size() + " games");
-        
-        // Carregar tamanhos em background thread para não bloquear UI
-        new Thread(() -> {
-            for (Game game : games) {
-                if (game.getTotalSize() > 0) {
-                    // Já tem tamanho, pular
-                    continue;
-                }
-                
-                try {
-                    // Carregar detalhes do jogo para obter tamanho
-                    loadGameDetails(game.getId(), new GameDetailsCallback() {
-                        @Override
-                        public void onSuccess(Game detailedGame, List<DownloadLink> downloadLinks) {
-                            if (detailedGame.getTotalSize() > 0) {
-                                // Atualizar tamanho do jogo original
-                                game.setTotalSize(detailedGame.getTotalSize());
-                                Log.d(TAG, "Updated size for game '" + game.getTitle() + "': " + game.getFormattedSize());
-                                
-                                // TODO: Notificar UI para atualizar (implementar observer pattern se necessário)
-                            }
-                        }
-                        
-                        @Override
-                        public void onError(String error) {
-                            Log.w(TAG, "Failed to load size for game '" + game.getTitle() + "': " + error);
-                        }
-                    });
-                    
-                    // Delay pequeno entre requisições para não sobrecarregar API
-                    Thread.sleep(500);
-                    
-                } catch (InterruptedException e) {
-                    Log.w(TAG, "Size loading interrupted", e);
-                    break;
-                } catch (Exception e) {
-                    Log.e(TAG, "Error loading size for game '" + game.getTitle() + "'", e);
-                }
-            }
-            
-            Log.d(TAG, "Finished async size loading");
-        }).start();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package com.termux.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Token bucket por host (api.gog.com, embed.gog.com, auth.gog.com), estático para que todos os clientes
+ * e todas as telas dividam o mesmo orçamento. O trabalho em segundo plano roda na velocidade que o bucket
+ * permite, e um 429/503 com Retry-After pausa o host inteiro em vez de cada chamada insistir sozinha
+ */
+public final class HostRateLimiter {
+    
+    private static final String TAG = "HostRateLimiter";
+    
+    // Sem Retry-After: 1s, 2s, 4s...
+    private static final long DEFAULT_BACKOFF_MS = 1000;
+    // Pausas maiores que isso não são esperadas: a resposta volta para o chamador
+    private static final long MAX_RETRY_WAIT_MS = 30 * 1000;
+    private static final int MAX_RETRIES = 3;
+    // Fração do bucket que o segundo plano não usa, para o clique do usuário não esperar permissão
+    private static final double INTERACTIVE_RESERVE = 0.25;
+    
+    private static final Map<String, Bucket> buckets = new HashMap<>();
+    
+    static {
+        buckets.put("api.gog.com", new Bucket(8, 16));
+        buckets.put("embed.gog.com", new Bucket(4, 8));
+        buckets.put("auth.gog.com", new Bucket(2, 4));
+    }
+    
+    private HostRateLimiter() {
+    }
+    
+    private static final class Bucket {
+        final double permitsPerSecond;
+        final double capacity;
+        double tokens;
+        long lastRefill;
+        long blockedUntil;
+        
+        Bucket(double permitsPerSecond, double capacity) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.currentTimeMillis();
+        }
+        
+        /**
+         * Consome uma permissão se sobrarem mais que {@code reserve}; senão devolve quantos ms esperar
+         */
+        synchronized long tryAcquire(double reserve) {
+            long now = System.currentTimeMillis();
+            if (now < blockedUntil) {
+                return blockedUntil - now;
+            }
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerSecond / 1000.0);
+            lastRefill = now;
+            if (tokens >= 1 + reserve) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 + reserve - tokens) * 1000.0 / permitsPerSecond);
+        }
+        
+        synchronized void block(long delayMs) {
+            long until = System.currentTimeMillis() + delayMs;
+            if (until > blockedUntil) {
+                blockedUntil = until;
+            }
+            // Depois da pausa recomeça devagar, sem despejar a rajada inteira de novo
+            tokens = 0;
+            lastRefill = until;
+        }
+    }
+    
+    /**
+     * Espera até o host liberar uma requisição; hosts sem limite passam direto
+     * @param background chamadas de segundo plano deixam parte do bucket para as interativas
+     */
+    public static void acquire(String host, boolean background) throws IOException {
+        Bucket bucket = buckets.get(host);
+        if (bucket == null) {
+            return;
+        }
+        double reserve = background ? bucket.capacity * INTERACTIVE_RESERVE : 0;
+        long waitMs;
+        while ((waitMs = bucket.tryAcquire(reserve)) > 0) {
+            try {
+                Thread.sleep(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido aguardando limite de " + host);
+            }
+        }
+    }
+    
+    /**
+     * Pausa o host por {@code delayMs} para todos os chamadores
+     */
+    public static void block(String host, long delayMs) {
+        Bucket bucket = buckets.get(host);
+        if (bucket != null) {
+            bucket.block(delayMs);
+        }
+    }
+    
+    /**
+     * Pausa o host para todos e espera a pausa passar (sem gastar permissão)
+     */
+    static void waitOut(String host, long delayMs) throws IOException {
+        block(host, delayMs);
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando " + host);
+        }
+    }
+    
+    static boolean isThrottled(Response response) {
+        return response.code() == 429 || response.code() == 503;
+    }
+    
+    /**
+     * Retry-After em segundos ou data HTTP; sem cabeçalho, backoff exponencial pela tentativa
+     */
+    static long retryDelayMs(Response response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                Date date = response.headers().getDate("Retry-After");
+                if (date != null) {
+                    return Math.max(0, date.getTime() - System.currentTimeMillis());
+                }
+            }
+        }
+        return DEFAULT_BACKOFF_MS << Math.min(attempt, 5);
+    }
+    
+    /**
+     * Network interceptor: só o que sai para a rede gasta orçamento (acertos de cache não)
+     * e um 429/503 pausa o host para todos
+     */
+    public static final class NetworkInterceptor implements Interceptor {
+        
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            String host = request.url().host();
+            acquire(host, RequestLanes.priorityOf(request) == RequestLanes.Priority.BACKGROUND);
+            Response response = chain.proceed(request);
+            if (isThrottled(response)) {
+                long delayMs = retryDelayMs(response, 0);
+                Log.w(TAG, host + " returned " + response.code() + ", pausing host for " + delayMs + "ms");
+                block(host, delayMs);
+            }
+            return response;
+        }
+    }
+    
+    /**
+     * Application interceptor: repete GETs que levaram 429/503 depois da pausa pedida pelo servidor
+     */
+    public static final class RetryInterceptor implements Interceptor {
+        
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (!"GET".equals(request.method())) {
+                return response;
+            }
+            
+            int attempt = 0;
+            while (isThrottled(response) && attempt < MAX_RETRIES) {
+                long delayMs = retryDelayMs(response, attempt);
+                if (delayMs > MAX_RETRY_WAIT_MS) {
+                    break;
+                }
+                attempt++;
+                response.close();
+                Log.d(TAG, "Retrying " + request.url().encodedPath() + " (attempt " + attempt + ")");
+                waitOut(request.url().host(), delayMs);
+                response = chain.proceed(request);
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.termux.api;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.Log;
+
+import com.termux.models.DownloadLink;
+import com.termux.models.Game;
+import com.termux.utils.JsonStreams;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsing das respostas de biblioteca do GOG, sem dependência de Context
+ * Separado do GOGLibraryManager para poder ser medido no módulo de benchmarks
+ * Lê em streaming (JsonReader): nenhum corpo de resposta vira String ou árvore JSON inteira
+ */
+public final class LibraryParser {
+    
+    private static final String TAG = "LibraryParser";
+    
+    /**
+     * Uma página de getFilteredProducts já interpretada
+     */
+    public static final class Page {
+        private final List<Game> games;
+        private final int page;
+        private final int totalPages;
+        
+        Page(List<Game> games, int page, int totalPages) {
+            this.games = games;
+            this.page = page;
+            this.totalPages = totalPages;
+        }
+        
+        public List<Game> getGames() { return games; }
+        public int getPage() { return page; }
+        public int getTotalPages() { return totalPages; }
+    }
+    
+    /**
+     * Detalhes de um produto (products/{id}?expand=downloads) já interpretados
+     */
+    public static final class ProductDetails {
+        private final Game game;
+        private final List<DownloadLink> downloadLinks;
+        
+        ProductDetails(Game game, List<DownloadLink> downloadLinks) {
+            this.game = game;
+            this.downloadLinks = downloadLinks;
+        }
+        
+        public Game getGame() { return game; }
+        public List<DownloadLink> getDownloadLinks() { return downloadLinks; }
+    }
+    
+    private LibraryParser() {
+    }
+    
+    /**
+     * Interpreta getFilteredProducts ({"products": [...]}) ou user/data/games ({"owned": [ids]})
+     */
+    public static List<Game> parseLibraryResponse(String responseBody) throws JSONException {
+        return parseLibraryPage(responseBody).getGames();
+    }
+    
+    /**
+     * Como {@link #parseLibraryResponse}, mas também devolve page/totalPages sem reparsear o JSON
+     */
+    public static Page parseLibraryPage(String responseBody) throws JSONException {
+        try {
+            return parseLibraryPage(new StringReader(responseBody));
+        } catch (IOException e) {
+            throw new JSONException("JSON inválido: " + e.getMessage());
+        }
+    }
+        
+    /**
+     * Versão em streaming: lê direto do corpo da resposta para os Game, pulando campos não usados,
+     * sem montar a String inteira nem a árvore do org.json. Não fecha o Reader
+     * @throws IOException em falha de leitura ou JSON malformado
+     */
+    public static Page parseLibraryPage(Reader source) throws IOException, JSONException {
+        List<Game> products = null;
+        List<Game> owned = null;
+        int page = 1;
+        int totalPages = 1;
+        String error = null;
+        
+        JsonReader reader = new JsonReader(source);
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "products":
+                        // Para getFilteredProducts: {"products": [...], "page": 1, "totalPages": X}
+                        products = readProducts(reader);
+                        break;
+                    case "owned":
+                        // Para /user/data/games: {"owned": [id1, id2, id3, ...]}
+                        owned = readOwned(reader);
+                        break;
+                    case "page":
+                        page = JsonStreams.nextInt(reader, 1);
+                        break;
+                    case "totalPages":
+                        totalPages = JsonStreams.nextInt(reader, 1);
+                        break;
+                    case "error":
+                        error = JsonStreams.nextString(reader, "Erro desconhecido");
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JSONException("Resposta inesperada da biblioteca: " + e.getMessage());
+        }
+        
+        List<Game> games;
+        if (products != null) {
+            Log.d(TAG, "Found products array with " + products.size() + " items");
+            games = products;
+        } else if (owned != null) {
+            Log.d(TAG, "Found owned array with " + owned.size() + " items");
+            games = owned;
+        } else {
+            Log.w(TAG, "No products or owned array found in response");
+                
+            // Verificar se a resposta é um erro
+            if (error != null) {
+                Log.e(TAG, "API returned error: " + error);
+                throw new JSONException("API Error: " + error);
+            }
+            games = new ArrayList<>();
+        }
+        
+        Log.d(TAG, "Total games parsed: " + games.size());
+        return new Page(games, page, totalPages);
+    }
+    
+    /**
+     * Lê o produto e seus links de download em uma passada, direto do corpo da resposta
+     * Não fecha o Reader
+     */
+    public static ProductDetails parseProductDetails(Reader source) throws IOException, JSONException {
+        List<DownloadLink> downloadLinks = new ArrayList<>();
+        Game game;
+        
+        JsonReader reader = new JsonReader(source);
+        try {
+            game = Game.fromJsonReader(reader, (name, fieldReader) -> {
+                if (!"downloads".equals(name)) {
+                    return false;
+                }
+                readDownloads(fieldReader, downloadLinks);
+                return true;
+            });
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new JSONException("Resposta inesperada nos detalhes do jogo: " + e.getMessage());
+        }
+        
+        game.setDownloadLinks(downloadLinks);
+        Log.d(TAG, "Total download links parsed: " + downloadLinks.size());
+        return new ProductDetails(game, downloadLinks);
+    }
+    
+    private static List<Game> readProducts(JsonReader reader) throws IOException {
+        List<Game> games = new ArrayList<>();
+        if (!JsonStreams.beginArrayOrSkip(reader)) {
+            return games;
+        }
+        int index = 0;
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+            } else {
+                try {
+                    games.add(Game.fromJsonReader(reader));
+                } catch (JSONException e) {
+                    // Objeto já foi consumido; continuar com os outros jogos
+                    Log.e(TAG, "Error parsing game at index " + index + ": " + e.getMessage(), e);
+                }
+            }
+            index++;
+        }
+        reader.endArray();
+        return games;
+    }
+    
+    private static List<Game> readOwned(JsonReader reader) throws IOException {
+        List<Game> games = new ArrayList<>();
+        if (!JsonStreams.beginArrayOrSkip(reader)) {
+            return games;
+        }
+        while (reader.hasNext()) {
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                // api.gog.com pode mandar o produto completo em vez do ID
+                try {
+                    games.add(Game.fromJsonReader(reader));
+                } catch (JSONException e) {
+                    Log.w(TAG, "Error parsing owned game object", e);
+                }
+            } else if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+                long gameId = JsonStreams.nextLong(reader, -1);
+                if (gameId > 0) {
+                    // Criar jogo simples com ID - o título será carregado depois
+                    games.add(new Game(gameId, "Carregando..."));
+                }
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return games;
+    }
+    
+    private static void readDownloads(JsonReader reader, List<DownloadLink> downloadLinks) throws IOException {
+        if (!JsonStreams.beginObjectOrSkip(reader)) {
+            Log.w(TAG, "No downloads object found in game details");
+            return;
+        }
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "installers":
+                    readFileGroups(reader, downloadLinks, true);
+                    break;
+                case "patches":
+                    readFileGroups(reader, downloadLinks, false);
+                    break;
+                case "bonus_content":
+                    readExtras(reader, downloadLinks);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+    
+    /**
+     * Instaladores e patches: os arquivos herdam nome (e, no instalador, plataforma e idioma) do grupo,
+     * que podem vir depois de "files" no JSON
+     */
+    private static void readFileGroups(JsonReader reader, List<DownloadLink> downloadLinks, boolean installers) throws IOException {
+        if (!JsonStreams.beginArrayOrSkip(reader)) {
+            return;
+        }
+        while (reader.hasNext()) {
+            if (!JsonStreams.beginObjectOrSkip(reader)) {
+                continue;
+            }
+            String name = installers ? "Unknown" : "Patch";
+            String os = "windows";
+            String language = "en";
+            List<DownloadLink> files = new ArrayList<>();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name":
+                        name = JsonStreams.nextString(reader, name);
+                        break;
+                    case "os":
+                        os = JsonStreams.nextString(reader, os);
+                        break;
+                    case "language":
+                        language = JsonStreams.nextString(reader, language);
+                        break;
+                    case "files":
+                        if (JsonStreams.beginArrayOrSkip(reader)) {
+                            while (reader.hasNext()) {
+                                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                                    files.add(DownloadLink.fromJsonReader(reader));
+                                } else {
+                                    reader.skipValue();
+                                }
+                            }
+                            reader.endArray();
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            
+            for (DownloadLink link : files) {
+                link.setName(name);
+                if (installers) {
+                    link.setType(DownloadLink.FileType.INSTALLER);
+                    link.setPlatform(DownloadLink.parsePlatform(os));
+                    link.setLanguage(language);
+                } else {
+                    link.setType(DownloadLink.FileType.PATCH);
+                }
+                downloadLinks.add(link);
+            }
+        }
+        reader.endArray();
+    }
+    
+    private static void readExtras(JsonReader reader, List<DownloadLink> downloadLinks) throws IOException {
+        if (!JsonStreams.beginArrayOrSkip(reader)) {
+            return;
+        }
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            DownloadLink link = DownloadLink.fromJsonReader(reader);
+            link.setType(DownloadLink.FileType.EXTRA);
+            downloadLinks.add(link);
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,258 @@
+package com.termux.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.termux.database.DatabaseHelper;
+import com.termux.models.Game;
+import com.termux.utils.PreferencesManager;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sincronização incremental da biblioteca
+ * Baixa só a lista de IDs possuídos, compara com o banco e busca detalhes apenas dos jogos novos
+ * e de uma pequena fatia dos conferidos há mais tempo; o banco recebe o conjunto mínimo de escritas
+ */
+public class LibrarySync {
+    
+    private static final String TAG = "LibrarySync";
+    
+    private static final long STALE_AFTER_MS = 7L * 24 * 60 * 60 * 1000; // 7 dias
+    private static final int MAX_STALE_PER_SYNC = 25;
+    // Acima disso é mais barato recarregar as páginas da biblioteca do que buscar produto a produto
+    private static final int FULL_RELOAD_THRESHOLD = 200;
+    
+    private final GOGLibraryManager libraryManager;
+    private final DatabaseHelper databaseHelper;
+    private final PreferencesManager preferencesManager;
+    
+    public interface SyncCallback {
+        void onComplete(Result result);
+        /**
+         * Mudanças demais para a sync incremental; o chamador deve recarregar a biblioteca inteira
+         * e repassar o resultado a {@link #recordFullReload(Set, List)}
+         */
+        void onFullReloadNeeded(Set<Long> ownedIds);
+        void onError(String error);
+    }
+    
+    public static class Result {
+        private final int added;
+        private final int updated;
+        private final int removed;
+        private final int failed;
+        
+        Result(int added, int updated, int removed, int failed) {
+            this.added = added;
+            this.updated = updated;
+            this.removed = removed;
+            this.failed = failed;
+        }
+        
+        public int getAdded() { return added; }
+        public int getUpdated() { return updated; }
+        public int getRemoved() { return removed; }
+        public int getFailed() { return failed; }
+        
+        public boolean hasChanges() {
+            return added > 0 || updated > 0 || removed > 0;
+        }
+        
+        @Override
+        public String toString() {
+            return "LibrarySync.Result{added=" + added + ", updated=" + updated +
+                    ", removed=" + removed + ", failed=" + failed + '}';
+        }
+    }
+    
+    public LibrarySync(Context context, GOGLibraryManager libraryManager, DatabaseHelper databaseHelper) {
+        this.libraryManager = libraryManager;
+        this.databaseHelper = databaseHelper;
+        this.preferencesManager = new PreferencesManager(context);
+    }
+    
+    public void sync(SyncCallback callback) {
+        Log.d(TAG, "Starting incremental library sync");
+        
+        libraryManager.loadOwnedGameIds(new GOGLibraryManager.OwnedGamesCallback() {
+            @Override
+            public void onSuccess(Set<Long> ownedIds) {
+                try {
+                    diffAndFetch(ownedIds, callback);
+                } catch (Exception e) {
+                    Log.e(TAG, "Library sync failed", e);
+                    callback.onError("Erro ao sincronizar biblioteca: " + e.getMessage());
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+    
+    /**
+     * @param ownedIds IDs possuídos, ou null se a lista não mudou desde a última sync (304)
+     */
+    private void diffAndFetch(Set<Long> ownedIds, SyncCallback callback) {
+        Map<Long, Long> localState = databaseHelper.getGameSyncState();
+        Set<String> ignoredIds = preferencesManager.getLibraryIgnoredIds();
+        
+        Set<Long> addedIds = new HashSet<>();
+        Set<Long> removedIds = new HashSet<>();
+        // Lista vazia com jogos no banco é mais provável falha da API do que conta esvaziada
+        if (ownedIds != null && !ownedIds.isEmpty()) {
+            for (Long id : ownedIds) {
+                if (!localState.containsKey(id) && !ignoredIds.contains(String.valueOf(id))) {
+                    addedIds.add(id);
+                }
+            }
+            for (Long id : localState.keySet()) {
+                if (!ownedIds.contains(id)) {
+                    removedIds.add(id);
+                }
+            }
+        }
+        
+        if (addedIds.size() > FULL_RELOAD_THRESHOLD) {
+            Log.d(TAG, addedIds.size() + " new games, falling back to a full reload");
+            // Se a recarga falhar, a próxima sync precisa da lista completa de novo
+            preferencesManager.setLibraryOwnedEtag(null);
+            callback.onFullReloadNeeded(ownedIds);
+            return;
+        }
+        
+        List<Long> staleIds = selectStaleIds(localState, removedIds);
+        List<Long> toFetch = new ArrayList<>(addedIds);
+        toFetch.addAll(staleIds);
+        Log.d(TAG, "Diff: " + addedIds.size() + " new, " + removedIds.size() + " removed, "
+                + staleIds.size() + " stale to check");
+        
+        libraryManager.loadProducts(toFetch, (products, failedIds) -> {
+            List<Game> games = new ArrayList<>();
+            Set<Long> checkedIds = new HashSet<>();
+            boolean ignoredChanged = false;
+            
+            for (JSONObject product : products) {
+                long id = product.optLong("id");
+                // owned inclui DLCs e pacotes; a biblioteca só mostra jogos
+                if (!"game".equals(product.optString("game_type", "game"))) {
+                    ignoredChanged |= ignoredIds.add(String.valueOf(id));
+                    continue;
+                }
+                try {
+                    Game game = Game.fromJson(product);
+                    if (!addedIds.contains(id)) {
+                        mergeWithStored(game);
+                    } else if (!game.useLibraryArt()) {
+                        Log.w(TAG, "Unexpected cover format for new product " + id + ": " + game.getCoverImage());
+                    }
+                    games.add(game);
+                    checkedIds.add(id);
+                } catch (JSONException e) {
+                    Log.w(TAG, "Error parsing product " + id, e);
+                }
+            }
+            
+            int written = databaseHelper.upsertGameCatalog(games);
+            databaseHelper.touchGames(checkedIds);
+            int removed = databaseHelper.deleteRemovedGames(removedIds);
+            
+            if (ignoredChanged) {
+                preferencesManager.setLibraryIgnoredIds(ignoredIds);
+            }
+            for (Long id : failedIds) {
+                if (addedIds.contains(id)) {
+                    // Sem o ETag a próxima sync recebe a lista completa e tenta de novo
+                    preferencesManager.setLibraryOwnedEtag(null);
+                    break;
+                }
+            }
+            preferencesManager.setLibraryLastSync(System.currentTimeMillis());
+            
+            int added = 0;
+            for (Game game : games) {
+                if (addedIds.contains(game.getId())) added++;
+            }
+            Result result = new Result(added, Math.max(0, written - added), removed, failedIds.size());
+            Log.d(TAG, "Library sync finished: " + result);
+            callback.onComplete(result);
+        });
+    }
+    
+    /**
+     * Fecha uma recarga completa: IDs possuídos que não vieram nas páginas da biblioteca (DLC, pacotes)
+     * passam a ser ignorados, senão a próxima sync os contaria como novos e pediria outra recarga
+     */
+    public void recordFullReload(Set<Long> ownedIds, List<Game> games) {
+        Set<Long> loadedIds = new HashSet<>();
+        for (Game game : games) {
+            loadedIds.add(game.getId());
+        }
+        Set<String> ignoredIds = preferencesManager.getLibraryIgnoredIds();
+        boolean ignoredChanged = false;
+        for (Long id : ownedIds) {
+            if (!loadedIds.contains(id)) {
+                ignoredChanged |= ignoredIds.add(String.valueOf(id));
+            }
+        }
+        if (ignoredChanged) {
+            preferencesManager.setLibraryIgnoredIds(ignoredIds);
+        }
+        preferencesManager.setLibraryLastSync(System.currentTimeMillis());
+        Log.d(TAG, "Full reload recorded: " + loadedIds.size() + " games, "
+                + (ownedIds.size() - loadedIds.size()) + " owned non-game IDs");
+    }
+    
+    /**
+     * Jogos conferidos há mais tempo, limitados a {@link #MAX_STALE_PER_SYNC} por sync
+     */
+    private List<Long> selectStaleIds(Map<Long, Long> localState, Set<Long> removedIds) {
+        long cutoff = System.currentTimeMillis() - STALE_AFTER_MS;
+        List<Map.Entry<Long, Long>> candidates = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : localState.entrySet()) {
+            if (entry.getValue() < cutoff && !removedIds.contains(entry.getKey())) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort((a, b) -> Long.compare(a.getValue(), b.getValue()));
+        
+        List<Long> staleIds = new ArrayList<>();
+        for (int i = 0; i < Math.min(MAX_STALE_PER_SYNC, candidates.size()); i++) {
+            staleIds.add(candidates.get(i).getKey());
+        }
+        return staleIds;
+    }
+    
+    /**
+     * A API de produtos usa outra arte e traz menos campos que a página da biblioteca; manter o
+     * que já está salvo evita que o hash de catálogo mude só por causa da origem dos dados
+     * (jogos novos, sem nada salvo, recebem a arte da biblioteca por {@link Game#useLibraryArt()})
+     */
+    private void mergeWithStored(Game game) {
+        Game stored = databaseHelper.getGame(game.getId());
+        if (stored == null) {
+            return;
+        }
+        game.setCoverImage(stored.getCoverImage());
+        game.setBackgroundImage(stored.getBackgroundImage());
+        if (isEmpty(game.getDescription())) game.setDescription(stored.getDescription());
+        if (isEmpty(game.getReleaseDate())) game.setReleaseDate(stored.getReleaseDate());
+        if (isEmpty(game.getDeveloper())) game.setDeveloper(stored.getDeveloper());
+        if (isEmpty(game.getPublisher())) game.setPublisher(stored.getPublisher());
+        if (game.getGenres() == null || game.getGenres().isEmpty()) game.setGenres(stored.getGenres());
+    }
+    
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,298 @@
+package com.termux.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.termux.database.DatabaseHelper;
+import com.termux.models.Game;
+import com.termux.utils.ImageLoader;
+import com.termux.utils.PreferencesManager;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Carga inicial disparada assim que a troca do código por token termina: dados do usuário (com o avatar)
+ * e a biblioteca saem ao mesmo tempo, sem esperar um pelo outro nem pela escolha de pasta.
+ * Cada página da biblioteca vai para o banco ao chegar e fica guardada para a LibraryActivity,
+ * que ao abrir recebe as já carregadas e depois as seguintes
+ */
+public final class LoginBootstrap {
+    
+    private static final String TAG = "LoginBootstrap";
+    
+    private static final String FALLBACK_EMAIL = "usuario@gog.com";
+    private static final String FALLBACK_NAME = "Usuário GOG";
+    
+    private static final class Page {
+        final List<Game> games;
+        final int page;
+        final int totalPages;
+        
+        Page(List<Game> games, int page, int totalPages) {
+            this.games = games;
+            this.page = page;
+            this.totalPages = totalPages;
+        }
+    }
+    
+    // Entregas à tela numa única thread: na ordem em que os eventos chegaram e fora do lock
+    private static final ExecutorService delivery = Executors.newSingleThreadExecutor();
+    
+    private static LoginBootstrap current;
+    // A carga ligada à tela; continua aqui depois que current é liberado, até o detach
+    private static LoginBootstrap attached;
+    
+    private final List<Page> pages = new ArrayList<>();
+    private boolean libraryDone;
+    private List<Game> libraryResult;
+    private String libraryError;
+    private boolean libraryDelivered;
+    private boolean userInfoDone;
+    
+    private GOGLibraryManager.LibraryPageCallback libraryCallback;
+    private Runnable userInfoCallback;
+    
+    private LoginBootstrap() {
+    }
+    
+    /**
+     * Salva os tokens e inicia em paralelo as buscas pós-login
+     */
+    public static void start(Context context, String accessToken, String refreshToken, long expiresIn) {
+        Context appContext = context.getApplicationContext();
+        PreferencesManager prefs = new PreferencesManager(appContext);
+        // Antes de tudo: as requisições da biblioteca leem o token das preferências
+        prefs.saveAuthData(accessToken, refreshToken, null, null, null, null);
+        prefs.saveTokenExpiry(expiresIn);
+        
+        LoginBootstrap bootstrap = new LoginBootstrap();
+        synchronized (LoginBootstrap.class) {
+            current = bootstrap;
+        }
+        Log.d(TAG, "Starting post-login bootstrap");
+        
+        NetworkStack.preconnect(appContext, "api.gog.com", "embed.gog.com");
+        bootstrap.loadUserData(appContext, accessToken);
+        bootstrap.loadLibrary(appContext);
+    }
+    
+    /**
+     * Conecta a tela à carga em andamento. Páginas e resultados que já chegaram são repassados na hora,
+     * em ordem, e os demais conforme chegarem. Os callbacks vêm numa thread de entrega, nunca na
+     * principal nem na de quem chamou, e sem o lock do bootstrap
+     * @return false se não há carga pós-login pendente (a tela segue o fluxo normal)
+     */
+    public static synchronized boolean attach(GOGLibraryManager.LibraryPageCallback libraryCallback,
+                                              Runnable userInfoCallback) {
+        if (current == null) {
+            return false;
+        }
+        attached = current;
+        current.register(libraryCallback, userInfoCallback);
+        return true;
+    }
+    
+    /**
+     * Desconecta a tela (ex.: onDestroy); a carga continua e as páginas seguem indo para o banco
+     */
+    public static synchronized void detach(GOGLibraryManager.LibraryPageCallback libraryCallback) {
+        if (attached != null && attached.libraryCallback == libraryCallback) {
+            attached.libraryCallback = null;
+            attached.userInfoCallback = null;
+            attached = null;
+        }
+    }
+    
+    /**
+     * @return true enquanto os dados do usuário da carga pós-login ainda não chegaram
+     */
+    public static synchronized boolean isUserInfoPending() {
+        return current != null && !current.userInfoDone;
+    }
+    
+    private void register(GOGLibraryManager.LibraryPageCallback libraryCallback, Runnable userInfoCallback) {
+        this.libraryCallback = libraryCallback;
+        this.userInfoCallback = userInfoCallback;
+        
+        for (Page page : pages) {
+            deliverPage(page);
+        }
+        if (libraryDone) {
+            deliverLibraryResult();
+        }
+        if (userInfoDone) {
+            deliverUserInfo();
+        }
+        releaseIfFinished();
+    }
+    
+    private void loadLibrary(Context context) {
+        // Próprio da carga: fechado quando a biblioteca termina, com sucesso ou erro
+        DatabaseHelper databaseHelper = new DatabaseHelper(context);
+        new GOGLibraryManager(context).loadUserLibrary(new GOGLibraryManager.LibraryPageCallback() {
+            private boolean streamed = false;
+            
+            @Override
+            public void onPage(List<Game> games, int page, int totalPages) {
+                databaseHelper.insertOrUpdateGames(games);
+                streamed = true;
+                onLibraryPage(new Page(games, page, totalPages));
+            }
+            
+            @Override
+            public void onSuccess(List<Game> games) {
+                try {
+                    if (!streamed) {
+                        databaseHelper.insertOrUpdateGames(games);
+                    }
+                } finally {
+                    databaseHelper.close();
+                }
+                Log.d(TAG, "Library bootstrap finished: " + games.size() + " games");
+                onLibraryFinished(games, null);
+            }
+            
+            @Override
+            public void onError(String error) {
+                databaseHelper.close();
+                Log.w(TAG, "Library bootstrap failed: " + error);
+                onLibraryFinished(null, error);
+            }
+        });
+    }
+    
+    private void loadUserData(Context context, String accessToken) {
+        PreferencesManager prefs = new PreferencesManager(context);
+        new GOGAuthManager(context).getUserData(accessToken, new GOGAuthManager.UserInfoCallback() {
+            @Override
+            public void onSuccess(JSONObject userData) {
+                String email = userData.optString("email", "");
+                String userId = userData.optString("userId", userData.optString("user_id", ""));
+                String avatar = userData.optString("avatar", "");
+                String displayName = createDisplayName(userData, email);
+                Log.d(TAG, "User data ready: " + displayName);
+                
+                prefs.saveAuthData(prefs.getAuthToken(), prefs.getRefreshToken(),
+                        email, displayName, userId, avatar);
+                // Avatar baixado junto, para já estar em memória quando o cabeçalho for desenhado
+                ImageLoader.getInstance(context).preloadImage(avatar);
+                onUserInfoFinished();
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Os tokens bastam para seguir; a LibraryActivity tenta de novo com o fallback salvo
+                Log.w(TAG, "User data bootstrap failed: " + error);
+                prefs.saveAuthData(prefs.getAuthToken(), prefs.getRefreshToken(),
+                        FALLBACK_EMAIL, FALLBACK_NAME, "", "");
+                onUserInfoFinished();
+            }
+        });
+    }
+    
+    private static String createDisplayName(JSONObject userData, String email) {
+        String displayName = (userData.optString("first_name", "") + " "
+                + userData.optString("last_name", "")).trim();
+        if (displayName.isEmpty()) {
+            displayName = userData.optString("username", "");
+        }
+        if (displayName.isEmpty() && !email.isEmpty()) {
+            displayName = email.split("@")[0];
+        }
+        return displayName.isEmpty() ? FALLBACK_NAME : displayName;
+    }
+    
+    private void onLibraryPage(Page page) {
+        synchronized (LoginBootstrap.class) {
+            pages.add(page);
+            if (libraryCallback != null) {
+                deliverPage(page);
+            }
+        }
+    }
+    
+    private void onLibraryFinished(List<Game> games, String error) {
+        synchronized (LoginBootstrap.class) {
+            libraryDone = true;
+            libraryResult = games;
+            libraryError = error;
+            if (libraryCallback != null) {
+                deliverLibraryResult();
+            }
+            releaseIfFinished();
+        }
+    }
+    
+    private void onUserInfoFinished() {
+        synchronized (LoginBootstrap.class) {
+            userInfoDone = true;
+            if (userInfoCallback != null) {
+                deliverUserInfo();
+            }
+            releaseIfFinished();
+        }
+    }
+    
+    /**
+     * Chamado com o lock seguro, o que mantém a ordem entre repasse e páginas novas; a tela é chamada
+     * depois, na thread de entrega, e a entrega é descartada se ela já se desconectou
+     */
+    private void deliverPage(Page page) {
+        GOGLibraryManager.LibraryPageCallback callback = libraryCallback;
+        delivery.execute(() -> {
+            if (isAttached(callback)) {
+                callback.onPage(page.games, page.page, page.totalPages);
+            }
+        });
+    }
+    
+    private void deliverLibraryResult() {
+        GOGLibraryManager.LibraryPageCallback callback = libraryCallback;
+        List<Game> result = libraryResult;
+        String error = libraryError;
+        delivery.execute(() -> {
+            if (!isAttached(callback)) {
+                return;
+            }
+            if (error == null) {
+                callback.onSuccess(result);
+            } else {
+                callback.onError(error);
+            }
+        });
+        libraryDelivered = true;
+    }
+    
+    private void deliverUserInfo() {
+        Runnable callback = userInfoCallback;
+        delivery.execute(() -> {
+            boolean stillAttached;
+            synchronized (LoginBootstrap.class) {
+                stillAttached = userInfoCallback == callback;
+            }
+            if (stillAttached) {
+                callback.run();
+            }
+        });
+    }
+    
+    private boolean isAttached(GOGLibraryManager.LibraryPageCallback callback) {
+        synchronized (LoginBootstrap.class) {
+            return libraryCallback == callback;
+        }
+    }
+    
+    /**
+     * Depois de tudo entregue a uma tela, aberturas seguintes usam o banco normalmente
+     */
+    private void releaseIfFinished() {
+        if (libraryDelivered && userInfoDone && current == this) {
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.termux.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dns;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Pilha de rede única do app: um OkHttpClient base com pool de conexões, Dns em cache e
+ * SSLSocketFactory (e portanto cache de sessões TLS) compartilhados. Cada subsistema deriva o seu
+ * cliente com {@link #newBuilder(Context)} e ajusta só timeouts, interceptors e métricas; assim uma
+ * conexão HTTP/2 aberta pela biblioteca serve também a autenticação e as capas do mesmo host
+ * O DNS fica em disco: depois de reiniciar, a primeira conexão não espera resolução
+ */
+public final class NetworkStack {
+    
+    private static final String TAG = "NetworkStack";
+    
+    private static final int MAX_IDLE_CONNECTIONS = 10;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    
+    private static final String DNS_CACHE_FILE = "dns-cache.json";
+    // Só os hosts da API vão para o disco: endereços estáveis e usados logo na abertura
+    private static final Set<String> PERSISTED_DNS_HOSTS = new HashSet<>(
+            Arrays.asList("api.gog.com", "embed.gog.com", "auth.gog.com"));
+    
+    // Não pré-conectar de novo enquanto a conexão anterior ainda pode estar viva no pool
+    private static final long PRECONNECT_INTERVAL_MS = KEEP_ALIVE_MINUTES * 60 * 1000;
+    private static final Map<String, Long> lastPreconnect = new HashMap<>();
+    
+    private static OkHttpClient baseClient;
+    
+    private NetworkStack() {
+    }
+    
+    public static synchronized OkHttpClient get(Context context) {
+        if (baseClient == null) {
+            Context appContext = context.getApplicationContext();
+            baseClient = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                    .dns(new CachingDns(Dns.SYSTEM, new File(appContext.getCacheDir(), DNS_CACHE_FILE),
+                            PERSISTED_DNS_HOSTS))
+                    .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .retryOnConnectionFailure(true)
+                    .followRedirects(true)
+                    .followSslRedirects(true)
+                    .build();
+        }
+        return baseClient;
+    }
+    
+    /**
+     * Builder derivado do cliente base; o que não for sobrescrito continua compartilhado
+     */
+    public static OkHttpClient.Builder newBuilder(Context context) {
+        return get(context).newBuilder();
+    }
+    
+    /**
+     * Abre (DNS + TCP + TLS) conexões com os hosts em segundo plano, para a primeira requisição real
+     * já encontrar uma conexão pronta no pool. Um HEAD na raiz basta; a resposta é descartada
+     */
+    public static void preconnect(Context context, String... hosts) {
+        // Sem seguir redirect: só a conexão com o próprio host interessa
+        OkHttpClient client = get(context).newBuilder()
+                .followRedirects(false)
+                .followSslRedirects(false)
+                .build();
+        long now = System.currentTimeMillis();
+        for (String host : hosts) {
+            if (host == null || host.isEmpty()) {
+                continue;
+            }
+            synchronized (lastPreconnect) {
+                Long last = lastPreconnect.get(host);
+                if (last != null && now - last < PRECONNECT_INTERVAL_MS) {
+                    continue;
+                }
+                lastPreconnect.put(host, now);
+            }
+            
+            Request request = new Request.Builder()
+                    .url("https://" + host + "/")
+                    .head()
+                    .build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.d(TAG, "Preconnect to " + host + " failed: " + e.getMessage());
+                    synchronized (lastPreconnect) {
+                        lastPreconnect.remove(host);
+                    }
+                }
+                
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    Log.d(TAG, "Preconnected to " + host + " (" + response.protocol() + ")");
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.termux.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Faixas de prioridade para as chamadas da API: o que o usuário pediu (link de download, detalhes do jogo)
+ * tem um Dispatcher próprio e não entra na fila atrás de dezenas de chamadas de sincronização ou tamanhos.
+ * Enquanto há chamada interativa em andamento, o segundo plano cai para uma conexão por host: as que já
+ * rodam terminam, as enfileiradas esperam
+ */
+public final class RequestLanes {
+    
+    private static final String TAG = "RequestLanes";
+    
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+    
+    // Padrão do OkHttp
+    private static final int BACKGROUND_MAX_PER_HOST = 5;
+    private static final int BACKGROUND_MAX_PER_HOST_WHILE_INTERACTIVE = 1;
+    // Capacidade reservada para o que o usuário está esperando
+    private static final int INTERACTIVE_MAX_PER_HOST = 4;
+    
+    private static final Dispatcher backgroundDispatcher = new Dispatcher();
+    private static final Dispatcher interactiveDispatcher = new Dispatcher();
+    private static int interactiveInFlight;
+    
+    static {
+        backgroundDispatcher.setMaxRequestsPerHost(BACKGROUND_MAX_PER_HOST);
+        interactiveDispatcher.setMaxRequestsPerHost(INTERACTIVE_MAX_PER_HOST);
+    }
+    
+    private RequestLanes() {
+    }
+    
+    /**
+     * Põe o cliente na faixa de segundo plano (Dispatcher compartilhado entre todos os clientes da API)
+     */
+    public static OkHttpClient.Builder background(OkHttpClient.Builder builder) {
+        return builder.dispatcher(backgroundDispatcher);
+    }
+    
+    /**
+     * Cliente da faixa interativa derivado de {@code base}: mesmo pool, cache e interceptors
+     */
+    public static OkHttpClient interactive(OkHttpClient base) {
+        return base.newBuilder()
+                .dispatcher(interactiveDispatcher)
+                .build();
+    }
+    
+    public static Request withPriority(Request request, Priority priority) {
+        return request.newBuilder()
+                .tag(Priority.class, priority)
+                .build();
+    }
+    
+    /**
+     * @return prioridade marcada na requisição, ou null se não foi marcada
+     */
+    public static Priority priorityOf(Request request) {
+        return request.tag(Priority.class);
+    }
+    
+    public static boolean isInteractive(Request request) {
+        return priorityOf(request) == Priority.INTERACTIVE;
+    }
+    
+    /**
+     * Marca o início de uma operação interativa (inclui espera por token e repetições)
+     * O callback devolvido encerra a operação quando ela terminar, com sucesso ou falha
+     */
+    public static Callback trackInteractive(Callback callback) {
+        beginInteractive();
+        // onFailure pode vir depois de um onResponse que lançou IOException; encerrar uma vez só
+        AtomicBoolean ended = new AtomicBoolean();
+        return new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                try {
+                    callback.onFailure(call, e);
+                } finally {
+                    if (ended.compareAndSet(false, true)) {
+                        endInteractive();
+                    }
+                }
+            }
+            
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    callback.onResponse(call, response);
+                } finally {
+                    if (ended.compareAndSet(false, true)) {
+                        endInteractive();
+                    }
+                }
+            }
+        };
+    }
+    
+    private static synchronized void beginInteractive() {
+        interactiveInFlight++;
+        if (interactiveInFlight == 1) {
+            Log.d(TAG, "Interactive call started, holding queued background calls");
+            backgroundDispatcher.setMaxRequestsPerHost(BACKGROUND_MAX_PER_HOST_WHILE_INTERACTIVE);
+        }
+    }
+    
+    private static synchronized void endInteractive() {
+        interactiveInFlight--;
+        if (interactiveInFlight == 0) {
+            // Reabrir promove as chamadas em fila
+            backgroundDispatcher.setMaxRequestsPerHost(BACKGROUND_MAX_PER_HOST);
+        }
+    }
+}
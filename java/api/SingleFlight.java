@@ -0,0 +1,125 @@
+package com.termux.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalescência de chamadas idênticas: quem pede uma chave que já está em voo espera a mesma resposta
+ * em vez de abrir outro round trip. Opcionalmente guarda o resultado por alguns segundos (memoTtlMs)
+ * Os callbacks são chamados na thread que concluiu a requisição, fora do lock
+ */
+public class SingleFlight<T> {
+    
+    public interface Listener<T> {
+        void onSuccess(T value);
+        void onError(String error);
+    }
+    
+    /**
+     * Dispara a requisição real; deve concluir chamando exatamente um método de {@code done}
+     */
+    public interface Fetch<T> {
+        void start(Listener<T> done);
+    }
+    
+    private static final class Memo<T> {
+        final T value;
+        final long expiresAt;
+        
+        Memo(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    // Acima disso as entradas vencidas são limpas antes de memoizar outra
+    private static final int MAX_MEMOS = 128;
+    
+    private final long memoTtlMs;
+    private final Map<String, List<Listener<T>>> inFlight = new HashMap<>();
+    private final Map<String, Memo<T>> memos = new HashMap<>();
+    
+    /**
+     * @param memoTtlMs por quanto tempo um sucesso é reaproveitado; 0 desliga a memoização
+     */
+    public SingleFlight(long memoTtlMs) {
+        this.memoTtlMs = memoTtlMs;
+    }
+    
+    public void execute(String key, Listener<T> listener, Fetch<T> fetch) {
+        T memoized = null;
+        boolean leader;
+        synchronized (this) {
+            Memo<T> memo = memos.get(key);
+            if (memo != null && memo.expiresAt > System.currentTimeMillis()) {
+                memoized = memo.value;
+                leader = false;
+            } else {
+                if (memo != null) {
+                    memos.remove(key);
+                }
+                List<Listener<T>> waiting = inFlight.get(key);
+                leader = waiting == null;
+                if (leader) {
+                    waiting = new ArrayList<>();
+                    inFlight.put(key, waiting);
+                }
+                waiting.add(listener);
+            }
+        }
+        
+        if (memoized != null) {
+            listener.onSuccess(memoized);
+            return;
+        }
+        if (!leader) {
+            return;
+        }
+        
+        fetch.start(new Listener<T>() {
+            @Override
+            public void onSuccess(T value) {
+                List<Listener<T>> waiting;
+                synchronized (SingleFlight.this) {
+                    waiting = inFlight.remove(key);
+                    if (memoTtlMs > 0) {
+                        pruneExpiredMemos();
+                        memos.put(key, new Memo<>(value, System.currentTimeMillis() + memoTtlMs));
+                    }
+                }
+                if (waiting != null) {
+                    for (Listener<T> waiter : waiting) {
+                        waiter.onSuccess(value);
+                    }
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                List<Listener<T>> waiting;
+                synchronized (SingleFlight.this) {
+                    waiting = inFlight.remove(key);
+                }
+                if (waiting != null) {
+                    for (Listener<T> waiter : waiting) {
+                        waiter.onError(error);
+                    }
+                }
+            }
+        });
+    }
+    
+    private void pruneExpiredMemos() {
+        if (memos.size() < MAX_MEMOS) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        memos.values().removeIf(memo -> memo.expiresAt <= now);
+    }
+    
+    public synchronized boolean isInFlight(String key) {
+        return inFlight.containsKey(key);
+    }
+}
@@ -0,0 +1,101 @@
+package com.termux.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.termux.utils.PreferencesManager;
+
+/**
+ * Entrega um access token válido para as requisições da API
+ * Renova antes do expires_in acabar (margem de REFRESH_MARGIN_MS) e faz todos os chamadores concorrentes
+ * esperarem a mesma renovação: requisições pedidas durante ela ficam na fila e saem com o token novo
+ */
+public final class TokenManager {
+    
+    private static final String TAG = "TokenManager";
+    
+    // Renova quando faltar menos que isso para expirar
+    private static final long REFRESH_MARGIN_MS = 5 * 60 * 1000; // 5 minutos
+    // Depois de uma renovação que falhou, a renovação antecipada espera isso antes de tentar de novo;
+    // sem isso, numa queda do auth.gog.com cada requisição faria duas tentativas (antecipada e no 401)
+    private static final long REFRESH_FAILURE_BACKOFF_MS = 30 * 1000; // 30 segundos
+    
+    private static final String REFRESH_KEY = "refresh";
+    private static final SingleFlight<String> refreshFlight = new SingleFlight<>(0);
+    private static volatile long refreshBackoffUntil;
+    
+    public interface TokenCallback {
+        void onToken(String authToken);
+        void onError(String error);
+    }
+    
+    private TokenManager() {
+    }
+    
+    /**
+     * Devolve o token salvo se ele ainda estiver longe de expirar; senão espera a renovação (única) em andamento
+     */
+    public static void getValidToken(Context context, TokenCallback callback) {
+        PreferencesManager prefs = new PreferencesManager(context);
+        String authToken = prefs.getAuthToken();
+        if (authToken == null || authToken.isEmpty()) {
+            callback.onError("Token de autenticação não encontrado");
+            return;
+        }
+        
+        // Sem expiração conhecida (login antigo) o token segue como está; um 401 ainda dispara a renovação
+        long expiresAt = prefs.getTokenExpiresAt();
+        long now = System.currentTimeMillis();
+        boolean expiring = expiresAt > 0 && expiresAt - now < REFRESH_MARGIN_MS && now >= refreshBackoffUntil;
+        if (!expiring && !refreshFlight.isInFlight(REFRESH_KEY)) {
+            callback.onToken(authToken);
+            return;
+        }
+        
+        if (expiring) {
+            Log.d(TAG, "Access token expiring soon, refreshing proactively");
+        }
+        refresh(context, callback);
+    }
+    
+    /**
+     * Chamado quando uma requisição feita com {@code rejectedToken} recebeu 401
+     * Se o token já foi trocado enquanto ela estava em voo, basta repetir com o atual
+     */
+    public static void onUnauthorized(Context context, String rejectedToken, TokenCallback callback) {
+        String authToken = new PreferencesManager(context).getAuthToken();
+        if (authToken != null && !authToken.isEmpty() && !authToken.equals(rejectedToken)
+                && !refreshFlight.isInFlight(REFRESH_KEY)) {
+            callback.onToken(authToken);
+            return;
+        }
+        refresh(context, callback);
+    }
+    
+    private static void refresh(Context context, TokenCallback callback) {
+        Context appContext = context.getApplicationContext();
+        refreshFlight.execute(REFRESH_KEY, new SingleFlight.Listener<String>() {
+            @Override
+            public void onSuccess(String authToken) {
+                callback.onToken(authToken);
+            }
+            
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        }, done -> new GOGAuthManager(appContext).refreshAccessToken(new GOGAuthManager.AuthCallback() {
+            @Override
+            public void onSuccess(String authToken, String refreshToken) {
+                refreshBackoffUntil = 0;
+                done.onSuccess(authToken);
+            }
+            
+            @Override
+            public void onError(String error) {
+                refreshBackoffUntil = System.currentTimeMillis() + REFRESH_FAILURE_BACKOFF_MS;
+                done.onError(error);
+            }
+        }));
+    }
+}
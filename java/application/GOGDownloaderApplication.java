@@ -3,6 +3,10 @@ package com.termux.application;
 import android.app.Application;
 import android.content.Intent;
 import android.util.Log;
+import com.termux.api.NetworkStack;
+import com.termux.engine.Tracing;
+import com.termux.metrics.AndroidTraceSink;
+import com.termux.metrics.AppMetrics;
 import com.termux.utils.DynamicColorManager;
 import com.termux.services.DownloadService;
 import com.termux.database.DatabaseHelper;
@@ -22,12 +26,21 @@ public class GOGDownloaderApplication extends Application {
         
         Log.d(TAG, "=== GOG Downloader Application Starting (Material 1.10 Compatible) ===");
         
+        // Seções de trace dos caminhos quentes vão para o android.os.Trace
+        Tracing.setPlatformSink(new AndroidTraceSink());
+        
         // Apply Material You Dynamic Color to all activities
         initializeDynamicColor();
         
+        // Pilha de rede (pool de conexões e DNS em disco) pronta antes da primeira tela precisar
+        new Thread(() -> NetworkStack.get(this), "network-stack-init").start();
+        
         // Inicializar sistema de downloads
         initializeDownloadSystem();
         
+        // Endpoint de métricas, se habilitado nas configurações
+        AppMetrics.applySettings(this);
+        
         Log.d(TAG, "=== Application Initialization Complete ===");
     }
     
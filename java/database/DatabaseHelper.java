@@ -7,13 +7,22 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.util.Log;
 
+import com.termux.engine.Tracing;
+import com.termux.metrics.AppMetrics;
+import com.termux.metrics.DownloadSummary;
+import com.termux.metrics.ThroughputHistory;
 import com.termux.models.Game;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import android.content.ContentValues;
 import android.database.Cursor;
 
@@ -23,7 +32,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     
     // Database info
     private static final String DATABASE_NAME = "gog_downloader.db";
-    private static final int DATABASE_VERSION = 3; // Adicionar links JSON para batches
+    private static final int DATABASE_VERSION = 6; // Cache de detalhes e links de download
     
     // Table names
     private static final String TABLE_GAMES = "games";
@@ -46,6 +55,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_GAME_GENRES = "genres";
     private static final String COLUMN_GAME_JSON_DATA = "json_data";
     private static final String COLUMN_GAME_LAST_UPDATED = "last_updated";
+    private static final String COLUMN_GAME_CATALOG_HASH = "catalog_hash";
     
     // Downloads table columns
     private static final String COLUMN_DOWNLOAD_ID = "id";
@@ -75,6 +85,38 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String COLUMN_BATCH_START_TIME = "start_time";
     private static final String COLUMN_BATCH_END_TIME = "end_time";
     
+    // Throughput history table columns (baldes de 1 minuto por download)
+    private static final String TABLE_THROUGHPUT_HISTORY = "throughput_history";
+    private static final String COLUMN_HISTORY_ID = "id";
+    private static final String COLUMN_HISTORY_DOWNLOAD_KEY = "download_key";
+    private static final String COLUMN_HISTORY_GAME_ID = "game_id";
+    private static final String COLUMN_HISTORY_MINUTE_START = "minute_start";
+    private static final String COLUMN_HISTORY_BYTES = "bytes";
+    private static final String COLUMN_HISTORY_SAMPLES = "samples";
+    private static final String COLUMN_HISTORY_AVG_SPEED = "avg_speed";
+    private static final String COLUMN_HISTORY_MIN_SPEED = "min_speed";
+    private static final String COLUMN_HISTORY_MAX_SPEED = "max_speed";
+    
+    // Transfer reports table columns (uma linha por sessão de download)
+    private static final String TABLE_TRANSFER_REPORTS = "transfer_reports";
+    private static final String COLUMN_REPORT_ID = "id";
+    private static final String COLUMN_REPORT_DOWNLOAD_KEY = "download_key";
+    private static final String COLUMN_REPORT_GAME_ID = "game_id";
+    private static final String COLUMN_REPORT_FILE_NAME = "file_name";
+    private static final String COLUMN_REPORT_HOST = "host";
+    private static final String COLUMN_REPORT_RESULT = "result";
+    private static final String COLUMN_REPORT_START_TIME = "start_time";
+    private static final String COLUMN_REPORT_END_TIME = "end_time";
+    private static final String COLUMN_REPORT_BYTES = "bytes";
+    private static final String COLUMN_REPORT_AVG_SPEED = "avg_speed";
+    private static final String COLUMN_REPORT_P5_SPEED = "p5_speed";
+    private static final String COLUMN_REPORT_P95_SPEED = "p95_speed";
+    private static final String COLUMN_REPORT_RETRIES = "retries";
+    private static final String COLUMN_REPORT_WASTED_BYTES = "wasted_bytes";
+    private static final String COLUMN_REPORT_CONNECTIONS = "connections";
+    private static final String COLUMN_REPORT_REUSED_CONNECTIONS = "reused_connections";
+    private static final String COLUMN_REPORT_STORAGE_STALL_MS = "storage_stall_ms";
+    
     // Create table statements
     private static final String CREATE_GAMES_TABLE = 
         "CREATE TABLE " + TABLE_GAMES + " (" +
@@ -93,7 +135,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             COLUMN_GAME_PUBLISHER + " TEXT, " +
             COLUMN_GAME_GENRES + " TEXT, " +
             COLUMN_GAME_JSON_DATA + " TEXT, " +
-            COLUMN_GAME_LAST_UPDATED + " INTEGER DEFAULT 0" +
+            COLUMN_GAME_LAST_UPDATED + " INTEGER DEFAULT 0, " +
+            COLUMN_GAME_CATALOG_HASH + " INTEGER DEFAULT 0" +
         ")";
     
     private static final String CREATE_DOWNLOADS_TABLE = 
@@ -134,6 +177,57 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 TABLE_GAMES + "(" + COLUMN_GAME_ID + ")" +
         ")";
     
+    // Game details cache table columns (detalhes + manifesto de download com ETag)
+    private static final String TABLE_DETAILS_CACHE = "game_details_cache";
+    private static final String COLUMN_CACHE_GAME_ID = "game_id";
+    private static final String COLUMN_CACHE_DETAILS_JSON = "details_json";
+    private static final String COLUMN_CACHE_LINKS_JSON = "links_json";
+    private static final String COLUMN_CACHE_ETAG = "etag";
+    private static final String COLUMN_CACHE_FETCHED_AT = "fetched_at";
+    
+    private static final String CREATE_DETAILS_CACHE_TABLE =
+        "CREATE TABLE " + TABLE_DETAILS_CACHE + " (" +
+            COLUMN_CACHE_GAME_ID + " INTEGER PRIMARY KEY, " +
+            COLUMN_CACHE_DETAILS_JSON + " TEXT NOT NULL, " +
+            COLUMN_CACHE_LINKS_JSON + " TEXT NOT NULL, " +
+            COLUMN_CACHE_ETAG + " TEXT, " +
+            COLUMN_CACHE_FETCHED_AT + " INTEGER DEFAULT 0" +
+        ")";
+    
+    private static final String CREATE_THROUGHPUT_HISTORY_TABLE =
+        "CREATE TABLE " + TABLE_THROUGHPUT_HISTORY + " (" +
+            COLUMN_HISTORY_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            COLUMN_HISTORY_DOWNLOAD_KEY + " TEXT NOT NULL, " +
+            COLUMN_HISTORY_GAME_ID + " INTEGER NOT NULL, " +
+            COLUMN_HISTORY_MINUTE_START + " INTEGER NOT NULL, " +
+            COLUMN_HISTORY_BYTES + " INTEGER DEFAULT 0, " +
+            COLUMN_HISTORY_SAMPLES + " INTEGER DEFAULT 0, " +
+            COLUMN_HISTORY_AVG_SPEED + " REAL DEFAULT 0, " +
+            COLUMN_HISTORY_MIN_SPEED + " REAL DEFAULT 0, " +
+            COLUMN_HISTORY_MAX_SPEED + " REAL DEFAULT 0" +
+        ")";
+    
+    private static final String CREATE_TRANSFER_REPORTS_TABLE =
+        "CREATE TABLE " + TABLE_TRANSFER_REPORTS + " (" +
+            COLUMN_REPORT_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            COLUMN_REPORT_DOWNLOAD_KEY + " TEXT NOT NULL, " +
+            COLUMN_REPORT_GAME_ID + " INTEGER NOT NULL, " +
+            COLUMN_REPORT_FILE_NAME + " TEXT, " +
+            COLUMN_REPORT_HOST + " TEXT, " +
+            COLUMN_REPORT_RESULT + " TEXT, " +
+            COLUMN_REPORT_START_TIME + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_END_TIME + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_BYTES + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_AVG_SPEED + " REAL DEFAULT 0, " +
+            COLUMN_REPORT_P5_SPEED + " REAL DEFAULT 0, " +
+            COLUMN_REPORT_P95_SPEED + " REAL DEFAULT 0, " +
+            COLUMN_REPORT_RETRIES + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_WASTED_BYTES + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_CONNECTIONS + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_REUSED_CONNECTIONS + " INTEGER DEFAULT 0, " +
+            COLUMN_REPORT_STORAGE_STALL_MS + " INTEGER DEFAULT 0" +
+        ")";
+    
     public DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -151,6 +245,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         db.execSQL("CREATE INDEX idx_downloads_link_id ON " + TABLE_DOWNLOADS + "(" + COLUMN_DOWNLOAD_LINK_ID + ")");
         db.execSQL("CREATE INDEX idx_batches_game_id ON " + TABLE_DOWNLOAD_BATCHES + "(" + COLUMN_BATCH_GAME_ID + ")");
         db.execSQL("CREATE INDEX idx_batches_status ON " + TABLE_DOWNLOAD_BATCHES + "(" + COLUMN_BATCH_STATUS + ")");
+        createTransferHistoryTables(db);
+        db.execSQL(CREATE_DETAILS_CACHE_TABLE);
+    }
+    
+    private void createTransferHistoryTables(SQLiteDatabase db) {
+        db.execSQL(CREATE_THROUGHPUT_HISTORY_TABLE);
+        db.execSQL(CREATE_TRANSFER_REPORTS_TABLE);
+        db.execSQL("CREATE INDEX idx_history_download_key ON " + TABLE_THROUGHPUT_HISTORY + "(" + COLUMN_HISTORY_DOWNLOAD_KEY + ")");
+        db.execSQL("CREATE INDEX idx_history_minute_start ON " + TABLE_THROUGHPUT_HISTORY + "(" + COLUMN_HISTORY_MINUTE_START + ")");
+        db.execSQL("CREATE INDEX idx_reports_end_time ON " + TABLE_TRANSFER_REPORTS + "(" + COLUMN_REPORT_END_TIME + ")");
     }
     
     @Override
@@ -173,6 +277,42 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             db.execSQL("ALTER TABLE " + TABLE_DOWNLOAD_BATCHES + " ADD COLUMN " + COLUMN_BATCH_LINKS_JSON + " TEXT;");
             Log.d(TAG, "Database upgraded successfully to version 3");
         }
+        if (oldVersion < 4) {
+            // Migração da versão 3 para 4: histórico de vazão e relatórios de transferência
+            createTransferHistoryTables(db);
+            Log.d(TAG, "Database upgraded successfully to version 4");
+        }
+        if (oldVersion < 5) {
+            // Migração da versão 4 para 5: hash das colunas de catálogo (0 = desconhecido, reescreve na próxima sync)
+            db.execSQL("ALTER TABLE " + TABLE_GAMES + " ADD COLUMN " + COLUMN_GAME_CATALOG_HASH + " INTEGER DEFAULT 0;");
+            Log.d(TAG, "Database upgraded successfully to version 5");
+        }
+        if (oldVersion < 6) {
+            // Migração da versão 5 para 6: cache de detalhes do jogo e links de download
+            db.execSQL(CREATE_DETAILS_CACHE_TABLE);
+            Log.d(TAG, "Database upgraded successfully to version 6");
+        }
+    }
+    
+    /**
+     * Escrita instrumentada: seção {@code section} no trace e duração no histograma de escritas do banco
+     */
+    private static <T> T timedWrite(String section, Supplier<T> write) {
+        long writeStart = System.nanoTime();
+        Tracing.begin(section);
+        try {
+            return write.get();
+        } finally {
+            Tracing.end();
+            AppMetrics.observeDbWrite(writeStart);
+        }
+    }
+    
+    private static void timedWrite(String section, Runnable write) {
+        timedWrite(section, () -> {
+            write.run();
+            return null;
+        });
     }
     
     // Métodos para gerenciar jogos
@@ -181,7 +321,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = gameToContentValues(game);
         
-        long id = db.insertWithOnConflict(TABLE_GAMES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        long id = timedWrite("db.insertGame",
+                () -> db.insertWithOnConflict(TABLE_GAMES, null, values, SQLiteDatabase.CONFLICT_REPLACE));
         
         if (id == -1) {
             Log.e(TAG, "Error inserting game: " + game.getTitle());
@@ -192,26 +333,159 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return id;
     }
     
+    /**
+     * Grava jogos vindos da API sem apagar o estado local (status, progresso, caminho, tamanho)
+     * Só escreve linhas novas ou cujo catálogo mudou
+     */
     public void insertOrUpdateGames(List<Game> games) {
+        upsertGameCatalog(games);
+    }
+    
+    /**
+     * Insere jogos novos e atualiza apenas as colunas de catálogo dos que mudaram
+     * @return número de linhas escritas
+     */
+    public int upsertGameCatalog(List<Game> games) {
         SQLiteDatabase db = this.getWritableDatabase();
+        Map<Long, Long> knownHashes = getCatalogHashes(db);
+        long now = System.currentTimeMillis();
         
-        db.beginTransaction();
-        try {
-            for (Game game : games) {
-                ContentValues values = gameToContentValues(game);
-                values.put(COLUMN_GAME_LAST_UPDATED, System.currentTimeMillis());
+        return timedWrite("db.upsertGameCatalog", () -> {
+            int inserted = 0;
+            int updated = 0;
+            db.beginTransaction();
+            try {
+                for (Game game : games) {
+                    long hash = catalogHash(game);
+                    Long knownHash = knownHashes.get(game.getId());
+                    if (knownHash != null && knownHash == hash) {
+                        continue;
+                    }
+                    
+                    ContentValues values = catalogToContentValues(game);
+                    values.put(COLUMN_GAME_CATALOG_HASH, hash);
+                    values.put(COLUMN_GAME_LAST_UPDATED, now);
+                    
+                    if (knownHash == null) {
+                        values.put(COLUMN_GAME_ID, game.getId());
+                        values.put(COLUMN_GAME_STATUS, game.getStatus().name());
+                        if (game.getTotalSize() > 0) {
+                            values.put(COLUMN_GAME_TOTAL_SIZE, game.getTotalSize());
+                        }
+                        db.insertWithOnConflict(TABLE_GAMES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+                        knownHashes.put(game.getId(), hash);
+                        inserted++;
+                    } else {
+                        db.update(TABLE_GAMES, values, COLUMN_GAME_ID + " = ?",
+                                new String[]{String.valueOf(game.getId())});
+                        knownHashes.put(game.getId(), hash);
+                        updated++;
+                    }
+                }
                 
-                db.insertWithOnConflict(TABLE_GAMES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                db.setTransactionSuccessful();
+                Log.d(TAG, "Catalog upsert: " + inserted + " inserted, " + updated + " updated, "
+                        + (games.size() - inserted - updated) + " unchanged");
+                
+            } catch (Exception e) {
+                Log.e(TAG, "Error inserting/updating games", e);
+            } finally {
+                db.endTransaction();
             }
-            
-            db.setTransactionSuccessful();
-            Log.d(TAG, "Inserted/updated " + games.size() + " games");
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error inserting/updating games", e);
-        } finally {
-            db.endTransaction();
+            return inserted + updated;
+        });
+    }
+    
+    /**
+     * Grava só a coluna total_size de vários jogos em uma transação
+     */
+    public void updateGameSizes(Map<Long, Long> sizes) {
+        if (sizes.isEmpty()) {
+            return;
         }
+        SQLiteDatabase db = this.getWritableDatabase();
+        
+        timedWrite("db.updateGameSizes", () -> {
+            db.beginTransaction();
+            try {
+                ContentValues values = new ContentValues();
+                for (Map.Entry<Long, Long> entry : sizes.entrySet()) {
+                    values.put(COLUMN_GAME_TOTAL_SIZE, entry.getValue());
+                    db.update(TABLE_GAMES, values, COLUMN_GAME_ID + " = ?",
+                            new String[]{String.valueOf(entry.getKey())});
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error updating game sizes", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+    
+    /**
+     * id -> last_updated de todos os jogos, para o diff da sincronização incremental
+     */
+    public Map<Long, Long> getGameSyncState() {
+        Map<Long, Long> state = new HashMap<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        
+        Cursor cursor = db.query(TABLE_GAMES, new String[]{COLUMN_GAME_ID, COLUMN_GAME_LAST_UPDATED},
+                null, null, null, null, null);
+        
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                state.put(cursor.getLong(0), cursor.getLong(1));
+            }
+            cursor.close();
+        }
+        
+        return state;
+    }
+    
+    /**
+     * Marca jogos conferidos e sem mudança como atualizados, em um único UPDATE
+     */
+    public void touchGames(Collection<Long> gameIds) {
+        if (gameIds.isEmpty()) {
+            return;
+        }
+        SQLiteDatabase db = this.getWritableDatabase();
+        timedWrite("db.touchGames", () -> db.execSQL("UPDATE " + TABLE_GAMES + " SET "
+                + COLUMN_GAME_LAST_UPDATED + " = " + System.currentTimeMillis()
+                + " WHERE " + COLUMN_GAME_ID + " IN (" + joinIds(gameIds) + ")"));
+    }
+    
+    /**
+     * Remove jogos que saíram da conta; jogos com download local são mantidos
+     * @return número de jogos removidos
+     */
+    public int deleteRemovedGames(Collection<Long> gameIds) {
+        if (gameIds.isEmpty()) {
+            return 0;
+        }
+        SQLiteDatabase db = this.getWritableDatabase();
+        String idList = joinIds(gameIds);
+        String removable = COLUMN_GAME_ID + " IN (" + idList + ") AND " + COLUMN_GAME_STATUS + " = 'NOT_DOWNLOADED'";
+        
+        return timedWrite("db.deleteRemovedGames", () -> {
+            int deleted = 0;
+            db.beginTransaction();
+            try {
+                db.delete(TABLE_DOWNLOADS, COLUMN_DOWNLOAD_GAME_ID + " IN (SELECT " + COLUMN_GAME_ID + " FROM "
+                        + TABLE_GAMES + " WHERE " + removable + ")", null);
+                db.delete(TABLE_DOWNLOAD_BATCHES, COLUMN_BATCH_GAME_ID + " IN (SELECT " + COLUMN_GAME_ID + " FROM "
+                        + TABLE_GAMES + " WHERE " + removable + ")", null);
+                deleted = db.delete(TABLE_GAMES, removable, null);
+                db.setTransactionSuccessful();
+                Log.d(TAG, "Removed " + deleted + " of " + gameIds.size() + " games no longer owned");
+            } catch (Exception e) {
+                Log.e(TAG, "Error removing games", e);
+            } finally {
+                db.endTransaction();
+            }
+            return deleted;
+        });
     }
     
     public boolean updateGame(Game game) {
@@ -219,8 +493,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         ContentValues values = gameToContentValues(game);
         values.put(COLUMN_GAME_LAST_UPDATED, System.currentTimeMillis());
         
-        int rowsAffected = db.update(TABLE_GAMES, values, 
-                COLUMN_GAME_ID + " = ?", new String[]{String.valueOf(game.getId())});
+        int rowsAffected = timedWrite("db.updateGame", () -> db.update(TABLE_GAMES, values,
+                COLUMN_GAME_ID + " = ?", new String[]{String.valueOf(game.getId())}));
         
         if (rowsAffected > 0) {
             Log.d(TAG, "Game updated successfully: " + game.getTitle());
@@ -302,7 +576,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(COLUMN_DOWNLOAD_STATUS, "PENDING");
         values.put(COLUMN_DOWNLOAD_START_TIME, System.currentTimeMillis());
         
-        long id = db.insert(TABLE_DOWNLOADS, null, values);
+        long id = timedWrite("db.insertDownload", () -> db.insert(TABLE_DOWNLOADS, null, values));
         
         if (id == -1) {
             Log.e(TAG, "Error inserting download for game ID: " + gameId);
@@ -325,8 +599,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         int progress = totalBytes > 0 ? (int) ((downloadedBytes * 100) / totalBytes) : 0;
         values.put(COLUMN_DOWNLOAD_PROGRESS, progress);
         
-        int rowsAffected = db.update(TABLE_DOWNLOADS, values, 
-                COLUMN_DOWNLOAD_ID + " = ?", new String[]{String.valueOf(downloadId)});
+        int rowsAffected = timedWrite("db.updateDownloadProgress", () -> db.update(TABLE_DOWNLOADS, values,
+                COLUMN_DOWNLOAD_ID + " = ?", new String[]{String.valueOf(downloadId)}));
         
         return rowsAffected > 0;
     }
@@ -344,8 +618,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             values.put(COLUMN_DOWNLOAD_END_TIME, System.currentTimeMillis());
         }
         
-        int rowsAffected = db.update(TABLE_DOWNLOADS, values, 
-                COLUMN_DOWNLOAD_ID + " = ?", new String[]{String.valueOf(downloadId)});
+        int rowsAffected = timedWrite("db.updateDownloadStatus", () -> db.update(TABLE_DOWNLOADS, values,
+                COLUMN_DOWNLOAD_ID + " = ?", new String[]{String.valueOf(downloadId)}));
         
         return rowsAffected > 0;
     }
@@ -444,7 +718,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(COLUMN_BATCH_STATUS, "PENDING");
         values.put(COLUMN_BATCH_START_TIME, System.currentTimeMillis());
         
-        long id = db.insert(TABLE_DOWNLOAD_BATCHES, null, values);
+        long id = timedWrite("db.createDownloadBatch", () -> db.insert(TABLE_DOWNLOAD_BATCHES, null, values));
         
         if (id == -1) {
             Log.e(TAG, "Error creating download batch for game ID: " + gameId);
@@ -466,8 +740,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             values.put(COLUMN_BATCH_END_TIME, System.currentTimeMillis());
         }
         
-        int rowsAffected = db.update(TABLE_DOWNLOAD_BATCHES, values, 
-                COLUMN_BATCH_ID + " = ?", new String[]{String.valueOf(batchId)});
+        int rowsAffected = timedWrite("db.updateBatchProgress", () -> db.update(TABLE_DOWNLOAD_BATCHES, values,
+                COLUMN_BATCH_ID + " = ?", new String[]{String.valueOf(batchId)}));
         
         return rowsAffected > 0;
     }
@@ -494,6 +768,197 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return batch;
     }
     
+    // Métodos para o cache de detalhes do jogo
+    
+    /**
+     * Entrada do cache (details_json, links_json, etag, fetched_at) ou null
+     */
+    public ContentValues getCachedGameDetails(long gameId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        ContentValues values = null;
+        
+        Cursor cursor = db.query(TABLE_DETAILS_CACHE, null,
+                COLUMN_CACHE_GAME_ID + " = ?", new String[]{String.valueOf(gameId)},
+                null, null, null);
+        
+        if (cursor != null && cursor.moveToFirst()) {
+            values = new ContentValues();
+            values.put(COLUMN_CACHE_DETAILS_JSON, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CACHE_DETAILS_JSON)));
+            values.put(COLUMN_CACHE_LINKS_JSON, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CACHE_LINKS_JSON)));
+            values.put(COLUMN_CACHE_ETAG, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_CACHE_ETAG)));
+            values.put(COLUMN_CACHE_FETCHED_AT, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_CACHE_FETCHED_AT)));
+        }
+        if (cursor != null) {
+            cursor.close();
+        }
+        
+        return values;
+    }
+    
+    public void putCachedGameDetails(long gameId, String detailsJson, String linksJson, String etag) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        
+        values.put(COLUMN_CACHE_GAME_ID, gameId);
+        values.put(COLUMN_CACHE_DETAILS_JSON, detailsJson);
+        values.put(COLUMN_CACHE_LINKS_JSON, linksJson);
+        values.put(COLUMN_CACHE_ETAG, etag);
+        values.put(COLUMN_CACHE_FETCHED_AT, System.currentTimeMillis());
+        
+        timedWrite("db.putCachedGameDetails",
+                () -> db.insertWithOnConflict(TABLE_DETAILS_CACHE, null, values, SQLiteDatabase.CONFLICT_REPLACE));
+    }
+    
+    /**
+     * Revalidação respondeu 304: o conteúdo vale por mais um TTL
+     */
+    public void touchCachedGameDetails(long gameId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_CACHE_FETCHED_AT, System.currentTimeMillis());
+        
+        timedWrite("db.touchCachedGameDetails", () -> db.update(TABLE_DETAILS_CACHE, values,
+                COLUMN_CACHE_GAME_ID + " = ?", new String[]{String.valueOf(gameId)}));
+    }
+    
+    // Métodos para o histórico de vazão e relatórios de transferência
+    
+    public void insertThroughputBuckets(String downloadKey, long gameId, List<ThroughputHistory.Bucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        SQLiteDatabase db = this.getWritableDatabase();
+        
+        timedWrite("db.insertThroughputBuckets", () -> {
+            db.beginTransaction();
+            try {
+                for (ThroughputHistory.Bucket bucket : buckets) {
+                    ContentValues values = new ContentValues();
+                    values.put(COLUMN_HISTORY_DOWNLOAD_KEY, downloadKey);
+                    values.put(COLUMN_HISTORY_GAME_ID, gameId);
+                    values.put(COLUMN_HISTORY_MINUTE_START, bucket.getMinuteStart());
+                    values.put(COLUMN_HISTORY_BYTES, bucket.getBytes());
+                    values.put(COLUMN_HISTORY_SAMPLES, bucket.getSamples());
+                    values.put(COLUMN_HISTORY_AVG_SPEED, bucket.getAvgSpeed());
+                    values.put(COLUMN_HISTORY_MIN_SPEED, bucket.getMinSpeed());
+                    values.put(COLUMN_HISTORY_MAX_SPEED, bucket.getMaxSpeed());
+                    db.insert(TABLE_THROUGHPUT_HISTORY, null, values);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error inserting throughput history for " + downloadKey, e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+    
+    public long insertTransferReport(long gameId, String fileName, String result,
+                                     ThroughputHistory history, DownloadSummary summary) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        
+        values.put(COLUMN_REPORT_DOWNLOAD_KEY, history.getKey());
+        values.put(COLUMN_REPORT_GAME_ID, gameId);
+        values.put(COLUMN_REPORT_FILE_NAME, fileName);
+        values.put(COLUMN_REPORT_HOST, summary.getHost());
+        values.put(COLUMN_REPORT_RESULT, result);
+        values.put(COLUMN_REPORT_START_TIME, history.getStartedAt());
+        values.put(COLUMN_REPORT_END_TIME, summary.getFinishedAt());
+        values.put(COLUMN_REPORT_BYTES, history.getTotalBytes());
+        values.put(COLUMN_REPORT_AVG_SPEED, history.getAverageSpeed());
+        values.put(COLUMN_REPORT_P5_SPEED, history.getPercentile(5));
+        values.put(COLUMN_REPORT_P95_SPEED, history.getPercentile(95));
+        values.put(COLUMN_REPORT_RETRIES, summary.getStats() != null ? summary.getStats().getRetries() : 0);
+        values.put(COLUMN_REPORT_WASTED_BYTES, summary.getStats() != null ? summary.getStats().getBytesWasted() : 0);
+        values.put(COLUMN_REPORT_CONNECTIONS, summary.getCalls() - summary.getReusedConnections());
+        values.put(COLUMN_REPORT_REUSED_CONNECTIONS, summary.getReusedConnections());
+        values.put(COLUMN_REPORT_STORAGE_STALL_MS, summary.getStorageWriteMs());
+        
+        long id = timedWrite("db.insertTransferReport", () -> db.insert(TABLE_TRANSFER_REPORTS, null, values));
+        
+        if (id == -1) {
+            Log.e(TAG, "Error inserting transfer report: " + history.getKey());
+        }
+        return id;
+    }
+    
+    /**
+     * Relatórios mais recentes primeiro, para comparar CDN e mídia de armazenamento ao longo das semanas
+     */
+    public List<ContentValues> getTransferReports(int limit) {
+        List<ContentValues> reports = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        
+        Cursor cursor = db.query(TABLE_TRANSFER_REPORTS, null, null, null, null, null,
+                COLUMN_REPORT_END_TIME + " DESC", String.valueOf(limit));
+        
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_REPORT_DOWNLOAD_KEY, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_REPORT_DOWNLOAD_KEY)));
+                values.put(COLUMN_REPORT_GAME_ID, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_GAME_ID)));
+                values.put(COLUMN_REPORT_FILE_NAME, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_REPORT_FILE_NAME)));
+                values.put(COLUMN_REPORT_HOST, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_REPORT_HOST)));
+                values.put(COLUMN_REPORT_RESULT, cursor.getString(cursor.getColumnIndexOrThrow(COLUMN_REPORT_RESULT)));
+                values.put(COLUMN_REPORT_START_TIME, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_START_TIME)));
+                values.put(COLUMN_REPORT_END_TIME, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_END_TIME)));
+                values.put(COLUMN_REPORT_BYTES, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_BYTES)));
+                values.put(COLUMN_REPORT_AVG_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_REPORT_AVG_SPEED)));
+                values.put(COLUMN_REPORT_P5_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_REPORT_P5_SPEED)));
+                values.put(COLUMN_REPORT_P95_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_REPORT_P95_SPEED)));
+                values.put(COLUMN_REPORT_RETRIES, cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_REPORT_RETRIES)));
+                values.put(COLUMN_REPORT_WASTED_BYTES, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_WASTED_BYTES)));
+                values.put(COLUMN_REPORT_CONNECTIONS, cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_REPORT_CONNECTIONS)));
+                values.put(COLUMN_REPORT_REUSED_CONNECTIONS, cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_REPORT_REUSED_CONNECTIONS)));
+                values.put(COLUMN_REPORT_STORAGE_STALL_MS, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_REPORT_STORAGE_STALL_MS)));
+                reports.add(values);
+            }
+            cursor.close();
+        }
+        
+        return reports;
+    }
+    
+    public List<ContentValues> getThroughputHistory(String downloadKey) {
+        List<ContentValues> history = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        
+        Cursor cursor = db.query(TABLE_THROUGHPUT_HISTORY, null,
+                COLUMN_HISTORY_DOWNLOAD_KEY + " = ?", new String[]{downloadKey},
+                null, null, COLUMN_HISTORY_MINUTE_START + " ASC");
+        
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                ContentValues values = new ContentValues();
+                values.put(COLUMN_HISTORY_MINUTE_START, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_MINUTE_START)));
+                values.put(COLUMN_HISTORY_BYTES, cursor.getLong(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_BYTES)));
+                values.put(COLUMN_HISTORY_SAMPLES, cursor.getInt(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_SAMPLES)));
+                values.put(COLUMN_HISTORY_AVG_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_AVG_SPEED)));
+                values.put(COLUMN_HISTORY_MIN_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_MIN_SPEED)));
+                values.put(COLUMN_HISTORY_MAX_SPEED, cursor.getDouble(cursor.getColumnIndexOrThrow(COLUMN_HISTORY_MAX_SPEED)));
+                history.add(values);
+            }
+            cursor.close();
+        }
+        
+        return history;
+    }
+    
+    /**
+     * Remove histórico e relatórios anteriores a {@code cutoffMillis}
+     */
+    public void pruneTransferHistory(long cutoffMillis) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        String[] args = new String[]{String.valueOf(cutoffMillis)};
+        
+        int buckets = db.delete(TABLE_THROUGHPUT_HISTORY, COLUMN_HISTORY_MINUTE_START + " < ?", args);
+        int reports = db.delete(TABLE_TRANSFER_REPORTS, COLUMN_REPORT_END_TIME + " < ?", args);
+        if (buckets > 0 || reports > 0) {
+            Log.d(TAG, "Pruned " + buckets + " throughput buckets and " + reports + " transfer reports");
+        }
+    }
+    
     public boolean deleteGame(long gameId) {
         SQLiteDatabase db = this.getWritableDatabase();
         
@@ -515,6 +980,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         try {
             db.delete(TABLE_DOWNLOAD_BATCHES, null, null);
             db.delete(TABLE_DOWNLOADS, null, null);
+            db.delete(TABLE_DETAILS_CACHE, null, null);
             db.delete(TABLE_GAMES, null, null);
             db.setTransactionSuccessful();
             Log.d(TAG, "All games and downloads cleared from database");
@@ -527,6 +993,63 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     
     // Métodos auxiliares
     
+    private Map<Long, Long> getCatalogHashes(SQLiteDatabase db) {
+        Map<Long, Long> hashes = new HashMap<>();
+        Cursor cursor = db.query(TABLE_GAMES, new String[]{COLUMN_GAME_ID, COLUMN_GAME_CATALOG_HASH},
+                null, null, null, null, null);
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                hashes.put(cursor.getLong(0), cursor.getLong(1));
+            }
+            cursor.close();
+        }
+        return hashes;
+    }
+    
+    /**
+     * Hash das colunas que vêm da API; nunca 0, que marca linhas anteriores à versão 5
+     */
+    private static long catalogHash(Game game) {
+        long hash = Objects.hash(game.getTitle(), game.getSlug(), game.getCoverImage(), game.getBackgroundImage(),
+                game.getDescription(), game.getReleaseDate(), game.getDeveloper(), game.getPublisher(),
+                game.getGenresString());
+        return hash == 0 ? 1 : hash;
+    }
+    
+    private static String joinIds(Collection<Long> ids) {
+        StringBuilder builder = new StringBuilder();
+        for (Long id : ids) {
+            if (builder.length() > 0) builder.append(',');
+            builder.append(id.longValue());
+        }
+        return builder.toString();
+    }
+    
+    /**
+     * Só as colunas de catálogo: status, progresso, tamanho e caminho local pertencem ao app
+     */
+    private ContentValues catalogToContentValues(Game game) {
+        ContentValues values = new ContentValues();
+        
+        values.put(COLUMN_GAME_TITLE, game.getTitle());
+        values.put(COLUMN_GAME_SLUG, game.getSlug());
+        values.put(COLUMN_GAME_COVER_IMAGE, game.getCoverImage());
+        values.put(COLUMN_GAME_BACKGROUND_IMAGE, game.getBackgroundImage());
+        values.put(COLUMN_GAME_DESCRIPTION, game.getDescription());
+        values.put(COLUMN_GAME_RELEASE_DATE, game.getReleaseDate());
+        values.put(COLUMN_GAME_DEVELOPER, game.getDeveloper());
+        values.put(COLUMN_GAME_PUBLISHER, game.getPublisher());
+        values.put(COLUMN_GAME_GENRES, game.getGenresString());
+        
+        try {
+            values.put(COLUMN_GAME_JSON_DATA, game.toJson().toString());
+        } catch (JSONException e) {
+            Log.w(TAG, "Error converting game to JSON", e);
+        }
+        
+        return values;
+    }
+    
     private ContentValues gameToContentValues(Game game) {
         ContentValues values = new ContentValues();
         
@@ -0,0 +1,69 @@
+package com.termux.engine.android;
+
+import android.util.Log;
+
+import androidx.documentfile.provider.DocumentFile;
+
+import com.termux.engine.StorageTarget;
+import com.termux.utils.SAFDownloadManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Destino SAF para o motor de download
+ * O ContentResolver só oferece escrita sequencial, então os segmentos paralelos ficam desativados
+ */
+public class DocumentFileStorage implements StorageTarget {
+    
+    private static final String TAG = "DocumentFileStorage";
+    
+    private final SAFDownloadManager safDownloadManager;
+    private final DocumentFile file;
+    
+    public DocumentFileStorage(SAFDownloadManager safDownloadManager, DocumentFile file) {
+        this.safDownloadManager = safDownloadManager;
+        this.file = file;
+    }
+    
+    public DocumentFile getFile() {
+        return file;
+    }
+    
+    @Override
+    public long length() {
+        return safDownloadManager.getFileSize(file);
+    }
+    
+    @Override
+    public OutputStream openOutput(long offset) throws IOException {
+        long currentLength = length();
+        if (offset != 0 && offset != currentLength) {
+            throw new IOException("SAF só permite anexar: offset " + offset + ", tamanho " + currentLength);
+        }
+        return safDownloadManager.getOutputStream(file, offset > 0);
+    }
+    
+    @Override
+    public boolean supportsRandomAccess() {
+        return false;
+    }
+    
+    /**
+     * Trunca o documento em vez de apagá-lo, para manter a URI válida durante o download
+     */
+    @Override
+    public boolean delete() {
+        try (OutputStream ignored = safDownloadManager.getOutputStream(file, false)) {
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to truncate " + file.getUri(), e);
+            return false;
+        }
+    }
+    
+    @Override
+    public String describe() {
+        return String.valueOf(file.getUri());
+    }
+}
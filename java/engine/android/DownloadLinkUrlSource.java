@@ -0,0 +1,100 @@
+package com.termux.engine.android;
+
+import android.util.Log;
+
+import com.termux.api.GOGLibraryManager;
+import com.termux.engine.DownloadEngine;
+import com.termux.engine.UrlSource;
+import com.termux.models.DownloadLink;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * UrlSource que resolve o link de CDN do GOG pela API e o renova quando expira
+ */
+public class DownloadLinkUrlSource implements UrlSource {
+    
+    private static final String TAG = "DownloadLinkUrlSource";
+    
+    private final GOGLibraryManager libraryManager;
+    private final long gameId;
+    private final DownloadLink downloadLink;
+    private final DownloadEngine.StopSignal stopSignal;
+    
+    public DownloadLinkUrlSource(GOGLibraryManager libraryManager, long gameId,
+                                 DownloadLink downloadLink, DownloadEngine.StopSignal stopSignal) {
+        this.libraryManager = libraryManager;
+        this.gameId = gameId;
+        this.downloadLink = downloadLink;
+        this.stopSignal = stopSignal;
+    }
+    
+    @Override
+    public String currentUrl() {
+        return downloadLink.getDownloadUrl();
+    }
+    
+    /**
+     * Pede um novo downlink à API, bloqueando até a resposta
+     * @return Nova URL, ou null se o download foi interrompido antes da resposta
+     */
+    @Override
+    public String refresh() throws IOException {
+        Log.d(TAG, "Resolving download link: " + downloadLink.getName());
+        
+        String[] downloadUrl = new String[1];
+        String[] errorMessage = new String[1];
+        
+        Object lock = new Object();
+        boolean[] completed = new boolean[1];
+        
+        libraryManager.getDownloadLink(gameId, downloadLink, "installer",
+                new GOGLibraryManager.DownloadLinkCallback() {
+            @Override
+            public void onSuccess(String url) {
+                downloadUrl[0] = url;
+                synchronized (lock) {
+                    completed[0] = true;
+                    lock.notify();
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                errorMessage[0] = error;
+                synchronized (lock) {
+                    completed[0] = true;
+                    lock.notify();
+                }
+            }
+        });
+        
+        // Aguardar resposta da API
+        synchronized (lock) {
+            while (!completed[0] && !stopSignal.shouldStop()) {
+                try {
+                    lock.wait(1000); // Timeout de 1 segundo
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Resolução de link interrompida");
+                }
+            }
+        }
+        
+        if (!completed[0]) {
+            return null;
+        }
+        
+        if (errorMessage[0] != null) {
+            throw new IOException("Erro ao obter URL de download: " + errorMessage[0]);
+        }
+        
+        if (downloadUrl[0] == null || downloadUrl[0].isEmpty()) {
+            throw new IOException("URL de download inválida para: " + downloadLink.getName());
+        }
+        
+        downloadLink.setDownloadUrl(downloadUrl[0]);
+        return downloadUrl[0];
+    }
+}
@@ -0,0 +1,149 @@
+package com.termux.engine.android;
+
+import com.termux.engine.HttpTransport;
+import com.termux.engine.TransferRequest;
+import com.termux.engine.TransferResponse;
+
+import com.termux.metrics.LiveTransfer;
+import com.termux.metrics.NetworkMetrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Implementação do HttpTransport do motor sobre OkHttp
+ */
+public class OkHttpTransport implements HttpTransport {
+    
+    private final OkHttpClient httpClient;
+    
+    public OkHttpTransport(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+    
+    @Override
+    public TransferResponse execute(TransferRequest transferRequest) throws IOException {
+        // Sem Accept-Encoding manual: gzip quebraria o Content-Length e os offsets do Range
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(transferRequest.getUrl())
+                .get()
+                .addHeader("User-Agent", "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0")
+                .addHeader("Accept", "*/*")
+                .addHeader("Accept-Language", "en-US,en;q=0.5")
+                .addHeader("DNT", "1")
+                .addHeader("Referer", "https://www.gog.com/");
+        
+        String range = transferRequest.getRangeHeader();
+        if (range != null) {
+            requestBuilder.header("Range", range);
+        }
+        
+        if (transferRequest.getTag() != null) {
+            // Lido pelo NetworkEventListener para somar as chamadas no resumo do download
+            requestBuilder.tag(String.class, transferRequest.getTag());
+        }
+        
+        for (Map.Entry<String, String> header : transferRequest.getHeaders().entrySet()) {
+            requestBuilder.header(header.getKey(), header.getValue());
+        }
+        
+        Response response = httpClient.newCall(requestBuilder.build()).execute();
+        return new OkHttpTransferResponse(response);
+    }
+    
+    private static class OkHttpTransferResponse implements TransferResponse {
+        
+        private final Response response;
+        private CountingInputStream stream;
+        
+        OkHttpTransferResponse(Response response) {
+            this.response = response;
+        }
+        
+        @Override
+        public int code() {
+            return response.code();
+        }
+        
+        @Override
+        public long contentLength() {
+            ResponseBody body = response.body();
+            return body != null ? body.contentLength() : -1;
+        }
+        
+        @Override
+        public String header(String name) {
+            return response.header(name);
+        }
+        
+        @Override
+        public InputStream body() throws IOException {
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new IOException("Resposta sem corpo");
+            }
+            // Contagem ao vivo por conexão para o HUD de desempenho
+            LiveTransfer transfer = NetworkMetrics.getInstance().openTransfer(
+                    response.request().url().host(), response.request().tag(String.class));
+            stream = new CountingInputStream(body.byteStream(), transfer);
+            return stream;
+        }
+        
+        @Override
+        public void close() {
+            if (stream != null) {
+                stream.release();
+            }
+            response.close();
+        }
+    }
+    
+    private static class CountingInputStream extends FilterInputStream {
+        
+        private final LiveTransfer transfer;
+        private boolean closed;
+        
+        CountingInputStream(InputStream in, LiveTransfer transfer) {
+            super(in);
+            this.transfer = transfer;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                transfer.addBytes(1);
+            }
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                transfer.addBytes(read);
+            }
+            return read;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            release();
+            super.close();
+        }
+        
+        void release() {
+            if (!closed) {
+                closed = true;
+                NetworkMetrics.getInstance().closeTransfer(transfer);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.termux.metrics;
+
+import android.os.Trace;
+
+import com.termux.engine.TraceSink;
+
+/**
+ * Encaminha as seções do Tracing para o android.os.Trace (systrace/Perfetto no aparelho)
+ */
+public class AndroidTraceSink implements TraceSink {
+    
+    // Limite do android.os.Trace para nomes de seção
+    private static final int MAX_SECTION_NAME = 127;
+    
+    @Override
+    public void beginSection(String name) {
+        Trace.beginSection(name.length() > MAX_SECTION_NAME ? name.substring(0, MAX_SECTION_NAME) : name);
+    }
+    
+    @Override
+    public void endSection() {
+        Trace.endSection();
+    }
+}
@@ -0,0 +1,196 @@
+package com.termux.metrics;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.termux.engine.TransferStats;
+import com.termux.utils.PreferencesManager;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do app para monitoramento da frota: endpoint /metrics opcional e exportação em arquivo
+ * Os contadores são sempre atualizados (custo baixo); só a exposição depende da preferência
+ */
+public final class AppMetrics {
+    
+    private static final String TAG = "AppMetrics";
+    private static final long EXPORT_INTERVAL_SECONDS = 30;
+    
+    private static final MetricsRegistry registry = new MetricsRegistry();
+    
+    // Rede
+    private static final MetricsRegistry.Counter httpCalls = registry.counter("gogdl_http_calls_total",
+            "Chamadas HTTP concluídas por cliente, host e resultado", "source", "host", "result");
+    private static final MetricsRegistry.Counter httpBytes = registry.counter("gogdl_http_response_bytes_total",
+            "Bytes de corpo de resposta recebidos por host", "host");
+    private static final MetricsRegistry.Counter httpTransferSeconds = registry.counter("gogdl_http_transfer_seconds_total",
+            "Tempo lendo corpos de resposta por host; bytes/segundos dá a vazão por host", "host");
+    private static final MetricsRegistry.Histogram httpTtfb = registry.histogram("gogdl_http_ttfb_seconds",
+            "Tempo até o primeiro byte da resposta", 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10);
+    
+    // Downloads
+    private static final MetricsRegistry.Counter downloadBytes = registry.counter("gogdl_download_bytes_total",
+            "Bytes gravados pelos downloads");
+    private static final MetricsRegistry.Counter downloadWastedBytes = registry.counter("gogdl_download_wasted_bytes_total",
+            "Bytes baixados de novo (Range ignorado ou recomeço)");
+    private static final MetricsRegistry.Counter downloadRetries = registry.counter("gogdl_download_retries_total",
+            "Retries do motor por classe de falha", "class");
+    private static final MetricsRegistry.Counter downloadsFinished = registry.counter("gogdl_downloads_finished_total",
+            "Downloads encerrados por resultado", "result");
+    private static final MetricsRegistry.Histogram storageWrite = registry.histogram("gogdl_storage_write_seconds",
+            "Tempo médio por escrita no destino, por download", 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1);
+    
+    // Banco e cache de imagens
+    private static final MetricsRegistry.Histogram dbWrite = registry.histogram("gogdl_db_write_seconds",
+            "Latência das escritas no SQLite", 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1);
+    private static final MetricsRegistry.Counter imageCache = registry.counter("gogdl_image_cache_requests_total",
+            "Pedidos ao ImageLoader por resultado (memory, disk, miss)", "result");
+    
+    private static MetricsServer server;
+    private static ScheduledExecutorService exportExecutor;
+    private static ScheduledFuture<?> exportTask;
+    
+    static {
+        Runtime runtime = Runtime.getRuntime();
+        registry.gauge("gogdl_heap_used_bytes", "Heap Java em uso",
+                () -> runtime.totalMemory() - runtime.freeMemory());
+        registry.gauge("gogdl_heap_max_bytes", "Limite do heap Java", runtime::maxMemory);
+    }
+    
+    private AppMetrics() {
+    }
+    
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Liga ou desliga o endpoint e a exportação conforme as preferências
+     */
+    public static synchronized void applySettings(Context context) {
+        PreferencesManager preferencesManager = new PreferencesManager(context);
+        if (preferencesManager.isMetricsEndpointEnabled()) {
+            start(context.getApplicationContext(), preferencesManager.getMetricsPort());
+        } else {
+            stop();
+        }
+    }
+    
+    private static void start(Context context, int port) {
+        if (server == null) {
+            server = new MetricsServer(registry, port);
+            try {
+                server.start();
+                Log.d(TAG, "Metrics endpoint on port " + server.getPort());
+            } catch (IOException e) {
+                Log.e(TAG, "Could not start metrics endpoint on port " + port, e);
+                server = null;
+            }
+        }
+        
+        if (exportTask == null) {
+            File exportFile = getExportFile(context);
+            exportExecutor = Executors.newSingleThreadScheduledExecutor();
+            exportTask = exportExecutor.scheduleWithFixedDelay(() -> exportTo(exportFile),
+                    EXPORT_INTERVAL_SECONDS, EXPORT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+    
+    private static void stop() {
+        if (server != null) {
+            server.stop();
+            server = null;
+            Log.d(TAG, "Metrics endpoint stopped");
+        }
+        if (exportTask != null) {
+            exportTask.cancel(false);
+            exportExecutor.shutdown();
+            exportTask = null;
+            exportExecutor = null;
+        }
+    }
+    
+    /**
+     * Arquivo com o último scrape (Android/data/<pacote>/files/metrics/metrics.prom)
+     */
+    public static File getExportFile(Context context) {
+        File dir = context.getExternalFilesDir("metrics");
+        if (dir == null) {
+            dir = new File(context.getFilesDir(), "metrics");
+        }
+        return new File(dir, "metrics.prom");
+    }
+    
+    /**
+     * Grava o scrape atual no arquivo (tmp + rename para o coletor nunca ler pela metade)
+     */
+    public static boolean exportTo(File file) {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(registry.scrape().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.e(TAG, "Error exporting metrics", e);
+            return false;
+        }
+        return tmp.renameTo(file);
+    }
+    
+    // ==================== Pontos de coleta ====================
+    
+    static void onCall(CallMetrics call) {
+        String host = call.getHost() != null ? call.getHost() : "unknown";
+        String result;
+        if (call.isFailed()) {
+            result = "error";
+        } else {
+            result = (call.getStatusCode() / 100) + "xx";
+        }
+        httpCalls.inc(1, call.getSource(), host, result);
+        if (call.getBytesIn() > 0) {
+            httpBytes.inc(call.getBytesIn(), host);
+        }
+        if (call.getTransferMs() > 0) {
+            httpTransferSeconds.inc(call.getTransferMs() / 1000.0, host);
+        }
+        if (call.getTtfbMs() >= 0) {
+            httpTtfb.observe(call.getTtfbMs() / 1000.0);
+        }
+    }
+    
+    static void onDownloadFinished(TransferStats stats) {
+        if (stats == null) {
+            downloadsFinished.inc(1, "error");
+            return;
+        }
+        downloadsFinished.inc(1, stats.isComplete() ? "complete" : stats.isStopped() ? "stopped" : "incomplete");
+        downloadBytes.inc(stats.getBytesTransferred());
+        downloadWastedBytes.inc(stats.getBytesWasted());
+        for (Map.Entry<String, Integer> entry : stats.getRetriesByClass().entrySet()) {
+            downloadRetries.inc(entry.getValue(), entry.getKey());
+        }
+        if (stats.getStorageWrites() > 0) {
+            storageWrite.observe(stats.getStorageWriteNanos() / (double) stats.getStorageWrites() / 1e9);
+        }
+    }
+    
+    public static void observeDbWrite(long startNanos) {
+        dbWrite.observe((System.nanoTime() - startNanos) / 1e9);
+    }
+    
+    public static void onImageCacheResult(String result) {
+        imageCache.inc(1, result);
+    }
+}
@@ -0,0 +1,98 @@
+package com.termux.metrics;
+
+/**
+ * Medições de uma chamada HTTP (todas as fases em milissegundos, -1 quando a fase não ocorreu)
+ */
+public class CallMetrics {
+    
+    private final String source;
+    private final String tag;
+    private final long startedAt;
+    
+    private String method;
+    private String host;
+    private String path;
+    private int statusCode = -1;
+    private String protocol;
+    private long dnsMs = -1;
+    private long connectMs = -1;
+    private long tlsMs = -1;
+    private long ttfbMs = -1;
+    private long transferMs = -1;
+    private long totalMs = -1;
+    private long bytesIn;
+    private long bytesOut;
+    private int hops;
+    private boolean connectionReused = true;
+    private String error;
+    
+    CallMetrics(String source, String tag, long startedAt) {
+        this.source = source;
+        this.tag = tag;
+        this.startedAt = startedAt;
+    }
+    
+    // Getters
+    public String getSource() { return source; }
+    public String getTag() { return tag; }
+    public long getStartedAt() { return startedAt; }
+    public String getMethod() { return method; }
+    public String getHost() { return host; }
+    public String getPath() { return path; }
+    public int getStatusCode() { return statusCode; }
+    public String getProtocol() { return protocol; }
+    public long getDnsMs() { return dnsMs; }
+    public long getConnectMs() { return connectMs; }
+    public long getTlsMs() { return tlsMs; }
+    public long getTtfbMs() { return ttfbMs; }
+    public long getTransferMs() { return transferMs; }
+    public long getTotalMs() { return totalMs; }
+    public long getBytesIn() { return bytesIn; }
+    public long getBytesOut() { return bytesOut; }
+    public int getHops() { return hops; }
+    public boolean isConnectionReused() { return connectionReused; }
+    public String getError() { return error; }
+    public boolean isFailed() { return error != null; }
+    
+    // Preenchidos pelo NetworkEventListener
+    void setMethod(String method) { this.method = method; }
+    void setHost(String host) { this.host = host; }
+    void setPath(String path) { this.path = path; }
+    void setStatusCode(int statusCode) { this.statusCode = statusCode; }
+    void setProtocol(String protocol) { this.protocol = protocol; }
+    void setTtfbMs(long ttfbMs) { this.ttfbMs = ttfbMs; }
+    void setTransferMs(long transferMs) { this.transferMs = transferMs; }
+    void setTotalMs(long totalMs) { this.totalMs = totalMs; }
+    void setConnectionReused(boolean connectionReused) { this.connectionReused = connectionReused; }
+    void setError(String error) { this.error = error; }
+    void addBytesIn(long bytes) { this.bytesIn += bytes; }
+    void addBytesOut(long bytes) { this.bytesOut += bytes; }
+    void incrementHops() { this.hops++; }
+    
+    // Redirects podem abrir novas conexões; as fases de conexão são somadas
+    void addDnsMs(long ms) { this.dnsMs = Math.max(dnsMs, 0) + ms; }
+    void addConnectMs(long ms) { this.connectMs = Math.max(connectMs, 0) + ms; }
+    void addTlsMs(long ms) { this.tlsMs = Math.max(tlsMs, 0) + ms; }
+    
+    @Override
+    public String toString() {
+        return "CallMetrics{" +
+                "source='" + source + '\'' +
+                (tag != null ? ", tag='" + tag + '\'' : "") +
+                ", " + method + " " + host + path +
+                ", status=" + statusCode +
+                ", protocol=" + protocol +
+                ", dns=" + dnsMs +
+                ", connect=" + connectMs +
+                ", tls=" + tlsMs +
+                ", ttfb=" + ttfbMs +
+                ", transfer=" + transferMs +
+                ", total=" + totalMs +
+                ", in=" + bytesIn +
+                ", out=" + bytesOut +
+                ", hops=" + hops +
+                ", reused=" + connectionReused +
+                (error != null ? ", error='" + error + '\'' : "") +
+                '}';
+    }
+}
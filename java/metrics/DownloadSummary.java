@@ -0,0 +1,124 @@
+package com.termux.metrics;
+
+import com.termux.engine.TransferStats;
+
+/**
+ * Linha de resumo de um download: rede (somada de todas as chamadas do job) e gravação no destino
+ */
+public class DownloadSummary {
+    
+    private final String key;
+    private final String title;
+    private final long finishedAt;
+    private final TransferStats stats;
+    
+    private int calls;
+    private int failedCalls;
+    private int reusedConnections;
+    private long dnsMs;
+    private long connectMs;
+    private long tlsMs;
+    private long ttfbMsTotal;
+    private long ttfbMsMax;
+    private int ttfbSamples;
+    private long transferMs;
+    private long bytesIn;
+    private String host;
+    
+    DownloadSummary(String key, String title, long finishedAt, TransferStats stats) {
+        this.key = key;
+        this.title = title;
+        this.finishedAt = finishedAt;
+        this.stats = stats;
+    }
+    
+    void add(CallMetrics call) {
+        calls++;
+        if (call.isFailed()) failedCalls++;
+        if (call.isConnectionReused()) reusedConnections++;
+        if (call.getDnsMs() > 0) dnsMs += call.getDnsMs();
+        if (call.getConnectMs() > 0) connectMs += call.getConnectMs();
+        if (call.getTlsMs() > 0) tlsMs += call.getTlsMs();
+        if (call.getTtfbMs() >= 0) {
+            ttfbMsTotal += call.getTtfbMs();
+            ttfbMsMax = Math.max(ttfbMsMax, call.getTtfbMs());
+            ttfbSamples++;
+        }
+        if (call.getTransferMs() > 0) transferMs += call.getTransferMs();
+        bytesIn += call.getBytesIn();
+        if (call.getHost() != null) host = call.getHost();
+    }
+    
+    void copyCallTotals(DownloadSummary running) {
+        // Copiar os acumuladores do registro em andamento
+        calls = running.calls;
+        failedCalls = running.failedCalls;
+        reusedConnections = running.reusedConnections;
+        dnsMs = running.dnsMs;
+        connectMs = running.connectMs;
+        tlsMs = running.tlsMs;
+        ttfbMsTotal = running.ttfbMsTotal;
+        ttfbMsMax = running.ttfbMsMax;
+        ttfbSamples = running.ttfbSamples;
+        transferMs = running.transferMs;
+        bytesIn = running.bytesIn;
+        host = running.host;
+    }
+    
+    // Getters
+    public String getKey() { return key; }
+    public String getTitle() { return title; }
+    public long getFinishedAt() { return finishedAt; }
+    public TransferStats getStats() { return stats; }
+    public int getCalls() { return calls; }
+    public int getFailedCalls() { return failedCalls; }
+    public int getReusedConnections() { return reusedConnections; }
+    public long getDnsMs() { return dnsMs; }
+    public long getConnectMs() { return connectMs; }
+    public long getTlsMs() { return tlsMs; }
+    public long getAverageTtfbMs() { return ttfbSamples > 0 ? ttfbMsTotal / ttfbSamples : -1; }
+    public long getMaxTtfbMs() { return ttfbMsMax; }
+    public long getTransferMs() { return transferMs; }
+    public long getBytesIn() { return bytesIn; }
+    public String getHost() { return host; }
+    
+    public long getStorageWriteMs() {
+        return stats != null ? stats.getStorageWriteNanos() / 1000000 : 0;
+    }
+    
+    public long getMaxStorageWriteMs() {
+        return stats != null ? stats.getMaxStorageWriteNanos() / 1000000 : 0;
+    }
+    
+    /**
+     * Fração do tempo de transferência gasta gravando no destino (SAF/arquivo)
+     */
+    public double getStorageShare() {
+        long elapsed = stats != null ? stats.getElapsedMs() : 0;
+        return elapsed > 0 ? (double) getStorageWriteMs() / elapsed : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "DownloadSummary{" +
+                "key='" + key + '\'' +
+                ", title='" + title + '\'' +
+                ", bytes=" + (stats != null ? stats.getBytesTransferred() : bytesIn) +
+                ", wasted=" + (stats != null ? stats.getBytesWasted() : 0) +
+                ", elapsedMs=" + (stats != null ? stats.getElapsedMs() : 0) +
+                ", avgSpeed=" + (stats != null ? stats.getAverageSpeed() : 0) +
+                ", retries=" + (stats != null ? stats.getRetries() : 0) +
+                ", calls=" + calls +
+                ", failedCalls=" + failedCalls +
+                ", reused=" + reusedConnections +
+                ", dnsMs=" + dnsMs +
+                ", connectMs=" + connectMs +
+                ", tlsMs=" + tlsMs +
+                ", ttfbAvgMs=" + getAverageTtfbMs() +
+                ", ttfbMaxMs=" + ttfbMsMax +
+                ", transferMs=" + transferMs +
+                ", storageWriteMs=" + getStorageWriteMs() +
+                ", storageWriteMaxMs=" + getMaxStorageWriteMs() +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.termux.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Corpo de resposta sendo lido agora; o HUD calcula a vazão por conexão pela diferença entre leituras
+ */
+public class LiveTransfer {
+    
+    private final long id;
+    private final String host;
+    private final String tag;
+    private final long startedAt;
+    private final AtomicLong bytes = new AtomicLong();
+    
+    LiveTransfer(long id, String host, String tag) {
+        this.id = id;
+        this.host = host;
+        this.tag = tag;
+        this.startedAt = System.currentTimeMillis();
+    }
+    
+    public void addBytes(long count) {
+        bytes.addAndGet(count);
+    }
+    
+    public long getId() { return id; }
+    public String getHost() { return host; }
+    public String getTag() { return tag; }
+    public long getStartedAt() { return startedAt; }
+    public long getBytes() { return bytes.get(); }
+}
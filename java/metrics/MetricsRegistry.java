@@ -0,0 +1,252 @@
+package com.termux.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de contadores, gauges e histogramas no formato de texto do Prometheus (0.0.4)
+ * Sem dependências de Android para poder ser usado pelo endpoint e pela exportação em arquivo
+ */
+public class MetricsRegistry {
+    
+    /**
+     * Valor lido na hora da coleta
+     */
+    public interface GaugeSource {
+        double value();
+    }
+    
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    
+    public Counter counter(String name, String help, String... labelNames) {
+        return (Counter) metrics.computeIfAbsent(name, n -> new Counter(n, help, labelNames));
+    }
+    
+    public Histogram histogram(String name, String help, double... buckets) {
+        return (Histogram) metrics.computeIfAbsent(name, n -> new Histogram(n, help, buckets));
+    }
+    
+    /**
+     * Registra (ou substitui) um gauge calculado na coleta
+     */
+    public void gauge(String name, String help, GaugeSource source) {
+        metrics.put(name, new Gauge(name, help, source));
+    }
+    
+    /**
+     * Valor atual de um gauge, ou NaN se não estiver registrado
+     */
+    public double gaugeValue(String name) {
+        Metric metric = metrics.get(name);
+        if (metric instanceof Gauge) {
+            try {
+                return ((Gauge) metric).source.value();
+            } catch (RuntimeException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+    
+    public void removeGauge(String name) {
+        Metric metric = metrics.get(name);
+        if (metric instanceof Gauge) {
+            metrics.remove(name, metric);
+        }
+    }
+    
+    /**
+     * Texto completo para o scrape
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics.values()) {
+            out.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+            out.append("# TYPE ").append(metric.name).append(' ').append(metric.type()).append('\n');
+            metric.write(out);
+        }
+        return out.toString();
+    }
+    
+    private abstract static class Metric {
+        final String name;
+        final String help;
+        
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+        
+        abstract String type();
+        
+        abstract void write(StringBuilder out);
+    }
+    
+    /**
+     * Contador monotônico, opcionalmente com labels
+     */
+    public static class Counter extends Metric {
+        
+        private final String[] labelNames;
+        private final Map<List<String>, DoubleAdder> values = new ConcurrentHashMap<>();
+        
+        Counter(String name, String help, String[] labelNames) {
+            super(name, help);
+            this.labelNames = labelNames;
+        }
+        
+        public void inc() {
+            inc(1);
+        }
+        
+        public void inc(double amount, String... labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " espera " + labelNames.length + " labels");
+            }
+            if (amount < 0) {
+                return;
+            }
+            values.computeIfAbsent(Collections.unmodifiableList(Arrays.asList(labelValues)),
+                    k -> new DoubleAdder()).add(amount);
+        }
+        
+        public double get(String... labelValues) {
+            DoubleAdder adder = values.get(Arrays.asList(labelValues));
+            return adder != null ? adder.sum() : 0;
+        }
+        
+        @Override
+        String type() {
+            return "counter";
+        }
+        
+        @Override
+        void write(StringBuilder out) {
+            List<Map.Entry<List<String>, DoubleAdder>> entries = new ArrayList<>(values.entrySet());
+            Collections.sort(entries, (a, b) -> a.getKey().toString().compareTo(b.getKey().toString()));
+            for (Map.Entry<List<String>, DoubleAdder> entry : entries) {
+                out.append(name);
+                appendLabels(out, labelNames, entry.getKey());
+                out.append(' ').append(format(entry.getValue().sum())).append('\n');
+            }
+        }
+    }
+    
+    /**
+     * Histograma com buckets fixos (limites superiores, em ordem crescente)
+     */
+    public static class Histogram extends Metric {
+        
+        private final double[] buckets;
+        private final LongAdder[] bucketCounts;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+        
+        Histogram(String name, String help, double[] buckets) {
+            super(name, help);
+            this.buckets = buckets.clone();
+            Arrays.sort(this.buckets);
+            this.bucketCounts = new LongAdder[this.buckets.length];
+            for (int i = 0; i < bucketCounts.length; i++) {
+                bucketCounts[i] = new LongAdder();
+            }
+        }
+        
+        public void observe(double value) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (value <= buckets[i]) {
+                    bucketCounts[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+        
+        public long getCount() {
+            return count.sum();
+        }
+        
+        public double getSum() {
+            return sum.sum();
+        }
+        
+        @Override
+        String type() {
+            return "histogram";
+        }
+        
+        @Override
+        void write(StringBuilder out) {
+            // Buckets do Prometheus são cumulativos
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += bucketCounts[i].sum();
+                out.append(name).append("_bucket{le=\"").append(format(buckets[i])).append("\"} ")
+                   .append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(count.sum()).append('\n');
+            out.append(name).append("_sum ").append(format(sum.sum())).append('\n');
+            out.append(name).append("_count ").append(count.sum()).append('\n');
+        }
+    }
+    
+    private static class Gauge extends Metric {
+        
+        private final GaugeSource source;
+        
+        Gauge(String name, String help, GaugeSource source) {
+            super(name, help);
+            this.source = source;
+        }
+        
+        @Override
+        String type() {
+            return "gauge";
+        }
+        
+        @Override
+        void write(StringBuilder out) {
+            double value;
+            try {
+                value = source.value();
+            } catch (RuntimeException e) {
+                return;
+            }
+            out.append(name).append(' ').append(format(value)).append('\n');
+        }
+    }
+    
+    private static void appendLabels(StringBuilder out, String[] names, List<String> values) {
+        if (names.length == 0) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) out.append(',');
+            out.append(names[i]).append("=\"").append(escape(values.get(i))).append('"');
+        }
+        out.append('}');
+    }
+    
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,129 @@
+package com.termux.metrics;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Servidor HTTP mínimo que expõe GET /metrics para scrapers na rede local
+ * Atende uma conexão por vez; o scrape é pequeno e raro (a cada 15-60s)
+ */
+public class MetricsServer {
+    
+    private static final String TAG = "MetricsServer";
+    private static final int SOCKET_TIMEOUT_MS = 5000;
+    
+    private final MetricsRegistry registry;
+    private final int port;
+    private ServerSocket serverSocket;
+    private Thread thread;
+    
+    public MetricsServer(MetricsRegistry registry, int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+    
+    public synchronized void start() throws IOException {
+        if (serverSocket != null) {
+            return;
+        }
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port));
+        
+        final ServerSocket socket = serverSocket;
+        thread = new Thread(() -> acceptLoop(socket), "metrics-server");
+        thread.setDaemon(true);
+        thread.start();
+        Log.i(TAG, "Metrics endpoint listening on port " + getPort());
+    }
+    
+    public synchronized void stop() {
+        if (serverSocket == null) {
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        serverSocket = null;
+        thread = null;
+    }
+    
+    public synchronized boolean isRunning() {
+        return serverSocket != null && !serverSocket.isClosed();
+    }
+    
+    /**
+     * Porta efetivamente usada (útil com porta 0)
+     */
+    public synchronized int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : port;
+    }
+    
+    private void acceptLoop(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try (Socket client = socket.accept()) {
+                client.setSoTimeout(SOCKET_TIMEOUT_MS);
+                handle(client);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    Log.d(TAG, "Metrics request failed", e);
+                }
+            }
+        }
+    }
+    
+    private void handle(Socket client) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+        String requestLine = reader.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        // Consumir os headers
+        String line;
+        while ((line = reader.readLine()) != null && !line.isEmpty()) {
+            // ignorado
+        }
+        
+        String[] parts = requestLine.split(" ");
+        String method = parts.length > 0 ? parts[0] : "";
+        String path = parts.length > 1 ? parts[1] : "";
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            respond(client, "405 Method Not Allowed", "text/plain", "method not allowed\n", true);
+        } else if ("/metrics".equals(path)) {
+            respond(client, "200 OK", "text/plain; version=0.0.4; charset=utf-8",
+                    registry.scrape(), "GET".equals(method));
+        } else {
+            respond(client, "404 Not Found", "text/plain", "not found\n", true);
+        }
+    }
+    
+    private static void respond(Socket client, String status, String contentType,
+                                String body, boolean includeBody) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String headers = "HTTP/1.1 " + status + "\r\n" +
+                "Content-Type: " + contentType + "\r\n" +
+                "Content-Length: " + bytes.length + "\r\n" +
+                "Connection: close\r\n\r\n";
+        OutputStream out = client.getOutputStream();
+        out.write(headers.getBytes(StandardCharsets.US_ASCII));
+        if (includeBody) {
+            out.write(bytes);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,168 @@
+package com.termux.metrics;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * EventListener do OkHttp que mede as fases de cada chamada e grava o resultado no NetworkMetrics
+ * Uma instância por chamada (ver {@link #factory(String)}), então não precisa de sincronização
+ */
+public class NetworkEventListener extends EventListener {
+    
+    private final NetworkMetrics metrics;
+    private final CallMetrics callMetrics;
+    private final long callStart;
+    
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestSent;
+    private long responseBodyStart;
+    private boolean connectStarted;
+    
+    /**
+     * Fábrica para OkHttpClient.Builder.eventListenerFactory
+     * @param source Nome do cliente nas métricas ("download", "library"...)
+     */
+    public static EventListener.Factory factory(String source) {
+        return call -> new NetworkEventListener(NetworkMetrics.getInstance(), source, call);
+    }
+    
+    private NetworkEventListener(NetworkMetrics metrics, String source, Call call) {
+        this.metrics = metrics;
+        this.callStart = System.nanoTime();
+        this.callMetrics = new CallMetrics(source, call.request().tag(String.class), System.currentTimeMillis());
+        describe(call.request());
+    }
+    
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+    
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        callMetrics.addDnsMs(elapsedMs(dnsStart));
+    }
+    
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+        connectStarted = true;
+    }
+    
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+    
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        callMetrics.addTlsMs(elapsedMs(secureConnectStart));
+    }
+    
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        callMetrics.addConnectMs(elapsedMs(connectStart));
+    }
+    
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        callMetrics.addConnectMs(elapsedMs(connectStart));
+    }
+    
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        // Conexão do pool: não houve connectStart nesta chamada
+        callMetrics.setConnectionReused(!connectStarted);
+        callMetrics.setProtocol(connection.protocol().toString());
+    }
+    
+    @Override
+    public void requestHeadersStart(Call call) {
+        // Cada salto de redirect envia os headers de novo
+        callMetrics.incrementHops();
+    }
+    
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSent = System.nanoTime();
+        describe(request);
+    }
+    
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSent = System.nanoTime();
+        callMetrics.addBytesOut(byteCount);
+    }
+    
+    @Override
+    public void responseHeadersStart(Call call) {
+        callMetrics.setTtfbMs(elapsedMs(requestSent));
+    }
+    
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        callMetrics.setStatusCode(response.code());
+        callMetrics.setProtocol(response.protocol().toString());
+    }
+    
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+    
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        callMetrics.setTransferMs(elapsedMs(responseBodyStart));
+        callMetrics.addBytesIn(byteCount);
+    }
+    
+    @Override
+    public void callEnd(Call call) {
+        finish();
+    }
+    
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        callMetrics.setError(ioe.getClass().getSimpleName() + ": " + ioe.getMessage());
+        finish();
+    }
+    
+    @Override
+    public void canceled(Call call) {
+        if (callMetrics.getError() == null) {
+            callMetrics.setError("canceled");
+        }
+    }
+    
+    private void describe(Request request) {
+        // Sem query string: as URLs do CDN carregam tokens
+        HttpUrl url = request.url();
+        callMetrics.setMethod(request.method());
+        callMetrics.setHost(url.host());
+        callMetrics.setPath(url.encodedPath());
+    }
+    
+    private void finish() {
+        callMetrics.setTotalMs(elapsedMs(callStart));
+        metrics.recordCall(callMetrics);
+    }
+    
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000000;
+    }
+}
@@ -0,0 +1,142 @@
+package com.termux.metrics;
+
+import android.util.Log;
+
+import com.termux.engine.TransferStats;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro em memória das métricas de rede e de download
+ * Guarda as últimas chamadas HTTP e os últimos resumos de download em buffers circulares limitados
+ */
+public class NetworkMetrics {
+    
+    private static final String TAG = "NetworkMetrics";
+    private static final int MAX_CALLS = 256;
+    private static final int MAX_DOWNLOADS = 64;
+    
+    private static NetworkMetrics instance;
+    
+    private final ArrayDeque<CallMetrics> recentCalls = new ArrayDeque<>(MAX_CALLS);
+    private final ArrayDeque<DownloadSummary> recentDownloads = new ArrayDeque<>(MAX_DOWNLOADS);
+    private final Map<String, DownloadSummary> runningDownloads = new ConcurrentHashMap<>();
+    private final Map<Long, LiveTransfer> liveTransfers = new ConcurrentHashMap<>();
+    private final AtomicLong nextTransferId = new AtomicLong();
+    
+    private NetworkMetrics() {
+    }
+    
+    public static synchronized NetworkMetrics getInstance() {
+        if (instance == null) {
+            instance = new NetworkMetrics();
+        }
+        return instance;
+    }
+    
+    /**
+     * Chamado pelo NetworkEventListener ao fim de cada chamada
+     */
+    void recordCall(CallMetrics call) {
+        synchronized (recentCalls) {
+            if (recentCalls.size() == MAX_CALLS) {
+                recentCalls.removeFirst();
+            }
+            recentCalls.addLast(call);
+        }
+        AppMetrics.onCall(call);
+        
+        String tag = call.getTag();
+        if (tag != null) {
+            DownloadSummary running = runningDownloads.get(tag);
+            if (running != null) {
+                synchronized (running) {
+                    running.add(call);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Começa a acumular as chamadas marcadas com a chave do job
+     */
+    public void beginDownload(String key) {
+        runningDownloads.put(key, new DownloadSummary(key, null, 0, null));
+    }
+    
+    /**
+     * Fecha o resumo do download, guarda no buffer e registra no log
+     */
+    public DownloadSummary endDownload(String key, String title, TransferStats stats) {
+        DownloadSummary running = runningDownloads.remove(key);
+        DownloadSummary summary = new DownloadSummary(key, title, System.currentTimeMillis(), stats);
+        if (running != null) {
+            synchronized (running) {
+                summary.copyCallTotals(running);
+            }
+        }
+        
+        synchronized (recentDownloads) {
+            if (recentDownloads.size() == MAX_DOWNLOADS) {
+                recentDownloads.removeFirst();
+            }
+            recentDownloads.addLast(summary);
+        }
+        
+        AppMetrics.onDownloadFinished(stats);
+        Log.d(TAG, summary.toString());
+        return summary;
+    }
+    
+    /**
+     * Registra um corpo de resposta em leitura; fechar com {@link #closeTransfer}
+     */
+    public LiveTransfer openTransfer(String host, String tag) {
+        LiveTransfer transfer = new LiveTransfer(nextTransferId.incrementAndGet(), host, tag);
+        liveTransfers.put(transfer.getId(), transfer);
+        return transfer;
+    }
+    
+    public void closeTransfer(LiveTransfer transfer) {
+        liveTransfers.remove(transfer.getId());
+    }
+    
+    /**
+     * Conexões transferindo dados agora
+     */
+    public List<LiveTransfer> getLiveTransfers() {
+        return new ArrayList<>(liveTransfers.values());
+    }
+    
+    /**
+     * Cópia das últimas chamadas, da mais antiga para a mais recente
+     */
+    public List<CallMetrics> getRecentCalls() {
+        synchronized (recentCalls) {
+            return new ArrayList<>(recentCalls);
+        }
+    }
+    
+    /**
+     * Cópia dos últimos resumos de download, do mais antigo para o mais recente
+     */
+    public List<DownloadSummary> getRecentDownloads() {
+        synchronized (recentDownloads) {
+            return new ArrayList<>(recentDownloads);
+        }
+    }
+    
+    public void clear() {
+        synchronized (recentCalls) {
+            recentCalls.clear();
+        }
+        synchronized (recentDownloads) {
+            recentDownloads.clear();
+        }
+    }
+}
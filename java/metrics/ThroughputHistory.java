@@ -0,0 +1,195 @@
+package com.termux.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Série temporal da vazão de um download: amostras de 1s agregadas em baldes de 1 minuto
+ * Os baldes fechados são gravados pelo DownloadService; as amostras alimentam p5/p95 do relatório final
+ */
+public class ThroughputHistory {
+    
+    static final long SAMPLE_INTERVAL_MS = 1000;
+    static final long BUCKET_MS = 60000;
+    // Reservatório limitado: downloads de horas não crescem a memória sem limite
+    private static final int MAX_RESERVOIR = 4096;
+    
+    /**
+     * Um minuto de vazão já agregado
+     */
+    public static class Bucket {
+        private final long minuteStart;
+        private final long bytes;
+        private final int samples;
+        private final double avgSpeed;
+        private final double minSpeed;
+        private final double maxSpeed;
+        
+        Bucket(long minuteStart, long bytes, int samples, double avgSpeed, double minSpeed, double maxSpeed) {
+            this.minuteStart = minuteStart;
+            this.bytes = bytes;
+            this.samples = samples;
+            this.avgSpeed = avgSpeed;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+        }
+        
+        public long getMinuteStart() { return minuteStart; }
+        public long getBytes() { return bytes; }
+        public int getSamples() { return samples; }
+        public double getAvgSpeed() { return avgSpeed; }
+        public double getMinSpeed() { return minSpeed; }
+        public double getMaxSpeed() { return maxSpeed; }
+    }
+    
+    private final String key;
+    private final long startedAt;
+    private final List<Bucket> closedBuckets = new ArrayList<>();
+    private final double[] reservoir = new double[MAX_RESERVOIR];
+    private final Random random = new Random();
+    
+    private long lastSampleAt = -1;
+    private long lastBytes;
+    private long totalBytes;
+    private long samplesSeen;
+    private int reservoirSize;
+    
+    // Balde aberto
+    private long bucketStart = -1;
+    private long bucketBytes;
+    private int bucketSamples;
+    private double bucketSpeedSum;
+    private double bucketMin;
+    private double bucketMax;
+    
+    public ThroughputHistory(String key) {
+        this.key = key;
+        this.startedAt = System.currentTimeMillis();
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public long getStartedAt() {
+        return startedAt;
+    }
+    
+    /**
+     * Recebe o total baixado até agora; amostra no máximo uma vez por segundo
+     * @return true se um balde de minuto foi fechado e pode ser gravado
+     */
+    public synchronized boolean sample(long bytesSoFar) {
+        return sample(bytesSoFar, System.currentTimeMillis());
+    }
+    
+    synchronized boolean sample(long bytesSoFar, long now) {
+        if (lastSampleAt < 0) {
+            // Primeira chamada só marca a base (pode ser um resume)
+            lastSampleAt = now;
+            lastBytes = bytesSoFar;
+            return false;
+        }
+        long elapsed = now - lastSampleAt;
+        if (elapsed < SAMPLE_INTERVAL_MS) {
+            return false;
+        }
+        
+        long delta = Math.max(0, bytesSoFar - lastBytes);
+        double speed = delta * 1000.0 / elapsed;
+        lastSampleAt = now;
+        lastBytes = bytesSoFar;
+        totalBytes += delta;
+        
+        addToReservoir(speed);
+        return addToBucket(now, delta, speed);
+    }
+    
+    /**
+     * Baldes fechados desde a última chamada
+     */
+    public synchronized List<Bucket> drainClosedBuckets() {
+        List<Bucket> drained = new ArrayList<>(closedBuckets);
+        closedBuckets.clear();
+        return drained;
+    }
+    
+    /**
+     * Fecha o balde parcial e devolve tudo o que ainda não foi gravado
+     */
+    public synchronized List<Bucket> finish() {
+        closeBucket();
+        return drainClosedBuckets();
+    }
+    
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    /**
+     * Velocidade média da sessão em bytes por segundo
+     */
+    public synchronized double getAverageSpeed() {
+        long elapsed = (lastSampleAt > 0 ? lastSampleAt : System.currentTimeMillis()) - startedAt;
+        return elapsed > 0 ? totalBytes * 1000.0 / elapsed : 0;
+    }
+    
+    /**
+     * Percentil (0-100) das amostras de 1s; 0 se não houve amostras
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (reservoirSize == 0) {
+            return 0;
+        }
+        double[] sorted = Arrays.copyOf(reservoir, reservoirSize);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+    
+    private void addToReservoir(double speed) {
+        samplesSeen++;
+        if (reservoirSize < MAX_RESERVOIR) {
+            reservoir[reservoirSize++] = speed;
+        } else {
+            long slot = (long) (random.nextDouble() * samplesSeen);
+            if (slot < MAX_RESERVOIR) {
+                reservoir[(int) slot] = speed;
+            }
+        }
+    }
+    
+    private boolean addToBucket(long now, long delta, double speed) {
+        long minute = now - (now % BUCKET_MS);
+        boolean closed = false;
+        if (bucketStart >= 0 && minute != bucketStart) {
+            closeBucket();
+            closed = true;
+        }
+        if (bucketStart < 0) {
+            bucketStart = minute;
+            bucketMin = speed;
+            bucketMax = speed;
+        }
+        bucketBytes += delta;
+        bucketSamples++;
+        bucketSpeedSum += speed;
+        bucketMin = Math.min(bucketMin, speed);
+        bucketMax = Math.max(bucketMax, speed);
+        return closed;
+    }
+    
+    private void closeBucket() {
+        if (bucketStart < 0 || bucketSamples == 0) {
+            return;
+        }
+        closedBuckets.add(new Bucket(bucketStart, bucketBytes, bucketSamples,
+                bucketSpeedSum / bucketSamples, bucketMin, bucketMax));
+        bucketStart = -1;
+        bucketBytes = 0;
+        bucketSamples = 0;
+        bucketSpeedSum = 0;
+    }
+}
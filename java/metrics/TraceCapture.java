@@ -0,0 +1,69 @@
+package com.termux.metrics;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.termux.engine.ChromeTraceRecorder;
+import com.termux.engine.Tracing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Gravação de trace sob demanda, exportada em JSON do Chrome (abre no ui.perfetto.dev)
+ */
+public final class TraceCapture {
+    
+    private static final String TAG = "TraceCapture";
+    
+    // ~200k seções; cerca de 8MB entre os arrays do buffer
+    private static final int BUFFER_EVENTS = 200_000;
+    
+    private TraceCapture() {
+    }
+    
+    public static void start() {
+        if (!Tracing.isRecording()) {
+            Tracing.startRecording(BUFFER_EVENTS);
+            Log.d(TAG, "Trace recording started");
+        }
+    }
+    
+    /**
+     * Para a gravação e grava o arquivo; retorna null se não havia gravação ou se falhou
+     */
+    public static File stopAndExport(Context context) {
+        ChromeTraceRecorder recorder = Tracing.stopRecording();
+        if (recorder == null) {
+            return null;
+        }
+        
+        File dir = context.getExternalFilesDir("traces");
+        if (dir == null) {
+            dir = new File(context.getFilesDir(), "traces");
+        }
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "trace-" + stamp + ".json");
+        
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            recorder.writeJson(out);
+            Log.d(TAG, "Trace exported: " + file.getAbsolutePath() + " (" + recorder.size() + " events, "
+                    + recorder.getRecordedCount() + " recorded)");
+            return file;
+        } catch (IOException e) {
+            Log.e(TAG, "Error exporting trace", e);
+            return null;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.termux.models;
 
+import android.util.JsonReader;
+
+import com.termux.utils.JsonStreams;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
 
@@ -57,44 +62,95 @@ public class DownloadLink implements Serializable {
         link.checksum = json.optString("checksum", "");
         link.version = json.optString("version", "");
         
-        // Determinar tipo de arquivo
-        String typeName = json.optString("type", "installer").toLowerCase();
-        switch (typeName) {
+        link.type = parseType(json.optString("type", "installer"));
+        link.platform = parsePlatform(json.optString("os", "windows"));
+        
+        // Idioma
+        link.language = json.optString("language", "en");
+        
+        return link;
+    }
+    
+    /**
+     * Mesmo resultado de {@link #fromJson(JSONObject)}, lendo um arquivo direto do stream
+     */
+    public static DownloadLink fromJsonReader(JsonReader reader) throws IOException {
+        DownloadLink link = new DownloadLink();
+        link.id = "";
+        link.name = "";
+        link.url = "";
+        link.checksum = "";
+        link.version = "";
+        link.language = "en";
+        String typeName = "installer";
+        String osName = "windows";
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    link.id = JsonStreams.nextString(reader, "");
+                    break;
+                case "name":
+                    link.name = JsonStreams.nextString(reader, "");
+                    break;
+                case "downlink":
+                    link.url = JsonStreams.nextString(reader, "");
+                    break;
+                case "size":
+                    link.size = JsonStreams.nextLong(reader, 0);
+                    break;
+                case "checksum":
+                    link.checksum = JsonStreams.nextString(reader, "");
+                    break;
+                case "version":
+                    link.version = JsonStreams.nextString(reader, "");
+                    break;
+                case "type":
+                    typeName = JsonStreams.nextString(reader, "installer");
+                    break;
+                case "os":
+                    osName = JsonStreams.nextString(reader, "windows");
+                    break;
+                case "language":
+                    link.language = JsonStreams.nextString(reader, "en");
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        
+        link.type = parseType(typeName);
+        link.platform = parsePlatform(osName);
+        return link;
+    }
+    
+    public static FileType parseType(String typeName) {
+        switch (typeName.toLowerCase()) {
             case "patch":
-                link.type = FileType.PATCH;
-                break;
+                return FileType.PATCH;
             case "extra":
-                link.type = FileType.EXTRA;
-                break;
+                return FileType.EXTRA;
             case "dlc":
-                link.type = FileType.DLC;
-                break;
+                return FileType.DLC;
             case "language_pack":
-                link.type = FileType.LANGUAGE_PACK;
-                break;
+                return FileType.LANGUAGE_PACK;
             default:
-                link.type = FileType.INSTALLER;
-                break;
+                return FileType.INSTALLER;
         }
-        
-        // Determinar plataforma
-        String osName = json.optString("os", "windows").toLowerCase();
-        switch (osName) {
+    }
+    
+    public static Platform parsePlatform(String osName) {
+        switch (osName.toLowerCase()) {
             case "mac":
-                link.platform = Platform.MAC;
-                break;
+                return Platform.MAC;
             case "linux":
-                link.platform = Platform.LINUX;
-                break;
+                return Platform.LINUX;
             default:
-                link.platform = Platform.WINDOWS;
-                break;
+                return Platform.WINDOWS;
         }
-        
-        // Idioma
-        link.language = json.optString("language", "en");
-        
-        return link;
     }
     
     // Converter para JSON para salvar no banco
@@ -116,6 +172,36 @@ public class DownloadLink implements Serializable {
         return json;
     }
     
+    /**
+     * Lê de volta o formato gravado por {@link #toJson()}, com tipo e plataforma pelo nome do enum
+     */
+    public static DownloadLink fromStoredJson(JSONObject json) throws JSONException {
+        DownloadLink link = new DownloadLink();
+        
+        link.id = json.optString("id", "");
+        link.name = json.optString("name", "");
+        link.url = json.optString("url", "");
+        link.downloadUrl = json.isNull("downloadUrl") ? null : json.optString("downloadUrl", null);
+        link.size = json.optLong("size", 0);
+        link.checksum = json.optString("checksum", "");
+        link.language = json.optString("language", "en");
+        link.version = json.optString("version", "");
+        link.isAvailable = json.optBoolean("isAvailable", true);
+        
+        try {
+            link.type = FileType.valueOf(json.optString("type", FileType.INSTALLER.name()));
+        } catch (IllegalArgumentException e) {
+            link.type = FileType.INSTALLER;
+        }
+        try {
+            link.platform = Platform.valueOf(json.optString("platform", Platform.WINDOWS.name()));
+        } catch (IllegalArgumentException e) {
+            link.platform = Platform.WINDOWS;
+        }
+        
+        return link;
+    }
+    
     // Getters e Setters
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
@@ -248,6 +334,37 @@ public class DownloadLink implements Serializable {
         }
     }
 
+    /**
+     * Serializa a lista completa (tipo, plataforma, idioma), para o cache de detalhes
+     */
+    public static String serializeFullList(java.util.List<DownloadLink> links) {
+        try {
+            org.json.JSONArray jsonArray = new org.json.JSONArray();
+            for (DownloadLink link : links) {
+                jsonArray.put(link.toJson());
+            }
+            return jsonArray.toString();
+        } catch (org.json.JSONException e) {
+            return null;
+        }
+    }
+    
+    public static java.util.List<DownloadLink> deserializeFullList(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            java.util.List<DownloadLink> links = new java.util.ArrayList<>();
+            org.json.JSONArray jsonArray = new org.json.JSONArray(json);
+            for (int i = 0; i < jsonArray.length(); i++) {
+                links.add(fromStoredJson(jsonArray.getJSONObject(i)));
+            }
+            return links;
+        } catch (org.json.JSONException e) {
+            return null;
+        }
+    }
+    
     public static java.util.List<DownloadLink> deserializeList(String json) {
         if (json == null || json.isEmpty()) {
             return null;
@@ -1,11 +1,16 @@
 package com.termux.models;
 
+import android.util.JsonReader;
+import android.util.JsonToken;
 import android.util.Log;
 
+import com.termux.utils.JsonStreams;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -98,25 +103,8 @@ public class Game implements Serializable {
         // As imagens corretas vêm dos detalhes do jogo via loadGameDetails()
         
         // Garantir que URLs de imagem tenham protocolo
-        if (game.coverImage != null && !game.coverImage.isEmpty()) {
-            String originalCoverImage = game.coverImage;
-            if (game.coverImage.startsWith("//")) {
-                game.coverImage = "https:" + game.coverImage;
-            } else if (!game.coverImage.startsWith("http")) {
-                game.coverImage = "https://" + game.coverImage;
-            }
-            Log.d("Game", "Cover image: '" + originalCoverImage + "' -> '" + game.coverImage + "'");
-        }
-        
-        if (game.backgroundImage != null && !game.backgroundImage.isEmpty()) {
-            String originalBackgroundImage = game.backgroundImage;
-            if (game.backgroundImage.startsWith("//")) {
-                game.backgroundImage = "https:" + game.backgroundImage;
-            } else if (!game.backgroundImage.startsWith("http")) {
-                game.backgroundImage = "https://" + game.backgroundImage;
-            }
-            Log.d("Game", "Background image: '" + originalBackgroundImage + "' -> '" + game.backgroundImage + "'");
-        }
+        game.coverImage = withProtocol(game.coverImage, "Cover");
+        game.backgroundImage = withProtocol(game.backgroundImage, "Background");
         
         // Descrição
         game.description = json.optString("description", "");
@@ -194,6 +182,248 @@ public class Game implements Serializable {
         return game;
     }
     
+    /**
+     * Mesmo resultado de {@link #fromJson(JSONObject)}, lendo o produto direto do stream
+     * Campos não usados são pulados sem serem materializados
+     */
+    public static Game fromJsonReader(JsonReader reader) throws IOException, JSONException {
+        return fromJsonReader(reader, null);
+    }
+    
+    /**
+     * @param extraFields recebe os campos que o Game não usa (ex.: "downloads" nos detalhes), ou null
+     */
+    public static Game fromJsonReader(JsonReader reader, JsonStreams.FieldReader extraFields) throws IOException, JSONException {
+        Game game = new Game();
+        boolean hasId = false;
+        String title = null;
+        String slug = null;
+        String description = "";
+        String summary = "";
+        String baseImage = "";
+        String releaseDate = "";
+        String developer = null;
+        String publisher = null;
+        String firstDeveloper = null;
+        String firstPublisher = null;
+        String[] images = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "id":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.skipValue();
+                    } else {
+                        game.id = JsonStreams.nextLong(reader, 0);
+                        hasId = true;
+                    }
+                    break;
+                case "title":
+                    title = JsonStreams.nextString(reader, null);
+                    break;
+                case "slug":
+                    slug = JsonStreams.nextString(reader, null);
+                    break;
+                case "images":
+                    images = readImages(reader);
+                    break;
+                case "image":
+                    baseImage = JsonStreams.nextString(reader, "");
+                    break;
+                case "description":
+                    description = readDescription(reader);
+                    break;
+                case "summary":
+                    summary = JsonStreams.nextString(reader, "");
+                    break;
+                case "releaseDate":
+                    releaseDate = readNamedValue(reader, "date");
+                    break;
+                case "genres":
+                    if (JsonStreams.beginArrayOrSkip(reader)) {
+                        while (reader.hasNext()) {
+                            String genreName = readNamedValue(reader, "name");
+                            if (!genreName.isEmpty()) {
+                                game.genres.add(genreName);
+                            }
+                        }
+                        reader.endArray();
+                    }
+                    break;
+                case "developers":
+                    firstDeveloper = readFirstName(reader);
+                    break;
+                case "developer":
+                    developer = JsonStreams.nextString(reader, "");
+                    break;
+                case "publishers":
+                    firstPublisher = readFirstName(reader);
+                    break;
+                case "publisher":
+                    publisher = JsonStreams.nextString(reader, "");
+                    break;
+                default:
+                    if (extraFields == null || !extraFields.readField(name, reader)) {
+                        reader.skipValue();
+                    }
+                    break;
+            }
+        }
+        reader.endObject();
+        
+        if (!hasId) {
+            throw new JSONException("JSONObject[\"id\"] not found.");
+        }
+        game.title = title != null ? title : "Jogo ID: " + game.id;
+        game.slug = slug != null ? slug : "game-" + game.id;
+        
+        if (images != null) {
+            // Mesma ordem de preferência do fromJson: logo2x, logo, sidebarIcon2x, sidebarIcon, icon
+            game.coverImage = "";
+            for (int i = 0; i < 5 && game.coverImage.isEmpty(); i++) {
+                game.coverImage = images[i] != null ? images[i] : "";
+            }
+            game.backgroundImage = images[5] != null ? images[5] : "";
+        } else if (!baseImage.isEmpty()) {
+            game.coverImage = baseImage + "_product_tile_398.jpg";
+        }
+        game.coverImage = withProtocol(game.coverImage, "Cover");
+        game.backgroundImage = withProtocol(game.backgroundImage, "Background");
+        
+        game.description = description.isEmpty() ? summary : description;
+        game.releaseDate = releaseDate;
+        // Lista não vazia de desenvolvedores/publishers tem precedência sobre o campo simples
+        game.developer = firstDeveloper != null ? firstDeveloper : (developer != null ? developer : "");
+        game.publisher = firstPublisher != null ? firstPublisher : (publisher != null ? publisher : "");
+        
+        return game;
+    }
+    
+    private static final String[] IMAGE_KEYS = {
+            "logo2x", "logo", "sidebarIcon2x", "sidebarIcon", "icon", "background"
+    };
+    
+    private static String[] readImages(JsonReader reader) throws IOException {
+        if (!JsonStreams.beginObjectOrSkip(reader)) {
+            return null;
+        }
+        String[] images = new String[IMAGE_KEYS.length];
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            int index = -1;
+            for (int i = 0; i < IMAGE_KEYS.length; i++) {
+                if (IMAGE_KEYS[i].equals(name)) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index >= 0) {
+                images[index] = JsonStreams.nextString(reader, "");
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return images;
+    }
+    
+    /**
+     * Valor que pode vir como texto ou como objeto com o texto em {@code key} (ex.: {"name": "RPG"})
+     */
+    private static String readNamedValue(JsonReader reader, String key) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return JsonStreams.nextString(reader, "");
+        }
+        String value = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (key.equals(reader.nextName())) {
+                value = JsonStreams.nextString(reader, "");
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+    
+    /**
+     * Primeiro item de "developers"/"publishers"; null se a lista estiver vazia ou ausente
+     */
+    private static String readFirstName(JsonReader reader) throws IOException {
+        if (!JsonStreams.beginArrayOrSkip(reader)) {
+            return null;
+        }
+        String first = null;
+        while (reader.hasNext()) {
+            if (first == null) {
+                first = readNamedValue(reader, "name");
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return first;
+    }
+    
+    /**
+     * Biblioteca manda texto; detalhes do produto mandam {"lead": ..., "full": ...}
+     */
+    private static String readDescription(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return JsonStreams.nextString(reader, "");
+        }
+        String full = "";
+        String lead = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("full".equals(name)) {
+                full = JsonStreams.nextString(reader, "");
+            } else if ("lead".equals(name)) {
+                lead = JsonStreams.nextString(reader, "");
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return full.isEmpty() ? lead : full;
+    }
+    
+    /**
+     * Troca a arte da API de produtos pela da página da biblioteca: o logo ({hash}_glx_logo[_2x])
+     * vira o tile {hash}_product_tile_398 e o fundo fica vazio, como nos jogos vindos da biblioteca
+     * @return false se a capa não segue esse formato e ficou como estava
+     */
+    public boolean useLibraryArt() {
+        if (coverImage == null) {
+            return false;
+        }
+        int suffix = coverImage.lastIndexOf("_glx_logo");
+        if (suffix <= coverImage.lastIndexOf('/') + 1) {
+            return false;
+        }
+        coverImage = coverImage.substring(0, suffix) + "_product_tile_398.jpg";
+        backgroundImage = null;
+        return true;
+    }
+    
+    private static String withProtocol(String imageUrl, String label) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return imageUrl;
+        }
+        String normalized = imageUrl;
+        if (normalized.startsWith("//")) {
+            normalized = "https:" + normalized;
+        } else if (!normalized.startsWith("http")) {
+            normalized = "https://" + normalized;
+        }
+        Log.d("Game", label + " image: '" + imageUrl + "' -> '" + normalized + "'");
+        return normalized;
+    }
+    
     // Converter para JSON para salvar no banco
     public JSONObject toJson() throws JSONException {
         JSONObject json = new JSONObject();
@@ -222,6 +452,33 @@ public class Game implements Serializable {
         return json;
     }
     
+    /**
+     * Lê de volta o formato gravado por {@link #toJson()} (cache local, não a resposta da API)
+     */
+    public static Game fromStoredJson(JSONObject json) throws JSONException {
+        Game game = new Game();
+        
+        game.id = json.getLong("id");
+        game.title = json.optString("title", "Jogo ID: " + game.id);
+        game.slug = json.optString("slug", "game-" + game.id);
+        game.coverImage = json.optString("coverImage", "");
+        game.backgroundImage = json.optString("backgroundImage", "");
+        game.description = json.optString("description", "");
+        game.totalSize = json.optLong("totalSize", 0);
+        game.releaseDate = json.optString("releaseDate", "");
+        game.developer = json.optString("developer", "");
+        game.publisher = json.optString("publisher", "");
+        
+        JSONArray genresArray = json.optJSONArray("genres");
+        if (genresArray != null) {
+            for (int i = 0; i < genresArray.length(); i++) {
+                game.genres.add(genresArray.getString(i));
+            }
+        }
+        
+        return game;
+    }
+    
     // Getters e Setters
     public long getId() { return id; }
     public void setId(long id) { this.id = id; }
@@ -17,19 +17,33 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 import com.termux.R;
 import com.termux.activities.LibraryActivity;
 import com.termux.api.GOGLibraryManager;
+import com.termux.api.NetworkStack;
 import com.termux.database.DatabaseHelper;
+import com.termux.engine.DownloadEngine;
+import com.termux.engine.DownloadJob;
+import com.termux.engine.FileStorage;
+import com.termux.engine.RetryPolicy;
+import com.termux.engine.StorageTarget;
+import com.termux.engine.ThroughputEstimator;
+import com.termux.engine.TransferStats;
+import com.termux.engine.Tracing;
+import com.termux.engine.android.DocumentFileStorage;
+import com.termux.engine.android.DownloadLinkUrlSource;
+import com.termux.engine.android.OkHttpTransport;
+import com.termux.metrics.AppMetrics;
+import com.termux.metrics.DownloadSummary;
+import com.termux.metrics.MetricsRegistry;
+import com.termux.metrics.NetworkEventListener;
+import com.termux.metrics.NetworkMetrics;
+import com.termux.metrics.ThroughputHistory;
 import com.termux.models.DownloadLink;
 import com.termux.models.Game;
 import com.termux.utils.PreferencesManager;
 import com.termux.utils.SAFDownloadManager;
-import com.termux.utils.SpeedMeter;
 
 import androidx.documentfile.provider.DocumentFile;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -42,6 +56,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import android.content.BroadcastReceiver;
 import android.content.ContentValues;
@@ -49,9 +64,8 @@ import android.content.IntentFilter;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -87,6 +101,9 @@ public class DownloadService extends Service {
     private static final String CHANNEL_ID = "download_channel";
     private static final int NOTIFICATION_ID = 1000;
     
+    // Histórico de vazão e relatórios de transferência
+    private static final long TRANSFER_HISTORY_RETENTION_MS = 90L * 24 * 60 * 60 * 1000; // 90 dias
+    
     private NotificationManager notificationManager;
     private ExecutorService executorService;
     private Map<Long, DownloadTask> activeDownloads;
@@ -99,6 +116,8 @@ public class DownloadService extends Service {
     private PreferencesManager preferencesManager;
     private SAFDownloadManager safDownloadManager;
     private OkHttpClient httpClient;
+    private DownloadEngine downloadEngine;
+    private final ThroughputEstimator globalThroughput = new ThroughputEstimator(); // Soma de todos os downloads
     
     public static Intent createDownloadIntent(Context context, Game game, DownloadLink downloadLink) {
         Intent intent = new Intent(context, DownloadService.class);
@@ -152,19 +171,24 @@ public class DownloadService extends Service {
         databaseHelper = new DatabaseHelper(this);
         preferencesManager = new PreferencesManager(this);
         safDownloadManager = new SAFDownloadManager(this);
+        databaseHelper.pruneTransferHistory(System.currentTimeMillis() - TRANSFER_HISTORY_RETENTION_MS);
         
-        // Configurar cliente HTTP otimizado para downloads rápidos
-        httpClient = new OkHttpClient.Builder()
+        // Cliente de downloads derivado da pilha compartilhada (pool, DNS e sessões TLS da app)
+        // Dispatcher próprio: é encerrado no onDestroy sem afetar os outros clientes
+        httpClient = NetworkStack.newBuilder(this)
+                .dispatcher(new Dispatcher())
                 .connectTimeout(15, TimeUnit.SECONDS)  // Timeout de conexão mais rápido
                 .readTimeout(60, TimeUnit.SECONDS)     // Timeout de leitura otimizado
                 .writeTimeout(30, TimeUnit.SECONDS)    // Timeout de escrita otimizado
-                .connectionPool(new okhttp3.ConnectionPool(10, 5, TimeUnit.MINUTES)) // Pool de conexões
-                .retryOnConnectionFailure(true)       // Retry automático em falhas
-                .followRedirects(true)                 // Seguir redirects automaticamente
-                .followSslRedirects(true)
+                .eventListenerFactory(NetworkEventListener.factory("download")) // DNS/TLS/TTFB por chamada
                 .build();
         
+        // Motor de transferência (Range, retry com backoff, renovação de link expirado)
+        downloadEngine = new DownloadEngine(new OkHttpTransport(httpClient), RetryPolicy.defaults(),
+                262144, 1, 1000); // 256KB buffer, progresso a cada segundo
+        
         createNotificationChannel();
+        registerMetricsGauges();
         
         // Retomar downloads pendentes
         resumePendingDownloads();
@@ -176,6 +200,43 @@ public class DownloadService extends Service {
         Log.d(TAG, "DownloadService created");
     }
     
+    /**
+     * Jobs ativos e enfileirados no endpoint de métricas
+     */
+    private void registerMetricsGauges() {
+        MetricsRegistry registry = AppMetrics.getRegistry();
+        registry.gauge("gogdl_downloads_active", "Downloads em andamento (individuais e lotes)",
+                () -> activeDownloads.size() + activeBatchDownloads.size());
+        registry.gauge("gogdl_downloads_queued", "Tarefas aguardando uma thread livre no executor",
+                () -> ((ThreadPoolExecutor) executorService).getQueue().size());
+        registry.gauge("gogdl_download_executor_busy", "Threads do executor de downloads ocupadas",
+                () -> ((ThreadPoolExecutor) executorService).getActiveCount());
+        registry.gauge("gogdl_download_executor_threads", "Tamanho do executor de downloads",
+                () -> ((ThreadPoolExecutor) executorService).getMaximumPoolSize());
+        registry.gauge("gogdl_engine_buffer_bytes", "Memória dos buffers de cópia em uso",
+                () -> downloadEngine.getBufferBytesInUse());
+        registry.gauge("gogdl_engine_storage_busy_seconds", "Tempo acumulado gravando no destino",
+                () -> downloadEngine.getStorageWriteNanos() / 1e9);
+        registry.gauge("gogdl_download_rate_bytes", "Vazão suavizada somando todos os downloads",
+                globalThroughput::getRate);
+        registry.gauge("gogdl_queue_eta_seconds", "Tempo estimado para concluir todos os downloads ativos e enfileirados",
+                this::estimateQueueEtaSeconds);
+    }
+    
+    /**
+     * ETA da fila inteira: bytes restantes de todas as tarefas sobre a vazão global
+     */
+    private long estimateQueueEtaSeconds() {
+        long remaining = 0;
+        for (DownloadTask task : activeDownloads.values()) {
+            remaining += task.getRemainingBytes();
+        }
+        for (BatchDownloadTask task : activeBatchDownloads.values()) {
+            remaining += task.getRemainingBytes();
+        }
+        return globalThroughput.estimateEtaSeconds(remaining);
+    }
+    
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         if (intent == null) {
@@ -244,11 +305,19 @@ public class DownloadService extends Service {
             executorService.shutdown();
         }
         
+        MetricsRegistry registry = AppMetrics.getRegistry();
+        registry.removeGauge("gogdl_downloads_active");
+        registry.removeGauge("gogdl_downloads_queued");
+        registry.removeGauge("gogdl_download_executor_busy");
+        registry.removeGauge("gogdl_download_executor_threads");
+        registry.removeGauge("gogdl_engine_buffer_bytes");
+        registry.removeGauge("gogdl_engine_storage_busy_seconds");
+        registry.removeGauge("gogdl_download_rate_bytes");
+        registry.removeGauge("gogdl_queue_eta_seconds");
+        
         if (httpClient != null) {
-            new Thread(() -> {
-                httpClient.dispatcher().executorService().shutdown();
-                httpClient.connectionPool().evictAll();
-            }).start();
+            // O pool de conexões é da app inteira; só o dispatcher é deste serviço
+            new Thread(() -> httpClient.dispatcher().executorService().shutdown()).start();
         }
         
         if (databaseHelper != null) {
@@ -582,6 +651,16 @@ public class DownloadService extends Service {
     
     private void onDownloadProgress(Game game, long bytesDownloaded, long totalBytes, 
                                    int currentFileIndex, int totalFiles, double speed, long eta) {
+        Tracing.begin("DownloadService.onDownloadProgress");
+        try {
+            publishDownloadProgress(game, bytesDownloaded, totalBytes, currentFileIndex, totalFiles, speed, eta);
+        } finally {
+            Tracing.end();
+        }
+    }
+    
+    private void publishDownloadProgress(Game game, long bytesDownloaded, long totalBytes, 
+                                         int currentFileIndex, int totalFiles, double speed, long eta) {
         int progress = totalBytes > 0 ? (int) ((bytesDownloaded * 100) / totalBytes) : 0;
         
         // Atualizar banco de dados
@@ -773,6 +852,34 @@ public class DownloadService extends Service {
                 .build();
     }
     
+    /**
+     * Amostra a vazão do download e grava os baldes de minuto que fecharam
+     */
+    private void recordThroughputSample(ThroughputHistory history, long gameId, long downloadedBytes) {
+        if (history.sample(downloadedBytes)) {
+            databaseHelper.insertThroughputBuckets(history.getKey(), gameId, history.drainClosedBuckets());
+        }
+    }
+    
+    /**
+     * Grava o último balde parcial e o relatório final da sessão de download
+     */
+    private void saveTransferReport(ThroughputHistory history, long gameId, String fileName,
+                                    String result, DownloadSummary summary) {
+        try {
+            databaseHelper.insertThroughputBuckets(history.getKey(), gameId, history.finish());
+            databaseHelper.insertTransferReport(gameId, fileName, result, history, summary);
+        } catch (Exception e) {
+            Log.w(TAG, "Failed to save transfer report for " + history.getKey(), e);
+        }
+    }
+    
+    private static String transferResult(TransferStats stats, boolean cancelled, boolean paused) {
+        if (cancelled) return "CANCELLED";
+        if (paused) return "PAUSED";
+        return stats != null && stats.isComplete() ? "COMPLETED" : "FAILED";
+    }
+    
     // Classe interna para gerenciar o download de um arquivo
     private class DownloadTask implements Runnable {
         private Game game;
@@ -780,12 +887,18 @@ public class DownloadService extends Service {
         private long downloadId;
         private volatile boolean cancelled = false;
         private volatile boolean paused = false;
-        private SpeedMeter speedMeter = new SpeedMeter();
+        private volatile long remainingBytes;
+        private final ThroughputEstimator throughput = new ThroughputEstimator(globalThroughput);
         
         public DownloadTask(Game game, DownloadLink downloadLink, long downloadId) {
             this.game = game;
             this.downloadLink = downloadLink;
             this.downloadId = downloadId;
+            this.remainingBytes = Math.max(0, downloadLink.getSize());
+        }
+        
+        long getRemainingBytes() {
+            return remainingBytes;
         }
         
         public void cancel() {
@@ -877,188 +990,97 @@ public class DownloadService extends Service {
         }
         
         private void realDownloadSAF(DocumentFile outputFile) throws IOException {
-            String downloadUrl = downloadLink.getDownloadUrl();
-            Log.d(TAG, "Starting real SAF download from: " + downloadUrl);
-
-            // Check for existing progress
-            ContentValues downloadData = databaseHelper.getDownload(downloadId);
-            long downloadedBytes = 0;
-            if (downloadData != null) {
-                downloadedBytes = downloadData.getAsLong("downloaded_bytes");
+            Log.d(TAG, "Starting real SAF download from: " + downloadLink.getDownloadUrl());
+            
+            try {
+                runEngine(new DocumentFileStorage(safDownloadManager, outputFile));
+            } catch (IOException e) {
+                // Deletar arquivo em caso de erro
+                if (outputFile.exists()) {
+                    outputFile.delete();
+                }
+                throw e;
             }
-
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(downloadUrl)
-                    .get()
-                    .addHeader("User-Agent", "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0")
-                    .addHeader("Accept", "*/*")
-                    .addHeader("Accept-Language", "en-US,en;q=0.5")
-                    .addHeader("Accept-Encoding", "gzip, deflate")
-                    .addHeader("DNT", "1")
-                    .addHeader("Connection", "keep-alive")
-                    .addHeader("Referer", "https://www.gog.com/");
-
-            if (downloadedBytes > 0) {
-                Log.d(TAG, "Resuming download from " + downloadedBytes + " bytes.");
-                requestBuilder.addHeader("Range", "bytes=" + downloadedBytes + "-");
+            
+            if (paused) {
+                // Don't delete the file on pause
+                return;
             }
-
-            Request request = requestBuilder.build();
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful() && response.code() != 206) { // 206 Partial Content is OK
-                    throw new IOException("HTTP Error: " + response.code() + " - " + response.message());
-                }
-                
-                long totalBytes = response.body().contentLength();
-                if (totalBytes <= 0) {
-                    totalBytes = downloadLink.getSize();
-                } else {
-                    totalBytes += downloadedBytes; // Add the already downloaded bytes to the total
-                }
-                
-                Log.d(TAG, "Content-Length: " + totalBytes + " bytes");
-                
-                try (InputStream inputStream = response.body().byteStream();
-                     OutputStream outputStream = safDownloadManager.getOutputStream(outputFile, downloadedBytes > 0)) {
-                    
-                    byte[] buffer = new byte[262144]; // 256KB buffer para melhor performance
-                    int bytesRead;
-                    
-                    long lastProgressUpdate = System.currentTimeMillis();
-                    speedMeter.reset(); // Reset do medidor
-                    
-                    while (!cancelled && !paused) {
-                        bytesRead = inputStream.read(buffer);
-                        if (bytesRead == -1) {
-                            break;
-                        }
-                        outputStream.write(buffer, 0, bytesRead);
-                        downloadedBytes += bytesRead;
-                        
-                        // Atualizar progresso e velocidade
-                        long currentTime = System.currentTimeMillis();
-                        if (currentTime - lastProgressUpdate > 1000) { // Update every second
-                            double speed = speedMeter.updateSpeed(downloadedBytes);
-                            long eta = speedMeter.calculateETA(downloadedBytes, totalBytes);
-                            onDownloadProgress(game, downloadedBytes, totalBytes, 0, 0, speed, eta);
-                            databaseHelper.updateDownloadProgress(downloadId, downloadedBytes, totalBytes, speed, eta);
-                            lastProgressUpdate = currentTime;
-                        }
-                    }
-
-                    if (paused) {
-                        // Don't delete the file on pause
-                        return;
-                    }
-                    
-                    if (cancelled) {
-                        outputFile.delete();
-                        return;
-                    }
-                    
-                    // Flush final
-                    outputStream.flush();
-
-                    // Progresso final
-                    onDownloadProgress(game, downloadedBytes, totalBytes);
-                    
-                    // Download completo
-                    String filePath = outputFile.getUri().toString();
-                    Log.d(TAG, "SAF download completed: " + filePath + " (" + downloadedBytes + " bytes)");
-                    onDownloadComplete(game, downloadId, filePath);
-                    
-                } catch (IOException e) {
-                    // Deletar arquivo em caso de erro
-                    if (outputFile.exists()) {
-                        outputFile.delete();
-                    }
-                    throw e;
-                }
+            if (cancelled) {
+                outputFile.delete();
+                return;
             }
+            
+            // Download completo
+            String filePath = outputFile.getUri().toString();
+            Log.d(TAG, "SAF download completed: " + filePath + " (" + safDownloadManager.getFileSize(outputFile) + " bytes)");
+            onDownloadComplete(game, downloadId, filePath);
         }
         
         private void realDownloadLegacy(File outputFile) throws IOException {
-            String downloadUrl = downloadLink.getDownloadUrl();
-            Log.d(TAG, "Starting real legacy download from: " + downloadUrl);
-            
-            Request request = new Request.Builder()
-                    .url(downloadUrl)
-                    .get()
-                    .addHeader("User-Agent", "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0")
-                    .addHeader("Accept", "*/*")
-                    .addHeader("Accept-Language", "en-US,en;q=0.5")
-                    .addHeader("Accept-Encoding", "gzip, deflate")
-                    .addHeader("DNT", "1")
-                    .addHeader("Connection", "keep-alive")
-                    .addHeader("Referer", "https://www.gog.com/")
-                    .build();
+            Log.d(TAG, "Starting real legacy download from: " + downloadLink.getDownloadUrl());
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new IOException("HTTP Error: " + response.code() + " - " + response.message());
-                }
-                
-                long totalBytes = response.body().contentLength();
-                if (totalBytes <= 0) {
-                    totalBytes = downloadLink.getSize();
-                }
-                
-                Log.d(TAG, "Content-Length: " + totalBytes + " bytes");
-                
-                try (InputStream inputStream = response.body().byteStream();
-                     FileOutputStream outputStream = new FileOutputStream(outputFile)) {
-                    
-                    long bytesDownloaded = 0;
-                    byte[] buffer = new byte[262144]; // 256KB buffer para melhor performance
-                    int bytesRead;
-                    
-                    long lastProgressUpdate = System.currentTimeMillis();
-                    speedMeter.reset(); // Reset do medidor
-                    
-                    while ((bytesRead = inputStream.read(buffer)) != -1 && !cancelled && !paused) {
-                        outputStream.write(buffer, 0, bytesRead);
-                        bytesDownloaded += bytesRead;
-                        
-                        // Atualizar progresso e velocidade
-                        long currentTime = System.currentTimeMillis();
-                        if (currentTime - lastProgressUpdate > 250) {
-                            double speed = speedMeter.updateSpeed(bytesDownloaded);
-                            long eta = speedMeter.calculateETA(bytesDownloaded, totalBytes);
-                            onDownloadProgress(game, bytesDownloaded, totalBytes, 0, 0, speed, eta);
-                            lastProgressUpdate = currentTime;
-                        }
-                        
-                        // Verificar se foi cancelado
-                        if (cancelled) {
-                            outputFile.delete();
-                            return;
-                        }
-                    }
-                    
-                    // Flush final
-                    outputStream.flush();
-                    
-                    if (cancelled) {
-                        outputFile.delete();
-                        return;
-                    }
-                    
-                    // Progresso final
-                    onDownloadProgress(game, bytesDownloaded, bytesDownloaded);
-                    
-                    // Download completo
-                    Log.d(TAG, "Legacy download completed: " + outputFile.getAbsolutePath() + " (" + bytesDownloaded + " bytes)");
-                    onDownloadComplete(game, downloadId, outputFile.getAbsolutePath());
-                    
-                } catch (IOException e) {
-                    // Deletar arquivo em caso de erro
-                    if (outputFile.exists()) {
-                        outputFile.delete();
-                    }
-                    throw e;
+            try {
+                runEngine(new FileStorage(outputFile));
+            } catch (IOException e) {
+                // Deletar arquivo em caso de erro
+                if (outputFile.exists()) {
+                    outputFile.delete();
                 }
+                throw e;
+            }
+            
+            if (paused) {
+                return;
+            }
+            
+            if (cancelled) {
+                outputFile.delete();
+                return;
             }
+            
+            // Download completo
+            Log.d(TAG, "Legacy download completed: " + outputFile.getAbsolutePath() + " (" + outputFile.length() + " bytes)");
+            onDownloadComplete(game, downloadId, outputFile.getAbsolutePath());
+        }
+        
+        /**
+         * Executa a transferência no motor, que cuida de Range, retry e renovação do link
+         */
+        private TransferStats runEngine(StorageTarget storage) throws IOException {
+            DownloadEngine.StopSignal stopSignal = () -> cancelled || paused;
+            
+            DownloadJob job = new DownloadJob("download-" + downloadId,
+                    new DownloadLinkUrlSource(libraryManager, game.getId(), downloadLink, stopSignal), storage);
+            job.setExpectedSize(downloadLink.getSize());
+            job.setThroughput(throughput);
+            
+            if (storage.length() > 0) {
+                Log.d(TAG, "Resuming download from " + storage.length() + " bytes.");
+            }
+            
+            NetworkMetrics.getInstance().beginDownload(job.getKey());
+            ThroughputHistory history = new ThroughputHistory(job.getKey());
+            TransferStats stats = null;
+            try {
+                stats = downloadEngine.download(job, (downloadedBytes, totalBytes) -> {
+                    // Vazão suavizada de todas as conexões do job
+                    remainingBytes = Math.max(0, totalBytes - downloadedBytes);
+                    double speed = throughput.getRate();
+                    long eta = throughput.estimateEtaSeconds(remainingBytes);
+                    onDownloadProgress(game, downloadedBytes, totalBytes, 0, 0, speed, eta);
+                    databaseHelper.updateDownloadProgress(downloadId, downloadedBytes, totalBytes, speed, eta);
+                    recordThroughputSample(history, game.getId(), downloadedBytes);
+                }, stopSignal);
+            } finally {
+                DownloadSummary summary = NetworkMetrics.getInstance().endDownload(job.getKey(), game.getTitle(), stats);
+                saveTransferReport(history, game.getId(), downloadLink.getFileName(),
+                        transferResult(stats, cancelled, paused), summary);
+            }
+            
+            Log.d(TAG, "Transfer finished for " + game.getTitle() + ": " + stats);
+            return stats;
         }
     }
 
@@ -1069,11 +1091,20 @@ public class DownloadService extends Service {
         private volatile boolean cancelled = false;
         private volatile boolean paused = false;
         private int currentFileIndex = 0;
-        private SpeedMeter speedMeter = new SpeedMeter();
+        private volatile long remainingBytes;
+        // Um estimador para o lote inteiro: velocidade e ETA não recomeçam a cada arquivo
+        private final ThroughputEstimator throughput = new ThroughputEstimator(globalThroughput);
         
         public BatchDownloadTask(Game game, List<DownloadLink> downloadLinks) {
             this.game = game;
             this.downloadLinks = new ArrayList<>(downloadLinks);
+            for (DownloadLink link : this.downloadLinks) {
+                remainingBytes += Math.max(0, link.getSize());
+            }
+        }
+        
+        long getRemainingBytes() {
+            return remainingBytes;
         }
         
         public void cancel() {
@@ -1125,59 +1156,12 @@ public class DownloadService extends Service {
                 
                 try {
                     // Obter URL de download real
-                    String[] downloadUrl = new String[1];
-                    String[] errorMessage = new String[1];
-                    
-                    Object lock = new Object();
-                    boolean[] completed = new boolean[1];
-                    
-                    libraryManager.getDownloadLink(game.getId(), currentLink, "installer",
-                            new GOGLibraryManager.DownloadLinkCallback() {
-                        @Override
-                        public void onSuccess(String url) {
-                            downloadUrl[0] = url;
-                            synchronized (lock) {
-                                completed[0] = true;
-                                lock.notify();
-                            }
-                        }
-                        
-                        @Override
-                        public void onError(String error) {
-                            errorMessage[0] = error;
-                            synchronized (lock) {
-                                completed[0] = true;
-                                lock.notify();
-                            }
-                        }
-                    });
-                    
-                    // Aguardar resposta da API
-                    synchronized (lock) {
-                        while (!completed[0] && !cancelled) {
-                            try {
-                                lock.wait(1000); // Timeout de 1 segundo
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                                return;
-                            }
-                        }
-                    }
-                    
-                    if (cancelled) return;
-                    
-                    if (errorMessage[0] != null) {
-                        throw new IOException("Erro ao obter URL de download: " + errorMessage[0]);
-                    }
-                    
-                    if (downloadUrl[0] == null || downloadUrl[0].isEmpty()) {
-                        throw new IOException("URL de download inválida para: " + currentLink.getName());
-                    }
-                    
-                    currentLink.setDownloadUrl(downloadUrl[0]);
+                    DownloadLinkUrlSource urlSource = new DownloadLinkUrlSource(
+                            libraryManager, game.getId(), currentLink, () -> cancelled);
+                    if (urlSource.refresh() == null || cancelled) return;
                     
                     // Fazer download do arquivo
-                    long fileBytesDownloaded = downloadFile(currentLink, totalBytesDownloaded, totalBytesAllFiles);
+                    long fileBytesDownloaded = downloadFile(currentLink, urlSource, totalBytesDownloaded, totalBytesAllFiles);
                     totalBytesDownloaded += fileBytesDownloaded;
 
                     // Update batch progress after successful file download
@@ -1218,9 +1202,9 @@ public class DownloadService extends Service {
             }
         }
         
-        private long downloadFile(DownloadLink downloadLink, long totalBytesDownloadedSoFar, long totalBytesAllFiles) throws IOException {
-            String downloadUrl = downloadLink.getDownloadUrl();
-            Log.d(TAG, "Starting download from: " + downloadUrl);
+        private long downloadFile(DownloadLink downloadLink, DownloadLinkUrlSource urlSource,
+                                  long totalBytesDownloadedSoFar, long totalBytesAllFiles) throws IOException {
+            Log.d(TAG, "Starting download from: " + downloadLink.getDownloadUrl());
             
             DocumentFile outputFile = null;
             
@@ -1234,73 +1218,44 @@ public class DownloadService extends Service {
                 throw new IOException("Pasta de download não configurada");
             }
             
-            Request request = new Request.Builder()
-                    .url(downloadUrl)
-                    .get()
-                    .addHeader("User-Agent", "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0")
-                    .addHeader("Accept", "*/*")
-                    .addHeader("Accept-Language", "en-US,en;q=0.5")
-                    .addHeader("Accept-Encoding", "gzip, deflate")
-                    .addHeader("DNT", "1")
-                    .addHeader("Connection", "keep-alive")
-                    .addHeader("Referer", "https://www.gog.com/")
-                    .build();
+            DownloadJob job = new DownloadJob("batch-" + game.getId() + "-" + currentFileIndex,
+                    urlSource, new DocumentFileStorage(safDownloadManager, outputFile));
+            job.setExpectedSize(downloadLink.getSize());
+            job.setThroughput(throughput);
             
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new IOException("HTTP Error: " + response.code() + " - " + response.message());
-                }
-                
-                long fileSize = response.body().contentLength();
-                if (fileSize <= 0) {
-                    fileSize = downloadLink.getSize();
-                }
-                
-                try (InputStream inputStream = response.body().byteStream();
-                     OutputStream outputStream = safDownloadManager.getOutputStream(outputFile, false)) {
-                    
-                    long fileBytesDownloaded = 0;
-                    byte[] buffer = new byte[262144]; // 256KB buffer para melhor performance
-                    int bytesRead;
-                    
-                    long lastProgressUpdate = System.currentTimeMillis();
-                    speedMeter.reset(); // Reset do medidor para este arquivo
-                    
-                    while ((bytesRead = inputStream.read(buffer)) != -1 && !cancelled) {
-                        outputStream.write(buffer, 0, bytesRead);
-                        fileBytesDownloaded += bytesRead;
-                        
-                        long currentTime = System.currentTimeMillis();
-                        
-                        // Atualizar progresso e velocidade usando SpeedMeter
-                        if (currentTime - lastProgressUpdate > 250) {
-                            double speed = speedMeter.updateSpeed(fileBytesDownloaded);
-                            long eta = speedMeter.calculateETA(fileBytesDownloaded, fileSize);
-                            long totalDownloadedIncludingThis = totalBytesDownloadedSoFar + fileBytesDownloaded;
-                            onDownloadProgress(game, totalDownloadedIncludingThis, totalBytesAllFiles, 
-                                             currentFileIndex, downloadLinks.size(), speed, eta);
-                            lastProgressUpdate = currentTime;
-                        }
-                    }
-                    
-                    if (cancelled) {
-                        outputFile.delete();
-                        return 0;
-                    }
-                    
-                    // Flush final
-                    outputStream.flush();
-                    
-                    Log.d(TAG, "File download completed: " + downloadLink.getName() + " (" + fileBytesDownloaded + " bytes)");
-                    return fileBytesDownloaded;
-                    
-                } catch (IOException e) {
-                    if (outputFile.exists()) {
-                        outputFile.delete();
-                    }
-                    throw e;
+            NetworkMetrics.getInstance().beginDownload(job.getKey());
+            ThroughputHistory history = new ThroughputHistory(job.getKey());
+            TransferStats stats = null;
+            try {
+                stats = downloadEngine.download(job, (fileBytesDownloaded, fileSize) -> {
+                    // Velocidade do lote e ETA sobre o que falta em todos os arquivos
+                    long totalDownloadedIncludingThis = totalBytesDownloadedSoFar + fileBytesDownloaded;
+                    remainingBytes = Math.max(0, totalBytesAllFiles - totalDownloadedIncludingThis);
+                    double speed = throughput.getRate();
+                    long eta = throughput.estimateEtaSeconds(remainingBytes);
+                    onDownloadProgress(game, totalDownloadedIncludingThis, totalBytesAllFiles, 
+                                     currentFileIndex, downloadLinks.size(), speed, eta);
+                    recordThroughputSample(history, game.getId(), fileBytesDownloaded);
+                }, () -> cancelled);
+            } catch (IOException e) {
+                if (outputFile.exists()) {
+                    outputFile.delete();
                 }
+                throw e;
+            } finally {
+                DownloadSummary summary = NetworkMetrics.getInstance().endDownload(job.getKey(), downloadLink.getName(), stats);
+                saveTransferReport(history, game.getId(), downloadLink.getFileName(),
+                        transferResult(stats, cancelled, paused), summary);
+            }
+            
+            if (cancelled) {
+                outputFile.delete();
+                return 0;
             }
+            
+            long fileBytesDownloaded = safDownloadManager.getFileSize(outputFile);
+            Log.d(TAG, "File download completed: " + downloadLink.getName() + " (" + fileBytesDownloaded + " bytes, " + stats + ")");
+            return fileBytesDownloaded;
         }
     }
 
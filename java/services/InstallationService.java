@@ -101,14 +101,16 @@ public class InstallationService extends Service {
                     throw new IOException("Installer folder not found or is not a directory.");
                 }
 
-                List<DocumentFile> binFiles = new ArrayList<>();
-                DocumentFile setupFile = null;
-                for (DocumentFile file : installerFolder.listFiles()) {
+                // Uma única consulta traz nome e tamanho de todos os arquivos da pasta
+                List<SAFDownloadManager.DocumentInfo> binFiles = new ArrayList<>();
+                SAFDownloadManager.DocumentInfo setupFile = null;
+                for (SAFDownloadManager.DocumentInfo file : safDownloadManager.listChildren(installerFolder)) {
                     String fileName = file.getName();
-                    if (fileName != null) {
-                        if (fileName.toLowerCase().startsWith("setup_") && fileName.toLowerCase().endsWith(".exe")) {
+                    if (fileName != null && file.isFile()) {
+                        String lowerFileName = fileName.toLowerCase();
+                        if (lowerFileName.startsWith("setup_") && lowerFileName.endsWith(".exe")) {
                             setupFile = file;
-                        } else if (fileName.toLowerCase().endsWith(".bin")) {
+                        } else if (lowerFileName.endsWith(".bin")) {
                             binFiles.add(file);
                         }
                     }
@@ -126,17 +128,17 @@ public class InstallationService extends Service {
                 }
 
                 long totalSize = 0;
-                for(DocumentFile file : binFiles) {
-                    totalSize += file.length();
+                for (SAFDownloadManager.DocumentInfo file : binFiles) {
+                    totalSize += file.getSize();
                 }
 
                 long processedBytes = 0;
                 updateProgress(0, "Starting installation...");
 
                 for (int i = 0; i < binFiles.size(); i++) {
-                    DocumentFile file = binFiles.get(i);
+                    SAFDownloadManager.DocumentInfo file = binFiles.get(i);
                     String msg = String.format("Extracting: %s (%d/%d)", file.getName(), i + 1, binFiles.size());
-                    updateProgress((int) ((processedBytes * 100) / totalSize), msg);
+                    updateProgress(totalSize > 0 ? (int) ((processedBytes * 100) / totalSize) : -1, msg);
 
                     // Simulate extraction by creating a dummy file
                     DocumentFile dummyFile = installDir.createFile("text/plain", "extracted_" + file.getName());
@@ -147,7 +149,7 @@ public class InstallationService extends Service {
                         }
                     }
 
-                    processedBytes += file.length();
+                    processedBytes += file.getSize();
                     Thread.sleep(500); // Simulate work
                 }
 
@@ -0,0 +1,28 @@
+package com.termux.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Limpa nomes de jogos e arquivos para uso em pastas e documentos SAF
+ * Os padrões são compilados uma vez; String.replaceAll recompilaria a cada chamada
+ */
+public final class FileNameSanitizer {
+    
+    private static final Pattern INVALID_CHARS = Pattern.compile("[^a-zA-Z0-9._\\-\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern REPEATED_UNDERSCORES = Pattern.compile("_{2,}");
+    
+    private FileNameSanitizer() {
+    }
+    
+    public static String sanitize(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        
+        // Remover caracteres não permitidos em nomes de arquivo
+        String result = INVALID_CHARS.matcher(fileName).replaceAll("_");
+        result = WHITESPACE.matcher(result).replaceAll("_");
+        return REPEATED_UNDERSCORES.matcher(result).replaceAll("_");
+    }
+}
@@ -10,11 +10,12 @@ import android.util.LruCache;
 import android.widget.ImageView;
 
 import com.termux.R;
+import com.termux.api.NetworkStack;
+import com.termux.engine.Tracing;
+import com.termux.metrics.AppMetrics;
+import com.termux.metrics.NetworkEventListener;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Collections;
 import java.util.Map;
 import java.io.File;
@@ -22,6 +23,12 @@ import java.io.FileOutputStream;
 import java.util.WeakHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 public class ImageLoader {
     
@@ -33,6 +40,7 @@ public class ImageLoader {
     private File diskCacheDir;
     private ExecutorService executorService;
     private Handler mainHandler;
+    private OkHttpClient httpClient;
     private final Map<ImageView, String> imageViewMap = Collections.synchronizedMap(new WeakHashMap<>());
     
     private ImageLoader(Context context) {
@@ -50,6 +58,11 @@ public class ImageLoader {
         
         executorService = Executors.newFixedThreadPool(4);
         mainHandler = new Handler(Looper.getMainLooper());
+        httpClient = NetworkStack.newBuilder(context)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(15, TimeUnit.SECONDS)
+                .eventListenerFactory(NetworkEventListener.factory("images"))
+                .build();
     }
     
     public static synchronized ImageLoader getInstance(Context context) {
@@ -86,6 +99,7 @@ public class ImageLoader {
         // Verificar cache de memória primeiro
         Bitmap cachedBitmap = memoryCache.get(coverImageUrl);
         if (cachedBitmap != null) {
+            AppMetrics.onImageCacheResult("memory");
             Log.d(TAG, "Image found in memory cache: " + coverImageUrl);
             imageView.setImageBitmap(cachedBitmap);
             return;
@@ -101,6 +115,7 @@ public class ImageLoader {
             // Verificar cache em disco
             Bitmap bitmap = getBitmapFromDiskCache(coverImageUrl);
             if (bitmap != null) {
+                AppMetrics.onImageCacheResult("disk");
                 Log.d(TAG, "Image found in disk cache: " + coverImageUrl);
                 memoryCache.put(coverImageUrl, bitmap);
                 final Bitmap finalBitmap = bitmap;
@@ -112,6 +127,7 @@ public class ImageLoader {
                 return;
             }
 
+            AppMetrics.onImageCacheResult("miss");
             try {
                 Log.d(TAG, "Downloading bitmap: " + coverImageUrl);
                 final Bitmap downloadedBitmap = downloadBitmap(coverImageUrl);
@@ -144,96 +160,65 @@ public class ImageLoader {
     }
     
     private Bitmap downloadBitmap(String imageUrl) {
-        HttpURLConnection connection = null;
-        InputStream inputStream = null;
-        
         try {
             Log.d(TAG, "=== STARTING BITMAP DOWNLOAD ===");
             Log.d(TAG, "Target URL: " + imageUrl);
             
-            URL url = new URL(imageUrl);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(15000); // Aumentar timeout
-            connection.setReadTimeout(15000);
-            connection.setRequestMethod("GET");
-            connection.setDoInput(true);
-            connection.setInstanceFollowRedirects(true);
+            // Redirects e gzip ficam com o OkHttp; a conexão volta para o pool compartilhado
+            Request request = new Request.Builder()
+                    .url(imageUrl)
+                    .get()
+                    .header("User-Agent",
+                        "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0")
+                    .header("Accept",
+                        "image/webp,image/apng,image/*,*/*;q=0.8")
+                    .header("Accept-Language", "en-US,en;q=0.5")
+                    .header("DNT", "1")
+                    .header("Referer", "https://www.gog.com/")
+                    .build();
             
-            // Headers importantes para GOG
-            connection.setRequestProperty("User-Agent", 
-                "Mozilla/5.0 (Android 10; Mobile; rv:91.0) Gecko/91.0 Firefox/91.0");
-            connection.setRequestProperty("Accept", 
-                "image/webp,image/apng,image/*,*/*;q=0.8");
-            connection.setRequestProperty("Accept-Language", "en-US,en;q=0.5");
-            connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
-            connection.setRequestProperty("DNT", "1");
-            connection.setRequestProperty("Connection", "keep-alive");
-            connection.setRequestProperty("Upgrade-Insecure-Requests", "1");
-            connection.setRequestProperty("Referer", "https://www.gog.com/");
+            try (Response response = httpClient.newCall(request).execute()) {
+                Log.d(TAG, "HTTP Response Code: " + response.code());
             
-            Log.d(TAG, "Connecting to: " + url.getHost());
-            connection.connect();
+                ResponseBody body = response.body();
+                if (response.isSuccessful() && body != null) {
+                    Log.d(TAG, "Connection successful, reading image data...");
             
-            int responseCode = connection.getResponseCode();
-            Log.d(TAG, "HTTP Response Code: " + responseCode);
-            Log.d(TAG, "Response Message: " + connection.getResponseMessage());
+                    // Decodificar bitmap diretamente sem sampling primeiro
+                    Bitmap bitmap;
+                    Tracing.begin("ImageLoader.decodeStream");
+                    try {
+                        bitmap = BitmapFactory.decodeStream(body.byteStream());
+                    } finally {
+                        Tracing.end();
+                    }
             
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                Log.d(TAG, "Connection successful, reading image data...");
-                inputStream = connection.getInputStream();
-                
-                // Decodificar bitmap diretamente sem sampling primeiro
-                Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-                
-                if (bitmap != null) {
-                    Log.d(TAG, "Bitmap decoded successfully. Size: " + bitmap.getWidth() + "x" + bitmap.getHeight());
-                    // Se a imagem for muito grande, redimensionar
-                    if (bitmap.getWidth() > 300 || bitmap.getHeight() > 300) {
-                        Log.d(TAG, "Resizing large bitmap...");
-                        bitmap = Bitmap.createScaledBitmap(bitmap, 300, 300, true);
+                    if (bitmap != null) {
+                        Log.d(TAG, "Bitmap decoded successfully. Size: " + bitmap.getWidth() + "x" + bitmap.getHeight());
+                        // Se a imagem for muito grande, redimensionar
+                        if (bitmap.getWidth() > 300 || bitmap.getHeight() > 300) {
+                            Log.d(TAG, "Resizing large bitmap...");
+                            bitmap = Bitmap.createScaledBitmap(bitmap, 300, 300, true);
+                        }
+                        return bitmap;
+                    } else {
+                        Log.e(TAG, "Failed to decode bitmap from stream");
                     }
-                    return bitmap;
                 } else {
-                    Log.e(TAG, "Failed to decode bitmap from stream");
-                }
-            } else if (responseCode == HttpURLConnection.HTTP_MOVED_TEMP || 
-                      responseCode == HttpURLConnection.HTTP_MOVED_PERM ||
-                      responseCode == HttpURLConnection.HTTP_SEE_OTHER) {
-                String redirectUrl = connection.getHeaderField("Location");
-                Log.d(TAG, "Redirect detected to: " + redirectUrl);
-                if (redirectUrl != null) {
-                    return downloadBitmap(redirectUrl);
-                }
-            } else {
-                Log.e(TAG, "HTTP Error " + responseCode + ": " + connection.getResponseMessage());
-                // Ler error stream para mais detalhes
-                try {
-                    InputStream errorStream = connection.getErrorStream();
-                    if (errorStream != null) {
-                        byte[] errorBytes = new byte[1024];
-                        int bytesRead = errorStream.read(errorBytes);
-                        String errorMsg = new String(errorBytes, 0, bytesRead);
-                        Log.e(TAG, "Error response body: " + errorMsg);
-                        errorStream.close();
+                    Log.e(TAG, "HTTP Error " + response.code() + ": " + response.message());
+                    // Ler início do corpo de erro para mais detalhes
+                    if (body != null) {
+                        try {
+                            Log.e(TAG, "Error response body: " + response.peekBody(1024).string());
+                        } catch (IOException e) {
+                            Log.e(TAG, "Failed to read error body", e);
+                        }
                     }
-                } catch (Exception e) {
-                    Log.e(TAG, "Failed to read error stream", e);
                 }
             }
             
         } catch (Exception e) {
             Log.e(TAG, "Exception during image download: " + imageUrl, e);
-        } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    Log.e(TAG, "Error closing input stream", e);
-                }
-            }
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
         
         Log.e(TAG, "Download failed for: " + imageUrl);
@@ -298,7 +283,12 @@ public class ImageLoader {
     private Bitmap getBitmapFromDiskCache(String url) {
         File file = new File(diskCacheDir, String.valueOf(url.hashCode()));
         if (file.exists()) {
-            return BitmapFactory.decodeFile(file.getAbsolutePath());
+            Tracing.begin("ImageLoader.decodeFile");
+            try {
+                return BitmapFactory.decodeFile(file.getAbsolutePath());
+            } finally {
+                Tracing.end();
+            }
         }
         return null;
     }
@@ -0,0 +1,79 @@
+package com.termux.utils;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Leitura tolerante de valores com {@link JsonReader}, no espírito dos optX do org.json:
+ * tipo inesperado ou null vira o valor padrão e o valor é consumido, sem quebrar o stream
+ */
+public final class JsonStreams {
+    
+    /**
+     * Recebe os campos que o leitor principal não conhece; devolve false para que sejam ignorados
+     */
+    public interface FieldReader {
+        boolean readField(String name, JsonReader reader) throws IOException;
+    }
+    
+    private JsonStreams() {
+    }
+    
+    public static String nextString(JsonReader reader, String fallback) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return String.valueOf(reader.nextBoolean());
+        }
+        reader.skipValue();
+        return fallback;
+    }
+    
+    public static long nextLong(JsonReader reader, long fallback) throws IOException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            reader.skipValue();
+            return fallback;
+        }
+        // nextString sempre consome o valor; nextLong não consome quando falha
+        String value = reader.nextString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                return fallback;
+            }
+        }
+    }
+    
+    public static int nextInt(JsonReader reader, int fallback) throws IOException {
+        return (int) nextLong(reader, fallback);
+    }
+    
+    /**
+     * Entra no objeto se o próximo valor for um; caso contrário consome o valor e devolve false
+     */
+    public static boolean beginObjectOrSkip(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+    
+    public static boolean beginArrayOrSkip(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+}
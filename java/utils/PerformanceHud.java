@@ -0,0 +1,247 @@
+package com.termux.utils;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.Choreographer;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import com.termux.metrics.AppMetrics;
+import com.termux.metrics.LiveTransfer;
+import com.termux.metrics.MetricsRegistry;
+import com.termux.metrics.NetworkMetrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Overlay de depuração com vazão, filas, buffers, GC e jank, atualizado a cada segundo
+ * Ajuda a ver se um download lento está limitado pela rede, pelo armazenamento ou pela CPU
+ */
+public class PerformanceHud implements Choreographer.FrameCallback {
+    
+    private static final long UPDATE_INTERVAL_MS = 1000;
+    private static final int MAX_CONNECTION_LINES = 4;
+    
+    private final Activity activity;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable updateRunnable = this::update;
+    private final Map<Long, Long> lastTransferBytes = new HashMap<>();
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    
+    private TextView hudView;
+    private boolean running;
+    
+    // Amostras do intervalo anterior
+    private long lastUpdateMs;
+    private long lastCpuMs;
+    private long lastStorageNanos;
+    private long lastGcCount = -1;
+    
+    // Frames desde a última atualização
+    private long lastFrameNanos;
+    private long frameIntervalNanos;
+    private int frames;
+    private int jankyFrames;
+    private long worstFrameNanos;
+    
+    public PerformanceHud(Activity activity) {
+        this.activity = activity;
+    }
+    
+    /**
+     * Mostra o overlay por cima do conteúdo da activity
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+        
+        if (hudView == null) {
+            hudView = new TextView(activity);
+            hudView.setTypeface(Typeface.MONOSPACE);
+            hudView.setTextSize(10);
+            hudView.setTextColor(Color.WHITE);
+            hudView.setBackgroundColor(0xB0000000);
+            int padding = (int) (6 * activity.getResources().getDisplayMetrics().density);
+            hudView.setPadding(padding, padding, padding, padding);
+            hudView.setClickable(false);
+            hudView.setFocusable(false);
+        }
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.BOTTOM | Gravity.START);
+        content.addView(hudView, params);
+        
+        float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        frameIntervalNanos = (long) (1e9 / (refreshRate > 0 ? refreshRate : 60));
+        
+        lastUpdateMs = System.currentTimeMillis();
+        lastCpuMs = Process.getElapsedCpuTime();
+        lastStorageNanos = storageNanos();
+        lastFrameNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+        handler.post(updateRunnable);
+    }
+    
+    public void stop() {
+        if (!running) return;
+        running = false;
+        handler.removeCallbacks(updateRunnable);
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (hudView != null && hudView.getParent() instanceof ViewGroup) {
+            ((ViewGroup) hudView.getParent()).removeView(hudView);
+        }
+        lastTransferBytes.clear();
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+        if (lastFrameNanos > 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            frames++;
+            // Frame que perdeu pelo menos um vsync
+            if (interval > frameIntervalNanos * 3 / 2) {
+                jankyFrames++;
+            }
+            worstFrameNanos = Math.max(worstFrameNanos, interval);
+        }
+        lastFrameNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+    
+    private void update() {
+        if (!running) return;
+        
+        long now = System.currentTimeMillis();
+        double seconds = Math.max(1, now - lastUpdateMs) / 1000.0;
+        StringBuilder text = new StringBuilder();
+        
+        // Vazão por conexão e total
+        List<LiveTransfer> transfers = NetworkMetrics.getInstance().getLiveTransfers();
+        Map<Long, Long> currentBytes = new HashMap<>();
+        StringBuilder connections = new StringBuilder();
+        double totalRate = 0;
+        int shown = 0;
+        for (LiveTransfer transfer : transfers) {
+            long bytes = transfer.getBytes();
+            Long previous = lastTransferBytes.get(transfer.getId());
+            double rate = (bytes - (previous != null ? previous : 0)) / seconds;
+            currentBytes.put(transfer.getId(), bytes);
+            totalRate += rate;
+            if (shown < MAX_CONNECTION_LINES) {
+                connections.append(String.format(Locale.US, " #%d %-18.18s %7s/s %8s\n",
+                        transfer.getId(), transfer.getHost(), formatBytes(rate), formatBytes(bytes)));
+                shown++;
+            }
+        }
+        lastTransferBytes.clear();
+        lastTransferBytes.putAll(currentBytes);
+        
+        text.append(String.format(Locale.US, "REDE  %s/s  %d conexões\n", formatBytes(totalRate), transfers.size()));
+        MetricsRegistry registry = AppMetrics.getRegistry();
+        double smoothedRate = registry.gaugeValue("gogdl_download_rate_bytes");
+        double queueEta = registry.gaugeValue("gogdl_queue_eta_seconds");
+        if (!Double.isNaN(smoothedRate)) {
+            text.append(String.format(Locale.US, "MÉDIA %s/s  ETA fila %s\n", formatBytes(smoothedRate),
+                    queueEta > 0 ? formatDuration((long) queueEta) : "-"));
+        }
+        text.append(connections);
+        
+        // Executor e buffers do DownloadService (NaN se o serviço não está rodando)
+        text.append(String.format(Locale.US, "FILA  %s  EXEC %s/%s  BUF %s\n",
+                formatCount(registry.gaugeValue("gogdl_downloads_queued")),
+                formatCount(registry.gaugeValue("gogdl_download_executor_busy")),
+                formatCount(registry.gaugeValue("gogdl_download_executor_threads")),
+                Double.isNaN(registry.gaugeValue("gogdl_engine_buffer_bytes")) ? "-"
+                        : formatBytes(registry.gaugeValue("gogdl_engine_buffer_bytes"))));
+        
+        // Tempo gravando no destino e CPU do processo no intervalo
+        long storage = storageNanos();
+        double storageMsPerSecond = Math.max(0, storage - lastStorageNanos) / 1e6 / seconds;
+        lastStorageNanos = storage;
+        long cpu = Process.getElapsedCpuTime();
+        double cpuShare = (cpu - lastCpuMs) / (seconds * 1000.0 * cores);
+        lastCpuMs = cpu;
+        text.append(String.format(Locale.US, "DISCO %4.0f ms/s  CPU %3.0f%% (%d núcleos)\n",
+                storageMsPerSecond, cpuShare * 100, cores));
+        
+        // GC e jank desde a última atualização
+        long gcCount = gcCount();
+        long gcDelta = lastGcCount >= 0 && gcCount >= 0 ? gcCount - lastGcCount : 0;
+        lastGcCount = gcCount;
+        Runtime runtime = Runtime.getRuntime();
+        text.append(String.format(Locale.US, "GC    %s (+%d)  HEAP %s/%s\n",
+                gcCount >= 0 ? String.valueOf(gcCount) : "-", gcDelta,
+                formatBytes(runtime.totalMemory() - runtime.freeMemory()), formatBytes(runtime.maxMemory())));
+        text.append(String.format(Locale.US, "JANK  %d/%d frames  pior %d ms\n",
+                jankyFrames, frames, worstFrameNanos / 1000000));
+        frames = 0;
+        jankyFrames = 0;
+        worstFrameNanos = 0;
+        
+        text.append("LIMITE ").append(bottleneck(transfers.size(), storageMsPerSecond, cpuShare));
+        
+        hudView.setText(text);
+        lastUpdateMs = now;
+        handler.postDelayed(updateRunnable, UPDATE_INTERVAL_MS);
+    }
+    
+    /**
+     * Palpite simples do gargalo atual
+     */
+    private static String bottleneck(int connections, double storageMsPerSecond, double cpuShare) {
+        if (connections == 0) {
+            return "ocioso";
+        }
+        if (storageMsPerSecond >= 500 * connections) {
+            return "armazenamento";
+        }
+        if (cpuShare >= 0.8) {
+            return "CPU";
+        }
+        return "rede";
+    }
+    
+    private static long storageNanos() {
+        double seconds = AppMetrics.getRegistry().gaugeValue("gogdl_engine_storage_busy_seconds");
+        return Double.isNaN(seconds) ? 0 : (long) (seconds * 1e9);
+    }
+    
+    private static long gcCount() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(Debug.getRuntimeStat("art.gc.gc-count"));
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+    
+    private static String formatDuration(long seconds) {
+        return String.format(Locale.US, "%d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+    }
+    
+    private static String formatCount(double value) {
+        return Double.isNaN(value) ? "-" : String.valueOf((long) value);
+    }
+    
+    private static String formatBytes(double bytes) {
+        if (bytes < 1024) return String.format(Locale.US, "%.0f B", bytes);
+        if (bytes < 1024 * 1024) return String.format(Locale.US, "%.1f KB", bytes / 1024);
+        if (bytes < 1024L * 1024 * 1024) return String.format(Locale.US, "%.1f MB", bytes / (1024 * 1024));
+        return String.format(Locale.US, "%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+}
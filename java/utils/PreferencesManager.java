@@ -4,6 +4,8 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Environment;
 
+import com.termux.BuildConfig;
+
 import java.io.File;
 
 public class PreferencesManager {
@@ -18,10 +20,19 @@ public class PreferencesManager {
     private static final String KEY_DOWNLOAD_PATH = "download_path";
     private static final String KEY_FIRST_RUN = "first_run";
     private static final String KEY_LOGIN_TIME = "login_time";
+    private static final String KEY_TOKEN_EXPIRES_AT = "token_expires_at";
     private static final String KEY_DYNAMIC_THEMING = "dynamic_theming";
     private static final String KEY_MATERIAL_YOU = "material_you";
     private static final String KEY_SELECTED_PLATFORMS = "selected_platforms";
     private static final String KEY_USE_1DM = "use_1dm";
+    private static final String KEY_DEBUG_SERVER_URL = "debug_server_url";
+    private static final String KEY_METRICS_ENABLED = "metrics_enabled";
+    private static final String KEY_METRICS_PORT = "metrics_port";
+    private static final int DEFAULT_METRICS_PORT = 9464;
+    private static final String KEY_PERFORMANCE_HUD = "performance_hud";
+    private static final String KEY_LIBRARY_OWNED_ETAG = "library_owned_etag";
+    private static final String KEY_LIBRARY_IGNORED_IDS = "library_ignored_ids";
+    private static final String KEY_LIBRARY_LAST_SYNC = "library_last_sync";
     
     private SharedPreferences preferences;
     private SharedPreferences.Editor editor;
@@ -75,6 +86,21 @@ public class PreferencesManager {
         return preferences.getLong(KEY_LOGIN_TIME, 0);
     }
     
+    /**
+     * Guarda quando o access token expira, a partir do expires_in (segundos) da resposta OAuth
+     */
+    public void saveTokenExpiry(long expiresInSeconds) {
+        editor.putLong(KEY_TOKEN_EXPIRES_AT, System.currentTimeMillis() + expiresInSeconds * 1000);
+        editor.apply();
+    }
+    
+    /**
+     * @return instante de expiração do access token, ou 0 se desconhecido
+     */
+    public long getTokenExpiresAt() {
+        return preferences.getLong(KEY_TOKEN_EXPIRES_AT, 0);
+    }
+    
     public String getDisplayName() {
         String userName = getUserName();
         if (userName != null && !userName.trim().isEmpty()) {
@@ -102,6 +128,11 @@ public class PreferencesManager {
         editor.remove(KEY_USER_ID);
         editor.remove(KEY_USER_AVATAR);
         editor.remove(KEY_LOGIN_TIME);
+        editor.remove(KEY_TOKEN_EXPIRES_AT);
+        // Estado de sincronização pertence à conta
+        editor.remove(KEY_LIBRARY_OWNED_ETAG);
+        editor.remove(KEY_LIBRARY_IGNORED_IDS);
+        editor.remove(KEY_LIBRARY_LAST_SYNC);
         editor.apply();
     }
     
@@ -116,6 +147,11 @@ public class PreferencesManager {
             return false;
         }
         
+        long expiresAt = getTokenExpiresAt();
+        if (expiresAt > 0) {
+            return System.currentTimeMillis() < expiresAt;
+        }
+        
         long loginTime = getLoginTime();
         if (loginTime == 0) {
             return true; // Se não temos tempo de login, assumir válido
@@ -171,6 +207,79 @@ public class PreferencesManager {
         return preferences.getStringSet(KEY_SELECTED_PLATFORMS, defaultPlatforms);
     }
     
+    // Servidor local de testes (FakeGogServer do módulo engine); só builds de debug leem o valor,
+    // gravado direto nas preferências (adb shell run-as)
+    public String getDebugServerUrl() {
+        if (!BuildConfig.DEBUG) {
+            return null;
+        }
+        return preferences.getString(KEY_DEBUG_SERVER_URL, null);
+    }
+    
+    // Endpoint /metrics para monitoramento (desligado por padrão)
+    public void setMetricsEndpointEnabled(boolean enabled) {
+        editor.putBoolean(KEY_METRICS_ENABLED, enabled);
+        editor.apply();
+    }
+    
+    public boolean isMetricsEndpointEnabled() {
+        return preferences.getBoolean(KEY_METRICS_ENABLED, false);
+    }
+    
+    public void setMetricsPort(int port) {
+        editor.putInt(KEY_METRICS_PORT, port);
+        editor.apply();
+    }
+    
+    public int getMetricsPort() {
+        return preferences.getInt(KEY_METRICS_PORT, DEFAULT_METRICS_PORT);
+    }
+    
+    // Overlay de desempenho sobre a biblioteca
+    public void setPerformanceHudEnabled(boolean enabled) {
+        editor.putBoolean(KEY_PERFORMANCE_HUD, enabled);
+        editor.apply();
+    }
+    
+    public boolean isPerformanceHudEnabled() {
+        return preferences.getBoolean(KEY_PERFORMANCE_HUD, false);
+    }
+    
+    // Sincronização incremental da biblioteca
+    public void setLibraryOwnedEtag(String etag) {
+        if (etag == null || etag.isEmpty()) {
+            editor.remove(KEY_LIBRARY_OWNED_ETAG);
+        } else {
+            editor.putString(KEY_LIBRARY_OWNED_ETAG, etag);
+        }
+        editor.apply();
+    }
+    
+    public String getLibraryOwnedEtag() {
+        return preferences.getString(KEY_LIBRARY_OWNED_ETAG, null);
+    }
+    
+    /**
+     * IDs possuídos que não são jogos (DLC, pacotes, filmes); não são buscados de novo a cada sync
+     */
+    public void setLibraryIgnoredIds(java.util.Set<String> ids) {
+        editor.putStringSet(KEY_LIBRARY_IGNORED_IDS, new java.util.HashSet<>(ids));
+        editor.apply();
+    }
+    
+    public java.util.Set<String> getLibraryIgnoredIds() {
+        return new java.util.HashSet<>(preferences.getStringSet(KEY_LIBRARY_IGNORED_IDS, new java.util.HashSet<>()));
+    }
+    
+    public void setLibraryLastSync(long timestamp) {
+        editor.putLong(KEY_LIBRARY_LAST_SYNC, timestamp);
+        editor.apply();
+    }
+    
+    public long getLibraryLastSync() {
+        return preferences.getLong(KEY_LIBRARY_LAST_SYNC, 0);
+    }
+    
     // Métodos de download com SAF
     private static final String KEY_DOWNLOAD_URI = "download_uri";
     
@@ -17,6 +17,8 @@ import com.termux.models.Game;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Gerenciador de downloads usando Storage Access Framework (SAF)
@@ -188,14 +190,7 @@ public class SAFDownloadManager {
      * Limpa nome de arquivo removendo caracteres inválidos
      */
     private String sanitizeFileName(String fileName) {
-        if (fileName == null) {
-            return null;
-        }
-        
-        // Remover caracteres não permitidos em nomes de arquivo
-        return fileName.replaceAll("[^a-zA-Z0-9._\\-\\s]", "_")
-                       .replaceAll("\\s+", "_")
-                       .replaceAll("_{2,}", "_");
+        return FileNameSanitizer.sanitize(fileName);
     }
     
     /**
@@ -264,6 +259,113 @@ public class SAFDownloadManager {
         return gameDir.listFiles();
     }
     
+    /**
+     * Lista os filhos de um diretório SAF com nome, tamanho, MIME type e data
+     * de modificação em uma única passagem de cursor.
+     * DocumentFile.listFiles() seguido de getName()/isFile()/length() faz uma
+     * consulta ao ContentResolver por chamada, o que fica lento em pastas grandes.
+     */
+    public List<DocumentInfo> listChildren(DocumentFile directory) {
+        if (directory == null) {
+            return new ArrayList<>();
+        }
+        return listChildren(directory.getUri());
+    }
+    
+    /**
+     * Variante de listChildren(DocumentFile) que recebe a URI do diretório
+     * (tree URI ou URI de documento derivada de uma árvore)
+     */
+    public List<DocumentInfo> listChildren(Uri directoryUri) {
+        List<DocumentInfo> children = new ArrayList<>();
+        if (directoryUri == null) {
+            return children;
+        }
+        
+        String parentDocumentId;
+        if (DocumentsContract.isDocumentUri(context, directoryUri)) {
+            parentDocumentId = DocumentsContract.getDocumentId(directoryUri);
+        } else {
+            parentDocumentId = DocumentsContract.getTreeDocumentId(directoryUri);
+        }
+        Uri childrenUri = DocumentsContract.buildChildDocumentsUriUsingTree(directoryUri, parentDocumentId);
+        
+        final String[] projection = {
+                DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+                DocumentsContract.Document.COLUMN_DISPLAY_NAME,
+                DocumentsContract.Document.COLUMN_SIZE,
+                DocumentsContract.Document.COLUMN_MIME_TYPE,
+                DocumentsContract.Document.COLUMN_LAST_MODIFIED
+        };
+        
+        Cursor cursor = null;
+        try {
+            cursor = context.getContentResolver().query(childrenUri, projection, null, null, null);
+            if (cursor == null) {
+                return children;
+            }
+            
+            int idIndex = cursor.getColumnIndexOrThrow(DocumentsContract.Document.COLUMN_DOCUMENT_ID);
+            int nameIndex = cursor.getColumnIndexOrThrow(DocumentsContract.Document.COLUMN_DISPLAY_NAME);
+            int sizeIndex = cursor.getColumnIndexOrThrow(DocumentsContract.Document.COLUMN_SIZE);
+            int mimeIndex = cursor.getColumnIndexOrThrow(DocumentsContract.Document.COLUMN_MIME_TYPE);
+            int modifiedIndex = cursor.getColumnIndexOrThrow(DocumentsContract.Document.COLUMN_LAST_MODIFIED);
+            
+            while (cursor.moveToNext()) {
+                String documentId = cursor.getString(idIndex);
+                Uri documentUri = DocumentsContract.buildDocumentUriUsingTree(directoryUri, documentId);
+                children.add(new DocumentInfo(
+                        documentUri,
+                        cursor.getString(nameIndex),
+                        cursor.isNull(sizeIndex) ? 0 : cursor.getLong(sizeIndex),
+                        cursor.getString(mimeIndex),
+                        cursor.isNull(modifiedIndex) ? 0 : cursor.getLong(modifiedIndex)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error listing children of " + directoryUri, e);
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+        
+        Log.d(TAG, "Listed " + children.size() + " children in one query: " + directoryUri);
+        return children;
+    }
+    
+    /**
+     * Metadados de um documento filho obtidos via listChildren()
+     */
+    public static class DocumentInfo {
+        private final Uri uri;
+        private final String name;
+        private final long size;
+        private final String mimeType;
+        private final long lastModified;
+        
+        public DocumentInfo(Uri uri, String name, long size, String mimeType, long lastModified) {
+            this.uri = uri;
+            this.name = name;
+            this.size = size;
+            this.mimeType = mimeType;
+            this.lastModified = lastModified;
+        }
+        
+        public Uri getUri() { return uri; }
+        public String getName() { return name; }
+        public long getSize() { return size; }
+        public String getMimeType() { return mimeType; }
+        public long getLastModified() { return lastModified; }
+        
+        public boolean isDirectory() {
+            return DocumentsContract.Document.MIME_TYPE_DIR.equals(mimeType);
+        }
+        
+        public boolean isFile() {
+            return !isDirectory() && mimeType != null && !mimeType.isEmpty();
+        }
+    }
+    
     /**
      * Obtém o caminho de exibição para o usuário
      */